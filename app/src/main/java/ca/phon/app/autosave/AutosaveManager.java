@@ -15,15 +15,22 @@
  */
 package ca.phon.app.autosave;
 
-import ca.phon.app.session.editor.SessionEditor;
+import ca.phon.app.session.editor.*;
+import ca.phon.app.session.editor.undo.*;
+import ca.phon.app.session.editor.view.syllabification_and_alignment.SyllabificationAlignmentEditorView;
 import ca.phon.project.Project;
-import ca.phon.session.Session;
+import ca.phon.session.Record;
+import ca.phon.session.*;
 import ca.phon.ui.CommonModuleFrame;
+import ca.phon.util.PrefHelper;
 
+import javax.swing.Timer;
 import javax.swing.*;
+import javax.swing.undo.*;
 import java.awt.event.*;
 import java.io.IOException;
-import java.util.Calendar;
+import java.util.List;
+import java.util.*;
 
 /**
  * Handles timer and performs actions for autosave of sessions.
@@ -42,6 +49,37 @@ public class AutosaveManager {
 	
 	public static final String AUTOSAVE_PREFIX = "__autosave_";
 	
+	/**
+	 * Record tier changes in a {@link SessionJournal} and write autosave
+	 * snapshots on a background thread.  When <code>false</code> modified
+	 * sessions are written in full on the AWT event thread.
+	 */
+	public static final String JOURNAL_PROP = AutosaveManager.class.getName() + ".journal";
+	
+	public static final boolean DEFAULT_JOURNAL = true;
+	
+	/**
+	 * Number of journal entries after which a new snapshot is written
+	 */
+	public static final String COMPACT_SIZE_PROP = AutosaveManager.class.getName() + ".compactSize";
+	
+	public static final int DEFAULT_COMPACT_SIZE = 1000;
+	
+	/**
+	 * Editor events for changes which are not journaled
+	 */
+	private final static List<EditorEventType<?>> SNAPSHOT_EVENTS = List.of(
+			EditorEventType.EditorReloadFromDisk, EditorEventType.SessionChanged,
+			EditorEventType.SessionDateChanged, EditorEventType.SessionLangChanged,
+			EditorEventType.SessionMediaChanged, EditorEventType.TierViewChanged,
+			EditorEventType.ParticipantAdded, EditorEventType.ParticipantRemoved,
+			EditorEventType.ParticipantChanged, EditorEventType.RecordAdded,
+			EditorEventType.RecordDeleted, EditorEventType.RecordMoved,
+			EditorEventType.RecordRefresh, EditorEventType.SpeakerChanged,
+			EditorEventType.RecordExcludedChanged, EditorEventType.GroupListChange,
+			SyllabificationAlignmentEditorView.ScEdit,
+			new EditorEventType<>(EditorEventName.MODIFICATION_EVENT.getEventName(), Void.class));
+	
 	/**
 	 * Default interval (seconds)
 	 */
@@ -62,6 +100,11 @@ public class AutosaveManager {
 	 */
 	private static AutosaveManager _instance;
 	
+	/**
+	 * Journals for open editors, only accessed on the AWT event thread
+	 */
+	private final Map<SessionEditor, SessionJournal> journals = new WeakHashMap<>();
+	
 	/*
 	 * Get the shared instance
 	 */
@@ -117,6 +160,69 @@ public class AutosaveManager {
 	}
 	
 	
+	/**
+	 * Create journal for the given editor.  Tier changes are recorded from
+	 * {@link EditorEventType#TierChange} events which are fired by {@link TierEdit}
+	 * when edits are done, undone and redone.  Other changes invalidate the
+	 * journal until the next snapshot.
+	 */
+	private SessionJournal createJournal(SessionEditor editor, Autosaves autosaves) {
+		final SessionJournal journal = new SessionJournal(autosaves, editor.getSession());
+		final EditorEventManager eventManager = editor.getEventManager();
+		
+		eventManager.registerActionForEvent(EditorEventType.TierChange, (ee) -> {
+			final SessionEditor sessionEditor = eventManager.getEditor();
+			if(sessionEditor == null) return;
+			// blind transcriptions are not stored in tier values
+			if(sessionEditor.getDataModel().getTranscriber() != null) {
+				journal.invalidate();
+				return;
+			}
+			final int recordIndex = findRecord(sessionEditor, ee.data().tier());
+			if(recordIndex < 0) {
+				journal.invalidate();
+			} else {
+				journal.tierChanged(recordIndex, ee.data().tier(), ee.data().group());
+			}
+		}, EditorEventManager.RunOn.AWTEventDispatchThread);
+		for(EditorEventType<?> eventType:SNAPSHOT_EVENTS) {
+			eventManager.registerActionForEvent(eventType, (ee) -> journal.invalidate());
+		}
+		editor.getUndoSupport().addUndoableEditListener( (e) -> {
+			final UndoableEdit edit = e.getEdit();
+			if(edit instanceof BlindTierEdit ||
+					!(edit instanceof SessionEditorUndoableEdit || edit instanceof CompoundEdit)) {
+				journal.invalidate();
+			}
+		});
+		eventManager.registerActionForEvent(EditorEventType.EditorClosing, (ee) -> {
+			journals.remove(editor);
+			journal.close();
+		}, EditorEventManager.RunOn.AWTEventDispatchThread);
+		
+		return journal;
+	}
+	
+	/**
+	 * Find index of the record containing the given tier, the current
+	 * record is checked first.
+	 * 
+	 * @return record index or -1 if not found
+	 */
+	private int findRecord(SessionEditor editor, Tier<?> tier) {
+		final Session session = editor.getSession();
+		final int currentIndex = editor.getCurrentRecordIndex();
+		if(currentIndex >= 0 && currentIndex < session.getRecordCount()
+				&& session.getRecord(currentIndex).getTier(tier.getName()) == tier) {
+			return currentIndex;
+		}
+		for(int i = 0; i < session.getRecordCount(); i++) {
+			final Record record = session.getRecord(i);
+			if(record.getTier(tier.getName()) == tier) return i;
+		}
+		return -1;
+	}
+	
 	/**
 	 * Autosave action
 	 */
@@ -139,16 +245,34 @@ public class AutosaveManager {
 					+ totalMemory + "Kb, " + (usedMemory * 100 / totalMemory)
 					+ "%");
 			
+			final boolean useJournal = PrefHelper.getBoolean(JOURNAL_PROP, DEFAULT_JOURNAL);
+			final int compactSize = PrefHelper.getInt(COMPACT_SIZE_PROP, DEFAULT_COMPACT_SIZE);
+			
 			// find all open sessions
 			for(CommonModuleFrame cmf:CommonModuleFrame.getOpenWindows()) {
 				if(cmf instanceof SessionEditor) {
 					final SessionEditor editor = (SessionEditor)cmf;
+					final Project project = editor.getProject();
+					final Session session = editor.getSession();
+					final Autosaves autosaves = project.getExtension(Autosaves.class);
+					if(autosaves == null) continue;
 					
-					if(editor.hasUnsavedChanges()) {
-						final Project project = editor.getProject();
-						final Session session = editor.getSession();
-						final Autosaves autosaves = project.getExtension(Autosaves.class);
-						
+					if(useJournal) {
+						SessionJournal journal = journals.get(editor);
+						if(journal == null) {
+							journal = createJournal(editor, autosaves);
+							journals.put(editor, journal);
+						}
+						if(editor.hasUnsavedChanges()) {
+							if(!journal.isValid() || journal.getEntryCount() >= compactSize) {
+								LOGGER.info("Writing autosave snapshot for session '" + 
+										session.getCorpus() + "." + session.getName() + "'...");
+								journal.compact();
+							} else {
+								journal.sync();
+							}
+						}
+					} else if(editor.hasUnsavedChanges()) {
 						LOGGER.info("Autosaving session '" + 
 								session.getCorpus() + "." + session.getName() + "'...");
 						
@@ -31,6 +31,8 @@ import java.util.UUID;
  */
 public class Autosaves {
 	
+	private final static org.apache.logging.log4j.Logger LOGGER = org.apache.logging.log4j.LogManager.getLogger(Autosaves.class.getName());
+	
 	/**
 	 * Project reference
 	 */
@@ -60,6 +62,27 @@ public class Autosaves {
 		return autosaveFile.getAbsolutePath();
 	}
 	
+	public String getJournalPath(Session session) {
+		return getJournalPath(session.getCorpus(), session.getName());
+	}
+	
+	/**
+	 * Get the path of the change journal for the given session.
+	 * The journal is replayed onto the autosave when opened.
+	 * 
+	 * @param corpus
+	 * @param session
+	 * 
+	 * @return journal path
+	 * @see SessionJournal
+	 */
+	public String getJournalPath(String corpus, String session) {
+		final File projectFolder = new File(getProject().getLocation());
+		final File corpusFolder = new File(projectFolder, corpus);
+		final File journalFile = new File(corpusFolder, AutosaveManager.AUTOSAVE_PREFIX + session + ".journal");
+		return journalFile.getAbsolutePath();
+	}
+	
 	public boolean hasAutosave(Session session) {
 		return hasAutosave(session.getCorpus(), session.getName());
 	}
@@ -120,7 +143,8 @@ public class Autosaves {
 	}
 	
 	/**
-	 * Open session from autosave file.
+	 * Open session from autosave file.  Changes recorded in the
+	 * session journal are replayed onto the autosave.
 	 * 
 	 * @param corpus
 	 * @param session
@@ -133,6 +157,18 @@ public class Autosaves {
 		
 		Session autosaveSession = getProject().openSession(corpus, autosaveName);
 		autosaveSession.setName(session); // reset name in session object
+		
+		// replay changes made after the autosave was written
+		final File journalFile = new File(getJournalPath(corpus, session));
+		if(journalFile.exists()) {
+			try {
+				final int numEntries = SessionJournal.replay(journalFile, new File(getAutosavePath(corpus, session)), autosaveSession);
+				if(numEntries >= 0)
+					LOGGER.info("Replayed " + numEntries + " journal entries for session '" + corpus + "." + session + "'");
+			} catch (IOException e) {
+				LOGGER.warn(e.getLocalizedMessage(), e);
+			}
+		}
 		return autosaveSession;
 	}
 	
@@ -0,0 +1,525 @@
+/*
+ * Copyright (C) Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.app.autosave;
+
+import ca.phon.extensions.*;
+import ca.phon.formatter.*;
+import ca.phon.ipa.IPATranscript;
+import ca.phon.ipa.alignment.PhoneMap;
+import ca.phon.session.Record;
+import ca.phon.session.*;
+import ca.phon.session.io.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.text.ParseException;
+import java.util.concurrent.*;
+import java.util.zip.CRC32;
+
+/**
+ * <p>Append-only journal of tier changes for a session open in an editor.  The
+ * journal is paired with an autosave snapshot of the session; crash recovery
+ * opens the snapshot and replays the journal.</p>
+ *
+ * <p>File format (big-endian):
+ * <pre>
+ * int      magic 'PHJN'
+ * int      version
+ * long     length of snapshot file
+ * long     CRC32 of snapshot file
+ * entries:
+ *   int    payload length
+ *   long   CRC32 of payload
+ *   byte[] payload: int record, string tier, int group, byte value kind, [string value]
+ * </pre>
+ * Strings are written as an int byte length followed by UTF-8 data.  Replay
+ * stops at the first incomplete or corrupt entry.</p>
+ *
+ * <p>Only tier value changes are journaled.  Any other change (records added,
+ * removed or moved, participants, session header, etc.) invalidates the journal
+ * until the next call to {@link #compact()} writes a new snapshot.  Session data
+ * is copied by the thread which calls {@link #compact()} using
+ * {@link SessionWriter#snapshotSession(Session)}, serialization and all file
+ * operations are performed by a single background thread.  Snapshots are written
+ * to a temporary file and renamed, project session locks are not used.</p>
+ */
+public class SessionJournal {
+
+	private final static org.apache.logging.log4j.Logger LOGGER = org.apache.logging.log4j.LogManager.getLogger(SessionJournal.class.getName());
+
+	public final static int MAGIC = 0x50484a4e; // 'PHJN'
+
+	public final static int VERSION = 1;
+
+	private final static byte VALUE_NULL = 0;
+
+	private final static byte VALUE_TEXT = 1;
+
+	private final static byte VALUE_UNVALIDATED = 2;
+
+	/* Size of journal header in bytes */
+	private final static int HEADER_SIZE = 24;
+
+	/* Size of entry header in bytes */
+	private final static int ENTRY_HEADER_SIZE = 12;
+
+	private final Session session;
+
+	private final File snapshotFile;
+
+	private final File journalFile;
+
+	private final ExecutorService executor;
+
+	private final Object lock = new Object();
+
+	/* Number of changes which cannot be journaled */
+	private long modCount = 0L;
+
+	/* Is the journal on disk paired with the current snapshot */
+	private volatile boolean valid = false;
+
+	private volatile int entryCount = 0;
+
+	private DataOutputStream out;
+
+	private FileOutputStream fileOut;
+
+	/**
+	 * Constructor
+	 *
+	 * @param autosaves
+	 * @param session
+	 */
+	public SessionJournal(Autosaves autosaves, Session session) {
+		this(session, new File(autosaves.getAutosavePath(session)), new File(autosaves.getJournalPath(session)));
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param session
+	 * @param snapshotFile
+	 * @param journalFile
+	 */
+	public SessionJournal(Session session, File snapshotFile, File journalFile) {
+		super();
+		this.session = session;
+		this.snapshotFile = snapshotFile;
+		this.journalFile = journalFile;
+		final String threadName = "Autosave (" + session.getCorpus() + "." + session.getName() + ")";
+		this.executor = Executors.newSingleThreadExecutor( (r) -> {
+			final Thread thread = new Thread(r, threadName);
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	public Session getSession() {
+		return this.session;
+	}
+
+	/**
+	 * Is the journal paired with a snapshot of the session.  If <code>false</code>
+	 * tier changes are not recorded until the next compaction.
+	 *
+	 * @return <code>true</code> if journal is valid
+	 */
+	public boolean isValid() {
+		return this.valid;
+	}
+
+	/**
+	 * Number of entries in the journal since the last snapshot
+	 *
+	 * @return number of entries
+	 */
+	public int getEntryCount() {
+		return this.entryCount;
+	}
+
+	/**
+	 * Record a change to the value of a tier group.  The value is formatted on
+	 * the calling thread and written by the journal thread.  Entries are dropped
+	 * by the journal thread while the journal is invalid, these changes will be
+	 * included in the next snapshot.  If the value cannot be formatted the
+	 * journal is invalidated.
+	 *
+	 * @param recordIndex
+	 * @param tier
+	 * @param groupIndex
+	 */
+	public void tierChanged(int recordIndex, Tier<?> tier, int groupIndex) {
+		if(executor.isShutdown()) return;
+
+		final Object value = (groupIndex < tier.numberOfGroups() ? tier.getGroup(groupIndex) : null);
+		byte valueKind = VALUE_NULL;
+		String text = null;
+		if(value != null) {
+			final UnvalidatedValue uv =
+					(value instanceof IExtendable ? ((IExtendable)value).getExtension(UnvalidatedValue.class) : null);
+			if(uv != null) {
+				valueKind = VALUE_UNVALIDATED;
+				text = uv.getValue();
+			} else {
+				text = formatValue(value);
+				if(text == null) {
+					invalidate();
+					return;
+				}
+				valueKind = VALUE_TEXT;
+			}
+		}
+
+		final byte[] payload = encodeEntry(recordIndex, tier.getName(), groupIndex, valueKind, text);
+		executor.execute( () -> appendEntry(payload) );
+	}
+
+	/**
+	 * Invalidate the journal.  Called for changes which cannot be journaled,
+	 * a new snapshot is required before any further tier changes are recorded.
+	 */
+	public void invalidate() {
+		synchronized(lock) {
+			++modCount;
+			valid = false;
+		}
+	}
+
+	/**
+	 * Copy session data and write the new snapshot and journal header on
+	 * the journal thread.  Must be called on the thread which modifies the
+	 * session (i.e., the AWT event thread.)  Tier changes recorded after this
+	 * call are written to the new journal.
+	 *
+	 * @return future for the compaction task, value is <code>true</code> if
+	 *  a new snapshot was written
+	 */
+	public Future<Boolean> compact() {
+		if(executor.isShutdown()) return CompletableFuture.completedFuture(false);
+
+		final long snapshotModCount;
+		synchronized(lock) {
+			snapshotModCount = modCount;
+		}
+		final SessionWriter.Snapshot snapshot;
+		try {
+			snapshot = (new SessionOutputFactory()).createWriter().snapshotSession(session);
+		} catch (IOException e) {
+			LOGGER.warn(e.getLocalizedMessage(), e);
+			return CompletableFuture.completedFuture(false);
+		}
+		return executor.submit( () -> compactNow(snapshot, snapshotModCount) );
+	}
+
+	/**
+	 * Flush journal entries to the storage device on the journal thread.
+	 */
+	public void sync() {
+		if(executor.isShutdown()) return;
+		executor.execute( () -> {
+			if(fileOut == null) return;
+			try {
+				out.flush();
+				fileOut.getFD().sync();
+			} catch (IOException e) {
+				LOGGER.warn(e.getLocalizedMessage(), e);
+			}
+		});
+	}
+
+	/**
+	 * Close the journal after all pending entries have been written.
+	 * Journal and snapshot files are kept.
+	 *
+	 * @return future which completes when the journal is closed
+	 */
+	public Future<?> close() {
+		if(executor.isShutdown()) return CompletableFuture.completedFuture(null);
+		final Future<?> retVal = executor.submit( () -> closeStream() );
+		executor.shutdown();
+		return retVal;
+	}
+
+	private boolean compactNow(SessionWriter.Snapshot sessionSnapshot, long snapshotModCount) throws IOException {
+		final ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		sessionSnapshot.writeSnapshot(bout);
+		final byte[] snapshot = bout.toByteArray();
+
+		final CRC32 crc = new CRC32();
+		crc.update(snapshot);
+
+		closeStream();
+		try {
+			writeSnapshot(snapshot);
+
+			fileOut = new FileOutputStream(journalFile);
+			out = new DataOutputStream(new BufferedOutputStream(fileOut));
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(snapshot.length);
+			out.writeLong(crc.getValue());
+			out.flush();
+			fileOut.getFD().sync();
+		} catch (IOException e) {
+			closeStream();
+			invalidate();
+			throw e;
+		}
+
+		entryCount = 0;
+		synchronized(lock) {
+			valid = (modCount == snapshotModCount);
+		}
+		return true;
+	}
+
+	private void writeSnapshot(byte[] snapshot) throws IOException {
+		final File tempFile = File.createTempFile("." + snapshotFile.getName() + "-", ".tmp", snapshotFile.getParentFile());
+		try {
+			try(FileOutputStream fOut = new FileOutputStream(tempFile)) {
+				fOut.write(snapshot);
+				fOut.getFD().sync();
+			}
+			try {
+				Files.move(tempFile.toPath(), snapshotFile.toPath(),
+						StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(tempFile.toPath());
+		}
+	}
+
+	private void appendEntry(byte[] payload) {
+		if(!valid || out == null) return;
+		final CRC32 crc = new CRC32();
+		crc.update(payload);
+		try {
+			out.writeInt(payload.length);
+			out.writeLong(crc.getValue());
+			out.write(payload);
+			out.flush();
+			++entryCount;
+		} catch (IOException e) {
+			LOGGER.warn(e.getLocalizedMessage(), e);
+			invalidate();
+		}
+	}
+
+	private void closeStream() {
+		if(out == null) return;
+		try {
+			out.close();
+		} catch (IOException e) {
+			LOGGER.warn(e.getLocalizedMessage(), e);
+		}
+		out = null;
+		fileOut = null;
+	}
+
+	/**
+	 * Format value, <code>null</code> if the value cannot be parsed back from text
+	 */
+	private static String formatValue(Object value) {
+		if(value instanceof IPATranscript) {
+			// keep syllabification
+			return ((IPATranscript)value).toString(true);
+		} else if(value instanceof PhoneMap) {
+			return ((PhoneMap)value).toString();
+		} else {
+			@SuppressWarnings("unchecked")
+			final Formatter<Object> formatter = (Formatter<Object>)FormatterFactory.createFormatter(value.getClass());
+			return (formatter != null ? formatter.format(value) : null);
+		}
+	}
+
+	private static Object parseValue(Record record, Tier<?> tier, int groupIndex, String text) throws ParseException {
+		final Class<?> type = tier.getDeclaredType();
+		if(type == IPATranscript.class) {
+			return IPATranscript.parseIPATranscript(text);
+		} else if(type == PhoneMap.class) {
+			if(groupIndex >= record.numberOfGroups()) return null;
+			final Group group = record.getGroup(groupIndex);
+			try {
+				return PhoneMap.fromString(group.getIPATarget(), group.getIPAActual(), text);
+			} catch (IllegalArgumentException e) {
+				throw new ParseException(text, 0);
+			}
+		} else {
+			@SuppressWarnings("unchecked")
+			final Formatter<Object> formatter = (Formatter<Object>)FormatterFactory.createFormatter(type);
+			if(formatter == null) throw new ParseException(text, 0);
+			return formatter.parse(text);
+		}
+	}
+
+	private static Object createUnvalidatedValue(Tier<?> tier, String text) {
+		try {
+			final Object retVal = tier.getDeclaredType().getDeclaredConstructor().newInstance();
+			if(!(retVal instanceof IExtendable)) return null;
+			((IExtendable)retVal).putExtension(UnvalidatedValue.class, new UnvalidatedValue(text));
+			return retVal;
+		} catch (ReflectiveOperationException e) {
+			return null;
+		}
+	}
+
+	private static byte[] encodeEntry(int recordIndex, String tierName, int groupIndex, byte valueKind, String text) {
+		final ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		try(DataOutputStream dout = new DataOutputStream(bout)) {
+			dout.writeInt(recordIndex);
+			writeString(dout, tierName);
+			dout.writeInt(groupIndex);
+			dout.writeByte(valueKind);
+			if(valueKind != VALUE_NULL)
+				writeString(dout, text);
+		} catch (IOException e) {
+			// not possible with byte array stream
+			throw new UncheckedIOException(e);
+		}
+		return bout.toByteArray();
+	}
+
+	private static void writeString(DataOutputStream out, String str) throws IOException {
+		final byte[] data = str.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(data.length);
+		out.write(data);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		final int len = in.readInt();
+		if(len < 0 || len > in.available())
+			throw new IOException("Invalid string length " + len);
+		final byte[] data = new byte[len];
+		in.readFully(data);
+		return new String(data, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Compute the length and CRC32 of the given file
+	 */
+	private static long[] checksum(File file) throws IOException {
+		final CRC32 crc = new CRC32();
+		long length = 0L;
+		try(InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+			final byte[] buffer = new byte[8192];
+			int read = -1;
+			while((read = in.read(buffer)) > 0) {
+				crc.update(buffer, 0, read);
+				length += read;
+			}
+		}
+		return new long[] { length, crc.getValue() };
+	}
+
+	/**
+	 * Replay journal entries onto a session read from the given snapshot file.
+	 * Entries are only applied if the journal was started for the snapshot.
+	 *
+	 * @param journalFile
+	 * @param snapshotFile
+	 * @param session
+	 *
+	 * @return number of entries applied, -1 if the journal does not belong to the snapshot
+	 * @throws IOException if the journal header could not be read
+	 */
+	@SuppressWarnings("unchecked")
+	public static int replay(File journalFile, File snapshotFile, Session session) throws IOException {
+		try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile)))) {
+			if(in.readInt() != MAGIC) throw new IOException("Not a session journal " + journalFile.getAbsolutePath());
+			final int version = in.readInt();
+			if(version != VERSION) throw new IOException("Unsupported journal version " + version);
+
+			final long snapshotLength = in.readLong();
+			final long snapshotCrc = in.readLong();
+			final long[] checksum = checksum(snapshotFile);
+			if(checksum[0] != snapshotLength || checksum[1] != snapshotCrc) {
+				LOGGER.info("Journal " + journalFile.getAbsolutePath() + " does not match snapshot, ignoring");
+				return -1;
+			}
+
+			int retVal = 0;
+			long remaining = journalFile.length() - HEADER_SIZE;
+			while(remaining >= ENTRY_HEADER_SIZE) {
+				final int len = in.readInt();
+				final long crc = in.readLong();
+				remaining -= ENTRY_HEADER_SIZE;
+				if(len < 0 || len > remaining) {
+					// incomplete or corrupt entry
+					LOGGER.warn("Incomplete journal entry in " + journalFile.getAbsolutePath());
+					break;
+				}
+				final byte[] payload = new byte[len];
+				in.readFully(payload);
+				remaining -= len;
+
+				final CRC32 entryCrc = new CRC32();
+				entryCrc.update(payload);
+				if(entryCrc.getValue() != crc) {
+					LOGGER.warn("Corrupt journal entry in " + journalFile.getAbsolutePath());
+					break;
+				}
+
+				final DataInputStream entryIn = new DataInputStream(new ByteArrayInputStream(payload));
+				final int recordIndex;
+				final String tierName;
+				final int groupIndex;
+				final byte valueKind;
+				final String text;
+				try {
+					recordIndex = entryIn.readInt();
+					tierName = readString(entryIn);
+					groupIndex = entryIn.readInt();
+					valueKind = entryIn.readByte();
+					text = (valueKind != VALUE_NULL ? readString(entryIn) : null);
+				} catch (IOException e) {
+					LOGGER.warn("Corrupt journal entry in " + journalFile.getAbsolutePath(), e);
+					break;
+				}
+				if(groupIndex < 0) continue;
+
+				if(recordIndex < 0 || recordIndex >= session.getRecordCount()) continue;
+				final Record record = session.getRecord(recordIndex);
+				final Tier<Object> tier = (Tier<Object>)record.getTier(tierName);
+				if(tier == null) continue;
+
+				Object value = null;
+				if(valueKind == VALUE_TEXT) {
+					try {
+						value = parseValue(record, tier, groupIndex, text);
+					} catch (ParseException e) {
+						value = createUnvalidatedValue(tier, text);
+					}
+				} else if(valueKind == VALUE_UNVALIDATED) {
+					value = createUnvalidatedValue(tier, text);
+				}
+
+				if(groupIndex < tier.numberOfGroups()) {
+					tier.setGroup(groupIndex, value);
+				} else {
+					while(tier.numberOfGroups() < groupIndex) tier.addGroup();
+					tier.addGroup(value);
+				}
+				++retVal;
+			}
+			return retVal;
+		}
+	}
+
+}
@@ -28,10 +28,31 @@ import java.util.regex.*;
  */
 public class OrthoLookupVisitor extends VisitorAdapter<OrthoElement> {
 	
+	private final static Pattern TRAILING_PUNCT_PATTERN = Pattern.compile(".+(\\p{Punct}+)");
+	
 	private final IPADictionary dictionary;
 	
+	/**
+	 * Resolved lookups, may be <code>null</code>
+	 */
+	private final Map<String, String[]> lookupTable;
+	
 	public OrthoLookupVisitor(IPADictionary dict) {
+		this(dict, null);
+	}
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param dict
+	 * @param lookupTable lookups already resolved using dict (e.g., by
+	 *  {@link SessionAutoTranscriber#resolveWordTypes(Collection)}), keyed by
+	 *  {@link #lookupText(String)}.  Values not found in the table are
+	 *  looked up using dict.
+	 */
+	public OrthoLookupVisitor(IPADictionary dict, Map<String, String[]> lookupTable) {
 		this.dictionary = dict;
+		this.lookupTable = lookupTable;
 	}
 	
 	@Override
@@ -76,9 +97,8 @@ public class OrthoLookupVisitor extends VisitorAdapter<OrthoElement> {
 	}
 	
 	
-	private String stripTrailingPunctuation(String ortho) {
-		final Pattern p = Pattern.compile(".+(\\p{Punct}+)");
-		final Matcher m = p.matcher(ortho);
+	private static String stripTrailingPunctuation(String ortho) {
+		final Matcher m = TRAILING_PUNCT_PATTERN.matcher(ortho);
 		
 		if(m.matches()) {
 			int pIdx = m.start(1);
@@ -88,9 +108,25 @@ public class OrthoLookupVisitor extends VisitorAdapter<OrthoElement> {
 		}
 	}
 	
+	/**
+	 * Text used for dictionary lookup of the given word.
+	 * 
+	 * @param text
+	 * @return lookup text or <code>null</code> if the word
+	 *  is not looked up (e.g., 'xxx')
+	 */
+	public static String lookupText(String text) {
+		if("xxx".contentEquals(text) || "yyy".contentEquals(text)
+				|| "www".contentEquals(text) || "*".contentEquals(text)) {
+			return null;
+		}
+		return stripTrailingPunctuation(text);
+	}
+	
 	private String[] lookup(String ortho) {
-		ortho = stripTrailingPunctuation(ortho);
-		String[] retVal = dictionary.lookup(ortho);
+		String[] retVal = (lookupTable != null ? lookupTable.get(ortho) : null);
+		if(retVal == null)
+			retVal = dictionary.lookup(ortho);
 		if(retVal.length == 0)
 			retVal = new String[]{ "*" };
 		return retVal;
@@ -113,12 +149,13 @@ public class OrthoLookupVisitor extends VisitorAdapter<OrthoElement> {
 		if(ext == null || ext.getDictLang() != dictionary.getLanguage()) {
 			String text = word.getWord();
 			
+			final String lookupText = lookupText(text);
+			
 			String opts[];
-			if("xxx".contentEquals(text) || "yyy".contentEquals(text)
-					|| "www".contains(text) || "*".contentEquals(text)) {
+			if(lookupText == null) {
 				opts = new String[] { "*" };
 			} else {
-				opts = lookup(text);
+				opts = lookup(lookupText);
 			}
 			
 			ext = new OrthoWordIPAOptions(opts);
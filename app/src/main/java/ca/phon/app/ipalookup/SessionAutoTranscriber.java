@@ -0,0 +1,372 @@
+/*
+ * Copyright (C) Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.app.ipalookup;
+
+import ca.phon.extensions.UnvalidatedValue;
+import ca.phon.ipa.*;
+import ca.phon.ipa.alignment.*;
+import ca.phon.ipadictionary.IPADictionary;
+import ca.phon.orthography.*;
+import ca.phon.session.Record;
+import ca.phon.session.*;
+import ca.phon.session.filter.RecordFilter;
+import ca.phon.syllabifier.Syllabifier;
+import ca.phon.util.PrefHelper;
+import ca.phon.util.Tuple;
+import ca.phon.visitor.VisitorAdapter;
+import ca.phon.visitor.annotation.Visits;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Automatic transcription of sessions without a session editor.  The distinct
+ * orthographic word types of a session are collected and looked up once using
+ * {@link IPADictionary#lookupAll(Collection)}, lookups are divided among a pool
+ * of threads.  IPA tiers are then filled record by record.</p>
+ *
+ * <p>Resolved word types are kept between calls to {@link #transcribeSession(Session)},
+ * an instance may be used to transcribe several sessions with the same dictionary.
+ * Instances should not be used by more than one thread at a time.</p>
+ */
+public class SessionAutoTranscriber {
+
+	private final static org.apache.logging.log4j.Logger LOGGER = org.apache.logging.log4j.LogManager.getLogger(SessionAutoTranscriber.class.getName());
+
+	public final static String NUM_THREADS_PROP = SessionAutoTranscriber.class.getName() + ".numThreads";
+	public final static int DEFAULT_NUM_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+	/* Number of word types in each lookup task */
+	private final static int LOOKUP_CHUNK_SIZE = 256;
+
+	private final IPADictionary dictionary;
+
+	private Syllabifier syllabifier;
+
+	private boolean setIPATarget = true;
+
+	private boolean setIPAActual = true;
+
+	private boolean overwrite = true;
+
+	private RecordFilter recordFilter = null;
+
+	private int numThreads = PrefHelper.getInt(NUM_THREADS_PROP, DEFAULT_NUM_THREADS);
+
+	private final Map<String, String[]> lookupTable = new ConcurrentHashMap<>();
+
+	private final AtomicLong wordCount = new AtomicLong(0L);
+
+	public SessionAutoTranscriber(IPADictionary dictionary) {
+		super();
+		this.dictionary = dictionary;
+	}
+
+	public IPADictionary getDictionary() {
+		return this.dictionary;
+	}
+
+	public Syllabifier getSyllabifier() {
+		return syllabifier;
+	}
+
+	public void setSyllabifier(Syllabifier syllabifier) {
+		this.syllabifier = syllabifier;
+	}
+
+	public boolean isSetIPATarget() {
+		return setIPATarget;
+	}
+
+	public void setSetIPATarget(boolean setIPATarget) {
+		this.setIPATarget = setIPATarget;
+	}
+
+	public boolean isSetIPAActual() {
+		return setIPAActual;
+	}
+
+	public void setSetIPAActual(boolean setIPAActual) {
+		this.setIPAActual = setIPAActual;
+	}
+
+	public boolean isOverwrite() {
+		return overwrite;
+	}
+
+	public void setOverwrite(boolean overwrite) {
+		this.overwrite = overwrite;
+	}
+
+	public RecordFilter getRecordFilter() {
+		return recordFilter;
+	}
+
+	public void setRecordFilter(RecordFilter recordFilter) {
+		this.recordFilter = recordFilter;
+	}
+
+	public int getNumThreads() {
+		return this.numThreads;
+	}
+
+	public void setNumThreads(int numThreads) {
+		if(numThreads < 1) throw new IllegalArgumentException("Invalid number of threads " + numThreads);
+		this.numThreads = numThreads;
+	}
+
+	/**
+	 * Number of orthographic words transcribed
+	 *
+	 * @return word count
+	 */
+	public long getWordCount() {
+		return wordCount.get();
+	}
+
+	private boolean checkRecord(Record record) {
+		return (getRecordFilter() != null ? getRecordFilter().checkRecord(record) : true);
+	}
+
+	/**
+	 * Collect distinct word types (as returned by {@link OrthoLookupVisitor#lookupText(String)})
+	 * for all records of the session accepted by the record filter.
+	 *
+	 * @param session
+	 * @return set of word types
+	 */
+	public Set<String> collectWordTypes(Session session) {
+		final WordTypeCollector collector = new WordTypeCollector();
+		for(Record record:session.getRecords()) {
+			if(!checkRecord(record)) continue;
+			for(int gIdx = 0; gIdx < record.numberOfGroups(); gIdx++) {
+				final Group group = record.getGroup(gIdx);
+				for(int wIdx = 0; wIdx < group.getWordCount(SystemTierType.Orthography.getName()); wIdx++) {
+					final OrthoElement orthoEle = group.getAlignedWord(wIdx).getOrthography();
+					if(orthoEle != null) {
+						collector.visit(orthoEle);
+					}
+				}
+			}
+		}
+		return collector.wordTypes;
+	}
+
+	/**
+	 * Lookup the given word types.  Word types which have not been
+	 * resolved by a previous call are looked up in chunks of
+	 * 256 using {@link #getNumThreads()} threads.
+	 *
+	 * @param wordTypes
+	 * @return unmodifiable map of all resolved word types
+	 */
+	public Map<String, String[]> resolveWordTypes(Collection<String> wordTypes) {
+		final List<String> unresolved = new ArrayList<>();
+		for(String wordType:wordTypes) {
+			if(!lookupTable.containsKey(wordType)) {
+				unresolved.add(wordType);
+			}
+		}
+
+		final List<List<String>> chunks = new ArrayList<>();
+		for(int i = 0; i < unresolved.size(); i += LOOKUP_CHUNK_SIZE) {
+			chunks.add(unresolved.subList(i, Math.min(unresolved.size(), i + LOOKUP_CHUNK_SIZE)));
+		}
+
+		final int poolSize = Math.min(numThreads, chunks.size());
+		if(poolSize <= 1) {
+			for(List<String> chunk:chunks) {
+				lookupTable.putAll(getDictionary().lookupAll(chunk));
+			}
+		} else {
+			final ExecutorService executor = Executors.newFixedThreadPool(poolSize, (r) -> {
+				final Thread thread = new Thread(r, "Automatic transcription");
+				thread.setDaemon(true);
+				return thread;
+			});
+			try {
+				final List<Future<Map<String, String[]>>> futures = new ArrayList<>();
+				for(List<String> chunk:chunks) {
+					futures.add(executor.submit(() -> getDictionary().lookupAll(chunk)));
+				}
+				for(Future<Map<String, String[]>> future:futures) {
+					lookupTable.putAll(future.get());
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				// unresolved words will be looked up during transcription
+				LOGGER.warn(e.getLocalizedMessage(), e);
+			} finally {
+				executor.shutdownNow();
+			}
+		}
+
+		return Collections.unmodifiableMap(lookupTable);
+	}
+
+	/**
+	 * Transcribe all records of the session accepted by the record filter.
+	 *
+	 * @param session
+	 * @return number of groups modified
+	 */
+	public int transcribeSession(Session session) {
+		resolveWordTypes(collectWordTypes(session));
+
+		final OrthoLookupVisitor visitor = new OrthoLookupVisitor(getDictionary(), lookupTable);
+		final PhoneAligner aligner = new PhoneAligner();
+		int retVal = 0;
+		for(Record record:session.getRecords()) {
+			if(!checkRecord(record)) continue;
+			for(int gIdx = 0; gIdx < record.numberOfGroups(); gIdx++) {
+				if(updateGroup(record.getGroup(gIdx), visitor, aligner)) {
+					++retVal;
+				}
+			}
+		}
+		return retVal;
+	}
+
+	private boolean isUnset(IPATranscript t) {
+		boolean isEmpty = (t == null || t.length() == 0 || t.matches("\\*+"));
+		return isEmpty;
+	}
+
+	private boolean isUnvalidated(IPATranscript t) {
+		final UnvalidatedValue uv = (t != null ? t.getExtension(UnvalidatedValue.class) : null);
+		return (uv != null && uv.getValue().length() > 0);
+	}
+
+	/**
+	 * Transcribe the given group.  The group is not modified.
+	 *
+	 * @param group
+	 *
+	 * @return tuple containing the automatic transcription for IPA Target
+	 *  and IPA Actual respectively, a value is <code>null</code> if the tier
+	 *  should not be changed
+	 */
+	public Tuple<IPATranscript, IPATranscript> transcribeGroup(Group group) {
+		return transcribeGroup(group, new OrthoLookupVisitor(getDictionary(), lookupTable));
+	}
+
+	private Tuple<IPATranscript, IPATranscript> transcribeGroup(Group group, OrthoLookupVisitor visitor) {
+		final IPATranscriptBuilder ipaTBuilder = new IPATranscriptBuilder();
+		final IPATranscriptBuilder ipaABuilder = new IPATranscriptBuilder();
+
+		final int numWords = group.getWordCount(SystemTierType.Orthography.getName());
+		for(int i = 0; i < numWords; i++) {
+			final OrthoElement orthoEle = group.getAlignedWord(i).getOrthography();
+			if(orthoEle == null) continue;
+			visitor.visit(orthoEle);
+			final OrthoWordIPAOptions ipaExt =
+					orthoEle.getExtension(OrthoWordIPAOptions.class);
+			if(ipaExt == null) continue;
+
+			final List<String> ipaOpts = ipaExt.getOptions();
+			final int selectedOption =
+					(ipaExt.getSelectedOption() >= 0 && ipaExt.getSelectedOption() < ipaOpts.size() ?
+							ipaExt.getSelectedOption() : 0);
+
+			if(ipaOpts.size() > 0) {
+				if(ipaTBuilder.size() > 0) ipaTBuilder.appendWordBoundary();
+				if(ipaABuilder.size() > 0) ipaABuilder.appendWordBoundary();
+
+				ipaTBuilder.append(ipaOpts.get(selectedOption));
+				ipaABuilder.append(ipaOpts.get(selectedOption));
+			} else {
+				ipaTBuilder.append("*");
+				ipaABuilder.append("*");
+			}
+		}
+		wordCount.addAndGet(numWords);
+
+		final IPATranscript currentTarget = group.getIPATarget();
+		final IPATranscript currentActual = group.getIPAActual();
+		final IPATranscript ipaT =
+				(isSetIPATarget() && ((isUnset(currentTarget) && !isUnvalidated(currentTarget)) || isOverwrite())
+						? createTranscript(ipaTBuilder) : null);
+		final IPATranscript ipaA =
+				(isSetIPAActual() && ((isUnset(currentActual) && !isUnvalidated(currentActual)) || isOverwrite())
+						? createTranscript(ipaABuilder) : null);
+		return new Tuple<IPATranscript, IPATranscript>(ipaT, ipaA);
+	}
+
+	private IPATranscript createTranscript(IPATranscriptBuilder builder) {
+		final IPATranscript ipa = builder.toIPATranscript();
+		if(getSyllabifier() != null) {
+			getSyllabifier().syllabify(ipa.toList());
+		}
+		return ipa;
+	}
+
+	private boolean updateGroup(Group group, OrthoLookupVisitor visitor, PhoneAligner aligner) {
+		final Tuple<IPATranscript, IPATranscript> autoTranscription = transcribeGroup(group, visitor);
+		if(autoTranscription.getObj1() != null) {
+			group.setIPATarget(keepAlternatives(group.getIPATarget(), autoTranscription.getObj1()));
+		}
+		if(autoTranscription.getObj2() != null) {
+			group.setIPAActual(keepAlternatives(group.getIPAActual(), autoTranscription.getObj2()));
+		}
+
+		final boolean changed = (autoTranscription.getObj1() != null || autoTranscription.getObj2() != null);
+		if(changed) {
+			group.setPhoneAlignment(aligner.calculatePhoneAlignment(group.getIPATarget(), group.getIPAActual()));
+		}
+		return changed;
+	}
+
+	/**
+	 * Copy blind transcriptions from the current value to the new value.
+	 *
+	 * @param currentValue
+	 * @param newValue
+	 * @return newValue
+	 */
+	public static IPATranscript keepAlternatives(IPATranscript currentValue, IPATranscript newValue) {
+		final AlternativeTranscript alts =
+				(currentValue != null ? currentValue.getExtension(AlternativeTranscript.class) : null);
+		if(alts != null) newValue.putExtension(AlternativeTranscript.class, alts);
+		return newValue;
+	}
+
+	private final static class WordTypeCollector extends VisitorAdapter<OrthoElement> {
+
+		private final Set<String> wordTypes = new LinkedHashSet<>();
+
+		@Override
+		public void fallbackVisit(OrthoElement obj) {
+		}
+
+		@Visits
+		public void visitWord(OrthoWord word) {
+			final String lookupText = OrthoLookupVisitor.lookupText(word.getWord());
+			if(lookupText != null) {
+				wordTypes.add(lookupText);
+			}
+		}
+
+		@Visits
+		public void visitWordnet(OrthoWordnet wordnet) {
+			visitWord(wordnet.getWord1());
+			visitWord(wordnet.getWord2());
+		}
+
+	}
+
+}
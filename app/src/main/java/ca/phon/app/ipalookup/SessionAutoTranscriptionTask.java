@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.app.ipalookup;
+
+import ca.phon.project.*;
+import ca.phon.session.*;
+
+import java.util.*;
+
+/**
+ * <p>Automatic transcription of a set of sessions in a project using a
+ * {@link SessionAutoTranscriber}.  Word types are looked up once for all
+ * sessions.  Sessions are processed one at a time, the transcriber divides
+ * dictionary lookups among its own threads.  The transcriber's syllabifier,
+ * which is not thread safe, is only called from the single session worker.
+ * See {@link SessionBatchTask} for locking and progress.</p>
+ */
+public class SessionAutoTranscriptionTask extends SessionBatchTask {
+
+	private final SessionAutoTranscriber transcriber;
+
+	/**
+	 * Constructor
+	 *
+	 * @param project
+	 * @param sessionPaths
+	 * @param transcriber
+	 */
+	public SessionAutoTranscriptionTask(Project project, Collection<SessionPath> sessionPaths,
+			SessionAutoTranscriber transcriber) {
+		super("Automatic transcription", project, sessionPaths);
+		this.transcriber = transcriber;
+		super.setNumThreads(1);
+	}
+
+	/**
+	 * Sessions are always processed one at a time, transcriber instances
+	 * (and their syllabifier) are not shared between threads.
+	 *
+	 * @param numThreads must be 1
+	 * @throws IllegalArgumentException if numThreads is not 1
+	 */
+	@Override
+	public void setNumThreads(int numThreads) {
+		if(numThreads != 1) throw new IllegalArgumentException("Invalid number of threads " + numThreads);
+		super.setNumThreads(numThreads);
+	}
+
+	public SessionAutoTranscriber getTranscriber() {
+		return this.transcriber;
+	}
+
+	@Override
+	protected boolean processSession(int sessionIndex, SessionPath sessionPath, Session session) {
+		return transcriber.transcribeSession(session) > 0;
+	}
+
+	@Override
+	protected String getStatusText(int numSessions, long elapsed) {
+		final double wordsPerSecond = transcriber.getWordCount() * 1000.0 / elapsed;
+		return String.format("%d/%d sessions, %.1f words/s",
+				numSessions, getSessionPaths().size(), wordsPerSecond);
+	}
+
+}
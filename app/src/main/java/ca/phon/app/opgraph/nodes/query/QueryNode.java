@@ -30,6 +30,7 @@ import ca.phon.query.script.*;
 import ca.phon.script.*;
 import ca.phon.script.params.*;
 import ca.phon.session.*;
+import ca.phon.util.PrefHelper;
 import ca.phon.worker.*;
 import ca.phon.worker.PhonTask.TaskStatus;
 
@@ -40,6 +41,8 @@ import java.io.*;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @OpNodeInfo(
 	category="Query",
@@ -49,6 +52,32 @@ import java.util.*;
 )
 public class QueryNode extends OpNode implements NodeSettings, ScriptNode {
 
+	/**
+	 * Maximum number of sessions queried at the same time.  A value
+	 * of 1 disables parallel execution.
+	 */
+	public final static String MAX_WORKERS_PROP = QueryNode.class.getName() + ".maxWorkers";
+	public final static int DEFAULT_MAX_WORKERS = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Workers shared by all query nodes.  The pool is bounded by the
+	 * maxWorkers preference at startup, idle threads are released.
+	 */
+	private final static ExecutorService queryExecutor = createQueryExecutor();
+
+	private static ExecutorService createQueryExecutor() {
+		final int poolSize = Math.max(1, PrefHelper.getInt(MAX_WORKERS_PROP, DEFAULT_MAX_WORKERS));
+		final AtomicInteger threadNum = new AtomicInteger(0);
+		final ThreadPoolExecutor retVal = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), (r) -> {
+					final Thread thread = new Thread(r, "QueryNode-worker-" + threadNum.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		retVal.allowCoreThreadTimeOut(true);
+		return retVal;
+	}
+
 	private QueryScript queryScript;
 	
 	private QueryHistoryManager queryHistoryManager;
@@ -221,13 +250,53 @@ public class QueryNode extends OpNode implements NodeSettings, ScriptNode {
 		final List<RecordContainer> recordContainers =
 				RecordContainer.toRecordContainers(project, selectedParticipants, inputObj);
 
+		final int numWorkers = Math.min(recordContainers.size(), PrefHelper.getInt(MAX_WORKERS_PROP, DEFAULT_MAX_WORKERS));
+		final ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+		final ResultSet[] results = query(project, recordContainers, queryScript, numWorkers, isStepInto, bOut);
+
+		// setup outputs
+		opCtx.put(projectOutputField, project);
+		opCtx.put(resultsField, results);
+		opCtx.put(bufferOutputField, new String(bOut.toByteArray()));
+		opCtx.put(queryField, query);
+		opCtx.put(paramsOutputField, allParams);
+		opCtx.put(scriptOutputField, queryScript);
+	}
+
+	/**
+	 * Query sessions.  Sessions are queried in parallel if numWorkers
+	 * is greater than 1 and the first session is not debugged.
+	 *
+	 * @param project
+	 * @param recordContainers
+	 * @param queryScript
+	 * @param numWorkers
+	 * @param isStepInto
+	 * @param bOut receives text output from the query script
+	 *
+	 * @return result sets, one per record container
+	 * @throws ProcessingException
+	 */
+	ResultSet[] query(Project project, List<RecordContainer> recordContainers, QueryScript queryScript,
+			int numWorkers, boolean isStepInto, ByteArrayOutputStream bOut) throws ProcessingException {
 		final ResultSet[] results = new ResultSet[recordContainers.size()];
 
-		final ByteArrayOutputStream bOut = new ByteArrayOutputStream();
 		final PrintStream scriptOutputStream = new PrintStream(bOut);
+		final QueryScriptContext ctx = queryScript.getQueryContext();
 		ctx.redirectStdErr(scriptOutputStream);
 		ctx.redirectStdOut(scriptOutputStream);
 
+		if(!isStepInto && numWorkers > 1) {
+			runParallel(project, recordContainers, queryScript, numWorkers, results, bOut);
+		} else {
+			runSequential(project, recordContainers, queryScript, isStepInto, results);
+		}
+		scriptOutputStream.flush();
+		return results;
+	}
+
+	private void runSequential(Project project, List<RecordContainer> recordContainers, QueryScript queryScript,
+			boolean isStepInto, ResultSet[] results) throws ProcessingException {
 		int serial = 0;
 		Session currentSession = null;
 		QueryTask currentTask = null;
@@ -265,14 +334,203 @@ public class QueryNode extends OpNode implements NodeSettings, ScriptNode {
 			}
 		}
 		firePropertyChange("numCompleted", serial-1, serial);
+	}
+
+	/**
+	 * Query sessions using the shared pool of query workers.  Each worker
+	 * uses a clone of the query script so that script contexts and scopes
+	 * are never shared between threads.  Results and script output are
+	 * reported in session order once each query has completed.  Task events
+	 * are forwarded for the session currently being reported, in the same
+	 * order as when sessions are queried sequentially.
+	 *
+	 * @param project
+	 * @param recordContainers
+	 * @param queryScript
+	 * @param numWorkers
+	 * @param results
+	 * @param bOut
+	 * @throws ProcessingException
+	 */
+	private void runParallel(Project project, List<RecordContainer> recordContainers, QueryScript queryScript,
+			int numWorkers, ResultSet[] results, ByteArrayOutputStream bOut) throws ProcessingException {
+		final int numTasks = recordContainers.size();
+		final List<CompletableFuture<QueryTaskOutput>> outputs = new ArrayList<>();
+		for(int i = 0; i < numTasks; i++) {
+			outputs.add(new CompletableFuture<>());
+		}
+		final ParallelTaskRelay relay = new ParallelTaskRelay(numTasks);
+		final AtomicInteger nextTask = new AtomicInteger(0);
+
+		// scripts are cloned after parameters have been set up
+		final List<Future<?>> workers = new ArrayList<>();
+		for(int i = 0; i < numWorkers; i++) {
+			final QueryScript workerScript = (QueryScript)queryScript.clone();
+			workers.add(queryExecutor.submit(() -> {
+				final QueryScriptContext workerCtx = workerScript.getQueryContext();
+				int taskIndex = 0;
+				while(!relay.isCanceled() && (taskIndex = nextTask.getAndIncrement()) < numTasks) {
+					final CompletableFuture<QueryTaskOutput> output = outputs.get(taskIndex);
+					try {
+						final ByteArrayOutputStream taskOut = new ByteArrayOutputStream();
+						final PrintStream taskStream = new PrintStream(taskOut);
+						workerCtx.redirectStdErr(taskStream);
+						workerCtx.redirectStdOut(taskStream);
+
+						final RecordContainer rc = recordContainers.get(taskIndex);
+						final QueryTask task = new QueryTask(project, rc.getSession(), rc.idxIterator(), workerScript, taskIndex + 1);
+						relay.taskCreated(taskIndex, task);
+						task.run();
+						taskStream.flush();
+
+						output.complete(new QueryTaskOutput(task, taskOut.toByteArray()));
+					} catch (Exception e) {
+						output.completeExceptionally(e);
+					}
+				}
+			}));
+		}
+
+		boolean completed = false;
+		try {
+			for(int i = 0; i < numTasks; i++) {
+				relay.startReporting(i, recordContainers.get(i).getSession());
+
+				QueryTaskOutput taskOutput = null;
+				while(taskOutput == null) {
+					checkCanceled();
+					try {
+						taskOutput = outputs.get(i).get(100, TimeUnit.MILLISECONDS);
+					} catch (TimeoutException e) {
+						// check for cancel and wait again
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new ProcessingException(null, e);
+					} catch (ExecutionException e) {
+						throw new ProcessingException(null, e.getCause());
+					}
+				}
+
+				final QueryTask task = taskOutput.task;
+				firePropertyChange("task", TaskStatus.RUNNING, task.getStatus());
+
+				results[i] = task.getResultSet();
+				bOut.write(taskOutput.output, 0, taskOutput.output.length);
+			}
+			completed = true;
+		} finally {
+			if(!completed) {
+				relay.cancel();
+				workers.forEach( (f) -> f.cancel(true) );
+			}
+		}
+		firePropertyChange("numCompleted", numTasks-1, numTasks);
+	}
+
+	/**
+	 * Forwards events from parallel query tasks.  Events are forwarded only
+	 * for the session currently being reported, events from other tasks
+	 * are dropped.  The final status of each task is reported by
+	 * {@link #runParallel(Project, List, QueryScript, int, ResultSet[], ByteArrayOutputStream)}.
+	 */
+	private final class ParallelTaskRelay {
+
+		private final QueryTask[] tasks;
+
+		private int currentIndex = -1;
+
+		private Session currentSession = null;
+
+		private QueryTask currentTask = null;
+
+		private volatile boolean canceled = false;
+
+		public ParallelTaskRelay(int numTasks) {
+			this.tasks = new QueryTask[numTasks];
+		}
+
+		public boolean isCanceled() {
+			return this.canceled;
+		}
+
+		public void cancel() {
+			canceled = true;
+			final QueryTask[] createdTasks;
+			synchronized(this) {
+				createdTasks = tasks.clone();
+			}
+			for(QueryTask task:createdTasks) {
+				if(task != null) task.shutdown();
+			}
+		}
+
+		public synchronized void taskCreated(int taskIndex, QueryTask task) {
+			tasks[taskIndex] = task;
+			task.addTaskListener(new PhonTaskListener() {
+
+				@Override
+				public void statusChanged(PhonTask task, TaskStatus oldStatus, TaskStatus newStatus) {
+					if(newStatus == TaskStatus.RUNNING) {
+						relay(taskIndex, "task", oldStatus, newStatus);
+					}
+				}
+
+				@Override
+				public void propertyChanged(PhonTask task, String property, Object oldValue, Object newValue) {
+					relay(taskIndex, property, oldValue, newValue);
+				}
+
+			});
+			if(taskIndex == currentIndex) {
+				fireQueryTask(task);
+			}
+		}
+
+		public synchronized void startReporting(int taskIndex, Session session) {
+			currentIndex = taskIndex;
+			firePropertyChange("session", currentSession, session);
+			currentSession = session;
+
+			final QueryTask task = tasks[taskIndex];
+			if(task != null) {
+				fireQueryTask(task);
+				if(task.getStatus() != TaskStatus.WAITING) {
+					firePropertyChange("task", TaskStatus.WAITING, TaskStatus.RUNNING);
+				}
+				final Object progress = task.getProperty(PhonTask.PROGRESS_PROP);
+				if(progress != null) {
+					firePropertyChange(PhonTask.PROGRESS_PROP, null, progress);
+				}
+			}
+		}
+
+		private void fireQueryTask(QueryTask task) {
+			firePropertyChange("queryTask", currentTask, task);
+			currentTask = task;
+		}
+
+		private synchronized void relay(int taskIndex, String property, Object oldValue, Object newValue) {
+			if(taskIndex == currentIndex) {
+				firePropertyChange(property, oldValue, newValue);
+			}
+		}
+
+	}
+
+	/**
+	 * Completed query task and the text output of its script
+	 */
+	private final static class QueryTaskOutput {
+
+		private final QueryTask task;
+
+		private final byte[] output;
+
+		public QueryTaskOutput(QueryTask task, byte[] output) {
+			this.task = task;
+			this.output = output;
+		}
 
-		// setup outputs
-		opCtx.put(projectOutputField, project);
-		opCtx.put(resultsField, results);
-		opCtx.put(bufferOutputField, new String(bOut.toByteArray()));
-		opCtx.put(queryField, query);
-		opCtx.put(paramsOutputField, allParams);
-		opCtx.put(scriptOutputField, queryScript);
 	}
 	
 	@Override
@@ -1487,6 +1487,10 @@ public class ProjectWindow extends CommonModuleFrame {
 
 	@Override
 	public void dispose() {
+		// write pending session index changes
+		if(getProject() instanceof LocalProject) {
+			((LocalProject)getProject()).saveSessionIndex();
+		}
 		super.dispose();
 	}
 
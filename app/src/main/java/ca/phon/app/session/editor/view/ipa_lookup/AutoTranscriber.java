@@ -18,11 +18,9 @@ package ca.phon.app.session.editor.view.ipa_lookup;
 import ca.phon.app.ipalookup.*;
 import ca.phon.app.session.editor.SessionEditor;
 import ca.phon.app.session.editor.undo.*;
-import ca.phon.extensions.UnvalidatedValue;
 import ca.phon.ipa.*;
 import ca.phon.ipa.alignment.*;
 import ca.phon.ipadictionary.IPADictionary;
-import ca.phon.orthography.OrthoElement;
 import ca.phon.session.Record;
 import ca.phon.session.*;
 import ca.phon.session.filter.RecordFilter;
@@ -30,7 +28,6 @@ import ca.phon.syllabifier.Syllabifier;
 import ca.phon.util.Tuple;
 
 import javax.swing.undo.*;
-import java.util.List;
 
 /**
  * Utility for performing automatic IPA transcription for a {@link Record}.
@@ -53,6 +50,9 @@ public class AutoTranscriber {
 	
 	private Transcriber transcriber = null;
 	
+	/* Transcriber with word types resolved by transcribeSession, may be null */
+	private SessionAutoTranscriber sessionTranscriber = null;
+	
 	private final SessionEditor editor;
 	
 	public AutoTranscriber(SessionEditor editor) {
@@ -116,75 +116,18 @@ public class AutoTranscriber {
 		this.syllabifier = syllabifier;
 	}
 
-	private boolean isUnset(IPATranscript t) {
-		boolean isEmpty = (t == null || t.length() == 0 || t.matches("\\*+"));
-		return isEmpty;
-	}
-	
 	public SessionEditor getEditor() {
 		return this.editor;
 	}
 	
-	/**
-	 * Transcribe the given group.
-	 * 
-	 * @param group
-	 * 
-	 * @return tuple of containing the automatic transcription for
-	 *  IPA Target and IPA Actual respectively
-	 */
-	private Tuple<IPATranscript, IPATranscript> transcribeGroup(Group group) {
-		final IPATranscriptBuilder ipaTBuilder = new IPATranscriptBuilder();
-		final IPATranscriptBuilder ipaABuilder = new IPATranscriptBuilder();
-		
-		boolean ipaTUnset = isUnset(group.getIPATarget());
-		boolean ipaTUnvalidated = 
-				(group.getIPATarget().getExtension(UnvalidatedValue.class) != null
-					&& group.getIPATarget().getExtension(UnvalidatedValue.class).getValue().length() > 0);
-		
-		boolean ipaAUnset = isUnset(group.getIPAActual());
-		boolean ipaAUnvalidated = 
-				(group.getIPAActual().getExtension(UnvalidatedValue.class) != null
-					&& group.getIPAActual().getExtension(UnvalidatedValue.class).getValue().length() > 0);
-		
-		for(int i = 0; i < group.getWordCount(SystemTierType.Orthography.getName()); i++) {
-			final Word word = group.getAlignedWord(i);
-			
-			final OrthoElement orthoEle = word.getOrthography();
-			final OrthoLookupVisitor visitor = new OrthoLookupVisitor(getDictionary());
-			visitor.visit(orthoEle);
-			final OrthoWordIPAOptions ipaExt =
-					orthoEle.getExtension(OrthoWordIPAOptions.class);
-			if(ipaExt == null) continue;
-			
-			final List<String> ipaOpts = ipaExt.getOptions();
-			final int selectedOption = 
-					(ipaExt.getSelectedOption() >= 0 && ipaExt.getSelectedOption() < ipaOpts.size() ? 
-							ipaExt.getSelectedOption() : 0);
-			
-			if(ipaOpts != null && ipaOpts.size() > 0) {
-				if(ipaTBuilder.size() > 0) ipaTBuilder.appendWordBoundary();
-				if(ipaABuilder.size() > 0) ipaABuilder.appendWordBoundary();
-
-				ipaTBuilder.append(ipaOpts.get(selectedOption));
-				ipaABuilder.append(ipaOpts.get(selectedOption));
-			} else {
-				ipaTBuilder.append("*");
-				ipaABuilder.append("*");
-			}
-		}
-		
-		final IPATranscript ipaT = ipaTBuilder.toIPATranscript();
-		final IPATranscript ipaA = ipaABuilder.toIPATranscript();
-		if(getSyllabifier() != null) {
-			getSyllabifier().syllabify(ipaT.toList());
-			getSyllabifier().syllabify(ipaA.toList());
-			
-		}
-		
-		return new Tuple<IPATranscript, IPATranscript>(
-				(ipaTUnset && !ipaTUnvalidated) || isOverwrite() ? ipaT : null, 
-				(ipaAUnset && !ipaAUnvalidated) || isOverwrite() ? ipaA : null);
+	private SessionAutoTranscriber createSessionTranscriber() {
+		final SessionAutoTranscriber retVal = new SessionAutoTranscriber(getDictionary());
+		retVal.setSyllabifier(getSyllabifier());
+		retVal.setSetIPATarget(isSetIPATarget());
+		retVal.setSetIPAActual(isSetIPAActual());
+		retVal.setOverwrite(isOverwrite());
+		retVal.setRecordFilter(getRecordFilter());
+		return retVal;
 	}
 	
 	/**
@@ -197,12 +140,14 @@ public class AutoTranscriber {
 	public UndoableEdit transcribeRecord(Record record) {
 		final CompoundEdit retVal = new CompoundEdit();
 		
+		final SessionAutoTranscriber groupTranscriber =
+				(sessionTranscriber != null ? sessionTranscriber : createSessionTranscriber());
 		for(int i = 0; i < record.numberOfGroups(); i++) {
 			final Group g = record.getGroup(i);
 			final Tuple<IPATranscript, IPATranscript> autoTranscription = 
-					transcribeGroup(g);
+					groupTranscriber.transcribeGroup(g);
 			
-			if(isSetIPATarget() && autoTranscription.getObj1() != null) {
+			if(autoTranscription.getObj1() != null) {
 				SessionEditorUndoableEdit targetEdit = null;
 				if(getTranscriber() != null) {
 					IPATranscript grpVal = (g.getIPATarget() != null ? g.getIPATarget() : new IPATranscript());
@@ -213,11 +158,8 @@ public class AutoTranscriber {
 					IPATranscript currentValue = 
 							(record.getIPATarget().numberOfGroups() > i ? 
 									record.getIPATarget().getGroup(i) : new IPATranscript());
-					IPATranscript newValue = autoTranscription.getObj1();
-					
-					AlternativeTranscript alts = 
-							(currentValue != null ? currentValue.getExtension(AlternativeTranscript.class) : null);
-					if(alts != null) newValue.putExtension(AlternativeTranscript.class, alts);
+					IPATranscript newValue = 
+							SessionAutoTranscriber.keepAlternatives(currentValue, autoTranscription.getObj1());
 					
 					targetEdit = 
 							new IPALookupEdit(getEditor(), getDictionary(), record.getOrthography().getGroup(i).toString(),
@@ -227,7 +169,7 @@ public class AutoTranscriber {
 				retVal.addEdit(targetEdit);
 			}
 			
-			if(isSetIPAActual() && autoTranscription.getObj2() != null) {
+			if(autoTranscription.getObj2() != null) {
 				SessionEditorUndoableEdit actualEdit = null;
 				if(getTranscriber() != null) {
 					IPATranscript grpVal = (g.getIPAActual() != null ? g.getIPAActual() : new IPATranscript());
@@ -238,11 +180,8 @@ public class AutoTranscriber {
 					IPATranscript currentValue = 
 							(record.getIPAActual().numberOfGroups() > i ?
 									record.getIPAActual().getGroup(i) : new IPATranscript());
-					IPATranscript newValue = autoTranscription.getObj2();
-					
-					AlternativeTranscript alts =
-							(currentValue != null ? currentValue.getExtension(AlternativeTranscript.class) : null);
-					if(alts != null) newValue.putExtension(AlternativeTranscript.class, alts);
+					IPATranscript newValue = 
+							SessionAutoTranscriber.keepAlternatives(currentValue, autoTranscription.getObj2());
 					
 					actualEdit = 
 							new IPALookupEdit(getEditor(), getDictionary(), record.getOrthography().getGroup(i).toString(),
@@ -268,7 +207,8 @@ public class AutoTranscriber {
 	}
 	
 	/**
-	 * Transcribe the given session.
+	 * Transcribe the given session.  Distinct word types in the session
+	 * are looked up once before transcribing records.
 	 * 
 	 * @param session
 	 * 
@@ -289,14 +229,20 @@ public class AutoTranscriber {
 			
 		};
 		
-		for(int i = 0; i < session.getRecordCount(); i++) {
-			final Record r = session.getRecord(i);
-			boolean transcribeRecord = 
-					(getRecordFilter() != null ? getRecordFilter().checkRecord(r) : true);
-			if(transcribeRecord) {
-				final UndoableEdit edit = transcribeRecord(r);
-				retVal.addEdit(edit);
+		sessionTranscriber = createSessionTranscriber();
+		sessionTranscriber.resolveWordTypes(sessionTranscriber.collectWordTypes(session));
+		try {
+			for(int i = 0; i < session.getRecordCount(); i++) {
+				final Record r = session.getRecord(i);
+				boolean transcribeRecord = 
+						(getRecordFilter() != null ? getRecordFilter().checkRecord(r) : true);
+				if(transcribeRecord) {
+					final UndoableEdit edit = transcribeRecord(r);
+					retVal.addEdit(edit);
+				}
 			}
+		} finally {
+			sessionTranscriber = null;
 		}
 		retVal.end();
 		
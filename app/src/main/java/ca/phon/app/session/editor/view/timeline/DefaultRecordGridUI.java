@@ -313,7 +313,13 @@ public class DefaultRecordGridUI extends RecordGridUI {
 		// this ensures that warnings are shown correctly
 		visibleRecords.clear();
 		
-		for(int rIdx = 0; rIdx < session.getRecordCount(); rIdx++) {
+		// only records intersecting the visible time range are considered
+		final Rectangle visibleRect = recordGrid.getVisibleRect();
+		final float visibleStartTime = Math.max(0.0f, recordGrid.timeAtX(visibleRect.getX() - 1) * 1000.0f);
+		final float visibleEndTime = recordGrid.timeAtX(visibleRect.getMaxX() + 1) * 1000.0f;
+		final SegmentIndex segmentIndex = session.getSegmentIndex();
+		
+		for(int rIdx:segmentIndex.recordsIntersecting(visibleStartTime, visibleEndTime)) {
 			Record r = session.getRecord(rIdx);
 
 			try {
@@ -441,15 +447,11 @@ public class DefaultRecordGridUI extends RecordGridUI {
 
 	private Set<Integer> calculateOverlappingRecords(Set<Integer> recordSet) {
 		Set<Integer> overlappingRecords = new LinkedHashSet<>();
-		List<Integer> recordList = new ArrayList<>(recordSet);
-		for(int i = 0; i < recordList.size(); i++) {
-			int r1Idx = recordList.get(i);
-			Rectangle2D r1 = visibleRecords.get(r1Idx);
-			for(int j = i+1; j < recordList.size(); j++) {
-				int r2Idx = recordList.get(j);
-				Rectangle2D r2 = visibleRecords.get(r2Idx);
-
-				if(r1.intersects(r2)) {
+		final SegmentIndex segmentIndex = recordGrid.getSession().getSegmentIndex();
+		for(int r1Idx:recordSet) {
+			if(r1Idx < 0) continue;
+			for(int r2Idx:segmentIndex.overlapsForRecord(r1Idx)) {
+				if(recordSet.contains(r2Idx)) {
 					overlappingRecords.add(r1Idx);
 					overlappingRecords.add(r2Idx);
 				}
@@ -720,23 +722,27 @@ public class DefaultRecordGridUI extends RecordGridUI {
 		String warnings = null;
 		if(checkForOverlap) {
 			// check to see if record overlaps other records for speaker
-			var overlapEntries = recordTree.search(Geometries.rectangle(segmentRect.getX(), segmentRect.getY(), 
-					segmentRect.getMaxX(), segmentRect.getMaxY()));
+			final SegmentIndex segmentIndex = recordGrid.getSession().getSegmentIndex();
 			List<Integer> overlappingRecordsList = new ArrayList<Integer>();
-			List<Integer> potentialOverlaps = new ArrayList<Integer>();
-			overlapEntries.map( entry -> entry.value() ).filter( v -> v != recordIndex).forEach(potentialOverlaps::add);
-			
-			for(int rIdx:potentialOverlaps) {
-				
-				Record r2 = recordGrid.getSession().getRecord(rIdx);
-				MediaSegment seg2 = r2.getSegment().getGroup(0);
+			if(recordIndex >= 0) {
+				overlappingRecordsList.addAll(segmentIndex.overlapsForRecord(recordIndex));
+			} else {
+				// right record of split
+				List<Integer> potentialOverlaps = segmentIndex.recordsIntersecting(r.getSpeaker(),
+						mediaSeg.getStartValue(), mediaSeg.getEndValue());
+				for(int rIdx:potentialOverlaps) {
+					if(rIdx == recordGrid.getCurrentRecordIndex()) continue;
+					
+					Record r2 = recordGrid.getSession().getRecord(rIdx);
+					MediaSegment seg2 = r2.getSegment().getGroup(0);
 
-				boolean isZeroAtZero = (seg2.getStartValue() == 0.0f) && (seg2.getEndValue() - seg2.getStartValue() == 0.0f);
-				boolean isContiguous = (mediaSeg.getStartValue() == seg2.getEndValue() || seg2.getStartValue() == mediaSeg.getEndValue());
-				
-				if(isZeroAtZero || isContiguous) continue;
-				
-				overlappingRecordsList.add(rIdx);
+					boolean isZeroAtZero = (seg2.getStartValue() == 0.0f) && (seg2.getEndValue() - seg2.getStartValue() == 0.0f);
+					boolean isContiguous = (mediaSeg.getStartValue() == seg2.getEndValue() || seg2.getStartValue() == mediaSeg.getEndValue());
+					
+					if(isZeroAtZero || isContiguous) continue;
+					
+					overlappingRecordsList.add(rIdx);
+				}
 			}
 			
 			if(overlappingRecordsList.size() > 0) {
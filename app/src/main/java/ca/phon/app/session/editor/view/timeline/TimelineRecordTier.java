@@ -1470,6 +1470,7 @@ public class TimelineRecordTier extends TimelineTier implements ClipboardOwner {
 				MediaSegment recordSeg = r.getSegment().getGroup(0);
 				recordSeg.setStartValue(origSegment.getStartValue());
 				recordSeg.setEndValue(origSegment.getEndValue());
+				getRecordGrid().getSession().getSegmentIndex().segmentChanged(recordIndex);
 			}
 		}
 		dragData.mouseDragOffset = -1.0f;
@@ -1635,6 +1636,9 @@ public class TimelineRecordTier extends TimelineTier implements ClipboardOwner {
 						if(dragData.isFirstChange) {
 							TierEdit<MediaSegment> tierEdit = new TierEdit<>(getParentView().getEditor(), selectedRecord.getSegment(), 0, editSeg);
 							getParentView().getEditor().getUndoSupport().postEdit(tierEdit);
+						} else {
+							// segment was modified in place
+							getRecordGrid().getSession().getSegmentIndex().segmentChanged(rIdx);
 						}
 					}
 				}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.app.autosave;
+
+import ca.phon.orthography.Orthography;
+import ca.phon.session.Record;
+import ca.phon.session.*;
+import ca.phon.session.io.*;
+import junit.framework.Assert;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.*;
+import java.nio.file.*;
+
+@RunWith(JUnit4.class)
+public class TestSessionJournal {
+
+	private final static String[] ORTHO = { "hello world", "bye", "one two three" };
+
+	private File tempFolder;
+
+	private File snapshotFile;
+
+	private File journalFile;
+
+	@Before
+	public void setUp() throws IOException {
+		tempFolder = Files.createTempDirectory("journal").toFile();
+		snapshotFile = new File(tempFolder, "__autosave_Test.xml");
+		journalFile = new File(tempFolder, "__autosave_Test.journal");
+	}
+
+	@After
+	public void tearDown() {
+		final File[] files = tempFolder.listFiles();
+		if(files != null) {
+			for(File file:files) file.delete();
+		}
+		tempFolder.delete();
+	}
+
+	private Session createSession() throws Exception {
+		final SessionFactory factory = SessionFactory.newFactory();
+		final Session session = factory.createSession("Tests", "Test");
+
+		final Participant child = factory.createParticipant();
+		child.setId("CHI");
+		child.setRole(ParticipantRole.TARGET_CHILD);
+		session.addParticipant(child);
+		session.setTierView(factory.createDefaultTierView(session));
+
+		for(int i = 0; i < ORTHO.length; i++) {
+			final Record record = factory.createRecord(child);
+			record.getOrthography().setGroup(0, Orthography.parseOrthography(ORTHO[i]));
+			record.getSegment().setGroup(0, factory.createMediaSegment());
+			session.addRecord(record);
+		}
+		return session;
+	}
+
+	/**
+	 * Write snapshot followed by two journal entries
+	 */
+	private Session writeJournal() throws Exception {
+		final Session session = createSession();
+		final SessionJournal journal = new SessionJournal(session, snapshotFile, journalFile);
+		Assert.assertTrue(journal.compact().get());
+		Assert.assertTrue(journal.isValid());
+
+		final Tier<Orthography> tier1 = session.getRecord(1).getOrthography();
+		tier1.setGroup(0, Orthography.parseOrthography("goodbye"));
+		journal.tierChanged(1, tier1, 0);
+
+		final Tier<Orthography> tier2 = session.getRecord(2).getOrthography();
+		tier2.setGroup(0, Orthography.parseOrthography("four five"));
+		journal.tierChanged(2, tier2, 0);
+
+		journal.close().get();
+		Assert.assertEquals(2, journal.getEntryCount());
+		return session;
+	}
+
+	private Session readSnapshot() throws IOException {
+		final SessionReader reader = (new SessionInputFactory()).createReaderForFile(snapshotFile);
+		try(InputStream in = new FileInputStream(snapshotFile)) {
+			return reader.readSession(in);
+		}
+	}
+
+	private String ortho(Session session, int recordIndex) {
+		return session.getRecord(recordIndex).getOrthography().getGroup(0).toString();
+	}
+
+	@Test
+	public void testReplay() throws Exception {
+		writeJournal();
+
+		final Session session = readSnapshot();
+		Assert.assertEquals("bye", ortho(session, 1));
+		Assert.assertEquals(2, SessionJournal.replay(journalFile, snapshotFile, session));
+		Assert.assertEquals("hello world", ortho(session, 0));
+		Assert.assertEquals("goodbye", ortho(session, 1));
+		Assert.assertEquals("four five", ortho(session, 2));
+	}
+
+	@Test
+	public void testTornEntry() throws Exception {
+		writeJournal();
+
+		// remove part of last entry
+		try(RandomAccessFile raf = new RandomAccessFile(journalFile, "rw")) {
+			raf.setLength(raf.length() - 3);
+		}
+		Session session = readSnapshot();
+		Assert.assertEquals(1, SessionJournal.replay(journalFile, snapshotFile, session));
+		Assert.assertEquals("goodbye", ortho(session, 1));
+		Assert.assertEquals("one two three", ortho(session, 2));
+
+		// entry with a length larger than the file
+		try(RandomAccessFile raf = new RandomAccessFile(journalFile, "rw")) {
+			raf.setLength(24);
+		}
+		try(DataOutputStream out = new DataOutputStream(new FileOutputStream(journalFile, true))) {
+			out.writeInt(Integer.MAX_VALUE);
+			out.writeLong(0L);
+			out.writeInt(0);
+		}
+		session = readSnapshot();
+		Assert.assertEquals(0, SessionJournal.replay(journalFile, snapshotFile, session));
+	}
+
+	@Test
+	public void testCorruptEntry() throws Exception {
+		writeJournal();
+
+		// change last byte of last entry
+		try(RandomAccessFile raf = new RandomAccessFile(journalFile, "rw")) {
+			raf.seek(raf.length() - 1);
+			final int b = raf.read();
+			raf.seek(raf.length() - 1);
+			raf.write(b ^ 0xff);
+		}
+		final Session session = readSnapshot();
+		Assert.assertEquals(1, SessionJournal.replay(journalFile, snapshotFile, session));
+		Assert.assertEquals("goodbye", ortho(session, 1));
+		Assert.assertEquals("one two three", ortho(session, 2));
+	}
+
+	@Test
+	public void testSnapshotMismatch() throws Exception {
+		writeJournal();
+		final Session session = readSnapshot();
+
+		// snapshot replaced after journal was started
+		final Session other = createSession();
+		other.getRecord(0).getOrthography().setGroup(0, Orthography.parseOrthography("other"));
+		try(OutputStream out = new FileOutputStream(snapshotFile)) {
+			(new SessionOutputFactory()).createWriter().writeSession(other, out);
+		}
+		Assert.assertEquals(-1, SessionJournal.replay(journalFile, snapshotFile, session));
+		Assert.assertEquals("bye", ortho(session, 1));
+	}
+
+}
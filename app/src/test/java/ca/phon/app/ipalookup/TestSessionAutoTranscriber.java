@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.app.ipalookup;
+
+import ca.phon.ipa.IPATranscript;
+import ca.phon.ipadictionary.IPADictionary;
+import ca.phon.ipadictionary.spi.IPADictionarySPI;
+import ca.phon.orthography.Orthography;
+import ca.phon.session.Record;
+import ca.phon.session.*;
+import junit.framework.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Map;
+
+@RunWith(JUnit4.class)
+public class TestSessionAutoTranscriber {
+
+	private final static String[] ORTHO = { "hello world", "w bye", "xxx foo" };
+
+	private final static Map<String, String> ENTRIES = Map.of(
+			"hello", "hɛlo",
+			"world", "wɚld",
+			"w", "wə",
+			"bye", "baɪ");
+
+	private IPADictionary createDictionary() {
+		return new IPADictionary(new IPADictionarySPI() {
+
+			@Override
+			public String[] lookup(String orthography) {
+				final String ipa = ENTRIES.get(orthography);
+				return (ipa != null ? new String[] { ipa } : new String[0]);
+			}
+
+			@Override
+			public void install(IPADictionary dict) {
+			}
+
+		});
+	}
+
+	private Session createSession() throws Exception {
+		final SessionFactory factory = SessionFactory.newFactory();
+		final Session session = factory.createSession("Tests", "Test");
+
+		final Participant child = factory.createParticipant();
+		child.setId("CHI");
+		child.setRole(ParticipantRole.TARGET_CHILD);
+		session.addParticipant(child);
+		session.setTierView(factory.createDefaultTierView(session));
+
+		for(int i = 0; i < ORTHO.length; i++) {
+			final Record record = factory.createRecord(child);
+			record.getOrthography().setGroup(0, Orthography.parseOrthography(ORTHO[i]));
+			session.addRecord(record);
+		}
+		return session;
+	}
+
+	@Test
+	public void testTranscribeSession() throws Exception {
+		final Session session = createSession();
+		final SessionAutoTranscriber transcriber = new SessionAutoTranscriber(createDictionary());
+		Assert.assertEquals(3, transcriber.transcribeSession(session));
+		Assert.assertEquals(6, transcriber.getWordCount());
+
+		final String[] expected = { "hɛlo wɚld", "wə baɪ", "* *" };
+		for(int i = 0; i < expected.length; i++) {
+			final Group group = session.getRecord(i).getGroup(0);
+			Assert.assertEquals(expected[i], group.getIPATarget().toString());
+			Assert.assertEquals(expected[i], group.getIPAActual().toString());
+			Assert.assertNotNull(group.getPhoneAlignment());
+		}
+	}
+
+	@Test
+	public void testKeepExisting() throws Exception {
+		final Session session = createSession();
+		final Group group = session.getRecord(0).getGroup(0);
+		group.setIPATarget(IPATranscript.parseIPATranscript("tɛst"));
+
+		final SessionAutoTranscriber transcriber = new SessionAutoTranscriber(createDictionary());
+		transcriber.setOverwrite(false);
+		transcriber.setSetIPAActual(false);
+		Assert.assertEquals(2, transcriber.transcribeSession(session));
+
+		Assert.assertEquals("tɛst", group.getIPATarget().toString());
+		Assert.assertEquals("wə baɪ", session.getRecord(1).getGroup(0).getIPATarget().toString());
+		Assert.assertTrue(session.getRecord(1).getGroup(0).getIPAActual() == null
+				|| session.getRecord(1).getGroup(0).getIPAActual().length() == 0);
+	}
+
+	@Test
+	public void testLookupText() {
+		Assert.assertNull(OrthoLookupVisitor.lookupText("xxx"));
+		Assert.assertNull(OrthoLookupVisitor.lookupText("www"));
+		Assert.assertEquals("w", OrthoLookupVisitor.lookupText("w"));
+		Assert.assertEquals("ww", OrthoLookupVisitor.lookupText("ww"));
+		Assert.assertEquals("bye", OrthoLookupVisitor.lookupText("bye!"));
+	}
+
+}
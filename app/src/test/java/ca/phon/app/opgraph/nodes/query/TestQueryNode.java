@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.app.opgraph.nodes.query;
+
+import ca.phon.orthography.Orthography;
+import ca.phon.query.db.*;
+import ca.phon.query.script.QueryScript;
+import ca.phon.session.Record;
+import ca.phon.session.*;
+import ca.phon.worker.PhonTask;
+import junit.framework.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.beans.PropertyChangeEvent;
+import java.io.ByteArrayOutputStream;
+import java.util.*;
+import java.util.stream.*;
+
+@RunWith(JUnit4.class)
+public class TestQueryNode {
+
+	private final static int NUM_SESSIONS = 6;
+
+	private final static int NUM_RECORDS = 20;
+
+	private final static String SCRIPT =
+			"function query_record(recordIndex, record) {\n" +
+			"	if(recordIndex % 3 == 0) return;\n" +
+			"	var result = factory.createResult();\n" +
+			"	result.setRecordIndex(recordIndex);\n" +
+			"	result.setSchema(\"LINEAR\");\n" +
+			"	var rv = factory.createResultValue();\n" +
+			"	rv.setTierName(\"Orthography\");\n" +
+			"	rv.setGroupIndex(0);\n" +
+			"	rv.setData(record.getOrthography().toString());\n" +
+			"	result.addResultValue(rv);\n" +
+			"	results.addResult(result);\n" +
+			"	out.println(serial + \":\" + recordIndex);\n" +
+			"}\n";
+
+	private List<RecordContainer> createRecordContainers() throws Exception {
+		final SessionFactory factory = SessionFactory.newFactory();
+		final List<RecordContainer> retVal = new ArrayList<>();
+		for(int s = 0; s < NUM_SESSIONS; s++) {
+			final Session session = factory.createSession("Tests", "Test" + s);
+			final Participant child = factory.createParticipant();
+			child.setId("CHI");
+			child.setRole(ParticipantRole.TARGET_CHILD);
+			session.addParticipant(child);
+			session.setTierView(factory.createDefaultTierView(session));
+
+			for(int r = 0; r < NUM_RECORDS; r++) {
+				final Record record = factory.createRecord(child);
+				record.getOrthography().setGroup(0, Orthography.parseOrthography("word" + s + " word" + r));
+				session.addRecord(record);
+			}
+
+			retVal.add(new RecordContainer() {
+
+				@Override
+				public Session getSession() {
+					return session;
+				}
+
+				@Override
+				public Iterator<Integer> idxIterator() {
+					return IntStream.range(0, session.getRecordCount()).iterator();
+				}
+
+			});
+		}
+		return retVal;
+	}
+
+	private String resultString(ResultSet rs) {
+		final StringBuilder sb = new StringBuilder();
+		sb.append(rs.getSessionPath()).append('\n');
+		for(Result result:rs) {
+			sb.append(result.getRecordIndex());
+			for(ResultValue rv:result) {
+				sb.append(' ').append(rv.getTierName()).append('=').append(rv.getData());
+			}
+			sb.append('\n');
+		}
+		return sb.toString();
+	}
+
+	@Test
+	public void testParallelResults() throws Exception {
+		final List<RecordContainer> recordContainers = createRecordContainers();
+
+		final QueryNode sequentialNode = new QueryNode(new QueryScript(SCRIPT));
+		final ByteArrayOutputStream sequentialOut = new ByteArrayOutputStream();
+		final ResultSet[] sequentialResults = sequentialNode.query(null, recordContainers,
+				sequentialNode.getQueryScript(), 1, false, sequentialOut);
+
+		final QueryNode parallelNode = new QueryNode(new QueryScript(SCRIPT));
+		final List<PropertyChangeEvent> events = Collections.synchronizedList(new ArrayList<>());
+		parallelNode.addPropertyChangeListener(events::add);
+		final ByteArrayOutputStream parallelOut = new ByteArrayOutputStream();
+		final ResultSet[] parallelResults = parallelNode.query(null, recordContainers,
+				parallelNode.getQueryScript(), 3, false, parallelOut);
+
+		Assert.assertEquals(NUM_SESSIONS, sequentialResults.length);
+		Assert.assertEquals(sequentialResults.length, parallelResults.length);
+		for(int i = 0; i < sequentialResults.length; i++) {
+			Assert.assertEquals(NUM_RECORDS - (NUM_RECORDS + 2) / 3, sequentialResults[i].size());
+			Assert.assertEquals(resultString(sequentialResults[i]), resultString(parallelResults[i]));
+		}
+		Assert.assertEquals(sequentialOut.toString(), parallelOut.toString());
+
+		// sessions are reported in order, task events are forwarded
+		final List<Object> sessions = events.stream()
+				.filter( (e) -> e.getPropertyName().equals("session") )
+				.map(PropertyChangeEvent::getNewValue)
+				.collect(Collectors.toList());
+		Assert.assertEquals(recordContainers.stream().map(RecordContainer::getSession).collect(Collectors.toList()), sessions);
+		Assert.assertEquals(NUM_SESSIONS, events.stream()
+				.filter( (e) -> e.getPropertyName().equals("task") && e.getNewValue() == PhonTask.TaskStatus.FINISHED )
+				.count());
+		Assert.assertEquals(NUM_SESSIONS, events.stream()
+				.filter( (e) -> e.getPropertyName().equals("queryTask") )
+				.count());
+		Assert.assertTrue(events.stream().anyMatch( (e) -> e.getPropertyName().equals(PhonTask.PROGRESS_PROP) ));
+	}
+
+}
@@ -25,14 +25,29 @@ import ca.phon.ipa.parser.*;
  */
 public class Diacritic extends IPAElement {
 	
+	/**
+	 * Shared empty diacritic array
+	 */
+	static final Diacritic[] EMPTY_DIACRITICS = new Diacritic[0];
+	
+	/**
+	 * Return the shared empty array if the given array is empty.
+	 * 
+	 * @param diacritics
+	 * @return diacritics or {@link #EMPTY_DIACRITICS}
+	 */
+	static Diacritic[] compact(Diacritic[] diacritics) {
+		return (diacritics == null || diacritics.length == 0 ? EMPTY_DIACRITICS : diacritics);
+	}
+	
 	/**
 	 * The diacritic character
 	 */
 	private Character character;
 	
-	private Diacritic[] prefixDiacritics = new Diacritic[0];
+	private Diacritic[] prefixDiacritics = EMPTY_DIACRITICS;
 	
-	private Diacritic[] suffixDiacritics = new Diacritic[0];
+	private Diacritic[] suffixDiacritics = EMPTY_DIACRITICS;
 	
 	/**
 	 * Constructor
@@ -64,7 +79,7 @@ public class Diacritic extends IPAElement {
 	}
 	
 	public void setPrefixDiacritics(Diacritic[] prefixDiacritics) {
-		this.prefixDiacritics = prefixDiacritics;
+		this.prefixDiacritics = compact(prefixDiacritics);
 	}
 	
 	public Diacritic[] getSuffixDiacritics() {
@@ -72,7 +87,7 @@ public class Diacritic extends IPAElement {
 	}
 
 	public void setSuffixDiacritics(Diacritic[] suffixDiacritics) {
-		this.suffixDiacritics = suffixDiacritics;
+		this.suffixDiacritics = compact(suffixDiacritics);
 	}
 	
 	@Override
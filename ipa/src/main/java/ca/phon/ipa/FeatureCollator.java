@@ -126,7 +126,7 @@ public class FeatureCollator extends Collator {
 			try {
 				t = IPATranscript.parseIPATranscript(source);
 				if(t != null) {
-					final PhonexPattern pattern = PhonexPattern.compile("(\\w+)\\b\u2194\\b(\\w+)");
+					final PhonexPattern pattern = PhonexPatternCache.getInstance().compile("(\\w+)\\b\u2194\\b(\\w+)");
 					final PhonexMatcher matcher = pattern.matcher(t);
 					if(matcher.matches()) {
 						t = new IPATranscript(matcher.group(1));
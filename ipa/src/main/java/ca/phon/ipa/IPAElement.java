@@ -21,7 +21,7 @@ import ca.phon.syllable.*;
 import ca.phon.visitor.*;
 
 import java.beans.*;
-import java.util.Set;
+import java.util.*;
 
 /**
  * <p>{@link IPAElement}s represent the atomic unit of IPA transcriptions.
@@ -45,6 +45,9 @@ import java.util.Set;
  * <p>{@link IPAElement} objects also implement the visitor pattern.  Visitors
  * must implement the {@link PhoneVisitor} or extend {@link PhoneVisitorAdapter}
  * and can be applied using the {@link #accept(PhoneVisitor)} method.</p>
+ * 
+ * <p>Extension support, property change support and {@link SyllabificationInfo}
+ * are created when first required to keep large transcriptions compact.</p>
  */
 public abstract class IPAElement implements Visitable<IPAElement>, IExtendable {
 	
@@ -60,18 +63,35 @@ public abstract class IPAElement implements Visitable<IPAElement>, IExtendable {
 	private FeatureSet customFeatureSet = null;
 	
 	/**
-	 * Extension support
+	 * Extension support, <code>null</code> until an extension is added
+	 * or extension providers exist for {@link IPAElement}
+	 */
+	private volatile ExtensionSupport extensionSupport;
+	
+	/**
+	 * Extension support being initialized by the current thread.  Extension
+	 * providers call back into the element before {@link #extensionSupport}
+	 * is published.  Kept outside of the element to avoid a field per instance.
 	 */
-	private final ExtensionSupport extensionSupport = new ExtensionSupport(IPAElement.class, this);
+	private final static ThreadLocal<Map<IPAElement, ExtensionSupport>> initializingExtensionSupport =
+			ThreadLocal.withInitial(IdentityHashMap::new);
 	
 	/**
-	 * Property change support
+	 * Syllabification info, every element has one.  Kept outside
+	 * of extension support and created on first access.
 	 */
-	private final PropertyChangeSupport propSupport = new PropertyChangeSupport(this);
+	private volatile SyllabificationInfo syllabificationInfo;
+	
+	/**
+	 * Property change support, <code>null</code> until a listener is added
+	 */
+	private volatile PropertyChangeSupport propSupport;
 	
 	public IPAElement() {
 		super();
-		extensionSupport.initExtensions();
+		if(ExtensionSupport.hasExtensionProviders(IPAElement.class)) {
+			getExtensionSupport();
+		}
 	}
 	
 	/**
@@ -83,7 +103,16 @@ public abstract class IPAElement implements Visitable<IPAElement>, IExtendable {
 	public void setFeatureSet(FeatureSet featureSet) {
 		this.customFeatureSet = featureSet;
 	}
-	
+
+	/**
+	 * Has a custom feature set been assigned using {@link #setFeatureSet(FeatureSet)}
+	 *
+	 * @return <code>true</code> if features are not derived from the element text
+	 */
+	public boolean hasCustomFeatureSet() {
+		return this.customFeatureSet != null;
+	}
+
 	/**
 	 * Private method to return the feature set for the
 	 * {@link IPAElement}.  This return value for this method
@@ -125,7 +154,8 @@ public abstract class IPAElement implements Visitable<IPAElement>, IExtendable {
 	public SyllableConstituentType getScType() {
 		SyllableConstituentType retVal = SyllableConstituentType.UNKNOWN;
 		
-		SyllabificationInfo syllInfo = getExtension(SyllabificationInfo.class);
+		// avoid creating syllabification info when only reading
+		final SyllabificationInfo syllInfo = syllabificationInfo;
 		if(syllInfo != null) {
 			retVal = syllInfo.getConstituentType();
 		}
@@ -150,79 +180,148 @@ public abstract class IPAElement implements Visitable<IPAElement>, IExtendable {
 	//
 	// Props
 	//
+	private PropertyChangeSupport getPropertyChangeSupport() {
+		PropertyChangeSupport retVal = propSupport;
+		if(retVal == null) {
+			synchronized(this) {
+				retVal = propSupport;
+				if(retVal == null) {
+					retVal = new PropertyChangeSupport(this);
+					propSupport = retVal;
+				}
+			}
+		}
+		return retVal;
+	}
+	
 	public void addPropertyChangeListener(PropertyChangeListener listener) {
-		propSupport.addPropertyChangeListener(listener);
+		getPropertyChangeSupport().addPropertyChangeListener(listener);
 	}
 
 	public void addPropertyChangeListener(String propertyName,
 			PropertyChangeListener listener) {
-		propSupport.addPropertyChangeListener(propertyName, listener);
+		getPropertyChangeSupport().addPropertyChangeListener(propertyName, listener);
 	}
 	
 	public void fireIndexedPropertyChange(String propertyName, int index,
 			boolean oldValue, boolean newValue) {
-		propSupport.fireIndexedPropertyChange(propertyName, index, oldValue,
+		final PropertyChangeSupport support = propSupport;
+		if(support != null)
+			support.fireIndexedPropertyChange(propertyName, index, oldValue,
 				newValue);
 	}
 
 	public void fireIndexedPropertyChange(String propertyName, int index,
 			int oldValue, int newValue) {
-		propSupport.fireIndexedPropertyChange(propertyName, index, oldValue,
+		final PropertyChangeSupport support = propSupport;
+		if(support != null)
+			support.fireIndexedPropertyChange(propertyName, index, oldValue,
 				newValue);
 	}
 
 	public void fireIndexedPropertyChange(String propertyName, int index,
 			Object oldValue, Object newValue) {
-		propSupport.fireIndexedPropertyChange(propertyName, index, oldValue,
+		final PropertyChangeSupport support = propSupport;
+		if(support != null)
+			support.fireIndexedPropertyChange(propertyName, index, oldValue,
 				newValue);
 	}
 
 	public void firePropertyChange(PropertyChangeEvent event) {
-		propSupport.firePropertyChange(event);
+		final PropertyChangeSupport support = propSupport;
+		if(support != null)
+			support.firePropertyChange(event);
 	}
 
 	public void firePropertyChange(String propertyName, boolean oldValue,
 			boolean newValue) {
-		propSupport.firePropertyChange(propertyName, oldValue, newValue);
+		final PropertyChangeSupport support = propSupport;
+		if(support != null)
+			support.firePropertyChange(propertyName, oldValue, newValue);
 	}
 
 	public void firePropertyChange(String propertyName, int oldValue,
 			int newValue) {
-		propSupport.firePropertyChange(propertyName, oldValue, newValue);
+		final PropertyChangeSupport support = propSupport;
+		if(support != null)
+			support.firePropertyChange(propertyName, oldValue, newValue);
 	}
 
 	public void firePropertyChange(String propertyName, Object oldValue,
 			Object newValue) {
-		propSupport.firePropertyChange(propertyName, oldValue, newValue);
+		final PropertyChangeSupport support = propSupport;
+		if(support != null)
+			support.firePropertyChange(propertyName, oldValue, newValue);
 	}
 
 	public PropertyChangeListener[] getPropertyChangeListeners() {
-		return propSupport.getPropertyChangeListeners();
+		final PropertyChangeSupport support = propSupport;
+		return (support != null ? support.getPropertyChangeListeners() : new PropertyChangeListener[0]);
 	}
 
 	public PropertyChangeListener[] getPropertyChangeListeners(
 			String propertyName) {
-		return propSupport.getPropertyChangeListeners(propertyName);
+		final PropertyChangeSupport support = propSupport;
+		return (support != null ? support.getPropertyChangeListeners(propertyName) : new PropertyChangeListener[0]);
 	}
 
 	public boolean hasListeners(String propertyName) {
-		return propSupport.hasListeners(propertyName);
+		final PropertyChangeSupport support = propSupport;
+		return (support != null && support.hasListeners(propertyName));
 	}
 
 	public void removePropertyChangeListener(PropertyChangeListener listener) {
-		propSupport.removePropertyChangeListener(listener);
+		final PropertyChangeSupport support = propSupport;
+		if(support != null)
+			support.removePropertyChangeListener(listener);
 	}
 
 	public void removePropertyChangeListener(String propertyName,
 			PropertyChangeListener listener) {
-		propSupport.removePropertyChangeListener(propertyName, listener);
+		final PropertyChangeSupport support = propSupport;
+		if(support != null)
+			support.removePropertyChangeListener(propertyName, listener);
 	}
 
 	//
 	// Extensions
 	//
 	private ExtensionSupport getExtensionSupport() {
-		return extensionSupport;
+		ExtensionSupport retVal = extensionSupport;
+		if(retVal == null) {
+			synchronized(this) {
+				retVal = extensionSupport;
+				if(retVal == null) {
+					final Map<IPAElement, ExtensionSupport> initializing = initializingExtensionSupport.get();
+					retVal = initializing.get(this);
+					if(retVal == null) {
+						retVal = new ExtensionSupport(IPAElement.class, this);
+						initializing.put(this, retVal);
+						try {
+							retVal.initExtensions();
+						} finally {
+							initializing.remove(this);
+						}
+						extensionSupport = retVal;
+					}
+				}
+			}
+		}
+		return retVal;
+	}
+	
+	private SyllabificationInfo getSyllabificationInfo() {
+		SyllabificationInfo retVal = syllabificationInfo;
+		if(retVal == null) {
+			synchronized(this) {
+				retVal = syllabificationInfo;
+				if(retVal == null) {
+					retVal = new SyllabificationInfo(this);
+					syllabificationInfo = retVal;
+				}
+			}
+		}
+		return retVal;
 	}
 	
 	/*
@@ -256,22 +355,46 @@ public abstract class IPAElement implements Visitable<IPAElement>, IExtendable {
 	
 	@Override
 	public Set<Class<?>> getExtensions() {
-		return getExtensionSupport().getExtensions();
+		final Set<Class<?>> retVal = new LinkedHashSet<>();
+		retVal.add(SyllabificationInfo.class);
+		final ExtensionSupport support = extensionSupport;
+		if(support != null) {
+			retVal.addAll(support.getExtensions());
+		}
+		return Collections.unmodifiableSet(retVal);
 	}
 
 	@Override
 	public <T> T getExtension(Class<T> cap) {
-		return getExtensionSupport().getExtension(cap);
+		if(cap == SyllabificationInfo.class) {
+			return cap.cast(getSyllabificationInfo());
+		}
+		final ExtensionSupport support = extensionSupport;
+		return (support != null ? support.getExtension(cap) : null);
 	}
 
 	@Override
 	public <T> T putExtension(Class<T> cap, T impl) {
+		if(cap == SyllabificationInfo.class) {
+			syllabificationInfo = (SyllabificationInfo)impl;
+			return impl;
+		}
 		return getExtensionSupport().putExtension(cap, impl);
 	}
 
+	/**
+	 * Remove extension.  If {@link SyllabificationInfo} is removed a new
+	 * default instance will be created on next access.
+	 */
 	@Override
 	public <T> T removeExtension(Class<T> cap) {
-		return getExtensionSupport().removeExtension(cap);
+		if(cap == SyllabificationInfo.class) {
+			final SyllabificationInfo retVal = syllabificationInfo;
+			syllabificationInfo = null;
+			return cap.cast(retVal);
+		}
+		final ExtensionSupport support = extensionSupport;
+		return (support != null ? support.removeExtension(cap) : null);
 	}
 
 	@Override
@@ -191,7 +191,7 @@ public final class IPATranscript implements Iterable<IPAElement>, Visitable<IPAE
 	public boolean matches(String phonex, int flags) {
 		boolean retVal = false;
 
-		PhonexPattern pattern = PhonexPattern.compile(phonex, flags);
+		PhonexPattern pattern = PhonexPatternCache.getInstance().compile(phonex, flags);
 		PhonexMatcher matcher = pattern.matcher(this);
 		retVal = matcher.matches();
 
@@ -217,7 +217,7 @@ public final class IPATranscript implements Iterable<IPAElement>, Visitable<IPAE
 	public boolean contains(String phonex, int flags) {
 		boolean retVal = false;
 
-		PhonexPattern pattern = PhonexPattern.compile(phonex, flags);
+		PhonexPattern pattern = PhonexPatternCache.getInstance().compile(phonex, flags);
 		PhonexMatcher matcher = pattern.matcher(this);
 		retVal = matcher.find();
 
@@ -295,7 +295,7 @@ public final class IPATranscript implements Iterable<IPAElement>, Visitable<IPAE
 	public int indexOf(String phonex) {
 		int retVal = -1;
 
-		PhonexPattern pattern = PhonexPattern.compile(phonex);
+		PhonexPattern pattern = PhonexPatternCache.getInstance().compile(phonex);
 		PhonexMatcher matcher = pattern.matcher(this);
 
 		if(matcher.find()) {
@@ -321,7 +321,7 @@ public final class IPATranscript implements Iterable<IPAElement>, Visitable<IPAE
 	public int indexOf(String phonex, int index) {
 		int retVal = -1;
 
-		PhonexPattern pattern = PhonexPattern.compile(phonex);
+		PhonexPattern pattern = PhonexPatternCache.getInstance().compile(phonex);
 		PhonexMatcher matcher = pattern.matcher(this);
 
 		if(matcher.find(index)) {
@@ -374,7 +374,7 @@ public final class IPATranscript implements Iterable<IPAElement>, Visitable<IPAE
 	 * @param flags
 	 */
 	public IPATranscript[] split(String phonex, int flags) {
-		final PhonexPattern pattern = PhonexPattern.compile(phonex, flags);
+		final PhonexPattern pattern = PhonexPatternCache.getInstance().compile(phonex, flags);
 		final PhonexMatcher matcher = pattern.matcher(this);
 
 		final List<IPATranscript> splitVals = new ArrayList<IPATranscript>();
@@ -424,7 +424,7 @@ public final class IPATranscript implements Iterable<IPAElement>, Visitable<IPAE
 	 * @return a new IPA transcript
 	 */
 	public IPATranscript replaceFirst(String pattern, String replacement) throws ParseException {
-		PhonexPattern phonex = PhonexPattern.compile(pattern);
+		PhonexPattern phonex = PhonexPatternCache.getInstance().compile(pattern);
 		IPATranscript replace = IPATranscript.parseIPATranscript(replacement);
 		return replaceFirst(phonex, replace);
 	}
@@ -460,7 +460,7 @@ public final class IPATranscript implements Iterable<IPAElement>, Visitable<IPAE
 	 * @return a new IPA transcript
 	 */
 	public IPATranscript replaceAll(String pattern, String replacement) throws ParseException {
-		PhonexPattern phonex = PhonexPattern.compile(pattern);
+		PhonexPattern phonex = PhonexPatternCache.getInstance().compile(pattern);
 		IPATranscript replace = IPATranscript.parseIPATranscript(replacement);
 		return replaceAll(phonex, replace);
 	}
@@ -33,13 +33,13 @@ import java.util.*;
  */
 public class Phone extends IPAElement implements PrefixDiacritics, SuffixDiacritics, CombiningDiacritics {
 	
-	private Diacritic[] prefixDiacritics = new Diacritic[0];
+	private Diacritic[] prefixDiacritics = Diacritic.EMPTY_DIACRITICS;
 	
-	private Diacritic[] suffixDiacritics = new Diacritic[0];
+	private Diacritic[] suffixDiacritics = Diacritic.EMPTY_DIACRITICS;
 	
-	private Diacritic[] combiningDiacritics = new Diacritic[0];
+	private Diacritic[] combiningDiacritics = Diacritic.EMPTY_DIACRITICS;
 	
-	private Character basePhone;
+	private char basePhone;
 	
 	/**
 	 * Create a new empty phone object.
@@ -91,7 +91,7 @@ public class Phone extends IPAElement implements PrefixDiacritics, SuffixDiacrit
 	 * @param prefixDiacritics
 	 */
 	public void setPrefixDiacritics(Diacritic[] prefixDiacritics) {
-		this.prefixDiacritics = prefixDiacritics;
+		this.prefixDiacritics = Diacritic.compact(prefixDiacritics);
 	}
 	
 	/**
@@ -128,7 +128,7 @@ public class Phone extends IPAElement implements PrefixDiacritics, SuffixDiacrit
 	 * @return the base character for the Phone
 	 */
 	public Character getBasePhone() {
-		return basePhone;
+		return Character.valueOf(basePhone);
 	}
 
 	/**
@@ -205,7 +205,7 @@ public class Phone extends IPAElement implements PrefixDiacritics, SuffixDiacrit
 			if(dc.getType() != DiacriticType.COMBINING)
 				throw new IllegalArgumentException();
 		}
-		this.combiningDiacritics = combiningDiacritics;
+		this.combiningDiacritics = Diacritic.compact(combiningDiacritics);
 	}
 	
 	/**
@@ -273,7 +273,7 @@ public class Phone extends IPAElement implements PrefixDiacritics, SuffixDiacrit
 	 * @param prefixDiacritics
 	 */
 	public void setSuffixDiacritics(Diacritic[] suffixDiacritics) {
-		this.suffixDiacritics = suffixDiacritics;
+		this.suffixDiacritics = Diacritic.compact(suffixDiacritics);
 	}
 	
 	/**
@@ -25,9 +25,17 @@ import java.util.stream.Collectors;
 
 /**
  * Implementation of {@link IndelAligner} for {@link IPATranscript}s.
+ * Alignments are calculated using {@link IterativeIndelAligner}.
  * 
  */
-public class PhoneAligner extends IndelAligner<IPAElement> {
+public class PhoneAligner extends IterativeIndelAligner<IPAElement> {
+
+	/**
+	 * Shared table of phone pair scores which do not depend on
+	 * syllabification or stress.
+	 */
+	private final static PhoneSimilarityTable similarityTable =
+			new PhoneSimilarityTable(PhoneAligner::phoneScore);
 
 	private IPATranscript targetRep;
 
@@ -37,6 +45,9 @@ public class PhoneAligner extends IndelAligner<IPAElement> {
 
 	private List<IPATranscript> actualSylls;
 
+	/* Stress of syllable containing each element, built on demand */
+	private Map<IPAElement, SyllableStress> stressMap;
+
 	private boolean hasStressedSyllables = false;
 
 	public PhoneAligner() {
@@ -44,29 +55,11 @@ public class PhoneAligner extends IndelAligner<IPAElement> {
 
 	@Override
 	protected int costSubstitute(IPAElement ele1, IPAElement ele2) {
-		int tally = 0;
-
-		if( (ele1.getFeatureSet().hasFeature("Consonant")
-				&& ele2.getFeatureSet().hasFeature("Consonant")) ) {
-			tally += 2;
-		} else if( (ele1.getFeatureSet().hasFeature("Vowel")
-				&& ele2.getFeatureSet().hasFeature("Vowel")) ) {
-			tally += 2;
-		} else {
-			final IPAElement vowel = (ele1.getFeatureSet().hasFeature("Vowel") ? ele1 : ele2);
-			final IPAElement notvowel = (vowel == ele1 ? ele2 : ele1);
-
-			if(notvowel.getFeatureSet().hasFeature("syllabic")) {
-				return 2;
-			} else {
-				// align if toString() matches
-				if(ele1.toString().equals(ele2.toString())) {
-					return 4;
-				} else {
-					return -1;
-				}
-			}
-		}
+		final int phoneScore = similarityTable.getScore(ele1, ele2);
+		int tally = phoneScore >> 1;
+		// score does not depend on syllabification
+		if((phoneScore & 1) == 0)
+			return tally;
 
 		final SyllableConstituentType t1 = ele1.getScType();
 		final SyllableConstituentType t2 = ele2.getScType();
@@ -84,6 +77,45 @@ public class PhoneAligner extends IndelAligner<IPAElement> {
 			}
 		}
 
+		return tally;
+	}
+
+	/**
+	 * Score phones using text and features only.  The returned value is
+	 * <code>(score &lt;&lt; 1) | 1</code> if syllabification and stress
+	 * should be added to the score, <code>score &lt;&lt; 1</code> otherwise.
+	 *
+	 * @param ele1
+	 * @param ele2
+	 * @return packed score
+	 */
+	private static int phoneScore(IPAElement ele1, IPAElement ele2) {
+		int tally = 0;
+
+		final FeatureSet fs1 = ele1.getFeatureSet();
+		final FeatureSet fs2 = ele2.getFeatureSet();
+		if( (fs1.hasFeature("Consonant")
+				&& fs2.hasFeature("Consonant")) ) {
+			tally += 2;
+		} else if( (fs1.hasFeature("Vowel")
+				&& fs2.hasFeature("Vowel")) ) {
+			tally += 2;
+		} else {
+			final IPAElement vowel = (fs1.hasFeature("Vowel") ? ele1 : ele2);
+			final IPAElement notvowel = (vowel == ele1 ? ele2 : ele1);
+
+			if(notvowel.getFeatureSet().hasFeature("syllabic")) {
+				return 2 << 1;
+			} else {
+				// align if toString() matches
+				if(ele1.toString().equals(ele2.toString())) {
+					return 4 << 1;
+				} else {
+					return -1 << 1;
+				}
+			}
+		}
+
 		final PhoneticProfile p1 = new PhoneticProfile(ele1);
 		final PhoneticProfile p2 = new PhoneticProfile(ele2);
 		int featureTally = 0;
@@ -104,17 +136,17 @@ public class PhoneAligner extends IndelAligner<IPAElement> {
 		String ele2Base = ((Phone)ele2).getBase();
 		
 		// strong lock if base of phones match
-		if(ele1Base.matches(ele2Base))
+		if(ele1Base.equals(ele2Base))
 			tally += 3;
 		
 		// add extra if one of the bases contains the other
 		else if(ele1Base.contains(ele2Base) || ele2Base.contains(ele1Base)) 
 			tally += 1;
 
-		return tally;
+		return (tally << 1) | 1;
 	}
 
-	private int checkDimension(PhoneticProfile p1, PhoneticProfile p2, PhoneDimension dimension) {
+	private static int checkDimension(PhoneticProfile p1, PhoneticProfile p2, PhoneDimension dimension) {
 		int retVal = 0;
 
 		final FeatureSet fs1 = FeatureSet.intersect(p1.get(dimension), dimension.getFeatures());
@@ -142,6 +174,7 @@ public class PhoneAligner extends IndelAligner<IPAElement> {
 
 	public void setTargetSyllables(List<IPATranscript> targetSylls) {
 		this.targetSylls = targetSylls;
+		this.stressMap = null;
 	}
 
 	public List<IPATranscript> getActualSyllables() {
@@ -150,6 +183,7 @@ public class PhoneAligner extends IndelAligner<IPAElement> {
 
 	public void setActualSyllables(List<IPATranscript> actualSylls) {
 		this.actualSylls = actualSylls;
+		this.stressMap = null;
 	}
 
 	public IPATranscript getTargetRep() {
@@ -168,23 +202,25 @@ public class PhoneAligner extends IndelAligner<IPAElement> {
 		this.actualRep = actualRep;
 	}
 
-	private IPATranscript syllableContainingElement(IPAElement ele) {
-		for(IPATranscript syll:getTargetSyllables()) {
-			if(syll.indexOf(ele) >= 0)
-				return syll;
-		}
-
-		for(IPATranscript syll:getActualSyllables()) {
-			if(syll.indexOf(ele) >= 0)
-				return syll;
+	private void addSyllableStress(Map<IPAElement, SyllableStress> map, List<IPATranscript> sylls) {
+		if(sylls == null) return;
+		for(IPATranscript syll:sylls) {
+			final SyllableStress stress = syll.getExtension(SyllableStress.class);
+			for(IPAElement ele:syll) {
+				// first syllable containing element takes precedence
+				if(!map.containsKey(ele))
+					map.put(ele, stress);
+			}
 		}
-
-		return null;
 	}
 
 	private SyllableStress stressForElement(IPAElement ele) {
-		final IPATranscript syll = syllableContainingElement(ele);
-		return (syll != null ? syll.getExtension(SyllableStress.class) : null);
+		if(stressMap == null) {
+			stressMap = new IdentityHashMap<>();
+			addSyllableStress(stressMap, getTargetSyllables());
+			addSyllableStress(stressMap, getActualSyllables());
+		}
+		return stressMap.get(ele);
 	}
 
 	/**
@@ -152,7 +152,7 @@ public class PhoneMap extends AlignmentMap<IPAElement> implements IExtendable {
 	public static PhoneMap fromString(IPATranscript target, IPATranscript actual,
 			String align) {
 		final String phonex = "(.+)\\u2194(.+)";
-		final PhonexPattern pattern = PhonexPattern.compile(phonex);
+		final PhonexPattern pattern = PhonexPatternCache.getInstance().compile(phonex);
 
 		final String[] alignments = align.split(",");
 		int alignLen = alignments.length;
@@ -216,7 +216,7 @@ public class PhoneMap extends AlignmentMap<IPAElement> implements IExtendable {
 	 */
 	public static PhoneMap fromString(String align) {
 		final String phonex = "(.+)\\u2194(.+)";
-		final PhonexPattern pattern = PhonexPattern.compile(phonex);
+		final PhonexPattern pattern = PhonexPatternCache.getInstance().compile(phonex);
 
 		final String[] alignments = align.split(",");
 		int alignLen = alignments.length;
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2005-2020 Gregory Hedlund & Yvan Rose
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.ipa.alignment;
+
+import ca.phon.ipa.IPAElement;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * Memoizing table of phone pair scores.  Phones are interned by text
+ * and assigned an index in an int matrix, once a pair has been scored
+ * subsequent lookups are array reads.
+ *
+ * Elements with custom feature sets are never cached.  Once the table
+ * contains {@link #MAX_PHONES} phones, scores for new phones are
+ * computed on each call.
+ *
+ * This class is thread-safe.
+ */
+final class PhoneSimilarityTable {
+
+	public final static int MAX_PHONES = 1024;
+
+	private final ToIntBiFunction<IPAElement, IPAElement> scoreFunction;
+
+	private final ConcurrentHashMap<String, Integer> phoneIds = new ConcurrentHashMap<>();
+
+	/*
+	 * scores[targetId][actualId], rows are grown as required.  Values are
+	 * stored as (score << 1) | 1 so that zero marks pairs which have not
+	 * been scored.  Cells may be read without locking, a stale read
+	 * only causes the score to be computed again.
+	 */
+	private volatile int[][] scores = new int[0][];
+
+	/**
+	 * Constructor
+	 *
+	 * @param scoreFunction scoring function, must only depend on the
+	 *  text and default features of the given elements
+	 */
+	public PhoneSimilarityTable(ToIntBiFunction<IPAElement, IPAElement> scoreFunction) {
+		super();
+		this.scoreFunction = scoreFunction;
+	}
+
+	/**
+	 * Return score for the given pair of elements
+	 *
+	 * @param target
+	 * @param actual
+	 * @return score
+	 */
+	public int getScore(IPAElement target, IPAElement actual) {
+		final int targetId = phoneId(target);
+		final int actualId = phoneId(actual);
+		if(targetId < 0 || actualId < 0)
+			return scoreFunction.applyAsInt(target, actual);
+
+		final int[][] table = scores;
+		if(targetId < table.length) {
+			final int[] row = table[targetId];
+			if(row != null && actualId < row.length) {
+				final int value = row[actualId];
+				if(value != 0) return value >> 1;
+			}
+		}
+
+		final int score = scoreFunction.applyAsInt(target, actual);
+		storeScore(targetId, actualId, score);
+		return score;
+	}
+
+	/**
+	 * Number of interned phones
+	 *
+	 * @return number of phones
+	 */
+	public int size() {
+		return phoneIds.size();
+	}
+
+	private int phoneId(IPAElement ele) {
+		if(ele.hasCustomFeatureSet()) return -1;
+		final String text = ele.getText();
+		final Integer id = phoneIds.get(text);
+		if(id != null) return id;
+
+		synchronized(this) {
+			final int size = phoneIds.size();
+			if(size >= MAX_PHONES) return -1;
+			return phoneIds.computeIfAbsent(text, (k) -> size);
+		}
+	}
+
+	private synchronized void storeScore(int targetId, int actualId, int score) {
+		int[][] table = scores;
+		if(targetId >= table.length) {
+			final int[][] newTable = new int[Math.min(MAX_PHONES, Math.max(targetId + 1, table.length * 2))][];
+			System.arraycopy(table, 0, newTable, 0, table.length);
+			table = newTable;
+		}
+		int[] row = table[targetId];
+		if(row == null || actualId >= row.length) {
+			final int rowLength = (row != null ? row.length : 0);
+			final int[] newRow = new int[Math.min(MAX_PHONES, Math.max(actualId + 1, rowLength * 2))];
+			if(row != null)
+				System.arraycopy(row, 0, newRow, 0, rowLength);
+			row = newRow;
+			table[targetId] = row;
+		}
+		row[actualId] = (score << 1) | 1;
+		scores = table;
+	}
+
+}
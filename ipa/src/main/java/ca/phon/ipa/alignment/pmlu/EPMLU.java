@@ -49,7 +49,7 @@ public class EPMLU {
 		final IPATranscript ipaT = pm.getTargetRep();
 		
 		int pmlu = 0;
-		final PhonexPattern pattern = PhonexPattern.compile("\\c");
+		final PhonexPattern pattern = PhonexPatternCache.getInstance().compile("\\c");
 		final PhonexMatcher matcher = pattern.matcher(ipaT);
 		while(matcher.find()) pmlu += 3;
 		
@@ -50,7 +50,7 @@ public class PMLU {
 		final IPATranscript target = pm.getTargetRep();
 		
 		int pmlu = target.removePunctuation(true).length();
-		final PhonexPattern pattern = PhonexPattern.compile("\\c");
+		final PhonexPattern pattern = PhonexPatternCache.getInstance().compile("\\c");
 		final PhonexMatcher matcher = pattern.matcher(target);
 		while(matcher.find()) ++pmlu;
 		
@@ -30,7 +30,10 @@ public class BackReferenceTransition extends PhonexTransition {
 	 * {@link #follow(FSAState)} returned
 	 * <code>true</code>
 	 * 
+	 * @deprecated compiled patterns may be shared between threads
+	 *  (see {@link PhonexPatternCache}), use {@link #getMatchLength(FSAState)}
 	 */
+	@Deprecated
 	public int matchLength = 0;
 	
 	/**
@@ -90,6 +93,7 @@ public class BackReferenceTransition extends PhonexTransition {
 				
 			}
 			if(retVal) {
+				currentState.setMatchLength(groupVal.length);
 				matchLength = groupVal.length;
 			}
 		}
@@ -102,6 +106,11 @@ public class BackReferenceTransition extends PhonexTransition {
 		return matchLength;
 	}
 	
+	@Override
+	public int getMatchLength(FSAState<IPAElement> currentState) {
+		return currentState.getMatchLength();
+	}
+	
 	
 	@Override
 	public String getImage() {
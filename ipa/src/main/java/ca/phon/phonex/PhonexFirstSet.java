@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.phonex;
+
+import ca.phon.fsa.*;
+import ca.phon.ipa.IPAElement;
+
+import java.util.*;
+
+/**
+ * <p>The set of {@link PhoneMatcher}s which may consume the first element
+ * of a (non-empty) match.  Computed from the transitions reachable from the
+ * initial state of a {@link PhonexFSA} through empty transitions.</p>
+ *
+ * <p>Used by {@link PhonexMatcher#find()} to skip start positions which
+ * cannot begin a match.  A first set is only available when every
+ * transition leaving the initial closure is a plain {@link PhonexTransition}
+ * reading the current tape position; patterns which may start with a
+ * boundary, back-reference, syllable or look-behind/ahead transition do
+ * not have a first set.</p>
+ */
+final class PhonexFirstSet {
+
+	/**
+	 * Each entry is a base matcher followed by its secondary matchers,
+	 * all of which must match.
+	 */
+	private final PhoneMatcher[][] matchers;
+
+	private PhonexFirstSet(PhoneMatcher[][] matchers) {
+		this.matchers = matchers;
+	}
+
+	/**
+	 * Compute the first set for the given machine.
+	 *
+	 * @param fsa
+	 * @return first set or <code>null</code> if the pattern may start
+	 *  with a transition which cannot be tested against a single element
+	 */
+	static PhonexFirstSet compute(SimpleFSA<IPAElement> fsa) {
+		final List<PhoneMatcher[]> matchers = new ArrayList<>();
+
+		final Set<String> visited = new HashSet<>();
+		final Deque<String> toVisit = new ArrayDeque<>();
+		toVisit.push(fsa.getInitialState());
+		while(!toVisit.isEmpty()) {
+			final String state = toVisit.pop();
+			if(!visited.add(state)) continue;
+
+			for(FSATransition<IPAElement> transition:fsa.getTransitionsForState(state)) {
+				if(transition instanceof EmptyTransition) {
+					toVisit.push(transition.getToState());
+				} else if(transition.getClass() == PhonexTransition.class
+						&& transition.getOffsetType() == OffsetType.NORMAL) {
+					final PhonexTransition pTrans = (PhonexTransition)transition;
+					if(pTrans.getMatcher() == null) return null;
+
+					final List<PhoneMatcher> conj = new ArrayList<>();
+					conj.add(pTrans.getMatcher());
+					conj.addAll(pTrans.getSecondaryMatchers());
+
+					// no point in filtering if any element may start a match
+					if(conj.size() == 1 && pTrans.getMatcher().matchesAnything()) return null;
+
+					matchers.add(conj.toArray(new PhoneMatcher[0]));
+				} else {
+					return null;
+				}
+			}
+		}
+
+		return (matchers.isEmpty() ? null : new PhonexFirstSet(matchers.toArray(new PhoneMatcher[0][])));
+	}
+
+	/**
+	 * Can a match begin with the given element?
+	 *
+	 * @param ele
+	 * @return <code>false</code> if no match can begin with the
+	 *  given element
+	 */
+	boolean canStartWith(IPAElement ele) {
+		for(PhoneMatcher[] conj:matchers) {
+			boolean retVal = true;
+			for(PhoneMatcher pm:conj) {
+				if(!pm.matches(ele)) {
+					retVal = false;
+					break;
+				}
+			}
+			if(retVal) return true;
+		}
+		return false;
+	}
+
+}
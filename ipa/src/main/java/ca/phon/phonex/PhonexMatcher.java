@@ -15,6 +15,7 @@
  */
 package ca.phon.phonex;
 
+import ca.phon.fsa.DecisionStack;
 import ca.phon.fsa.FSAState;
 import ca.phon.fsa.FSAState.RunningState;
 import ca.phon.ipa.*;
@@ -38,6 +39,16 @@ public class PhonexMatcher {
 	 */
 	private FSAState<IPAElement> lastMatchState = new FSAState<IPAElement>();
 
+	/**
+	 * Decision stack re-used for each run of the machine
+	 */
+	private final DecisionStack decisionStack = new DecisionStack();
+
+	/**
+	 * Tape for current input and region
+	 */
+	private IPAElement[] tape;
+
 	/**
 	 * Last match start index
 	 */
@@ -90,12 +101,23 @@ public class PhonexMatcher {
 		lastMatchStart = 0;
 	}
 
+	/**
+	 * Tape used by the matcher.  The array is kept by the matcher
+	 * and must not be modified.
+	 *
+	 * @return tape
+	 */
 	public IPAElement[] getTape() {
-		if(this.input == null) return new IPAElement[0];
-
-		final int rs = (regionStart >= 0 ? regionStart : 0);
-		final int re = (regionEnd >= 0 ? regionEnd : input.size());
-		return input.subList(rs, re).toArray(new IPAElement[0]);
+		if(tape == null) {
+			if(this.input == null) {
+				tape = new IPAElement[0];
+			} else {
+				final int rs = (regionStart >= 0 ? regionStart : 0);
+				final int re = (regionEnd >= 0 ? regionEnd : input.size());
+				tape = input.subList(rs, re).toArray(new IPAElement[0]);
+			}
+		}
+		return tape;
 	}
 
 	/**
@@ -108,6 +130,7 @@ public class PhonexMatcher {
 	public void region(int regionStart, int regionEnd) {
 		this.regionStart = regionStart;
 		this.regionEnd = regionEnd;
+		this.tape = null;
 		reset();
 	}
 
@@ -118,6 +141,7 @@ public class PhonexMatcher {
 	 */
 	public void reset(List<IPAElement> input) {
 		this.input = input;
+		this.tape = null;
 		reset();
 	}
 
@@ -130,8 +154,8 @@ public class PhonexMatcher {
 	public boolean matches() {
 		reset();
 		lastMatchState =
-				pattern.getFsa().runWithTape(getTape(), lastMatchState, true);
-		return pattern.getFsa().isFinalState(lastMatchState.getCurrentState())
+				pattern.getCompiledFsa().runWithTape(getTape(), lastMatchState, true, decisionStack);
+		return pattern.getCompiledFsa().isFinalState(lastMatchState.getCurrentState())
 				&& lastMatchState.getRunningState() == RunningState.EndOfInput;
 	}
 
@@ -161,17 +185,27 @@ public class PhonexMatcher {
 			currentIdx = (allowOverlap ? start(xGrpIdx)+1 : end(xGrpIdx));
 		}
 
+		final PhonexFirstSet firstSet = pattern.getFirstSet();
 		IPAElement[] tape = getTape();
 		while(!retVal && currentIdx < tape.length) {
+			// skip positions which cannot begin a match
+			if(firstSet != null && !firstSet.canStartWith(tape[currentIdx])) {
+				lastMatchState.setTapeIndex(currentIdx);
+				lastMatchState.setCurrentState(null);
+				lastMatchState.resetGroupData();
+				currentIdx++;
+				continue;
+			}
+
 			lastMatchState.setTapeIndex(currentIdx);
 			lastMatchState.setLookAheadOffset(0);
 			lastMatchState.setLookBehindOffset(1);
 			lastMatchState.resetGroupData();
 
 			lastMatchState =
-					pattern.getFsa().runWithTape(tape, lastMatchState);
+					pattern.getCompiledFsa().runWithTape(tape, lastMatchState, false, decisionStack);
 			retVal =
-					pattern.getFsa().isFinalState(lastMatchState.getCurrentState()) && (lastMatchState.getTapeIndex() != currentIdx);
+					pattern.getCompiledFsa().isFinalState(lastMatchState.getCurrentState()) && (lastMatchState.getTapeIndex() != currentIdx);
 			if(retVal)
 				lastMatchStart = currentIdx;
 			currentIdx++;
@@ -227,10 +261,7 @@ public class PhonexMatcher {
 		if(gIdx == 0)
 			retVal = lastMatchStart;
 		else {
-			int[] groupStarts = lastMatchState.getGroupStarts();
-			int i = gIdx -1;
-			retVal =
-					(i < groupStarts.length ? groupStarts[i] : -1 );
+			retVal = lastMatchState.getGroupStart(gIdx);
 		}
 		return retVal;
 	}
@@ -258,9 +289,11 @@ public class PhonexMatcher {
 		if(gIdx == 0)
 			retVal = lastMatchState.getTapeIndex();
 		else {
+			if(gIdx > lastMatchState.numberOfGroups())
+				throw new ArrayIndexOutOfBoundsException(gIdx-1);
 			retVal =
-					lastMatchState.getGroupStarts()[gIdx-1] +
-					lastMatchState.getGroupLengths()[gIdx-1];
+					lastMatchState.getGroupStart(gIdx) +
+					lastMatchState.getGroupLength(gIdx);
 		}
 		return retVal;
 	}
@@ -321,7 +354,7 @@ public class PhonexMatcher {
 	private void checkLastMatch()
 		throws IllegalStateException {
 		if(lastMatchState.getCurrentState() == null
-				|| !pattern.getFsa().isFinalState(lastMatchState.getCurrentState())) {
+				|| !pattern.getCompiledFsa().isFinalState(lastMatchState.getCurrentState())) {
 			throw new IllegalStateException("No previous match");
 		}
 	}
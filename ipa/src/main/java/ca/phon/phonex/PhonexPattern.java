@@ -15,6 +15,7 @@
  */
 package ca.phon.phonex;
 
+import ca.phon.fsa.CompiledFSA;
 import ca.phon.ipa.*;
 import ca.phon.syllable.SyllabificationInfo;
 import ca.phon.util.PrefHelper;
@@ -72,6 +73,16 @@ public class PhonexPattern implements Comparable<PhonexPattern> {
 	 */
 	private PhonexFSA fsa;
 
+	/**
+	 * Compiled (frozen) form of the fsa used by matchers
+	 */
+	private CompiledFSA<IPAElement> compiledFsa;
+
+	/**
+	 * Matchers for the first element of a match, may be <code>null</code>
+	 */
+	private PhonexFirstSet firstSet;
+
 	private int flags = 0;
 
 	/**
@@ -185,6 +196,8 @@ public class PhonexPattern implements Comparable<PhonexPattern> {
 	 */
 	PhonexPattern(PhonexFSA fsa) {
 		this.fsa = fsa;
+		this.compiledFsa = fsa.compile();
+		this.firstSet = PhonexFirstSet.compute(fsa);
 	}
 
 	/**
@@ -223,6 +236,25 @@ public class PhonexPattern implements Comparable<PhonexPattern> {
 		return this.fsa;
 	}
 
+	/**
+	 * Access the compiled form of the fsa.  This is a snapshot
+	 * of {@link #getFsa()} taken when the pattern was compiled.
+	 *
+	 * @return the compiled fsa used for matching
+	 */
+	public CompiledFSA<IPAElement> getCompiledFsa() {
+		return this.compiledFsa;
+	}
+
+	/**
+	 * First set used to skip start positions during {@link PhonexMatcher#find()}
+	 *
+	 * @return first set or <code>null</code> if all start positions must be tested
+	 */
+	PhonexFirstSet getFirstSet() {
+		return this.firstSet;
+	}
+
 	/**
 	 * Returns the number of groups in the
 	 * compiled pattern.
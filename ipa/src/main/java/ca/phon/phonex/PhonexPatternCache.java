@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.phonex;
+
+import ca.phon.util.PrefHelper;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Bounded, least-recently-used cache of compiled {@link PhonexPattern}s
+ * keyed by expression text and flags.</p>
+ *
+ * <p>Used by convenience methods such as {@link ca.phon.ipa.IPATranscript#matches(String)}
+ * which may be called many times with the same expression.  Invalid
+ * expressions are not cached.  Pattern compilation happens outside of
+ * the cache lock, two threads requesting the same new expression may
+ * both compile it.</p>
+ *
+ */
+public final class PhonexPatternCache {
+
+	/**
+	 * Maximum number of patterns kept by the shared cache
+	 */
+	public final static String CACHE_SIZE_PROP = PhonexPatternCache.class.getName() + ".cacheSize";
+	public final static int DEFAULT_CACHE_SIZE = 256;
+
+	private final static PhonexPatternCache _instance =
+			new PhonexPatternCache(PrefHelper.getInt(CACHE_SIZE_PROP, DEFAULT_CACHE_SIZE));
+
+	public static PhonexPatternCache getInstance() {
+		return _instance;
+	}
+
+	private final int maxSize;
+
+	private final LinkedHashMap<Key, PhonexPattern> cache;
+
+	private final AtomicLong hits = new AtomicLong(0L);
+
+	private final AtomicLong misses = new AtomicLong(0L);
+
+	private final AtomicLong evictions = new AtomicLong(0L);
+
+	/**
+	 * Create a new cache
+	 *
+	 * @param maxSize maximum number of patterns to keep
+	 */
+	public PhonexPatternCache(int maxSize) {
+		super();
+		this.maxSize = Math.max(1, maxSize);
+		this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, PhonexPattern> eldest) {
+				boolean retVal = size() > PhonexPatternCache.this.maxSize;
+				if(retVal) evictions.incrementAndGet();
+				return retVal;
+			}
+		};
+	}
+
+	public PhonexPattern compile(String phonex) throws PhonexPatternException {
+		return compile(phonex, 0);
+	}
+
+	/**
+	 * Return the compiled pattern for the given expression, compiling
+	 * and caching the pattern if necessary.
+	 *
+	 * @param phonex
+	 * @param flags
+	 * @return compiled pattern
+	 * @throws PhonexPatternException if the expression's syntax is invalid
+	 */
+	public PhonexPattern compile(String phonex, int flags) throws PhonexPatternException {
+		final Key key = new Key(phonex, flags);
+		PhonexPattern retVal = null;
+		synchronized(cache) {
+			retVal = cache.get(key);
+		}
+		if(retVal != null) {
+			hits.incrementAndGet();
+			return retVal;
+		}
+
+		misses.incrementAndGet();
+		retVal = PhonexPattern.compile(phonex, flags);
+		synchronized(cache) {
+			final PhonexPattern existing = cache.putIfAbsent(key, retVal);
+			if(existing != null) retVal = existing;
+		}
+		return retVal;
+	}
+
+	/**
+	 * Remove all cached patterns.  Statistics are not reset.
+	 */
+	public void clear() {
+		synchronized(cache) {
+			cache.clear();
+		}
+	}
+
+	public int size() {
+		synchronized(cache) {
+			return cache.size();
+		}
+	}
+
+	public int getMaxSize() {
+		return this.maxSize;
+	}
+
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	public long getEvictionCount() {
+		return evictions.get();
+	}
+
+	/**
+	 * Reset hit, miss and eviction counters
+	 */
+	public void resetStatistics() {
+		hits.set(0L);
+		misses.set(0L);
+		evictions.set(0L);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("PhonexPatternCache[size=%d, maxSize=%d, hits=%d, misses=%d, evictions=%d]",
+				size(), getMaxSize(), getHitCount(), getMissCount(), getEvictionCount());
+	}
+
+	private final static class Key {
+
+		private final String phonex;
+
+		private final int flags;
+
+		public Key(String phonex, int flags) {
+			this.phonex = phonex;
+			this.flags = flags;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) return true;
+			if(!(obj instanceof Key)) return false;
+			final Key other = (Key)obj;
+			return flags == other.flags && phonex.equals(other.phonex);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * phonex.hashCode() + flags;
+		}
+
+	}
+
+}
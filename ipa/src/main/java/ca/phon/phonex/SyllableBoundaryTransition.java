@@ -30,11 +30,6 @@ import java.util.List;
  */
 public class SyllableBoundaryTransition extends PhonexTransition {
 
-	/**
-	 * Length of tape matched
-	 */
-	private int matchLength = 0;
-
 	public SyllableBoundaryTransition() {
 		super(null);
 	}
@@ -42,7 +37,7 @@ public class SyllableBoundaryTransition extends PhonexTransition {
 	@Override
 	public boolean follow(FSAState<IPAElement> currentState) {
 		boolean retVal = false;
-		matchLength = 0;
+		currentState.setMatchLength(0);
 
 		final IPATranscript transcript = new IPATranscript(currentState.getTape());
 		final List<IPATranscript> sylls = transcript.syllables();
@@ -65,17 +60,17 @@ public class SyllableBoundaryTransition extends PhonexTransition {
 		p.accept(test);
 		retVal = test.isPunct;
 		if(retVal) {
-			matchLength = 1;
+			currentState.setMatchLength(1);
 		}
 
 		if(!retVal) {
 			for(IPATranscript syll:sylls) {
 				if(p == syll.elementAt(0) && (getOffsetType() == OffsetType.NORMAL || getOffsetType() == OffsetType.LOOK_AHEAD)) {
 					retVal = true;
-					matchLength = 0;
+					currentState.setMatchLength(0);
 				} else if(p == syll.elementAt(syll.length()-1) && getOffsetType() == OffsetType.LOOK_BEHIND) {
 					retVal = true;
-					matchLength = 0;
+					currentState.setMatchLength(0);
 				}
 			}
 		}
@@ -84,8 +79,8 @@ public class SyllableBoundaryTransition extends PhonexTransition {
 	}
 
 	@Override
-	public int getMatchLength() {
-		return matchLength;
+	public int getMatchLength(FSAState<IPAElement> currentState) {
+		return currentState.getMatchLength();
 	}
 
 	@Override
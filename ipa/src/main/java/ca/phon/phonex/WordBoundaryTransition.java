@@ -24,12 +24,6 @@ import ca.phon.ipa.IPAElement;
  */
 public class WordBoundaryTransition extends PhonexTransition {
 
-	/**
-	 * match length - 0 if at beginning/end of input, 1 if matching a space
-	 * set when calling 'follow' and it matches
-	 */
-	private int matchLength = 0;
-
 	public WordBoundaryTransition() {
 		super(null);
 	}
@@ -53,12 +47,12 @@ public class WordBoundaryTransition extends PhonexTransition {
 		if( (tapeIdx == 0 && currentState.getCurrentState().equals("q0")) ||
 				(currentState.getTapeIndex() >= currentState.getTape().length) ) {
 			retVal = true;
-			matchLength = 0;
+			currentState.setMatchLength(0);
 		} else {
 			IPAElement p = currentState.getTape()[tapeIdx];
 			if(p.getText().equals(" ")) {
 				retVal = true;
-				matchLength = 1;
+				currentState.setMatchLength(1);
 			}
 		}
 
@@ -66,8 +60,8 @@ public class WordBoundaryTransition extends PhonexTransition {
 	}
 
 	@Override
-	public int getMatchLength() {
-		return matchLength;
+	public int getMatchLength(FSAState<IPAElement> currentState) {
+		return currentState.getMatchLength();
 	}
 
 	@Override
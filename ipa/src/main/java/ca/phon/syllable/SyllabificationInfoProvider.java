@@ -21,7 +21,11 @@ import ca.phon.ipa.IPAElement;
 /**
  * Provides the syllable constituent type
  * annotation automagically.
+ * 
+ * @deprecated {@link IPAElement} now creates {@link SyllabificationInfo}
+ *  on first access, this provider is no longer registered
  */
+@Deprecated
 @Extension(IPAElement.class)
 public class SyllabificationInfoProvider implements ExtensionProvider {
 
@@ -29,8 +29,6 @@ import java.util.*;
  */
 public class SyllableTransition extends PhonexTransition {
 
-	private int matchLength = 0;
-	
 	private PhoneMatcher[] matchers = new PhoneMatcher[0];
 	
 	private Tuple<SyllableConstituentType, SyllableConstituentType> syllableRange;
@@ -52,7 +50,7 @@ public class SyllableTransition extends PhonexTransition {
 	
 	@Override
 	public boolean follow(FSAState<IPAElement> currentState) {
-		matchLength = 0;
+		currentState.setMatchLength(0);
 		
 		int tapeIdx = -1;
 		if(getOffsetType() == OffsetType.NORMAL) {
@@ -88,7 +86,7 @@ public class SyllableTransition extends PhonexTransition {
 						}
 					}
 					
-					matchLength = lastIdx - i;
+					currentState.setMatchLength(lastIdx - i);
 					return true;
 				}
 			}
@@ -327,8 +325,8 @@ public class SyllableTransition extends PhonexTransition {
 	}
 
 	@Override
-	public int getMatchLength() {
-		return matchLength;
+	public int getMatchLength(FSAState<IPAElement> currentState) {
+		return currentState.getMatchLength();
 	}
 	
 	@Override
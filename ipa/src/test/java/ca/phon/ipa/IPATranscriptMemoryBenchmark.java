@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2005-2020 Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.ipa;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+
+import java.lang.ref.Reference;
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing of {@link IPATranscript}s and the memory retained
+ * per {@link IPAElement}.  Retained heap is measured and reported before
+ * the JMH benchmarks are executed.
+ *
+ * Run with <code>java -cp &lt;test classpath&gt; ca.phon.ipa.IPATranscriptMemoryBenchmark</code>
+ * (add <code>-prof gc</code> using the JMH main class to compare allocation rates.)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IPATranscriptMemoryBenchmark {
+
+	private final static String TRANSCRIPT =
+			"ˈlæmp.poʊst ˈkʰæt ˈdɔg ˌstɹɛŋθ ˈwɔ.tɚ ˈbʌ.tɚ.flaɪ ˈɛ.lə.fənt ˈsɪs.tɚ ˈbɹʌ.ðɚ ˈtʃɪl.dɹən";
+
+	private final static int NUM_TRANSCRIPTS = 20000;
+
+	@Benchmark
+	public void parse(Blackhole bh) throws ParseException {
+		bh.consume(IPATranscript.parseIPATranscript(TRANSCRIPT));
+	}
+
+	@Benchmark
+	public void parseAndReadConstituentTypes(Blackhole bh) throws ParseException {
+		final IPATranscript ipa = IPATranscript.parseIPATranscript(TRANSCRIPT);
+		for(IPAElement ele:ipa) {
+			bh.consume(ele.getScType());
+		}
+	}
+
+	private static long usedMemory() {
+		final Runtime runtime = Runtime.getRuntime();
+		for(int i = 0; i < 3; i++) {
+			System.gc();
+			try {
+				Thread.sleep(100L);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	/**
+	 * Measure heap retained by parsed transcripts.
+	 *
+	 * @return bytes per element after parsing and after constituent type access
+	 */
+	public static double[] measureRetainedMemory() throws ParseException {
+		final long before = usedMemory();
+		final IPATranscript[] transcripts = new IPATranscript[NUM_TRANSCRIPTS];
+		long numElements = 0L;
+		for(int i = 0; i < NUM_TRANSCRIPTS; i++) {
+			transcripts[i] = IPATranscript.parseIPATranscript(TRANSCRIPT);
+			numElements += transcripts[i].length();
+		}
+		final long afterParse = usedMemory();
+
+		// constituent types are created on first access
+		for(IPATranscript ipa:transcripts) {
+			for(IPAElement ele:ipa) {
+				ele.getScType();
+			}
+		}
+		final long afterScType = usedMemory();
+		// keep transcripts reachable until measured
+		Reference.reachabilityFence(transcripts);
+
+		return new double[] {
+				(afterParse - before) / (double)numElements,
+				(afterScType - before) / (double)numElements };
+	}
+
+	public static void main(String[] args) throws ParseException, RunnerException {
+		final double[] retained = measureRetainedMemory();
+		System.out.printf("Parsed: %.1f bytes/element%n", retained[0]);
+		System.out.printf("After constituent type access: %.1f bytes/element%n", retained[1]);
+
+		final Options opts = new OptionsBuilder()
+				.include(IPATranscriptMemoryBenchmark.class.getSimpleName())
+				.build();
+		new Runner(opts).run();
+	}
+
+}
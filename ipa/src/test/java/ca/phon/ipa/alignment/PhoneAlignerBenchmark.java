@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2005-2020 Gregory Hedlund & Yvan Rose
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.ipa.alignment;
+
+import ca.phon.alignment.*;
+import ca.phon.ipa.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares phone alignment using the recursive {@link IndelAligner} with
+ * {@link IterativeIndelAligner} (used by {@link PhoneAligner}.)
+ *
+ * Run with <code>java -cp &lt;test classpath&gt; ca.phon.ipa.alignment.PhoneAlignerBenchmark</code>
+ * (add <code>-prof gc</code> using the JMH main class to compare allocation rates.)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PhoneAlignerBenchmark {
+
+	private final static String[] TARGETS = {
+		"ˈlæmp.poʊst",
+		"ˈbʌ.tɚ.flaɪ ˈɛ.lə.fənt",
+		"ˈlæmp.poʊst ˈkʰæt ˈdɔg ˌstɹɛŋθ ˈwɔ.tɚ ˈbʌ.tɚ.flaɪ ˈɛ.lə.fənt"
+	};
+
+	private final static String[] ACTUALS = {
+		"ˈwæm.pos",
+		"ˈbʌ.dɚ.faɪ ˈɛ.fən",
+		"ˈwæm.pos ˈtæt ˈdɔ ˌtɛn ˈwɔ.dɚ ˈbʌ.dɚ.faɪ ˈɛ.fən"
+	};
+
+	/* index of target/actual pair */
+	@Param({ "0", "1", "2" })
+	public int pair;
+
+	private IPAElement[] targetEles;
+
+	private IPAElement[] actualEles;
+
+	private PhoneAligner phoneAligner;
+
+	private IndelAligner<IPAElement> recursiveAligner;
+
+	@Setup
+	public void setup() throws Exception {
+		final IPATranscript targetIPA = IPATranscript.parseIPATranscript(TARGETS[pair]);
+		final IPATranscript actualIPA = IPATranscript.parseIPATranscript(ACTUALS[pair]);
+
+		targetEles = toArray(targetIPA.audiblePhones());
+		actualEles = toArray(actualIPA.audiblePhones());
+
+		phoneAligner = new PhoneAligner();
+		phoneAligner.setTargetSyllables(targetIPA.syllables());
+		phoneAligner.setActualSyllables(actualIPA.syllables());
+
+		recursiveAligner = new IndelAligner<IPAElement>() {
+
+			@Override
+			protected int costSubstitute(IPAElement ele1, IPAElement ele2) {
+				return phoneAligner.costSubstitute(ele1, ele2);
+			}
+
+			@Override
+			protected int costSkip(IPAElement ele) {
+				return phoneAligner.costSkip(ele);
+			}
+
+		};
+	}
+
+	private IPAElement[] toArray(IPATranscript ipa) {
+		final IPAElement[] retVal = new IPAElement[ipa.length()];
+		for(int i = 0; i < ipa.length(); i++) retVal[i] = ipa.elementAt(i);
+		return retVal;
+	}
+
+	@Benchmark
+	public void recursive(Blackhole bh) {
+		bh.consume(recursiveAligner.calculateAlignment(targetEles, actualEles));
+	}
+
+	@Benchmark
+	public void iterative(Blackhole bh) {
+		bh.consume(phoneAligner.calculateAlignment(targetEles, actualEles));
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		final Options opts = new OptionsBuilder()
+				.include(PhoneAlignerBenchmark.class.getSimpleName())
+				.build();
+		new Runner(opts).run();
+	}
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2005-2020 Gregory Hedlund & Yvan Rose
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.ipa.alignment;
+
+import ca.phon.ipa.*;
+import ca.phon.ipa.features.FeatureSet;
+import junit.framework.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.text.ParseException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(JUnit4.class)
+public class TestPhoneSimilarityTable {
+
+	@Test
+	public void testMemoizedScores() throws ParseException {
+		final AtomicInteger calls = new AtomicInteger();
+		final PhoneSimilarityTable table = new PhoneSimilarityTable( (e1, e2) -> {
+			calls.incrementAndGet();
+			return e1.getText().length() - e2.getText().length();
+		});
+
+		final IPATranscript ipa1 = IPATranscript.parseIPATranscript("kʰæt");
+		final IPATranscript ipa2 = IPATranscript.parseIPATranscript("kæt");
+		for(int k = 0; k < 2; k++) {
+			for(int i = 0; i < ipa1.length(); i++) {
+				for(int j = 0; j < ipa2.length(); j++) {
+					final IPAElement e1 = ipa1.elementAt(i);
+					final IPAElement e2 = ipa2.elementAt(j);
+					Assert.assertEquals(e1.getText().length() - e2.getText().length(), table.getScore(e1, e2));
+				}
+			}
+		}
+		// kʰ, k, æ, t are interned once
+		Assert.assertEquals(4, table.size());
+		Assert.assertEquals(ipa1.length() * ipa2.length(), calls.get());
+
+		// elements with custom features are not cached
+		final IPAElement custom = ipa1.elementAt(1);
+		custom.setFeatureSet(new FeatureSet());
+		table.getScore(custom, ipa2.elementAt(0));
+		table.getScore(custom, ipa2.elementAt(0));
+		Assert.assertEquals(ipa1.length() * ipa2.length() + 2, calls.get());
+	}
+
+	@Test
+	public void testPhoneAlignment() throws ParseException {
+		final IPATranscript target = IPATranscript.parseIPATranscript("ˈbʌ.tɚ.flaɪ");
+		final IPATranscript actual = IPATranscript.parseIPATranscript("ˈbʌ.dɚ.faɪ");
+
+		final PhoneMap first = (new PhoneAligner()).calculatePhoneAlignment(target, actual);
+		final PhoneMap second = (new PhoneAligner()).calculatePhoneAlignment(target, actual);
+		Assert.assertEquals(first.toString(), second.toString());
+		Assert.assertEquals(first.getAlignmentLength(), second.getAlignmentLength());
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2005-2020 Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.phonex;
+
+import ca.phon.fsa.FSAState;
+import ca.phon.ipa.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares scanning a transcript using the interpreted {@link PhonexFSA}
+ * with {@link PhonexMatcher#find()} which uses the compiled machine and
+ * a pooled decision stack.
+ *
+ * Run with <code>java -cp &lt;test classpath&gt; ca.phon.phonex.PhonexMatcherBenchmark</code>
+ * (add <code>-prof gc</code> using the JMH main class to compare allocation rates.)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PhonexMatcherBenchmark {
+
+	private final static String TRANSCRIPT =
+			"ˈlæmp.poʊst ˈkʰæt ˈdɔg ˌstɹɛŋθ ˈwɔ.tɚ ˈbʌ.tɚ.flaɪ ˈɛ.lə.fənt ˈsɪs.tɚ ˈbɹʌ.ðɚ ˈtʃɪl.dɹən";
+
+	@Param({ "\\c\\v", "(\\c*\\v+\\c*)*", "(\\c)\\S?\\1", "((C1=\\c)(C2=\\c)|(C1=\\c))\\v" })
+	public String phonex;
+
+	private PhonexPattern pattern;
+
+	private IPATranscript ipa;
+
+	private IPAElement[] tape;
+
+	private PhonexMatcher matcher;
+
+	@Setup
+	public void setup() throws Exception {
+		pattern = PhonexPattern.compile(phonex);
+		ipa = IPATranscript.parseIPATranscript(TRANSCRIPT);
+		matcher = pattern.matcher(ipa);
+		tape = matcher.getTape();
+	}
+
+	@Benchmark
+	public void interpreted(Blackhole bh) {
+		final PhonexFSA fsa = pattern.getFsa();
+		FSAState<IPAElement> state = new FSAState<>();
+		state.setTape(tape);
+		int idx = 0;
+		while(idx < tape.length) {
+			state.setTapeIndex(idx);
+			state.setLookAheadOffset(0);
+			state.setLookBehindOffset(1);
+			state.resetGroupData();
+			state = fsa.runWithTape(tape, state);
+			if(fsa.isFinalState(state.getCurrentState()) && state.getTapeIndex() != idx) {
+				bh.consume(state.getTapeIndex());
+				idx = state.getTapeIndex();
+			} else {
+				++idx;
+			}
+		}
+	}
+
+	@Benchmark
+	public void compiled(Blackhole bh) {
+		matcher.reset();
+		while(matcher.find()) {
+			bh.consume(matcher.end());
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		final Options opts = new OptionsBuilder()
+				.include(PhonexMatcherBenchmark.class.getSimpleName())
+				.build();
+		new Runner(opts).run();
+	}
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2005-2020 Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.phonex;
+
+import ca.phon.fsa.*;
+import ca.phon.ipa.*;
+import junit.framework.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Arrays;
+
+/**
+ * Ensure compiled machines produce the same results as
+ * {@link SimpleFSA#runWithTape(Object[], FSAState, boolean)}
+ */
+@RunWith(JUnit4.class)
+public class TestCompiledFSA {
+
+	private final static String[] PHONEX = {
+			"\\c\\v",
+			"(\\c*\\v+\\c*)*",
+			"(\\c)\\S?\\1",
+			"((C1=\\c)(C2=\\c)|(C1=\\c))\\v",
+			"(\\w+)\\b↔\\b(\\w+)",
+			"(?<\\w)\\c(?>\\w)",
+			"\\c+?\\v",
+			"\\c*+\\v",
+			"^\\c",
+			"\\v$"
+	};
+
+	private final static String[] IPA = {
+			"bbadd",
+			"ˈlæmp.poʊst",
+			"ˈkʰæt ↔ ˈdɔg",
+			"ˌstɹɛŋθ",
+			"ɑ"
+	};
+
+	@Test
+	public void testEquivalence() throws Exception {
+		for(String phonex:PHONEX) {
+			final PhonexPattern pattern = PhonexPattern.compile(phonex);
+			for(String txt:IPA) {
+				final IPATranscript ipa = IPATranscript.parseIPATranscript(txt);
+				final IPAElement[] tape = pattern.matcher(ipa).getTape();
+
+				for(int i = 0; i < tape.length; i++) {
+					for(boolean forceReluctant:new boolean[]{ true, false }) {
+						final FSAState<IPAElement> expected = new FSAState<>();
+						expected.setTape(tape);
+						expected.setTapeIndex(i);
+						pattern.getFsa().runWithTape(tape, expected, forceReluctant);
+
+						final FSAState<IPAElement> actual = new FSAState<>();
+						actual.setTape(tape);
+						actual.setTapeIndex(i);
+						pattern.getCompiledFsa().runWithTape(tape, actual, forceReluctant);
+
+						final String msg = phonex + " on " + txt + " @ " + i;
+						Assert.assertEquals(msg, expected.getCurrentState(), actual.getCurrentState());
+						Assert.assertEquals(msg, expected.getTapeIndex(), actual.getTapeIndex());
+						Assert.assertEquals(msg, expected.getRunningState(), actual.getRunningState());
+						Assert.assertTrue(msg, Arrays.equals(expected.getGroupStarts(), actual.getGroupStarts()));
+						Assert.assertTrue(msg, Arrays.equals(expected.getGroupLengths(), actual.getGroupLengths()));
+					}
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2005-2020 Gregory Hedlund & Yvan Rose
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.phonex;
+
+import ca.phon.fsa.FSAState;
+import ca.phon.ipa.*;
+import junit.framework.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Ensure the first set used by {@link PhonexMatcher#find()} never
+ * rejects a position at which a match begins.
+ */
+@RunWith(JUnit4.class)
+public class TestPhonexFirstSet {
+
+	private final static String[] IPA = {
+			"abta",
+			"bbadd",
+			"ˈlæmp.poʊst",
+			"ˈkʰæt ↔ ˈdɔg",
+			"ɑ"
+	};
+
+	/**
+	 * Check that every start position with a non-empty match is accepted
+	 * by the first set and that find() reports the same start positions.
+	 */
+	private void assertFirstSet(PhonexPattern pattern) throws Exception {
+		final PhonexFirstSet firstSet = pattern.getFirstSet();
+		for(String txt:IPA) {
+			final IPATranscript ipa = IPATranscript.parseIPATranscript(txt);
+			final PhonexMatcher matcher = pattern.matcher(ipa);
+			final IPAElement[] tape = matcher.getTape();
+
+			int lastEnd = 0;
+			for(int i = 0; i < tape.length; i++) {
+				final FSAState<IPAElement> state = new FSAState<>();
+				state.setTape(tape);
+				state.setTapeIndex(i);
+				pattern.getFsa().runWithTape(tape, state, false);
+				final boolean isMatch = pattern.getFsa().isFinalState(state.getCurrentState())
+						&& state.getTapeIndex() != i;
+
+				final String msg = pattern.pattern() + " on " + txt + " @ " + i;
+				if(isMatch && firstSet != null) {
+					Assert.assertTrue(msg, firstSet.canStartWith(tape[i]));
+				}
+				if(isMatch && i >= lastEnd) {
+					Assert.assertTrue(msg, matcher.find());
+					Assert.assertEquals(msg, i, matcher.start());
+					Assert.assertEquals(msg, state.getTapeIndex(), matcher.end());
+					lastEnd = matcher.end();
+				}
+			}
+			Assert.assertFalse(pattern.pattern() + " on " + txt, matcher.find());
+		}
+	}
+
+	@Test
+	public void testPlain() throws Exception {
+		final PhonexPattern pattern = PhonexPattern.compile("\\c\\v");
+		Assert.assertNotNull(pattern.getFirstSet());
+		Assert.assertFalse(pattern.getFirstSet().canStartWith(IPATranscript.parseIPATranscript("a").elementAt(0)));
+		assertFirstSet(pattern);
+	}
+
+	@Test
+	public void testOptional() throws Exception {
+		for(String phonex:new String[] { "\\c?\\v", "(\\c)?\\v", "\\c*\\v", "(\\c|\\g)?\\v" }) {
+			final PhonexPattern pattern = PhonexPattern.compile(phonex);
+			Assert.assertNotNull(phonex, pattern.getFirstSet());
+			// optional leading consonant must not hide the vowel
+			Assert.assertTrue(phonex, pattern.getFirstSet().canStartWith(IPATranscript.parseIPATranscript("a").elementAt(0)));
+			assertFirstSet(pattern);
+		}
+	}
+
+	@Test
+	public void testZeroWidth() throws Exception {
+		for(String phonex:new String[] { "(?<\\w)\\c", "(?<\\v)\\c(?>\\w)", "(\\c*)\\v", "(\\w+)\\b↔\\b(\\w+)" }) {
+			final PhonexPattern pattern = PhonexPattern.compile(phonex);
+			assertFirstSet(pattern);
+		}
+		Assert.assertNull(PhonexPattern.compile("(?<\\w)\\c").getFirstSet());
+	}
+
+	@Test
+	public void testBoundary() throws Exception {
+		for(String phonex:new String[] { "^\\c", "\\b\\c", "\\S\\c", "\\c?\\b\\v", "\\c*\\S\\v" }) {
+			final PhonexPattern pattern = PhonexPattern.compile(phonex);
+			Assert.assertNull(phonex, pattern.getFirstSet());
+			assertFirstSet(pattern);
+		}
+	}
+
+	@Test
+	public void testBackReference() throws Exception {
+		for(String phonex:new String[] { "(\\c)?\\1\\v", "(\\c*)\\1\\v", "(\\c)\\S?\\1" }) {
+			final PhonexPattern pattern = PhonexPattern.compile(phonex);
+			assertFirstSet(pattern);
+		}
+		Assert.assertNull(PhonexPattern.compile("(\\c)?\\1\\v").getFirstSet());
+	}
+
+}
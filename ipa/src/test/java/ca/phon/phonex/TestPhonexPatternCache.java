@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2005-2020 Gregory Hedlund & Yvan Rose
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.phonex;
+
+import ca.phon.ipa.IPATranscript;
+import junit.framework.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class TestPhonexPatternCache {
+
+	@Test
+	public void testHit() throws Exception {
+		final PhonexPatternCache cache = new PhonexPatternCache(4);
+		final PhonexPattern pattern = cache.compile("\\c\\v");
+		Assert.assertEquals(0, cache.getHitCount());
+		Assert.assertEquals(1, cache.getMissCount());
+
+		Assert.assertSame(pattern, cache.compile("\\c\\v"));
+		Assert.assertEquals(1, cache.getHitCount());
+		Assert.assertEquals(1, cache.getMissCount());
+		Assert.assertEquals(1, cache.size());
+		Assert.assertTrue(pattern.matcher(IPATranscript.parseIPATranscript("ba")).matches());
+	}
+
+	@Test
+	public void testEviction() throws Exception {
+		final PhonexPatternCache cache = new PhonexPatternCache(2);
+		final PhonexPattern p1 = cache.compile("\\c");
+		final PhonexPattern p2 = cache.compile("\\v");
+
+		// use p1 so that p2 is least recently used
+		Assert.assertSame(p1, cache.compile("\\c"));
+		cache.compile("\\g");
+		Assert.assertEquals(2, cache.size());
+		Assert.assertEquals(1, cache.getEvictionCount());
+
+		Assert.assertSame(p1, cache.compile("\\c"));
+		Assert.assertNotSame(p2, cache.compile("\\v"));
+		Assert.assertEquals(2, cache.getEvictionCount());
+		Assert.assertEquals(4, cache.getMissCount());
+	}
+
+	@Test
+	public void testFlagsKey() throws Exception {
+		final PhonexPatternCache cache = new PhonexPatternCache(4);
+		final int overlapping = PhonexFlag.ALLOW_OVERLAPPING_MATCHES.getBitmask();
+		final PhonexPattern p1 = cache.compile("\\c\\v\\c\\v");
+		final PhonexPattern p2 = cache.compile("\\c\\v\\c\\v", overlapping);
+		Assert.assertNotSame(p1, p2);
+		Assert.assertEquals(2, cache.size());
+		Assert.assertEquals(2, cache.getMissCount());
+		Assert.assertSame(p2, cache.compile("\\c\\v\\c\\v", overlapping));
+		Assert.assertEquals(1, cache.getHitCount());
+
+		final IPATranscript ipa = IPATranscript.parseIPATranscript("badafagabadafa");
+		Assert.assertEquals(3, countMatches(p1, ipa));
+		Assert.assertEquals(6, countMatches(p2, ipa));
+	}
+
+	@Test(expected=PhonexPatternException.class)
+	public void testInvalidNotCached() throws Exception {
+		final PhonexPatternCache cache = new PhonexPatternCache(4);
+		try {
+			cache.compile("\\c\\v/z");
+		} finally {
+			Assert.assertEquals(0, cache.size());
+		}
+	}
+
+	private int countMatches(PhonexPattern pattern, IPATranscript ipa) {
+		final PhonexMatcher matcher = pattern.matcher(ipa);
+		int numMatches = 0;
+		while(matcher.find()) {
+			++numMatches;
+		}
+		return numMatches;
+	}
+
+}
@@ -77,10 +77,53 @@ public final class IPADictionary implements IExtendable {
 			LOGGER.error( e.getLocalizedMessage(), e);
 		}
 		
-		// generate suggestions and add them to the end 
-		// (if implementation supports this)
-		// suggestions are usually implemented to handle
-		// contractions in the target language
+		return appendSuggestions(orthography, retVal);
+	}
+	
+	/**
+	 * Perform a lookup for each of the given orthographic transcriptions.
+	 * Dictionaries implementing {@link LookupAll} may resolve all
+	 * values at once, otherwise {@link #lookup(String)} is called
+	 * for each value.
+	 * 
+	 * @param orthography
+	 * @return map of orthography to the ipa transcriptions found or
+	 *  generated by this dictionary
+	 */
+	public Map<String, String[]> lookupAll(Collection<String> orthography) {
+		final Map<String, String[]> retVal = new LinkedHashMap<>();
+		
+		LookupAll cap = getExtension(LookupAll.class);
+		if(cap != null) {
+			try {
+				final Map<String, String[]> results = cap.lookupAll(orthography);
+				for(String ortho:orthography) {
+					final String[] ipa = results.get(ortho);
+					retVal.put(ortho, appendSuggestions(ortho, (ipa != null ? ipa : new String[0])));
+				}
+				return retVal;
+			} catch (IPADictionaryExecption e) {
+				LOGGER.error( e.getLocalizedMessage(), e);
+				retVal.clear();
+			}
+		}
+		
+		for(String ortho:orthography) {
+			if(!retVal.containsKey(ortho)) {
+				retVal.put(ortho, lookup(ortho));
+			}
+		}
+		return retVal;
+	}
+	
+	/*
+	 * Generate suggestions and add them to the end 
+	 * (if implementation supports this)
+	 * suggestions are usually implemented to handle
+	 * contractions in the target language
+	 */
+	private String[] appendSuggestions(String orthography, String[] ipa) {
+		String[] retVal = ipa;
 		GenerateSuggestions genSuggestions = 
 			getExtension(GenerateSuggestions.class);
 		if(genSuggestions != null) {
@@ -0,0 +1,335 @@
+/*
+ * Copyright (C) Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.ipadictionary.impl;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.*;
+import java.util.*;
+
+/**
+ * <p>Read-only, memory-mapped dictionary index.  Keys are stored in sorted
+ * order with an offset table so that lookups and prefix searches are
+ * binary searches over the mapped file.  No entries are loaded into
+ * the heap until requested.</p>
+ *
+ * <p>File layout (big-endian):</p>
+ * <pre>
+ * int magic ('PHDI'), int version
+ * int sourceIdLength, char[] sourceId
+ * long sourceLastModified, long sourceLength
+ * int numKeys, int numChars
+ * int[numKeys] key offsets (in chars)
+ * char[numChars] entries: keyLength, key chars, numValues, (valueLength, value chars)*
+ * </pre>
+ *
+ * <p>The source id, modification time and length of the source are
+ * stored in the header and checked when the index is opened.</p>
+ */
+final class CompiledDictionaryIndex {
+
+	private final static int MAGIC = 0x50484449; // 'PHDI'
+
+	private final static int VERSION = 1;
+
+	public final static String INDEX_EXT = ".dictidx";
+
+	private final int numKeys;
+
+	private final IntBuffer offsets;
+
+	private final CharBuffer chars;
+
+	private CompiledDictionaryIndex(int numKeys, IntBuffer offsets, CharBuffer chars) {
+		super();
+		this.numKeys = numKeys;
+		this.offsets = offsets;
+		this.chars = chars;
+	}
+
+	/**
+	 * Name of the index file for the given source.  Names are the SHA-1 digest
+	 * of the source id so that different sources do not share an index file.
+	 *
+	 * @param sourceId
+	 * @return index file name
+	 */
+	public static String indexFileName(String sourceId) {
+		try {
+			final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			final byte[] hash = digest.digest(sourceId.getBytes(StandardCharsets.UTF_8));
+			final StringBuilder builder = new StringBuilder();
+			for(byte b:hash) {
+				builder.append(String.format("%02x", b & 0xff));
+			}
+			return builder.append(INDEX_EXT).toString();
+		} catch (NoSuchAlgorithmException e) {
+			return String.format("%08x", sourceId.hashCode()) + INDEX_EXT;
+		}
+	}
+
+	/**
+	 * Open index file
+	 *
+	 * @param indexFile
+	 * @param sourceId
+	 * @param sourceLastModified
+	 * @param sourceLength
+	 * @return index or <code>null</code> if the index file does not exist, is from
+	 *  a different version or was created from a different source
+	 * @throws IOException if the index file could not be read
+	 */
+	public static CompiledDictionaryIndex open(File indexFile, String sourceId, long sourceLastModified, long sourceLength)
+			throws IOException {
+		if(!indexFile.exists()) return null;
+
+		// the header is checked before the file is mapped, mappings are
+		// not released until garbage collected and prevent the file from
+		// being replaced on some platforms
+		try(FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ)) {
+			final ByteBuffer header = ByteBuffer.allocate(3 * Integer.BYTES);
+			if(!readFully(channel, header, 0L) || header.getInt() != MAGIC)
+				throw new IOException("Invalid dictionary index " + indexFile.getAbsolutePath());
+			if(header.getInt() != VERSION) return null;
+			final int idLength = header.getInt();
+			if(idLength != sourceId.length()) return null;
+
+			final ByteBuffer sourceHeader = ByteBuffer.allocate(idLength * Character.BYTES + 2 * Long.BYTES + 2 * Integer.BYTES);
+			if(!readFully(channel, sourceHeader, header.capacity()))
+				throw new IOException("Invalid dictionary index " + indexFile.getAbsolutePath());
+			for(int i = 0; i < idLength; i++) {
+				if(sourceHeader.getChar() != sourceId.charAt(i)) return null;
+			}
+			if(sourceHeader.getLong() != sourceLastModified || sourceHeader.getLong() != sourceLength)
+				return null;
+
+			final int numKeys = sourceHeader.getInt();
+			final int numChars = sourceHeader.getInt();
+			final long dataOffset = header.capacity() + sourceHeader.capacity();
+			final long dataLength = (long)numKeys * Integer.BYTES + (long)numChars * Character.BYTES;
+			if(numKeys < 0 || numChars < 0 || channel.size() - dataOffset != dataLength)
+				throw new IOException("Invalid dictionary index " + indexFile.getAbsolutePath());
+
+			final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, dataOffset, dataLength);
+			final ByteBuffer offsetData = buffer.slice();
+			offsetData.limit(numKeys * Integer.BYTES);
+			buffer.position(numKeys * Integer.BYTES);
+			final ByteBuffer charData = buffer.slice();
+
+			return new CompiledDictionaryIndex(numKeys, offsetData.asIntBuffer(), charData.asCharBuffer());
+		}
+	}
+
+	/*
+	 * Read bytes from channel at position until buffer is full.  Buffer is
+	 * flipped for reading.
+	 *
+	 * @return false if end of file was reached before buffer was filled
+	 */
+	private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while(buffer.hasRemaining()) {
+			final int read = channel.read(buffer, position + buffer.position());
+			if(read < 0) return false;
+		}
+		buffer.flip();
+		return true;
+	}
+
+	/**
+	 * Write index file.  Data is written to a temporary file which then
+	 * replaces the index file.
+	 *
+	 * @param indexFile
+	 * @param sourceId
+	 * @param sourceLastModified
+	 * @param sourceLength
+	 * @param entries sorted entries
+	 * @throws IOException
+	 */
+	public static void write(File indexFile, String sourceId, long sourceLastModified, long sourceLength,
+			SortedMap<String, List<String>> entries) throws IOException {
+		final int[] offsets = new int[entries.size()];
+		long numChars = 0L;
+		int idx = 0;
+		for(Map.Entry<String, List<String>> entry:entries.entrySet()) {
+			if(numChars > Integer.MAX_VALUE)
+				throw new IOException("Dictionary too large");
+			offsets[idx++] = (int)numChars;
+			numChars += 2 + entryLength(entry.getKey());
+			for(String value:entry.getValue()) numChars += 1 + entryLength(value);
+		}
+		if(numChars > Integer.MAX_VALUE)
+			throw new IOException("Dictionary too large");
+
+		final File parentFolder = indexFile.getParentFile();
+		if(parentFolder != null && !parentFolder.exists()) {
+			parentFolder.mkdirs();
+		}
+		final File tmpFile = new File(parentFolder, indexFile.getName() + ".tmp");
+		try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(sourceId.length());
+			out.writeChars(sourceId);
+			out.writeLong(sourceLastModified);
+			out.writeLong(sourceLength);
+			out.writeInt(offsets.length);
+			out.writeInt((int)numChars);
+			for(int offset:offsets) out.writeInt(offset);
+			for(Map.Entry<String, List<String>> entry:entries.entrySet()) {
+				writeString(out, entry.getKey());
+				out.writeChar(Math.min(entry.getValue().size(), Character.MAX_VALUE));
+				int numValues = 0;
+				for(String value:entry.getValue()) {
+					if(numValues++ == Character.MAX_VALUE) break;
+					writeString(out, value);
+				}
+			}
+		} catch (IOException e) {
+			tmpFile.delete();
+			throw e;
+		}
+
+		try {
+			Files.move(tmpFile.toPath(), indexFile.toPath(),
+					StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(tmpFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static int entryLength(String str) {
+		return Math.min(str.length(), Character.MAX_VALUE);
+	}
+
+	private static void writeString(DataOutputStream out, String str) throws IOException {
+		final int len = entryLength(str);
+		out.writeChar(len);
+		for(int i = 0; i < len; i++) out.writeChar(str.charAt(i));
+	}
+
+	public int size() {
+		return numKeys;
+	}
+
+	/**
+	 * Return values for given key
+	 *
+	 * @param key
+	 * @return values or <code>null</code> if key is not found
+	 */
+	public List<String> get(String key) {
+		final int idx = lowerBound(key);
+		if(idx < numKeys && compareKey(offsets.get(idx), key, false) == 0) {
+			return readValues(offsets.get(idx));
+		}
+		return null;
+	}
+
+	/**
+	 * Return all keys starting with prefix in sorted order
+	 *
+	 * @param prefix
+	 * @return list of keys
+	 */
+	public List<String> keysWithPrefix(String prefix) {
+		final List<String> retVal = new ArrayList<>();
+		for(int idx = lowerBound(prefix); idx < numKeys; idx++) {
+			final int offset = offsets.get(idx);
+			if(compareKey(offset, prefix, true) != 0) break;
+			retVal.add(readString(offset));
+		}
+		return retVal;
+	}
+
+	/**
+	 * Iterate keys in sorted order
+	 *
+	 * @return key iterator
+	 */
+	public Iterator<String> keyIterator() {
+		return new Iterator<String>() {
+
+			private int idx = 0;
+
+			@Override
+			public boolean hasNext() {
+				return idx < numKeys;
+			}
+
+			@Override
+			public String next() {
+				if(!hasNext()) throw new NoSuchElementException();
+				return readString(offsets.get(idx++));
+			}
+
+		};
+	}
+
+	/* Index of first key which is not less than the given key */
+	private int lowerBound(String key) {
+		int lo = 0;
+		int hi = numKeys;
+		while(lo < hi) {
+			final int mid = (lo + hi) >>> 1;
+			if(compareKey(offsets.get(mid), key, false) < 0) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/*
+	 * Compare stored key at offset with given key using String.compareTo order.
+	 * If prefix is true, returns 0 if the stored key starts with the given key.
+	 */
+	private int compareKey(int offset, String key, boolean prefix) {
+		final int len = chars.get(offset);
+		final int n = Math.min(len, key.length());
+		for(int i = 0; i < n; i++) {
+			final char c1 = chars.get(offset + 1 + i);
+			final char c2 = key.charAt(i);
+			if(c1 != c2) return c1 - c2;
+		}
+		if(prefix && len >= key.length()) return 0;
+		return len - key.length();
+	}
+
+	private String readString(int offset) {
+		final int len = chars.get(offset);
+		final char[] data = new char[len];
+		for(int i = 0; i < len; i++) data[i] = chars.get(offset + 1 + i);
+		return new String(data);
+	}
+
+	private List<String> readValues(int offset) {
+		int pos = offset + 1 + chars.get(offset);
+		final int numValues = chars.get(pos++);
+		final List<String> retVal = new ArrayList<>(numValues);
+		for(int i = 0; i < numValues; i++) {
+			final String value = readString(pos);
+			retVal.add(value);
+			pos += 1 + value.length();
+		}
+		return retVal;
+	}
+
+}
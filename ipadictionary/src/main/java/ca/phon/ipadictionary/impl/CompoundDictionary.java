@@ -28,7 +28,7 @@ import java.util.regex.*;
  * 
  */
 public class CompoundDictionary implements IPADictionarySPI,
-	NameInfo, LanguageInfo, PrefixSearch {
+	NameInfo, LanguageInfo, PrefixSearch, LookupAll {
 	
 	/**
 	 * Dictionaries
@@ -60,6 +60,34 @@ public class CompoundDictionary implements IPADictionarySPI,
 		
 		return allTranscripts.toArray(new String[0]);
 	}
+	
+	@Override
+	public Map<String, String[]> lookupAll(Collection<String> orthography) throws IPADictionaryExecption {
+		final Map<String, Set<String>> allTranscripts = new LinkedHashMap<>();
+		
+		// compound forms are handled by lookup
+		final List<String> simpleForms = new ArrayList<>();
+		for(String ortho:orthography) {
+			if(ortho.contains("+") || ortho.contains("~") || ortho.contains("-")) continue;
+			simpleForms.add(ortho);
+			allTranscripts.put(ortho, new LinkedHashSet<>());
+		}
+		
+		if(simpleForms.size() > 0) {
+			for(IPADictionary dict:dicts) {
+				for(Map.Entry<String, String[]> entry:dict.lookupAll(simpleForms).entrySet()) {
+					allTranscripts.get(entry.getKey()).addAll(Arrays.asList(entry.getValue()));
+				}
+			}
+		}
+		
+		final Map<String, String[]> retVal = new LinkedHashMap<>();
+		for(String ortho:orthography) {
+			final Set<String> transcripts = allTranscripts.get(ortho);
+			retVal.put(ortho, (transcripts != null ? transcripts.toArray(new String[0]) : lookup(ortho)));
+		}
+		return retVal;
+	}
 
 	private String[] lookupCompound(String orthography, String charRegex, boolean includeSeparator) {
 		// deal with contractions
@@ -189,6 +217,7 @@ public class CompoundDictionary implements IPADictionarySPI,
 		dict.putExtension(NameInfo.class, this);
 		dict.putExtension(LanguageInfo.class, this);
 		dict.putExtension(PrefixSearch.class, this);
+		dict.putExtension(LookupAll.class, this);
 	}
 	
 }
@@ -18,7 +18,7 @@ package ca.phon.ipadictionary.impl;
 import ca.phon.ipadictionary.IPADictionary;
 import ca.phon.ipadictionary.exceptions.IPADictionaryExecption;
 import ca.phon.ipadictionary.spi.*;
-import ca.phon.util.Language;
+import ca.phon.util.*;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 
@@ -28,13 +28,63 @@ import java.util.*;
 /**
  * User-defined IPA dictionary where all entries are 
  * stored in the derby IPA database.
+ * 
+ * Lookup results are cached for all dictionaries and are invalidated
+ * when entries are added or removed.
  *
  */
 public class DatabaseDictionary implements IPADictionarySPI,
-	LanguageInfo,NameInfo, AddEntry, RemoveEntry, ClearEntries {
+	LanguageInfo,NameInfo, AddEntry, RemoveEntry, ClearEntries, LookupAll {
 	
 	private static final org.apache.logging.log4j.Logger LOGGER = LogManager.getLogger(DatabaseDictionary.class.getName());
 	
+	/**
+	 * Maximum number of cached lookup results
+	 */
+	public static final String LOOKUP_CACHE_SIZE_PROP = DatabaseDictionary.class.getName() + ".lookupCacheSize";
+	public static final int DEFAULT_LOOKUP_CACHE_SIZE = 5000;
+	
+	private static final String LOOKUP_SQL = 
+			"SELECT ipa FROM transcript WHERE orthography = ? AND langId = ?";
+	
+	/*
+	 * Number of orthography parameters in lookupAll queries.  Shorter
+	 * lists are padded so that the same prepared statement is used for
+	 * every query.
+	 */
+	private static final int LOOKUP_ALL_SIZE = 32;
+	
+	private static final String LOOKUP_ALL_SQL;
+	static {
+		final StringBuilder sb = new StringBuilder();
+		sb.append("SELECT orthography, ipa FROM transcript WHERE langId = ? AND orthography IN (");
+		for(int i = 0; i < LOOKUP_ALL_SIZE; i++) {
+			if(i > 0) sb.append(", ");
+			sb.append('?');
+		}
+		sb.append(')');
+		LOOKUP_ALL_SQL = sb.toString();
+	}
+	
+	private static final int lookupCacheSize = 
+			Math.max(0, PrefHelper.getInt(LOOKUP_CACHE_SIZE_PROP, DEFAULT_LOOKUP_CACHE_SIZE));
+	
+	/*
+	 * Lookup results keyed by language id and orthography (least-recently-used)
+	 */
+	private static final LinkedHashMap<String, String[]> lookupCache = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, String[]> eldest) {
+			return size() > lookupCacheSize;
+		}
+	};
+	
+	/*
+	 * Incremented on every invalidation, results of queries started
+	 * before an invalidation are not cached.
+	 */
+	private static long cacheGeneration = 0L;
+	
 	/**
 	 * Language
 	 */
@@ -53,6 +103,58 @@ public class DatabaseDictionary implements IPADictionarySPI,
 		return (getLanguage().getPrimaryLanguage().getName() + " (user library)");
 	}
 	
+	private static String cacheKey(String langId, String ortho) {
+		return langId + '\u0000' + ortho;
+	}
+	
+	private static long getCacheGeneration() {
+		synchronized(lookupCache) {
+			return cacheGeneration;
+		}
+	}
+	
+	private static String[] getCachedLookup(String langId, String ortho) {
+		synchronized(lookupCache) {
+			final String[] retVal = lookupCache.get(cacheKey(langId, ortho));
+			return (retVal != null ? retVal.clone() : null);
+		}
+	}
+	
+	private static void putCachedLookup(String langId, String ortho, String[] ipa, long generation) {
+		if(lookupCacheSize == 0) return;
+		synchronized(lookupCache) {
+			if(generation == cacheGeneration) {
+				lookupCache.put(cacheKey(langId, ortho), ipa.clone());
+			}
+		}
+	}
+	
+	/**
+	 * Invalidate cached lookups for the given orthography
+	 * 
+	 * @param langId
+	 * @param ortho
+	 */
+	static void invalidateCache(String langId, String ortho) {
+		synchronized(lookupCache) {
+			++cacheGeneration;
+			lookupCache.remove(cacheKey(langId, ortho));
+		}
+	}
+	
+	/**
+	 * Invalidate all cached lookups for the given language
+	 * 
+	 * @param langId
+	 */
+	static void invalidateCache(String langId) {
+		final String prefix = cacheKey(langId, "");
+		synchronized(lookupCache) {
+			++cacheGeneration;
+			lookupCache.keySet().removeIf( (key) -> key.startsWith(prefix) );
+		}
+	}
+	
 	private void checkLangId(Connection conn) throws SQLException {
 		final String checkSQL = 
 				"SELECT * FROM language WHERE langId = ?";
@@ -89,6 +191,8 @@ public class DatabaseDictionary implements IPADictionarySPI,
 				pSt.close();
 			} catch (SQLException e) {
 				LOGGER.error( e.getLocalizedMessage(), e);
+			} finally {
+				invalidateCache(getLanguage().toString(), ortho.toLowerCase());
 			}
 		}
 	}
@@ -111,6 +215,8 @@ public class DatabaseDictionary implements IPADictionarySPI,
 				pSt.close();
 			} catch (SQLException e) {
 				LOGGER.error( e.getLocalizedMessage(), e);
+			} finally {
+				invalidateCache(getLanguage().toString(), ortho.toLowerCase());
 			}
 		}
 	}
@@ -119,26 +225,36 @@ public class DatabaseDictionary implements IPADictionarySPI,
 	public Language getLanguage() {
 		return this.language;
 	}
+	
+	private String normalize(String ortho) {
+		return StringUtils.strip(ortho, "?!\"'.\\/@&$()^%#*").toLowerCase();
+	}
 
 	@Override
 	public String[] lookup(String ortho) throws IPADictionaryExecption {
-		Connection conn = IPADatabaseManager.getInstance().getConnection();
+		final String langId = getLanguage().toString();
+		final String key = normalize(ortho);
+		
+		final String[] cached = getCachedLookup(langId, key);
+		if(cached != null) return cached;
+		
+		final IPADatabaseManager dbManager = IPADatabaseManager.getInstance();
+		Connection conn = dbManager.getConnection();
 		List<String> retVal = new ArrayList<String>();
 		
 		if(conn != null) {
-			ortho = StringUtils.strip(ortho, "?!\"'.\\/@&$()^%#*");
-			String qSt = "SELECT * FROM transcript WHERE orthography = ? AND langId = ?";
+			final long generation = getCacheGeneration();
 			try {
-				PreparedStatement pSt = conn.prepareStatement(qSt);
-				pSt.setString(1, ortho.toLowerCase());
-				pSt.setString(2, getLanguage().toString());
+				PreparedStatement pSt = dbManager.prepareStatement(conn, LOOKUP_SQL);
+				pSt.setString(1, key);
+				pSt.setString(2, langId);
 				
-				java.sql.ResultSet rs = pSt.executeQuery();
-				while(rs.next()) {
-					retVal.add(rs.getString("IPA"));
+				try(java.sql.ResultSet rs = pSt.executeQuery()) {
+					while(rs.next()) {
+						retVal.add(rs.getString("IPA"));
+					}
 				}
-				rs.close();
-				pSt.close();
+				putCachedLookup(langId, key, retVal.toArray(new String[0]), generation);
 			} catch (SQLException e) {
 				LOGGER.error( e.getLocalizedMessage(), e);
 			}
@@ -146,6 +262,67 @@ public class DatabaseDictionary implements IPADictionarySPI,
 		
 		return retVal.toArray(new String[0]);
 	}
+	
+	/**
+	 * Lookup all given values.  Values not found in the cache are
+	 * resolved using one query for every 32 values.
+	 */
+	@Override
+	public Map<String, String[]> lookupAll(Collection<String> orthography) throws IPADictionaryExecption {
+		final String langId = getLanguage().toString();
+		
+		final Map<String, String[]> results = new HashMap<>();
+		final List<String> keys = new ArrayList<>();
+		for(String ortho:orthography) {
+			final String key = normalize(ortho);
+			if(results.containsKey(key)) continue;
+			final String[] cached = getCachedLookup(langId, key);
+			results.put(key, cached);
+			if(cached == null) {
+				keys.add(key);
+			}
+		}
+		
+		final IPADatabaseManager dbManager = IPADatabaseManager.getInstance();
+		final Connection conn = (keys.size() > 0 ? dbManager.getConnection() : null);
+		if(conn != null) {
+			final long generation = getCacheGeneration();
+			try {
+				final PreparedStatement pSt = dbManager.prepareStatement(conn, LOOKUP_ALL_SQL);
+				for(int i = 0; i < keys.size(); i += LOOKUP_ALL_SIZE) {
+					final List<String> queryKeys = keys.subList(i, Math.min(keys.size(), i + LOOKUP_ALL_SIZE));
+					pSt.setString(1, langId);
+					for(int j = 0; j < LOOKUP_ALL_SIZE; j++) {
+						pSt.setString(j + 2, queryKeys.get(Math.min(j, queryKeys.size() - 1)));
+					}
+					
+					final Map<String, List<String>> queryResults = new HashMap<>();
+					try(java.sql.ResultSet rs = pSt.executeQuery()) {
+						while(rs.next()) {
+							queryResults.computeIfAbsent(rs.getString("ORTHOGRAPHY"), (k) -> new ArrayList<>())
+								.add(rs.getString("IPA"));
+						}
+					}
+					
+					for(String key:queryKeys) {
+						final List<String> ipa = queryResults.get(key);
+						final String[] value = (ipa != null ? ipa.toArray(new String[0]) : new String[0]);
+						results.put(key, value);
+						putCachedLookup(langId, key, value, generation);
+					}
+				}
+			} catch (SQLException e) {
+				LOGGER.error( e.getLocalizedMessage(), e);
+			}
+		}
+		
+		final Map<String, String[]> retVal = new LinkedHashMap<>();
+		for(String ortho:orthography) {
+			final String[] ipa = results.get(normalize(ortho));
+			retVal.put(ortho, (ipa != null ? ipa.clone() : new String[0]));
+		}
+		return retVal;
+	}
 
 	@Override
 	public void install(IPADictionary dict) {
@@ -153,6 +330,7 @@ public class DatabaseDictionary implements IPADictionarySPI,
 		dict.putExtension(NameInfo.class, this);
 		dict.putExtension(AddEntry.class, this);
 		dict.putExtension(RemoveEntry.class, this);
+		dict.putExtension(LookupAll.class, this);
 	}
 
 	@Override
@@ -160,7 +338,7 @@ public class DatabaseDictionary implements IPADictionarySPI,
 		Connection conn = IPADatabaseManager.getInstance().getConnection();
 		
 		if(conn != null) {
-			String qSt = "DELETE * FROM transcript WHERE langId = ?";
+			String qSt = "DELETE FROM transcript WHERE langId = ?";
 			try {
 				PreparedStatement pSt = conn.prepareStatement(qSt);
 				pSt.setString(1, getLanguage().toString());
@@ -168,6 +346,8 @@ public class DatabaseDictionary implements IPADictionarySPI,
 				pSt.executeUpdate();
 			} catch (SQLException e) {
 				LOGGER.error( e.getLocalizedMessage(), e);
+			} finally {
+				invalidateCache(getLanguage().toString());
 			}
 		}
 		
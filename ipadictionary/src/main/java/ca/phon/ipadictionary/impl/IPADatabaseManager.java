@@ -40,6 +40,9 @@ public class IPADatabaseManager {
 	/** The database location */
 	private final static String _dbLoc = PrefHelper.getUserDataFolder();
 	
+	/** Number of rows inserted per batch when importing data */
+	private final static int IMPORT_BATCH_SIZE = 1000;
+	
 	/** The database driver */
 	private final static String _driverName = "org.apache.derby.jdbc.EmbeddedDriver";
 	
@@ -132,7 +135,7 @@ public class IPADatabaseManager {
 	 * @return a jdbc db connection, <CODE>null</CODE> if an
 	 * error occured
 	 */
-	public Connection getConnection() {
+	public synchronized Connection getConnection() {
 		cleanupConnections();
 		// get the current thread
 		Thread currentThread = Thread.currentThread();
@@ -161,6 +164,7 @@ public class IPADatabaseManager {
 				LOGGER.info("[QueryDBManager]: Cleaning up connection for thread - " + 
 						th.getName());
 				Connection conn = connections.get(th);
+				connStatements.remove(conn);
 				try {
 					conn.close();
 				} catch (SQLException e) {
@@ -179,7 +183,7 @@ public class IPADatabaseManager {
 	 * Shutdown the database.
 	 * 
 	 */
-	public void shutdown() {
+	public synchronized void shutdown() {
 		// close all of the open prepared statements
 		LOGGER.info("[IPADatabaseManager]: Closing prepared statements.");
 		for(Connection conn:connStatements.keySet()) {
@@ -226,7 +230,7 @@ public class IPADatabaseManager {
 	 * @param sql
 	 * @param genKeys
 	 */
-	public PreparedStatement prepareStatement(Connection conn, String sql) 
+	public synchronized PreparedStatement prepareStatement(Connection conn, String sql) 
 		throws SQLException {
 		
 		Map<String, PreparedStatement> statements =
@@ -254,7 +258,7 @@ public class IPADatabaseManager {
 	 * @param sql
 	 * @param genKeys
 	 */
-	public PreparedStatement prepareStatement(Connection conn, String sql, int genKeys) 
+	public synchronized PreparedStatement prepareStatement(Connection conn, String sql, int genKeys) 
 		throws SQLException {
 		
 		Map<String, PreparedStatement> statements = 
@@ -282,7 +286,7 @@ public class IPADatabaseManager {
 	 * @param sql
 	 * @param genKeys
 	 */
-	public PreparedStatement prepareStatement(Connection conn, String sql, int rsType, int concur) 
+	public synchronized PreparedStatement prepareStatement(Connection conn, String sql, int rsType, int concur) 
 		throws SQLException {
 		
 		Map<String, PreparedStatement> statements = 
@@ -441,6 +445,8 @@ public class IPADatabaseManager {
 			} catch (SQLException e) {
 				LOGGER.error( e.getLocalizedMessage(), e);
 				return false;
+			} finally {
+				DatabaseDictionary.invalidateCache(langId);
 			}
 		}
 		return false;
@@ -515,6 +521,10 @@ public class IPADatabaseManager {
 	/**
 	 * Fill database with data from plain text file.
 	 * File should be in format <ortho>WS<ipa> (where WS is whitespace.)
+	 * 
+	 * Entries are inserted in batches of {@link #IMPORT_BATCH_SIZE} rows
+	 * in a single transaction.  Entries which cannot be added (e.g., duplicates)
+	 * are logged and skipped.  If the import fails all entries are rolled back.
 	 */
 	public void addDataFromFile(String textFile, String langId, String langName) 
 		throws IOException {
@@ -547,33 +557,75 @@ public class IPADatabaseManager {
 			LOGGER.error( e.getLocalizedMessage(), e);
 		}
 	
-		BufferedReader in = new BufferedReader(new InputStreamReader(
-				new FileInputStream(textFile), "UTF-8"));
-		String line = null;
-		while((line = in.readLine()) != null) {
-			Matcher m = pattern.matcher(line);
-			if(m.matches()) {
-				String ortho = m.group(1);
-				String ipa = m.group(2);
-				
-				try {
-					PreparedStatement pSt = 
-						conn.prepareStatement(transSt);
-					pSt.setString(1, langId);
-					pSt.setString(2, ortho);
-					pSt.setString(3, ipa);
-					
-					int r = pSt.executeUpdate();
-					if(r == 0) {
-						LOGGER.warn(
-								"Could not add transcript \"" + ipa + "\" for orthography \"" + ortho + "\"");
+		try(BufferedReader in = new BufferedReader(new InputStreamReader(
+				new FileInputStream(textFile), "UTF-8"))) {
+			final boolean autoCommit = conn.getAutoCommit();
+			conn.setAutoCommit(false);
+			try(PreparedStatement pSt = conn.prepareStatement(transSt)) {
+				final List<String[]> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+				int added = 0;
+				String line = null;
+				while((line = in.readLine()) != null) {
+					Matcher m = pattern.matcher(line);
+					if(m.matches()) {
+						batch.add(new String[] { m.group(1), m.group(2) });
+						if(batch.size() == IMPORT_BATCH_SIZE) {
+							added += executeImportBatch(pSt, langId, batch);
+							batch.clear();
+						}
 					}
-				} catch (SQLException e) {
-					LOGGER.error(e.getLocalizedMessage(), e);
 				}
+				added += executeImportBatch(pSt, langId, batch);
+				conn.commit();
+				LOGGER.info("[IPADatabaseManager]: Added " + added + " transcripts for language " + langId);
+			} catch (SQLException | IOException e) {
+				conn.rollback();
+				throw e;
+			} finally {
+				conn.setAutoCommit(autoCommit);
+			}
+		} catch (SQLException e) {
+			LOGGER.error(e.getLocalizedMessage(), e);
+		} finally {
+			DatabaseDictionary.invalidateCache(langId);
+		}
+	}
+	
+	/**
+	 * Execute batch insert of transcripts.  Derby stops executing a batch at the
+	 * first failed statement; failed rows are logged and the remaining rows
+	 * are re-submitted.
+	 * 
+	 * @return number of rows added
+	 */
+	private int executeImportBatch(PreparedStatement pSt, String langId, List<String[]> rows) 
+		throws SQLException {
+		int added = 0;
+		int start = 0;
+		while(start < rows.size()) {
+			for(int i = start; i < rows.size(); i++) {
+				pSt.setString(1, langId);
+				pSt.setString(2, rows.get(i)[0]);
+				pSt.setString(3, rows.get(i)[1]);
+				pSt.addBatch();
+			}
+			
+			try {
+				pSt.executeBatch();
+				added += rows.size() - start;
+				start = rows.size();
+			} catch (BatchUpdateException e) {
+				pSt.clearBatch();
+				
+				final int failed = start + e.getUpdateCounts().length;
+				if(failed >= rows.size()) throw e;
+				added += e.getUpdateCounts().length;
+				LOGGER.warn(
+						"Could not add transcript \"" + rows.get(failed)[1] + "\" for orthography \"" + rows.get(failed)[0] + "\"", e);
+				start = failed + 1;
 			}
 		}
-		in.close();
+		return added;
 	}
 
 	public boolean dropDictionary(String lang) {
@@ -593,6 +645,8 @@ public class IPADatabaseManager {
 		} catch (SQLException e) {
 			LOGGER.error(e.getLocalizedMessage(), e);
 			retVal = false;
+		} finally {
+			DatabaseDictionary.invalidateCache(lang);
 		}
 		return retVal;
 	}
@@ -27,9 +27,11 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 
 import java.io.*;
-import java.net.URL;
+import java.net.*;
 import java.text.ParseException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 import java.util.regex.*;
 
 /**
@@ -45,6 +47,23 @@ public class ImmutablePlainTextDictionary implements IPADictionarySPI,
 	LanguageInfo, NameInfo, GenerateSuggestions, OrthoKeyIterator, PrefixSearch, Metadata {
 
 	private static final org.apache.logging.log4j.Logger LOGGER = LogManager.getLogger(ImmutablePlainTextDictionary.class.getName());
+
+	/**
+	 * Use compiled, memory-mapped dictionary indices stored in {@link #INDEX_FOLDER}
+	 */
+	public static final String USE_COMPILED_INDEX_PROP = ImmutablePlainTextDictionary.class.getName() + ".useCompiledIndex";
+	public static final boolean DEFAULT_USE_COMPILED_INDEX = true;
+
+	/**
+	 * Location of compiled dictionary indices
+	 */
+	public static final String INDEX_FOLDER = PrefHelper.getUserDataFolder() + File.separator + "dictindex";
+
+	/**
+	 * Maximum number of post-processed lookup results kept per dictionary
+	 */
+	public static final String LOOKUP_CACHE_SIZE_PROP = ImmutablePlainTextDictionary.class.getName() + ".lookupCacheSize";
+	public static final int DEFAULT_LOOKUP_CACHE_SIZE = 10000;
 	
 	/*
 	 * token descriptions for metadata/processing instructions
@@ -85,9 +104,19 @@ public class ImmutablePlainTextDictionary implements IPADictionarySPI,
 	private String separator = DEFAULT_SEPARATOR;
 	
 	/**
-	 * Database
+	 * Database, only loaded if the compiled index is not available
 	 */
 	private TernaryTree<List<String>> _db;
+
+	/**
+	 * Compiled index
+	 */
+	private volatile CompiledDictionaryIndex _index;
+
+	/**
+	 * Set if the compiled index could not be opened or built
+	 */
+	private volatile boolean indexFailed = !PrefHelper.getBoolean(USE_COMPILED_INDEX_PROP, DEFAULT_USE_COMPILED_INDEX);
 	
 	/**
 	 * Contraction rules.  These rules are loaded from a file called 
@@ -150,6 +179,23 @@ public class ImmutablePlainTextDictionary implements IPADictionarySPI,
 	private List<Tuple<Pattern,String>> postFindList = new ArrayList<>();
 
 	private List<Tuple<PhonexPattern, IPATranscript>> postPhonexFindList = new ArrayList<>();
+
+	/**
+	 * Post-processed results of {@link #lookup(String)} keyed by
+	 * pre-processed orthography (least-recently-used)
+	 */
+	private final int lookupCacheSize = Math.max(0, PrefHelper.getInt(LOOKUP_CACHE_SIZE_PROP, DEFAULT_LOOKUP_CACHE_SIZE));
+
+	private final LinkedHashMap<String, String[]> lookupCache = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, String[]> eldest) {
+			return size() > lookupCacheSize;
+		}
+	};
+
+	private final AtomicLong lookupCacheHits = new AtomicLong(0L);
+
+	private final AtomicLong lookupCacheMisses = new AtomicLong(0L);
 	
 	/**
 	 * Default constructor.
@@ -175,13 +221,95 @@ public class ImmutablePlainTextDictionary implements IPADictionarySPI,
 	/**
 	 * Lazy-load the database.
 	 */
-	protected TernaryTree<List<String>> lazyLoadDb()
+	protected synchronized TernaryTree<List<String>> lazyLoadDb()
 		throws IOException {
 		if(_db == null) {
 			_db = loadDictFromFile(dbFile);
 		}
 		return _db;
 	}
+
+	/**
+	 * Lazy-load the compiled index.  The index is rebuilt if it does not exist
+	 * or the dictionary file has changed.
+	 *
+	 * @return compiled index or <code>null</code> if not available
+	 */
+	private CompiledDictionaryIndex lazyLoadIndex() {
+		final CompiledDictionaryIndex index = _index;
+		if(index != null || indexFailed) return index;
+		return loadIndex();
+	}
+
+	private synchronized CompiledDictionaryIndex loadIndex() {
+		if(_index == null && !indexFailed) {
+			try {
+				final String sourceId = dbFile.toExternalForm() + "\n" + separator;
+				final long[] sourceInfo = sourceInfo(dbFile);
+				final File indexFile = new File(INDEX_FOLDER, CompiledDictionaryIndex.indexFileName(sourceId));
+
+				CompiledDictionaryIndex index = null;
+				try {
+					index = CompiledDictionaryIndex.open(indexFile, sourceId, sourceInfo[0], sourceInfo[1]);
+				} catch (IOException e) {
+					LOGGER.warn(e.getLocalizedMessage(), e);
+				}
+				if(index == null) {
+					final SortedMap<String, List<String>> entries = new TreeMap<>();
+					try(InputStream is = dbFile.openStream()) {
+						readEntriesFromStream(is, (ortho, ipa) -> addEntry(entries, ortho, ipa));
+					}
+					CompiledDictionaryIndex.write(indexFile, sourceId, sourceInfo[0], sourceInfo[1], entries);
+					index = CompiledDictionaryIndex.open(indexFile, sourceId, sourceInfo[0], sourceInfo[1]);
+				}
+				_index = index;
+			} catch (IOException | URISyntaxException e) {
+				LOGGER.warn(e.getLocalizedMessage(), e);
+			}
+			indexFailed = (_index == null);
+		}
+		return _index;
+	}
+
+	/**
+	 * Modification time and size of dictionary source.
+	 */
+	private static long[] sourceInfo(URL url) throws IOException, URISyntaxException {
+		if("file".equals(url.getProtocol())) {
+			final File file = new File(url.toURI());
+			return new long[] { file.lastModified(), file.length() };
+		}
+		final URLConnection conn = url.openConnection();
+		if(conn instanceof JarURLConnection) {
+			final JarURLConnection jarConn = (JarURLConnection)conn;
+			final File jarFile = new File(jarConn.getJarFileURL().toURI());
+			return new long[] { jarFile.lastModified(), jarFile.length() };
+		}
+		return new long[] { conn.getLastModified(), conn.getContentLengthLong() };
+	}
+
+	private static void addEntry(Map<String, List<String>> map, String orthography, String ipa) {
+		List<String> ipaEntries = map.get(orthography);
+		if(ipaEntries == null) {
+			ipaEntries = new ArrayList<String>();
+			map.put(orthography, ipaEntries);
+		}
+		if(!ipaEntries.contains(ipa)) {
+			ipaEntries.add(ipa);
+		}
+	}
+
+	/**
+	 * Return transcriptions for given (lower-case) orthography.
+	 */
+	private List<String> getEntries(String orthography) throws IOException {
+		final CompiledDictionaryIndex index = lazyLoadIndex();
+		if(index != null) {
+			return index.get(orthography);
+		} else {
+			return lazyLoadDb().get(orthography);
+		}
+	}
 	
 	/**
 	 * Read dictionary entries from the given file.
@@ -195,8 +323,20 @@ public class ImmutablePlainTextDictionary implements IPADictionarySPI,
 	 */
 	private TernaryTree<List<String>> loadDictFromFile(URL file)
 		throws IOException {
-		InputStream is = file.openStream();
-		return readEntriesFromStream(is);
+		final TernaryTree<List<String>> retVal = new TernaryTree<List<String>>();
+		try(InputStream is = file.openStream()) {
+			readEntriesFromStream(is, (ortho, ipa) -> {
+				List<String> ipaEntries = retVal.get(ortho);
+				if(ipaEntries == null) {
+					ipaEntries = new ArrayList<String>();
+					retVal.put(ortho, ipaEntries);
+				}
+				if(!ipaEntries.contains(ipa)) {
+					ipaEntries.add(ipa);
+				}
+			});
+		}
+		return retVal;
 	}
 	
 	/**
@@ -341,11 +481,11 @@ public class ImmutablePlainTextDictionary implements IPADictionarySPI,
 	 * indicated above.
 	 * 
 	 * @param is
-	 * @returns a new radix tree acting as our database
+	 * @param entryConsumer receives (orthography, ipa) pairs
 	 * @throws IOException if an error occurs while
 	 *  attempting to read the stream contents
 	 */
-	private TernaryTree<List<String>> readEntriesFromStream(InputStream is) 
+	private void readEntriesFromStream(InputStream is, BiConsumer<String, String> entryConsumer) 
 		throws IOException {
 		InputStreamReader in = 
 			new InputStreamReader(is, "UTF-8");
@@ -353,8 +493,6 @@ public class ImmutablePlainTextDictionary implements IPADictionarySPI,
 		
 		Pattern dictPattern = getPattern();
 		
-		TernaryTree<List<String>> retVal = new TernaryTree<List<String>>();
-		
 		String line = null;
 		while((line = reader.readLine()) != null) {
 			if(line.startsWith("#")) {
@@ -368,21 +506,11 @@ public class ImmutablePlainTextDictionary implements IPADictionarySPI,
 				String ipa = StringUtils.strip(m.group(3)).toLowerCase();
 				
 				if(orthography.length() > 0 && ipa.length() > 0) {
-					List<String> ipaEntries = 
-						retVal.get(orthography);
-					if(ipaEntries == null) {
-						ipaEntries = new ArrayList<String>();
-						retVal.put(orthography, ipaEntries);
-					}
-					if(!ipaEntries.contains(ipa)) {
-						ipaEntries.add(ipa);
-					}
+					entryConsumer.accept(orthography, ipa);
 				}
 			}
 		}
 		reader.close();
-		
-		return retVal;
 	}
 	
 	/**
@@ -414,67 +542,147 @@ public class ImmutablePlainTextDictionary implements IPADictionarySPI,
 			final Matcher m = preFindPattern.matcher(orthography);
 			orthography = m.replaceAll(preReplaceExpr);
 		}
+		final String key = orthography.toLowerCase();
 
-		TernaryTree<List<String>> db;
+		String[] cached = null;
+		synchronized(lookupCache) {
+			cached = lookupCache.get(key);
+		}
+		if(cached != null) {
+			lookupCacheHits.incrementAndGet();
+			return cached.clone();
+		}
+		lookupCacheMisses.incrementAndGet();
+
+		List<String> ipaEntries;
 		try {
-			db = lazyLoadDb();
+			ipaEntries = getEntries(key);
 		} catch (IOException e) {
 			throw new BackingStoreException(e);
 		}
-		
-		List<String> ipaEntries = 
-			db.get(orthography.toLowerCase());
-		if(ipaEntries != null && ipaEntries.size() > 0) {
-			String[] retVal = new String[ipaEntries.size()];
-			retVal = ipaEntries.toArray(retVal);
-
-			for(int i = 0; i < retVal.length; i++) {
-				String str = retVal[i];
-
-				for (var postFind : postFindList) {
-					var pattern = postFind.getObj1();
-					var m = pattern.matcher(str);
-					str = m.replaceAll(postFind.getObj2());
-				}
 
-				for (var postPhonexFind : postPhonexFindList) {
-					try {
-						final IPATranscript ipa = IPATranscript.parseIPATranscript(str);
-						if (syllabifier != null) {
-							syllabifier.syllabify(ipa.toList());
-						}
-
-						var pattern = postPhonexFind.getObj1();
-						var matcher = pattern.matcher(ipa);
-
-						final IPATranscriptBuilder ipaBuilder = new IPATranscriptBuilder();
-						while (matcher.find()) {
-							matcher.appendReplacement(ipaBuilder, postPhonexFind.getObj2());
-						}
-						matcher.appendTail(ipaBuilder);
-						str = ipaBuilder.toIPATranscript().toString(true);
-					} catch (ParseException e) {
-						LOGGER.warn(e.getLocalizedMessage(), e);
-					}
-				}
+		final String[] retVal = new String[ipaEntries != null ? ipaEntries.size() : 0];
+		for(int i = 0; i < retVal.length; i++) {
+			retVal[i] = postProcess(ipaEntries.get(i));
+		}
 
-				if (syllabifier != null) {
-					// convert to a transcript and return with syllabifiation
-					try {
-						final IPATranscript ipa = IPATranscript.parseIPATranscript(str);
-							syllabifier.syllabify(ipa.toList());
-						str = ipa.toString(true);
-					} catch (ParseException e) {
-						LOGGER.warn(e.getLocalizedMessage(), e);
-					}
-				}
-				retVal[i] = str;
+		if(lookupCacheSize > 0) {
+			synchronized(lookupCache) {
+				lookupCache.put(key, retVal.clone());
 			}
+		}
+		return retVal;
+	}
 
-			return retVal;
-		} else {
-			return new String[0];
+	/**
+	 * Apply post-processing rules to a dictionary transcription.  Regex rules
+	 * are applied to the text, which is then parsed once.  Each phonex rule
+	 * is applied to the transcript produced by the previous rule, with
+	 * syllabification (if available) before each rule and at the end.
+	 *
+	 * @param ipaText
+	 * @return post-processed transcription
+	 */
+	private String postProcess(String ipaText) {
+		String str = ipaText;
+		for (var postFind : postFindList) {
+			var pattern = postFind.getObj1();
+			var m = pattern.matcher(str);
+			str = m.replaceAll(postFind.getObj2());
+		}
+
+		if(postPhonexFindList.isEmpty() && syllabifier == null) {
+			return str;
 		}
+
+		IPATranscript ipa;
+		try {
+			ipa = IPATranscript.parseIPATranscript(str);
+		} catch (ParseException e) {
+			LOGGER.warn(e.getLocalizedMessage(), e);
+			return str;
+		}
+
+		for (var postPhonexFind : postPhonexFindList) {
+			if (syllabifier != null) {
+				syllabifier.syllabify(ipa.toList());
+			}
+
+			var pattern = postPhonexFind.getObj1();
+			var matcher = pattern.matcher(ipa);
+
+			boolean found = false;
+			final IPATranscriptBuilder ipaBuilder = new IPATranscriptBuilder();
+			while (matcher.find()) {
+				matcher.appendReplacement(ipaBuilder, postPhonexFind.getObj2());
+				found = true;
+			}
+			if(found) {
+				matcher.appendTail(ipaBuilder);
+				ipa = copySharedElements(ipa, ipaBuilder.toIPATranscript());
+			}
+		}
+
+		if (syllabifier != null) {
+			syllabifier.syllabify(ipa.toList());
+		}
+		return ipa.toString(true);
+	}
+
+	/**
+	 * Replacement results may contain elements of the replacement expression
+	 * or repeated elements of the input.  Copy these elements (with syllabification)
+	 * so that each element of the returned transcript is unique and
+	 * replacement expressions are never modified.
+	 */
+	private IPATranscript copySharedElements(IPATranscript input, IPATranscript result) {
+		final Set<IPAElement> inputElements = Collections.newSetFromMap(new IdentityHashMap<>());
+		input.forEach(inputElements::add);
+
+		final Set<IPAElement> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+		final IPAElementFactory factory = new IPAElementFactory();
+		final IPATranscriptBuilder builder = new IPATranscriptBuilder();
+		for(IPAElement ele:result) {
+			if(inputElements.contains(ele) && seen.add(ele)) {
+				builder.append(ele);
+			} else {
+				builder.append(factory.cloneElement(ele));
+			}
+		}
+		return builder.toIPATranscript();
+	}
+
+	/**
+	 * Number of calls to {@link #lookup(String)} answered from the cache
+	 */
+	public long getLookupCacheHitCount() {
+		return lookupCacheHits.get();
+	}
+
+	/**
+	 * Number of calls to {@link #lookup(String)} which required processing
+	 */
+	public long getLookupCacheMissCount() {
+		return lookupCacheMisses.get();
+	}
+
+	/**
+	 * Ratio of cache hits to lookups
+	 *
+	 * @return hit rate [0.0-1.0]
+	 */
+	public double getLookupCacheHitRate() {
+		final long hits = getLookupCacheHitCount();
+		final long total = hits + getLookupCacheMissCount();
+		return (total > 0 ? (double)hits / total : 0.0);
+	}
+
+	public void clearLookupCache() {
+		synchronized(lookupCache) {
+			lookupCache.clear();
+		}
+		lookupCacheHits.set(0L);
+		lookupCacheMisses.set(0L);
 	}
 
 	@Override
@@ -541,6 +749,11 @@ public class ImmutablePlainTextDictionary implements IPADictionarySPI,
 
 	@Override
 	public Iterator<String> iterator() {
+		final CompiledDictionaryIndex index = lazyLoadIndex();
+		if(index != null) {
+			return index.keyIterator();
+		}
+
 		TernaryTree<List<String>> db;
 		try {
 			db = lazyLoadDb();
@@ -553,6 +766,11 @@ public class ImmutablePlainTextDictionary implements IPADictionarySPI,
 
 	@Override
 	public String[] keysWithPrefix(String prefix) {
+		final CompiledDictionaryIndex index = lazyLoadIndex();
+		if(index != null) {
+			return index.keysWithPrefix(prefix).toArray(new String[0]);
+		}
+
 		TernaryTree<List<String>> db;
 		try {
 			db = lazyLoadDb();
@@ -157,10 +157,7 @@ public class TransliterationDictionary implements IPADictionarySPI,
 			orthography = m.replaceAll(preReplaceExpr);
 		}
 		
-		if(tokenizer == null) {
-			tokenizer = new TransliterationTokenizer(getTokenMap());
-		}
-		String builderStr = tokenizer.transliterate(orthography);
+		String builderStr = getTokenizer().transliterate(orthography);
 		
 		for(var postFind:postFindList) {
 			var pattern = postFind.getObj1();
@@ -202,7 +199,14 @@ public class TransliterationDictionary implements IPADictionarySPI,
 		return new String[] { builderStr };
 	}
 	
-	private Map<String, String> getTokenMap() {
+	private synchronized TransliterationTokenizer getTokenizer() {
+		if(tokenizer == null) {
+			tokenizer = new TransliterationTokenizer(getTokenMap());
+		}
+		return tokenizer;
+	}
+	
+	private synchronized Map<String, String> getTokenMap() {
 		if(tokenMap == null) {
 			try { 
 				readTokenMap(mapFile.openStream());
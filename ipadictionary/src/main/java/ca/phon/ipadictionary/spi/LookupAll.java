@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2005-2020 Gregory Hedlund & Yvan Rose
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.ipadictionary.spi;
+
+import ca.phon.extensions.Extension;
+import ca.phon.ipadictionary.IPADictionary;
+import ca.phon.ipadictionary.exceptions.IPADictionaryExecption;
+
+import java.util.*;
+
+/**
+ * IPADictionary capability for looking up several
+ * orthographic forms at once (e.g., all words of an
+ * utterance.)
+ * 
+ */
+@Extension(IPADictionary.class)
+public interface LookupAll {
+	
+	/**
+	 * Lookup all given orthographic forms.
+	 * 
+	 * @param orthography
+	 * @return map of orthography (as given) to ipa transcriptions,
+	 *  every orthography will have an entry in the map
+	 * @throws IPADictionaryExecption
+	 */
+	public Map<String, String[]> lookupAll(Collection<String> orthography)
+		throws IPADictionaryExecption;
+
+}
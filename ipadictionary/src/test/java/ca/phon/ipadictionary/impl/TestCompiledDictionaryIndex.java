@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.ipadictionary.impl;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.*;
+import java.util.*;
+
+@RunWith(JUnit4.class)
+public class TestCompiledDictionaryIndex {
+
+	private final static String SOURCE_ID = "test.txt";
+
+	private SortedMap<String, List<String>> createEntries() {
+		final SortedMap<String, List<String>> entries = new TreeMap<>();
+		entries.put("cat", Arrays.asList("kæt"));
+		entries.put("catalog", Arrays.asList("ˈkæ.tə.lɑg", "ˈkæ.tə.lɔg"));
+		entries.put("category", Arrays.asList("ˈkæ.tə.ˌgɔ.ɹi"));
+		entries.put("dog", Arrays.asList("dɔg"));
+		entries.put("élan", Arrays.asList("eɪˈlɑn"));
+		return entries;
+	}
+
+	@Test
+	public void testLookup() throws Exception {
+		final File indexFile = File.createTempFile("phon", CompiledDictionaryIndex.INDEX_EXT);
+		indexFile.deleteOnExit();
+
+		final SortedMap<String, List<String>> entries = createEntries();
+		CompiledDictionaryIndex.write(indexFile, SOURCE_ID, 100L, 200L, entries);
+		final CompiledDictionaryIndex index = CompiledDictionaryIndex.open(indexFile, SOURCE_ID, 100L, 200L);
+		Assert.assertNotNull(index);
+		Assert.assertEquals(entries.size(), index.size());
+
+		for(String key:entries.keySet()) {
+			Assert.assertEquals(entries.get(key), index.get(key));
+		}
+		Assert.assertNull(index.get("ca"));
+		Assert.assertNull(index.get("cats"));
+		Assert.assertNull(index.get("zebra"));
+		Assert.assertNull(index.get(""));
+
+		Assert.assertEquals(Arrays.asList("cat", "catalog", "category"), index.keysWithPrefix("cat"));
+		Assert.assertEquals(Arrays.asList("catalog"), index.keysWithPrefix("catal"));
+		Assert.assertEquals(0, index.keysWithPrefix("x").size());
+		Assert.assertEquals(entries.size(), index.keysWithPrefix("").size());
+
+		final List<String> keys = new ArrayList<>();
+		index.keyIterator().forEachRemaining(keys::add);
+		Assert.assertEquals(new ArrayList<>(entries.keySet()), keys);
+	}
+
+	@Test
+	public void testStaleIndex() throws Exception {
+		final File indexFile = File.createTempFile("phon", CompiledDictionaryIndex.INDEX_EXT);
+		indexFile.deleteOnExit();
+
+		CompiledDictionaryIndex.write(indexFile, SOURCE_ID, 100L, 200L, createEntries());
+		Assert.assertNull(CompiledDictionaryIndex.open(indexFile, SOURCE_ID, 101L, 200L));
+		Assert.assertNull(CompiledDictionaryIndex.open(indexFile, SOURCE_ID, 100L, 201L));
+		Assert.assertNull(CompiledDictionaryIndex.open(indexFile, "other.txt", 100L, 200L));
+		Assert.assertNull(CompiledDictionaryIndex.open(new File(indexFile.getParentFile(), "missing" + CompiledDictionaryIndex.INDEX_EXT), SOURCE_ID, 100L, 200L));
+
+		// stale index is replaced
+		CompiledDictionaryIndex.write(indexFile, SOURCE_ID, 101L, 200L, createEntries());
+		Assert.assertNotNull(CompiledDictionaryIndex.open(indexFile, SOURCE_ID, 101L, 200L));
+	}
+
+	@Test
+	public void testIndexFileName() {
+		// "Aa" and "BB" have the same String.hashCode()
+		Assert.assertEquals("Aa".hashCode(), "BB".hashCode());
+		Assert.assertFalse(CompiledDictionaryIndex.indexFileName("Aa").equals(CompiledDictionaryIndex.indexFileName("BB")));
+		Assert.assertEquals(CompiledDictionaryIndex.indexFileName(SOURCE_ID), CompiledDictionaryIndex.indexFileName(SOURCE_ID));
+		Assert.assertEquals(40 + CompiledDictionaryIndex.INDEX_EXT.length(), CompiledDictionaryIndex.indexFileName(SOURCE_ID).length());
+		Assert.assertTrue(CompiledDictionaryIndex.indexFileName(SOURCE_ID).endsWith(CompiledDictionaryIndex.INDEX_EXT));
+	}
+
+	@Test(expected=IOException.class)
+	public void testTruncatedIndex() throws Exception {
+		final File indexFile = File.createTempFile("phon", CompiledDictionaryIndex.INDEX_EXT);
+		indexFile.deleteOnExit();
+
+		CompiledDictionaryIndex.write(indexFile, SOURCE_ID, 100L, 200L, createEntries());
+		try(RandomAccessFile raf = new RandomAccessFile(indexFile, "rw")) {
+			raf.setLength(raf.length() - 1);
+		}
+		CompiledDictionaryIndex.open(indexFile, SOURCE_ID, 100L, 200L);
+	}
+
+}
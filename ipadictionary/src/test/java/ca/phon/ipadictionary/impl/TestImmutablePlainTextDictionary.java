@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.ipadictionary.impl;
+
+import ca.phon.ipa.*;
+import ca.phon.phonex.*;
+import junit.framework.Assert;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+@RunWith(JUnit4.class)
+public class TestImmutablePlainTextDictionary {
+
+	private final static String[][] PHONEX_RULES = { { "t", "d" }, { "d", "s" } };
+
+	private final static String[][] ENTRIES = {
+			{ "cat", "kæt" },
+			{ "tot", "tɑt" },
+			{ "box", "bɑx" },
+			{ "dog", "dɔg" },
+			{ "sun", "sʌn" }
+	};
+
+	private File dictFile;
+
+	@Before
+	public void setUp() throws IOException {
+		System.setProperty(ImmutablePlainTextDictionary.USE_COMPILED_INDEX_PROP, "false");
+
+		dictFile = File.createTempFile("phon", ".dict");
+		dictFile.deleteOnExit();
+		final StringBuilder sb = new StringBuilder();
+		sb.append("#name Test\n");
+		sb.append("#postfind x\n");
+		sb.append("#postreplace k\n");
+		for(String[] rule:PHONEX_RULES) {
+			sb.append("#phonexfind ").append(rule[0]).append('\n');
+			sb.append("#phonexreplace ").append(rule[1]).append('\n');
+		}
+		for(String[] entry:ENTRIES) {
+			sb.append(entry[0]).append('\t').append(entry[1]).append('\n');
+		}
+		Files.writeString(dictFile.toPath(), sb.toString(), StandardCharsets.UTF_8);
+	}
+
+	@After
+	public void tearDown() {
+		System.clearProperty(ImmutablePlainTextDictionary.USE_COMPILED_INDEX_PROP);
+		System.clearProperty(ImmutablePlainTextDictionary.LOOKUP_CACHE_SIZE_PROP);
+		dictFile.delete();
+	}
+
+	private ImmutablePlainTextDictionary createDictionary() throws IOException {
+		return new ImmutablePlainTextDictionary(dictFile.toURI().toURL());
+	}
+
+	/**
+	 * Post-processing as performed before transcripts were parsed once,
+	 * each phonex rule parses the text produced by the previous rule.
+	 */
+	private String multiParsePostProcess(String ipaText) throws Exception {
+		String str = ipaText.replaceAll("x", "k");
+		for(String[] rule:PHONEX_RULES) {
+			final IPATranscript ipa = IPATranscript.parseIPATranscript(str);
+			final PhonexMatcher matcher = PhonexPattern.compile(rule[0]).matcher(ipa);
+			final IPATranscriptBuilder builder = new IPATranscriptBuilder();
+			while(matcher.find()) {
+				matcher.appendReplacement(builder, IPATranscript.parseIPATranscript(rule[1]));
+			}
+			matcher.appendTail(builder);
+			str = builder.toIPATranscript().toString(true);
+		}
+		return str;
+	}
+
+	@Test
+	public void testPostProcess() throws Exception {
+		final ImmutablePlainTextDictionary dict = createDictionary();
+		for(String[] entry:ENTRIES) {
+			final String[] ipa = dict.lookup(entry[0]);
+			Assert.assertEquals(1, ipa.length);
+			Assert.assertEquals(multiParsePostProcess(entry[1]), ipa[0]);
+		}
+		Assert.assertEquals("sɑs", IPATranscript.parseIPATranscript(dict.lookup("tot")[0]).toString());
+		Assert.assertEquals("bɑk", IPATranscript.parseIPATranscript(dict.lookup("box")[0]).toString());
+		Assert.assertEquals(0, dict.lookup("zebra").length);
+
+		// replacement expressions are not modified by lookups
+		dict.clearLookupCache();
+		for(String[] entry:ENTRIES) {
+			Assert.assertEquals(multiParsePostProcess(entry[1]), dict.lookup(entry[0])[0]);
+		}
+	}
+
+	@Test
+	public void testCacheHit() throws Exception {
+		final ImmutablePlainTextDictionary dict = createDictionary();
+		final String[] ipa1 = dict.lookup("tot");
+		Assert.assertEquals(0, dict.getLookupCacheHitCount());
+		Assert.assertEquals(1, dict.getLookupCacheMissCount());
+
+		final String[] ipa2 = dict.lookup("TOT!");
+		Assert.assertEquals(1, dict.getLookupCacheHitCount());
+		Assert.assertEquals(1, dict.getLookupCacheMissCount());
+		Assert.assertEquals(0.5, dict.getLookupCacheHitRate(), 0.0);
+		Assert.assertTrue(Arrays.equals(ipa1, ipa2));
+		Assert.assertNotSame(ipa1, ipa2);
+
+		// results are independent of the cache
+		ipa2[0] = "x";
+		final String[] ipa3 = dict.lookup("tot");
+		Assert.assertTrue(Arrays.equals(ipa1, ipa3));
+
+		final IPATranscript t1 = IPATranscript.parseIPATranscript(ipa1[0]);
+		final IPATranscript t3 = IPATranscript.parseIPATranscript(ipa3[0]);
+		Assert.assertEquals(t1.toString(true), t3.toString(true));
+		Assert.assertNotSame(t1, t3);
+	}
+
+	@Test
+	public void testCacheEviction() throws Exception {
+		System.setProperty(ImmutablePlainTextDictionary.LOOKUP_CACHE_SIZE_PROP, "2");
+		final ImmutablePlainTextDictionary dict = createDictionary();
+
+		dict.lookup("cat");
+		dict.lookup("dog");
+		dict.lookup("cat");
+		// dog is least-recently used
+		dict.lookup("sun");
+		Assert.assertEquals(1, dict.getLookupCacheHitCount());
+		Assert.assertEquals(3, dict.getLookupCacheMissCount());
+
+		dict.lookup("cat");
+		Assert.assertEquals(2, dict.getLookupCacheHitCount());
+		dict.lookup("dog");
+		Assert.assertEquals(4, dict.getLookupCacheMissCount());
+	}
+
+	@Test
+	public void testCacheDisabled() throws Exception {
+		System.setProperty(ImmutablePlainTextDictionary.LOOKUP_CACHE_SIZE_PROP, "0");
+		final ImmutablePlainTextDictionary dict = createDictionary();
+
+		final String[] ipa1 = dict.lookup("cat");
+		final String[] ipa2 = dict.lookup("cat");
+		Assert.assertTrue(Arrays.equals(ipa1, ipa2));
+		Assert.assertEquals(0, dict.getLookupCacheHitCount());
+		Assert.assertEquals(2, dict.getLookupCacheMissCount());
+	}
+
+}
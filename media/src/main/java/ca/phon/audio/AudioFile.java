@@ -162,25 +162,176 @@ public final class AudioFile implements AutoCloseable, Closeable {
 	 * @returns number of samples read
 	 */
 	public synchronized int readSamples(double[][] buffer, int offset, int numSamples) throws IOException {
+		final int frameSize = getFrameSize();
+		final long firstSample = mappedBuffer.position() / frameSize;
+		if(numSamples > 0 && mappedBuffer.remaining() < numSamples * frameSize)
+			throw new IOException(new BufferUnderflowException());
+		final int samplesRead = readSamples(firstSample, buffer, offset, numSamples);
+		mappedBuffer.position(mappedBuffer.position() + samplesRead * frameSize);
+		return samplesRead;
+	}
+
+	/**
+	 * Read numSamples samples from buffer.length channels starting at firstSample.
+	 * Data will be inserted into buffer[channel] starting at offset.  Channels
+	 * with a <code>null</code> buffer are skipped.
+	 * 
+	 * This method does not use or modify the current position and may be called
+	 * concurrently from multiple threads.
+	 * 
+	 * @param firstSample
+	 * @param buffer
+	 * @param offset
+	 * @param numSamples
+	 * 
+	 * @return number of samples read, may be less than numSamples at end of data
+	 * @throws IOException if the encoding is not supported
+	 */
+	public int readSamples(long firstSample, double[][] buffer, int offset, int numSamples) throws IOException {
 		int samplesRead = 0;
-		int frameSize = getFrameSize();
-		
-		byte[] frameData = new byte[frameSize];
-		double[] channelSamples = new double[getNumberOfChannels()];
-		for(int isamp = 0; isamp < numSamples; isamp++) {
-			mappedBuffer.get(frameData);
-			try {
-				AudioIO.decodeFrame(frameData, 0, getAudioFileEncoding(), getNumberOfChannels(), channelSamples, 0);
-			} catch (BufferUnderflowException | UnsupportedFormatException e) {
-				throw new IOException(e);
+		for(int ichan = 0; ichan < buffer.length && ichan < getNumberOfChannels(); ichan++) {
+			if(buffer[ichan] == null) continue;
+			samplesRead = readChannelSamples(ichan, firstSample, buffer[ichan], offset, numSamples);
+		}
+		return samplesRead;
+	}
+
+	/**
+	 * Read value of a single sample.  This method does not use or modify
+	 * the current position and may be called concurrently from multiple threads.
+	 * 
+	 * @param channel
+	 * @param sample
+	 * 
+	 * @return sample value
+	 * @throws IOException if sample is out of range or the encoding is not supported
+	 */
+	public double readSample(int channel, long sample) throws IOException {
+		final double[] value = new double[1];
+		if(readChannelSamples(channel, sample, value, 0, 1) != 1)
+			throw new IOException(new BufferUnderflowException());
+		return value[0];
+	}
+
+	/**
+	 * Decode numSamples samples for channel starting at firstSample into buffer
+	 * at offset.  Samples are decoded directly from the mapped file data using
+	 * absolute positions, this method does not use or modify the current position
+	 * and may be called concurrently from multiple threads.
+	 * 
+	 * @param channel
+	 * @param firstSample
+	 * @param buffer
+	 * @param offset
+	 * @param numSamples
+	 * 
+	 * @return number of samples read, may be less than numSamples at end of data
+	 * @throws IOException if the encoding is not supported
+	 */
+	public int readChannelSamples(int channel, long firstSample, double[] buffer, int offset, int numSamples) throws IOException {
+		if(channel < 0 || channel >= getNumberOfChannels())
+			throw new IndexOutOfBoundsException("channel");
+		if(firstSample < 0)
+			throw new IndexOutOfBoundsException("firstSample");
+		final int frameSize = getFrameSize();
+		final int bytesPerSample = getAudioFileEncoding().getBytesPerSample();
+		final long availableFrames = Math.min(getNumberOfSamples(), mappedBuffer.capacity() / frameSize);
+		final int n = (int)Math.max(0, Math.min(Math.min(numSamples, buffer.length - offset), availableFrames - firstSample));
+		if(n == 0) return 0;
+
+		final ByteBuffer data = mappedBuffer.duplicate().order(byteOrder(getAudioFileEncoding()));
+		final int end = offset + n;
+		int idx = (int)(firstSample * frameSize) + channel * bytesPerSample;
+		switch(getAudioFileEncoding()) {
+		case LINEAR_8_UNSIGNED:
+			for(int i = offset; i < end; i++, idx += frameSize)
+				buffer[i] = Byte.toUnsignedInt(data.get(idx)) * (1.0/128.0) - 1.0;
+			break;
+
+		case LINEAR_8_SIGNED:
+			for(int i = offset; i < end; i++, idx += frameSize)
+				buffer[i] = data.get(idx) * (1.0/128.0);
+			break;
+
+		case LINEAR_12_LITTLE_ENDIAN:
+		case LINEAR_12_BIG_ENDIAN:
+			for(int i = offset; i < end; i++, idx += frameSize)
+				buffer[i] = data.getShort(idx) * (1.0/2048.0);
+			break;
+
+		case LINEAR_16_LITTLE_ENDIAN:
+		case LINEAR_16_BIG_ENDIAN:
+			for(int i = offset; i < end; i++, idx += frameSize)
+				buffer[i] = data.getShort(idx) * (1.0/32768.0);
+			break;
+
+		case LINEAR_24_LITTLE_ENDIAN:
+			for(int i = offset; i < end; i++, idx += frameSize) {
+				// sign extended by shift of most significant byte
+				final int value = (data.get(idx+2) << 16)
+						| (Byte.toUnsignedInt(data.get(idx+1)) << 8)
+						| Byte.toUnsignedInt(data.get(idx));
+				buffer[i] = value * (1.0/8388608.0);
 			}
-			for(int ichan = 0; ichan < buffer.length; ichan++) {
-				buffer[ichan][isamp + offset] = channelSamples[ichan];
+			break;
+
+		case LINEAR_24_BIG_ENDIAN:
+			for(int i = offset; i < end; i++, idx += frameSize) {
+				final int value = (data.get(idx) << 16)
+						| (Byte.toUnsignedInt(data.get(idx+1)) << 8)
+						| Byte.toUnsignedInt(data.get(idx+2));
+				buffer[i] = value * (1.0/8388608.0);
 			}
-			++samplesRead;
+			break;
+
+		case LINEAR_32_LITTLE_ENDIAN:
+		case LINEAR_32_BIG_ENDIAN:
+			for(int i = offset; i < end; i++, idx += frameSize)
+				buffer[i] = data.getInt(idx) * (1.0 / 32768.0 / 65536.0);
+			break;
+
+		case IEEE_FLOAT_32_LITTLE_ENDIAN:
+		case IEEE_FLOAT_32_BIG_ENDIAN:
+			for(int i = offset; i < end; i++, idx += frameSize)
+				buffer[i] = data.getFloat(idx);
+			break;
+
+		case IEEE_FLOAT_64_LITTLE_ENDIAN:
+		case IEEE_FLOAT_64_BIG_ENDIAN:
+			for(int i = offset; i < end; i++, idx += frameSize)
+				buffer[i] = data.getDouble(idx);
+			break;
+
+		case ALAW:
+			for(int i = offset; i < end; i++, idx += frameSize)
+				buffer[i] = AudioIO.alaw2linear[Byte.toUnsignedInt(data.get(idx))] * (1.0 / 32768.0);
+			break;
+
+		case MULAW:
+			for(int i = offset; i < end; i++, idx += frameSize)
+				buffer[i] = AudioIO.ulaw2linear[Byte.toUnsignedInt(data.get(idx))] * (1.0 / 32768.0);
+			break;
+
+		default:
+			throw new IOException(new UnsupportedFormatException());
+		}
+
+		return n;
+	}
+
+	private static ByteOrder byteOrder(AudioFileEncoding encoding) {
+		switch(encoding) {
+		case LINEAR_12_BIG_ENDIAN:
+		case LINEAR_16_BIG_ENDIAN:
+		case LINEAR_24_BIG_ENDIAN:
+		case LINEAR_32_BIG_ENDIAN:
+		case IEEE_FLOAT_32_BIG_ENDIAN:
+		case IEEE_FLOAT_64_BIG_ENDIAN:
+			return ByteOrder.BIG_ENDIAN;
+
+		default:
+			return ByteOrder.LITTLE_ENDIAN;
 		}
-		
-		return samplesRead;
 	}
 
 }
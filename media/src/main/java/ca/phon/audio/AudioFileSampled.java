@@ -15,12 +15,57 @@
  */
 package ca.phon.audio;
 
-import java.io.IOException;
-import java.nio.BufferUnderflowException;
+import ca.phon.util.PrefHelper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.*;
+import java.util.*;
+import java.util.concurrent.*;
 
 public final class AudioFileSampled extends AbstractSampled {
 
+	private final static org.apache.logging.log4j.Logger LOGGER = org.apache.logging.log4j.LogManager.getLogger(AudioFileSampled.class.getName());
+
+	/**
+	 * Write peak data to the peak cache folder so that it does not
+	 * need to be computed again.
+	 */
+	public final static String WRITE_PEAK_FILE_PROP = AudioFileSampled.class.getName() + ".writePeakFile";
+	public final static boolean DEFAULT_WRITE_PEAK_FILE = true;
+
+	public final static String PEAK_FILE_EXT = ".peaks";
+
+	/**
+	 * Location of peak files, media folders are never modified
+	 */
+	public final static String PEAK_FOLDER = PrefHelper.getUserDataFolder() + File.separator + "peaks";
+
+	/**
+	 * Maximum size of the peak cache folder in megabytes.  Least recently used
+	 * peak files are removed when a new peak file is written.
+	 */
+	public final static String PEAK_CACHE_SIZE_PROP = AudioFileSampled.class.getName() + ".peakCacheSize";
+	public final static int DEFAULT_PEAK_CACHE_SIZE = 256;
+
+	/**
+	 * Minimum number of samples in a window before peak data is built.  Smaller
+	 * windows are computed directly from sample data unless peak data is available.
+	 */
+	public final static String PEAK_WINDOW_SAMPLES_PROP = AudioFileSampled.class.getName() + ".peakWindowSamples";
+	public final static int DEFAULT_PEAK_WINDOW_SAMPLES = 1 << 20;
+
+	private final static ExecutorService peakExecutor = Executors.newCachedThreadPool( (r) -> {
+		final Thread thread = new Thread(r, "AudioFileSampled.peaks");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MIN_PRIORITY);
+		return thread;
+	});
+
 	private final AudioFile audioFile;
+
+	private Future<PeakPyramid> peakPyramidFuture;
 	
 	public AudioFileSampled(AudioFile audioFile) {
 		this.audioFile = audioFile;
@@ -43,16 +88,9 @@ public final class AudioFileSampled extends AbstractSampled {
 
 	@Override
 	public double valueForSample(int channel, int sample) {
-		double[][] buffer = new double[getNumberOfChannels()][];
-		for(int i = 0; i < getNumberOfChannels(); i++) {
-			buffer[i] = new double[1];
-		}
 		try {
-			audioFile.seekToSample(sample);
-			audioFile.readSamples(buffer, 0, 1);
-			
-			return buffer[channel][0];
-		} catch (IOException e) {
+			return audioFile.readSample(channel, sample);
+		} catch (IOException | IndexOutOfBoundsException e) {
 			return 0.0;
 		}
 	}
@@ -84,17 +122,186 @@ public final class AudioFileSampled extends AbstractSampled {
 
 	@Override
 	public void close() throws IOException {
+		synchronized(this) {
+			if(peakPyramidFuture != null)
+				peakPyramidFuture.cancel(true);
+		}
 		audioFile.close();
 	}
 
 	@Override
 	public int loadSampleData(double[][] buffer, int offset, int firstSample, int numSamples)  {
 		try {
-			audioFile.seekToSample(firstSample);
-			return audioFile.readSamples(buffer, offset, numSamples);
-		} catch (IOException | BufferUnderflowException e) {
+			return audioFile.readSamples(firstSample, buffer, offset, numSamples);
+		} catch (IOException | IndexOutOfBoundsException e) {
 			return 0;
 		}
 	}
 
+	/**
+	 * Return peak data for this audio file.  Peak data is loaded from the peak file
+	 * in {@link #PEAK_FOLDER} if up to date, otherwise it is computed in a background
+	 * thread on first request.
+	 *
+	 * @return future peak pyramid
+	 */
+	public synchronized Future<PeakPyramid> getPeakPyramid() {
+		if(peakPyramidFuture == null) {
+			peakPyramidFuture = peakExecutor.submit(this::loadPeakPyramid);
+		}
+		return peakPyramidFuture;
+	}
+
+	/**
+	 * Return peak data if available.  Computation is started only for windows of
+	 * at least {@link #PEAK_WINDOW_SAMPLES_PROP} samples, smaller windows are
+	 * computed directly from sample data until peak data has been requested.
+	 *
+	 * @param firstSample
+	 * @param lastSample
+	 * @return peak pyramid or <code>null</code> if not yet available
+	 */
+	private PeakPyramid getPeakPyramidIfAvailable(int firstSample, int lastSample) {
+		final Future<PeakPyramid> future;
+		synchronized(this) {
+			if(peakPyramidFuture == null
+					&& lastSample - firstSample < PrefHelper.getInt(PEAK_WINDOW_SAMPLES_PROP, DEFAULT_PEAK_WINDOW_SAMPLES))
+				return null;
+			future = getPeakPyramid();
+		}
+		if(future.isDone() && !future.isCancelled()) {
+			try {
+				return future.get();
+			} catch (InterruptedException | ExecutionException e) {
+				return null;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Peak file for the audio file.  Peak files are named using a digest
+	 * of the absolute path and the modification time of the audio file.
+	 *
+	 * @return peak file in {@link #PEAK_FOLDER}
+	 */
+	public File getPeakFile() {
+		final File file = audioFile.getFile();
+		return new File(PEAK_FOLDER,
+				getPeakFilePrefix(file) + Long.toHexString(file.lastModified()) + "_" + file.getName() + PEAK_FILE_EXT);
+	}
+
+	/*
+	 * Peak files for the same source file share this prefix
+	 */
+	private static String getPeakFilePrefix(File file) {
+		final String path = file.getAbsolutePath();
+		try {
+			final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			final byte[] hash = digest.digest(path.getBytes(StandardCharsets.UTF_8));
+			final StringBuilder builder = new StringBuilder();
+			for(int i = 0; i < 8; i++) {
+				builder.append(String.format("%02x", hash[i] & 0xff));
+			}
+			return builder.append('_').toString();
+		} catch (NoSuchAlgorithmException e) {
+			return String.format("%08x", path.hashCode()) + "_";
+		}
+	}
+
+	/**
+	 * Remove outdated peak files for the source of the given peak file and
+	 * least recently used peak files until the peak folder is smaller than
+	 * {@link #PEAK_CACHE_SIZE_PROP}.  The given peak file is never removed.
+	 *
+	 * @param peakFile
+	 */
+	private void prunePeakFolder(File peakFile) {
+		final File[] peakFiles = peakFile.getParentFile().listFiles( (f) -> f.isFile() && f.getName().endsWith(PEAK_FILE_EXT) );
+		if(peakFiles == null) return;
+
+		final String prefix = getPeakFilePrefix(audioFile.getFile());
+		final long maxSize = PrefHelper.getInt(PEAK_CACHE_SIZE_PROP, DEFAULT_PEAK_CACHE_SIZE) * 1024L * 1024L;
+		final List<File> lruFiles = new ArrayList<>();
+		long totalSize = 0L;
+		for(File f:peakFiles) {
+			if(f.equals(peakFile)) {
+				totalSize += f.length();
+			} else if(f.getName().startsWith(prefix)) {
+				if(!f.delete())
+					LOGGER.info("Unable to remove peak file " + f.getAbsolutePath());
+			} else {
+				totalSize += f.length();
+				lruFiles.add(f);
+			}
+		}
+
+		lruFiles.sort( Comparator.comparingLong(File::lastModified) );
+		for(File f:lruFiles) {
+			if(totalSize <= maxSize) break;
+			final long size = f.length();
+			if(f.delete())
+				totalSize -= size;
+			else
+				LOGGER.info("Unable to remove peak file " + f.getAbsolutePath());
+		}
+	}
+
+	private PeakPyramid loadPeakPyramid() throws InterruptedException {
+		final File peakFile = getPeakFile();
+		if(peakFile.exists()) {
+			try {
+				final PeakPyramid peakPyramid = PeakPyramid.read(peakFile, audioFile.getFile());
+				if(peakPyramid != null
+						&& peakPyramid.getNumberOfChannels() == getNumberOfChannels()
+						&& peakPyramid.getNumberOfSamples() == getNumberOfSamples()) {
+					// modification time of peak files is used for LRU cleanup
+					peakFile.setLastModified(System.currentTimeMillis());
+					return peakPyramid;
+				}
+			} catch (IOException e) {
+				LOGGER.warn(e.getLocalizedMessage(), e);
+			}
+		}
+
+		final PeakPyramid peakPyramid = PeakPyramid.build(this);
+		if(PrefHelper.getBoolean(WRITE_PEAK_FILE_PROP, DEFAULT_WRITE_PEAK_FILE)) {
+			File tempFile = null;
+			try {
+				peakFile.getParentFile().mkdirs();
+				tempFile = File.createTempFile(peakFile.getName(), ".tmp", peakFile.getParentFile());
+				peakPyramid.write(tempFile, audioFile.getFile());
+				Files.move(tempFile.toPath(), peakFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				prunePeakFolder(peakFile);
+			} catch (IOException e) {
+				LOGGER.info(e.getLocalizedMessage());
+				if(tempFile != null) tempFile.delete();
+			}
+		}
+		return peakPyramid;
+	}
+
+	@Override
+	public double[][] getWindowExtrema(int firstSample, int lastSample) {
+		final PeakPyramid peakPyramid = getPeakPyramidIfAvailable(firstSample, lastSample);
+		if(peakPyramid == null)
+			return super.getWindowExtrema(firstSample, lastSample);
+
+		final double[][] retVal = new double[getNumberOfChannels()][];
+		for(int i = 0; i < getNumberOfChannels(); i++) {
+			retVal[i] = new double[2];
+			peakPyramid.getWindowExtrema(this, i, firstSample, lastSample, retVal[i]);
+		}
+		return retVal;
+	}
+
+	@Override
+	public void getWindowExtrema(int channel, int firstSample, int lastSample, double[] extrema) {
+		final PeakPyramid peakPyramid = getPeakPyramidIfAvailable(firstSample, lastSample);
+		if(peakPyramid == null)
+			super.getWindowExtrema(channel, firstSample, lastSample, extrema);
+		else
+			peakPyramid.getWindowExtrema(this, channel, firstSample, lastSample, extrema);
+	}
+
 }
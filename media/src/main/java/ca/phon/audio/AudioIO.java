@@ -38,7 +38,7 @@ public final class AudioIO {
 	
 	private final static byte[] WAVE_SUBFORMAT_DATA = { 0x00, 0x00, 0x00, 0x00, 0x10, 0x00, (byte)(0x80), 0x00, 0x00, (byte)0xAA, 0x00, 0x38, (byte)0x9b, 0x71 };
 	
-	private static int ulaw2linear[] = { -32124, -31100, -30076, -29052, -28028, -27004, -25980, -24956, -23932, -22908, -21884,
+	static int ulaw2linear[] = { -32124, -31100, -30076, -29052, -28028, -27004, -25980, -24956, -23932, -22908, -21884,
 			-20860, -19836, -18812, -17788, -16764, -15996, -15484, -14972, -14460, -13948, -13436, -12924, -12412,
 			-11900, -11388, -10876, -10364, -9852, -9340, -8828, -8316, -7932, -7676, -7420, -7164, -6908, -6652, -6396,
 			-6140, -5884, -5628, -5372, -5116, -4860, -4604, -4348, -4092, -3900, -3772, -3644, -3516, -3388, -3260,
@@ -55,7 +55,7 @@ public final class AudioIO {
 			308, 292, 276, 260, 244, 228, 212, 196, 180, 164, 148, 132, 120, 112, 104, 96, 88, 80, 72, 64, 56, 48, 40,
 			32, 24, 16, 8, 0 };
 
-	private static short alaw2linear[] = { -5504, -5248, -6016, -5760, -4480, -4224, -4992, -4736, -7552, -7296, -8064, -7808,
+	static short alaw2linear[] = { -5504, -5248, -6016, -5760, -4480, -4224, -4992, -4736, -7552, -7296, -8064, -7808,
 			-6528, -6272, -7040, -6784, -2752, -2624, -3008, -2880, -2240, -2112, -2496, -2368, -3776, -3648, -4032,
 			-3904, -3264, -3136, -3520, -3392, -22016, -20992, -24064, -23040, -17920, -16896, -19968, -18944, -30208,
 			-29184, -32256, -31232, -26112, -25088, -28160, -27136, -11008, -10496, -12032, -11520, -8960, -8448, -9984,
@@ -1371,7 +1371,7 @@ public final class AudioIO {
 		} else if(exp == 0x000000FF) {
 			return Float.NaN;
 		} else {
-			x = Math.scalb(mantissa, exp - 149);
+			x = Math.scalb(mantissa | 0x00800000, exp - 150);
 		}
 		return (data[offset] & 0x80) != 0 ? - x : x;		
 	}
@@ -1399,7 +1399,7 @@ public final class AudioIO {
 		} else if(exp == 0x000000FF) {
 			return Float.NaN;
 		} else {
-			x = Math.scalb(mantissa, exp - 149);
+			x = Math.scalb(mantissa | 0x00800000, exp - 150);
 		}
 		return (data[offset + 3] & 0x80) != 0 ? - x : x;		
 	}
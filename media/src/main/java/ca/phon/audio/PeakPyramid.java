@@ -0,0 +1,278 @@
+/*
+ * Copyright (C) Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.audio;
+
+import java.io.*;
+
+/**
+ * <p>Multi-resolution min/max peak data for {@link Sampled} data.  Level 0 stores
+ * the minimum and maximum value of each block of <code>blockSize</code> samples,
+ * each following level combines two blocks of the previous level.</p>
+ *
+ * <p>Extrema for sample ranges of at least two blocks are computed from
+ * the pyramid in time proportional to the log of the number of blocks; the range
+ * is extended to block boundaries.  Smaller ranges are read from sample data.</p>
+ */
+public final class PeakPyramid {
+
+	public final static int DEFAULT_BLOCK_SIZE = 256;
+
+	/* Number of blocks read from sample data at a time during build */
+	private final static int BLOCKS_PER_READ = 256;
+
+	private final static int PEAK_FILE_MAGIC = 0x5048504b; // 'PHPK'
+
+	private final static int PEAK_FILE_VERSION = 1;
+
+	private final int numberOfChannels;
+
+	private final int numberOfSamples;
+
+	private final int blockSize;
+
+	/* [level][channel][block] */
+	private final float[][][] mins;
+
+	private final float[][][] maxs;
+
+	private PeakPyramid(int numberOfChannels, int numberOfSamples, int blockSize, float[][] mins0, float[][] maxs0) {
+		super();
+		this.numberOfChannels = numberOfChannels;
+		this.numberOfSamples = numberOfSamples;
+		this.blockSize = blockSize;
+
+		int numLevels = 1;
+		for(int n = (mins0.length > 0 ? mins0[0].length : 0); n > 1; n = (n + 1) / 2) ++numLevels;
+		this.mins = new float[numLevels][][];
+		this.maxs = new float[numLevels][][];
+		this.mins[0] = mins0;
+		this.maxs[0] = maxs0;
+		for(int level = 1; level < numLevels; level++) {
+			final int prevBlocks = mins[level-1][0].length;
+			final int numBlocks = (prevBlocks + 1) / 2;
+			mins[level] = new float[numberOfChannels][numBlocks];
+			maxs[level] = new float[numberOfChannels][numBlocks];
+			for(int ch = 0; ch < numberOfChannels; ch++) {
+				final float[] prevMin = mins[level-1][ch];
+				final float[] prevMax = maxs[level-1][ch];
+				final float[] min = mins[level][ch];
+				final float[] max = maxs[level][ch];
+				for(int i = 0; i < numBlocks; i++) {
+					final int j = 2 * i;
+					if(j + 1 < prevBlocks) {
+						min[i] = Math.min(prevMin[j], prevMin[j+1]);
+						max[i] = Math.max(prevMax[j], prevMax[j+1]);
+					} else {
+						min[i] = prevMin[j];
+						max[i] = prevMax[j];
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Build peak pyramid using the default block size.
+	 *
+	 * @param sampled
+	 * @return peak pyramid
+	 * @throws InterruptedException if the current thread is interrupted during build
+	 */
+	public static PeakPyramid build(Sampled sampled) throws InterruptedException {
+		return build(sampled, DEFAULT_BLOCK_SIZE);
+	}
+
+	/**
+	 * Build peak pyramid.  Sample data is read sequentially once.
+	 *
+	 * @param sampled
+	 * @param blockSize number of samples in each level 0 block
+	 * @return peak pyramid
+	 * @throws InterruptedException if the current thread is interrupted during build
+	 */
+	public static PeakPyramid build(Sampled sampled, int blockSize) throws InterruptedException {
+		if(blockSize < 1) throw new IllegalArgumentException("Invalid block size " + blockSize);
+		final int numberOfChannels = sampled.getNumberOfChannels();
+		final int numberOfSamples = sampled.getNumberOfSamples();
+		final int numBlocks = Math.max(1, (numberOfSamples + blockSize - 1) / blockSize);
+
+		final float[][] mins = new float[numberOfChannels][numBlocks];
+		final float[][] maxs = new float[numberOfChannels][numBlocks];
+
+		final int readSize = blockSize * BLOCKS_PER_READ;
+		final double[][] buffer = new double[numberOfChannels][readSize];
+		for(int firstSample = 0; firstSample < numberOfSamples; firstSample += readSize) {
+			if(Thread.currentThread().isInterrupted())
+				throw new InterruptedException();
+
+			final int numSamples = Math.min(readSize, numberOfSamples - firstSample);
+			final int samplesRead = Math.max(0, sampled.loadSampleData(buffer, 0, firstSample, numSamples));
+			for(int ch = 0; ch < numberOfChannels; ch++) {
+				final double[] data = buffer[ch];
+				// treat unreadable data as silence
+				for(int i = samplesRead; i < numSamples; i++) data[i] = 0.0;
+
+				for(int i = 0; i < numSamples; i += blockSize) {
+					final int end = Math.min(numSamples, i + blockSize);
+					double min = data[i];
+					double max = data[i];
+					for(int j = i + 1; j < end; j++) {
+						final double v = data[j];
+						if(v < min) min = v;
+						if(v > max) max = v;
+					}
+					final int block = (firstSample + i) / blockSize;
+					mins[ch][block] = (float)min;
+					maxs[ch][block] = (float)max;
+				}
+			}
+		}
+
+		return new PeakPyramid(numberOfChannels, numberOfSamples, blockSize, mins, maxs);
+	}
+
+	public int getNumberOfChannels() {
+		return numberOfChannels;
+	}
+
+	public int getNumberOfSamples() {
+		return numberOfSamples;
+	}
+
+	public int getBlockSize() {
+		return blockSize;
+	}
+
+	public int getNumberOfLevels() {
+		return mins.length;
+	}
+
+	/**
+	 * Get min/max values for specified sample range.  Values are combined with
+	 * the current contents of extrema.
+	 *
+	 * @param sampled sample data used for ranges smaller than two blocks, must be the
+	 *  data used to build this pyramid
+	 * @param channel
+	 * @param firstSample
+	 * @param lastSample (exclusive)
+	 * @param extrema an array of double[2] where the data will be stored
+	 */
+	public void getWindowExtrema(Sampled sampled, int channel, int firstSample, int lastSample, double[] extrema) {
+		final int first = Math.max(0, Math.min(firstSample, numberOfSamples));
+		final int last = Math.max(first, Math.min(lastSample, numberOfSamples));
+		if(last - first < 2 * blockSize) {
+			readWindowExtrema(sampled, channel, first, last, extrema);
+			return;
+		}
+
+		int lo = first / blockSize;
+		int hi = (last + blockSize - 1) / blockSize;
+		float min = Float.POSITIVE_INFINITY;
+		float max = Float.NEGATIVE_INFINITY;
+		for(int level = 0; lo < hi; level++) {
+			if((lo & 1) == 1) {
+				min = Math.min(min, mins[level][channel][lo]);
+				max = Math.max(max, maxs[level][channel][lo]);
+				++lo;
+			}
+			if((hi & 1) == 1) {
+				--hi;
+				min = Math.min(min, mins[level][channel][hi]);
+				max = Math.max(max, maxs[level][channel][hi]);
+			}
+			lo >>= 1;
+			hi >>= 1;
+		}
+		extrema[0] = Math.min(extrema[0], min);
+		extrema[1] = Math.max(extrema[1], max);
+	}
+
+	private void readWindowExtrema(Sampled sampled, int channel, int firstSample, int lastSample, double[] extrema) {
+		final int numSamples = lastSample - firstSample;
+		if(numSamples <= 0) return;
+		final double[][] data = new double[sampled.getNumberOfChannels()][numSamples];
+		final int samplesRead = sampled.loadSampleData(data, 0, firstSample, numSamples);
+		for(int i = 0; i < samplesRead; i++) {
+			extrema[0] = Math.min(extrema[0], data[channel][i]);
+			extrema[1] = Math.max(extrema[1], data[channel][i]);
+		}
+	}
+
+	/**
+	 * Write level 0 peak data to file.  The modification time and size of
+	 * the source file are stored in the header and checked by {@link #read(File, File)}.
+	 *
+	 * @param peakFile
+	 * @param sourceFile
+	 * @throws IOException
+	 */
+	public void write(File peakFile, File sourceFile) throws IOException {
+		try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(peakFile)))) {
+			out.writeInt(PEAK_FILE_MAGIC);
+			out.writeInt(PEAK_FILE_VERSION);
+			out.writeLong(sourceFile.lastModified());
+			out.writeLong(sourceFile.length());
+			out.writeInt(numberOfChannels);
+			out.writeInt(numberOfSamples);
+			out.writeInt(blockSize);
+			out.writeInt(mins[0].length > 0 ? mins[0][0].length : 0);
+			for(int ch = 0; ch < numberOfChannels; ch++) {
+				for(float v:mins[0][ch]) out.writeFloat(v);
+				for(float v:maxs[0][ch]) out.writeFloat(v);
+			}
+		}
+	}
+
+	/**
+	 * Read peak data written by {@link #write(File, File)}.
+	 *
+	 * @param peakFile
+	 * @param sourceFile
+	 * @return peak pyramid or <code>null</code> if the source file has been
+	 *  modified since the peak file was written
+	 * @throws IOException if the peak file could not be read
+	 */
+	public static PeakPyramid read(File peakFile, File sourceFile) throws IOException {
+		try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(peakFile)))) {
+			if(in.readInt() != PEAK_FILE_MAGIC)
+				throw new IOException("Invalid peak file " + peakFile.getAbsolutePath());
+			if(in.readInt() != PEAK_FILE_VERSION)
+				return null;
+			final long lastModified = in.readLong();
+			final long length = in.readLong();
+			if(lastModified != sourceFile.lastModified() || length != sourceFile.length())
+				return null;
+
+			final int numberOfChannels = in.readInt();
+			final int numberOfSamples = in.readInt();
+			final int blockSize = in.readInt();
+			final int numBlocks = in.readInt();
+			if(numberOfChannels < 0 || numberOfSamples < 0 || blockSize < 1
+					|| numBlocks != Math.max(1, (numberOfSamples + blockSize - 1) / blockSize))
+				throw new IOException("Invalid peak file " + peakFile.getAbsolutePath());
+
+			final float[][] mins = new float[numberOfChannels][numBlocks];
+			final float[][] maxs = new float[numberOfChannels][numBlocks];
+			for(int ch = 0; ch < numberOfChannels; ch++) {
+				for(int i = 0; i < numBlocks; i++) mins[ch][i] = in.readFloat();
+				for(int i = 0; i < numBlocks; i++) maxs[ch][i] = in.readFloat();
+			}
+			return new PeakPyramid(numberOfChannels, numberOfSamples, blockSize, mins, maxs);
+		}
+	}
+
+}
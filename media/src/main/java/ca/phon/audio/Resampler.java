@@ -1,18 +1,61 @@
 package ca.phon.audio;
 
-import java.io.IOException;
+import java.util.Arrays;
+import java.util.stream.IntStream;
 
 /**
  * Resample given sampled.
  *
+ * <p>Resampling uses a polyphase windowed-sinc (Hann) filter.  Filter kernels
+ * are computed once for each fractional source position (phase) before
+ * resampling.  When both sample rates are integers and the reduced ratio has
+ * at most {@link #MAX_EXACT_PHASES} phases every output sample uses an exact
+ * phase, otherwise {@link #INTERPOLATED_PHASES} phases are computed and
+ * the output is interpolated between the two nearest phases.  When
+ * downsampling the filter cutoff is lowered to the new Nyquist frequency.</p>
+ *
+ * <p>Source data is read in blocks using {@link Sampled#loadSampleData(double[][], int, int, int)}
+ * and channels are filtered in parallel.  Output may be streamed in blocks
+ * using {@link #resample(Sampled, float, int, int, BlockHandler)}.</p>
  */
 public final class Resampler {
 
-	// samples, divided by channel
-	private int[][] samples;
+	/**
+	 * Maximum number of phases used for exact rational ratios
+	 */
+	public final static int MAX_EXACT_PHASES = 1024;
+
+	/**
+	 * Number of phases used when the ratio is not an exact rational
+	 */
+	public final static int INTERPOLATED_PHASES = 512;
+
+	public final static int DEFAULT_WINDOW_SIZE = 10;
+
+	/**
+	 * Default number of output samples per block
+	 */
+	public final static int DEFAULT_BLOCK_SIZE = 16384;
+
+	/**
+	 * Receives resampled data when streaming.
+	 */
+	@FunctionalInterface
+	public interface BlockHandler {
+
+		/**
+		 * Called for each block of resampled data, in order.  Arrays are
+		 * not reused and may be kept by the handler.
+		 *
+		 * @param firstSample index of first sample in block
+		 * @param samples block data, divided by channel
+		 */
+		public void blockResampled(int firstSample, double[][] samples);
+
+	}
 
 	public Sampled resample(Sampled sampled, float newSampleRate) {
-		return resample(sampled, newSampleRate, 10);
+		return resample(sampled, newSampleRate, DEFAULT_WINDOW_SIZE);
 	}
 
 	/**
@@ -20,55 +63,244 @@ public final class Resampler {
 	 *
 	 * @param sampled
 	 * @param newSampleRate
-	 * @param windowSize Hann window size in samples
+	 * @param windowSize Hann window half-width in samples at the lower of the
+	 *  two sample rates
 	 * @return Sampled a new sampled with given sample rate
-	 * @throws IOException
 	 */
 	public Sampled resample(Sampled sampled, float newSampleRate, int windowSize) {
-		int srcLength = sampled.getNumberOfSamples();
-		int destLength = (int)Math.ceil((srcLength * newSampleRate) / sampled.getSampleRate());
-		float dx = (float)srcLength / (float)destLength;
+		final Kernel kernel = new Kernel(sampled.getSampleRate(), newSampleRate, windowSize);
+		final int destLength = kernel.outputLength(sampled.getNumberOfSamples());
 
-		float fmaxDivSR = 0.5f;
-		float r_g = fmaxDivSR  * 2;
-
-		int wndWidth2 = windowSize;
-		int wndWidth = windowSize * 2;
-
-		double[][] samples = new double[sampled.getNumberOfChannels()][];
+		final double[][] samples = new double[sampled.getNumberOfChannels()][];
 		for(int i = 0; i < sampled.getNumberOfChannels(); i++)
 			samples[i] = new double[destLength];
 
-		float x = sampled.sampleForTime(sampled.getStartTime());
-		int tau = 0;
-		double r_y = 0.0f;
-		double r_w = 0.0f;
-		double r_a = 0.0f;
-		double r_snc = 0.0f;
-
-		for(int channel = 0; channel < sampled.getNumberOfChannels(); channel++) {
-			for (int i = 0; i < destLength; ++i) {
-				r_y = 0.0f;
-				for (tau = -wndWidth2; tau < wndWidth2; ++tau) {
-					int j = (int) (x + tau);
-
-					// hann window
-					r_w = 0.5 - 0.5 * Math.cos(2 * Math.PI * (0.5 + (j - x) / wndWidth));
-					r_a = 2 * Math.PI * (j - x) * fmaxDivSR;
-					r_snc = 1.0;
-					if (r_a != 0)
-						r_snc = Math.sin(r_a) / r_a;
-
-					if ((j >= 0) && (j < srcLength)) {
-						r_y += r_g * r_w * r_snc * sampled.valueForSample(channel, j);
-					}
+		final BlockReader reader = new BlockReader(sampled, kernel, DEFAULT_BLOCK_SIZE);
+		for(int i = 0; i < destLength; i += DEFAULT_BLOCK_SIZE) {
+			reader.resampleBlock(samples, i, i, Math.min(DEFAULT_BLOCK_SIZE, destLength - i));
+		}
+
+		return new ArraySampled(newSampleRate, samples);
+	}
+
+	/**
+	 * Resample given sampled, resampled data is provided to the handler in
+	 * blocks of at most blockSize samples.
+	 *
+	 * @param sampled
+	 * @param newSampleRate
+	 * @param windowSize Hann window half-width in samples at the lower of the
+	 *  two sample rates
+	 * @param blockSize number of output samples per block
+	 * @param handler
+	 *
+	 * @return number of resampled samples
+	 */
+	public int resample(Sampled sampled, float newSampleRate, int windowSize, int blockSize, BlockHandler handler) {
+		if(blockSize <= 0)
+			throw new IllegalArgumentException("blockSize");
+		final Kernel kernel = new Kernel(sampled.getSampleRate(), newSampleRate, windowSize);
+		final int destLength = kernel.outputLength(sampled.getNumberOfSamples());
+
+		final BlockReader reader = new BlockReader(sampled, kernel, blockSize);
+		for(int i = 0; i < destLength; i += blockSize) {
+			final int count = Math.min(blockSize, destLength - i);
+			final double[][] block = new double[sampled.getNumberOfChannels()][count];
+			reader.resampleBlock(block, 0, i, count);
+			handler.blockResampled(i, block);
+		}
+		return destLength;
+	}
+
+	/**
+	 * Precomputed filter kernels for all phases.
+	 */
+	private final static class Kernel {
+
+		private final float sampleRate;
+
+		private final float newSampleRate;
+
+		/* Number of taps on each side of the output position */
+		private final int halfWidth;
+
+		private final int taps;
+
+		/* Exact rational ratio newSampleRate/sampleRate = up/down, 0 if interpolated */
+		private final long up;
+
+		private final long down;
+
+		private final double step;
+
+		private final int phases;
+
+		/* (phases + 1) kernels of taps coefficients */
+		private final double[] table;
+
+		public Kernel(float sampleRate, float newSampleRate, int windowSize) {
+			if(sampleRate <= 0 || newSampleRate <= 0)
+				throw new IllegalArgumentException("Invalid sample rate");
+			if(windowSize <= 0)
+				throw new IllegalArgumentException("windowSize");
+			this.sampleRate = sampleRate;
+			this.newSampleRate = newSampleRate;
+
+			final double scale = Math.min(1.0, (double)newSampleRate / (double)sampleRate);
+			this.halfWidth = (int)Math.ceil(windowSize / scale);
+			this.taps = 2 * halfWidth;
+			this.step = (double)sampleRate / (double)newSampleRate;
+
+			long up = 0L;
+			long down = 0L;
+			if(sampleRate == Math.rint(sampleRate) && newSampleRate == Math.rint(newSampleRate)) {
+				final long gcd = gcd((long)sampleRate, (long)newSampleRate);
+				if((long)newSampleRate / gcd <= MAX_EXACT_PHASES) {
+					up = (long)newSampleRate / gcd;
+					down = (long)sampleRate / gcd;
+				}
+			}
+			this.up = up;
+			this.down = down;
+			this.phases = (up > 0 ? (int)up : INTERPOLATED_PHASES);
+
+			this.table = new double[(phases + 1) * taps];
+			for(int p = 0; p <= phases; p++) {
+				final double frac = (double)p / phases;
+				final int offset = p * taps;
+				double sum = 0.0;
+				for(int t = 0; t < taps; t++) {
+					// distance from output position to tap
+					final double d = (t - halfWidth + 1) - frac;
+					final double w = 0.5 + 0.5 * Math.cos(Math.PI * d / halfWidth);
+					final double a = Math.PI * d * scale;
+					final double snc = (a != 0 ? Math.sin(a) / a : 1.0);
+					table[offset + t] = w * snc;
+					sum += table[offset + t];
+				}
+				// unity gain for each phase
+				for(int t = 0; t < taps; t++) {
+					table[offset + t] /= sum;
 				}
-				samples[channel][i] = r_y;
-				x += dx;
 			}
 		}
 
-		return new ArraySampled(newSampleRate, samples);
+		private static long gcd(long a, long b) {
+			while(b != 0) {
+				final long t = a % b;
+				a = b;
+				b = t;
+			}
+			return a;
+		}
+
+		public int outputLength(int srcLength) {
+			return (int)Math.ceil((srcLength * (double)newSampleRate) / sampleRate);
+		}
+
+		/**
+		 * Source sample at or before output sample
+		 */
+		public long sourceIndex(int outputSample) {
+			return (up > 0 ? (outputSample * down) / up : (long)Math.floor(outputSample * step));
+		}
+
+		/**
+		 * Compute output sample value
+		 *
+		 * @param outputSample
+		 * @param buffer source data
+		 * @param bufferStart index of first sample in buffer
+		 */
+		public double valueForSample(int outputSample, double[] buffer, long bufferStart) {
+			final long n;
+			final int phase;
+			final double alpha;
+			if(up > 0) {
+				final long pos = outputSample * down;
+				n = pos / up;
+				phase = (int)(pos % up);
+				alpha = 0.0;
+			} else {
+				final double x = outputSample * step;
+				n = (long)Math.floor(x);
+				final double p = (x - n) * phases;
+				phase = Math.min(phases - 1, (int)p);
+				alpha = p - phase;
+			}
+
+			final int base = (int)(n - halfWidth + 1 - bufferStart);
+			final int k0 = phase * taps;
+			double y0 = 0.0;
+			for(int t = 0; t < taps; t++) {
+				y0 += table[k0 + t] * buffer[base + t];
+			}
+			if(alpha == 0.0) return y0;
+
+			final int k1 = k0 + taps;
+			double y1 = 0.0;
+			for(int t = 0; t < taps; t++) {
+				y1 += table[k1 + t] * buffer[base + t];
+			}
+			return y0 + alpha * (y1 - y0);
+		}
+
+	}
+
+	/**
+	 * Reads source blocks and filters each channel.
+	 */
+	private final static class BlockReader {
+
+		private final Sampled sampled;
+
+		private final Kernel kernel;
+
+		private final int srcLength;
+
+		private double[][] buffer;
+
+		public BlockReader(Sampled sampled, Kernel kernel, int blockSize) {
+			this.sampled = sampled;
+			this.kernel = kernel;
+			this.srcLength = sampled.getNumberOfSamples();
+			this.buffer = new double[sampled.getNumberOfChannels()][(int)Math.ceil(blockSize * kernel.step) + kernel.taps + 2];
+		}
+
+		/**
+		 * Resample count output samples starting at firstSample into dest
+		 * at offset.
+		 */
+		public void resampleBlock(double[][] dest, int offset, int firstSample, int count) {
+			final long bufferStart = kernel.sourceIndex(firstSample) - kernel.halfWidth + 1;
+			final long bufferEnd = kernel.sourceIndex(firstSample + count - 1) + kernel.halfWidth + 1;
+			final int len = (int)(bufferEnd - bufferStart);
+			if(buffer.length > 0 && buffer[0].length < len) {
+				buffer = new double[buffer.length][len];
+			}
+
+			// samples outside source data are zero
+			final int from = (int)Math.max(0L, bufferStart);
+			final int to = (int)Math.min(srcLength, bufferEnd);
+			final int loadOffset = (int)(from - bufferStart);
+			final int loaded = (to > from ? Math.max(0, sampled.loadSampleData(buffer, loadOffset, from, to - from)) : 0);
+			for(double[] channelData:buffer) {
+				Arrays.fill(channelData, 0, Math.min(loadOffset, len), 0.0);
+				if(loadOffset + loaded < len)
+					Arrays.fill(channelData, loadOffset + loaded, len, 0.0);
+			}
+
+			IntStream channels = IntStream.range(0, buffer.length);
+			if(buffer.length > 1) channels = channels.parallel();
+			channels.forEach( (channel) -> {
+				final double[] channelData = buffer[channel];
+				final double[] destData = dest[channel];
+				for(int i = 0; i < count; i++) {
+					destData[offset + i] = kernel.valueForSample(firstSample + i, channelData, bufferStart);
+				}
+			});
+		}
+
 	}
 
 }
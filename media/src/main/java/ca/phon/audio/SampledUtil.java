@@ -38,10 +38,8 @@ public final class SampledUtil {
 
 		sampled.loadSampleData(data, 0, firstSample, numSamples);
 		for(int isamp = 0; isamp < numSamples; isamp++) {
-			for(int ichan = 0; ichan < sampled.getNumberOfChannels(); ichan++) {
-				extrema[0] = Math.min(extrema[0], data[ichan][isamp]);
-				extrema[1] = Math.max(extrema[1], data[ichan][isamp]);
-			}
+			extrema[0] = Math.min(extrema[0], data[channel][isamp]);
+			extrema[1] = Math.max(extrema[1], data[channel][isamp]);
 		}
 	}
 
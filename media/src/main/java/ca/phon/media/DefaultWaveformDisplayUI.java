@@ -15,6 +15,7 @@
  */
 package ca.phon.media;
 
+import ca.phon.audio.*;
 import ca.phon.util.Tuple;
 
 import javax.swing.*;
@@ -24,6 +25,7 @@ import java.awt.image.BufferedImage;
 import java.beans.PropertyChangeListener;
 import java.util.List;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -49,6 +51,12 @@ public class DefaultWaveformDisplayUI extends WaveformDisplayUI {
 	public final static String WAV_COLOR2 = DefaultWaveformDisplayUI.class.getName() + ".wavColor2";
 	public final static Color DEFAULT_WAVCOLOR2 = Color.decode("#3e3f56");
 
+	/*
+	 * Wait for peak data before loading waveforms for windows longer than
+	 * this many seconds, shorter windows are read from sample data.
+	 */
+	private final static float PEAK_DATA_WINDOW_LENGTH = 60.0f;
+
 	static {
 		UIManager.getDefaults().put(BG_COLOR1, DEFAULT_BGCOLOR1);
 		UIManager.getDefaults().put(BG_COLOR2, DEFAULT_BGCOLOR2);
@@ -403,6 +411,16 @@ public class DefaultWaveformDisplayUI extends WaveformDisplayUI {
 		protected Tuple<Float, Float> doInBackground() throws Exception {
 			final LongSound sound = display.getLongSound();
 
+			final Sampled sampled = sound.getSampled();
+			if(sampled instanceof AudioFileSampled
+					&& display.getWindowEnd() - display.getWindowStart() > PEAK_DATA_WINDOW_LENGTH) {
+				try {
+					((AudioFileSampled)sampled).getPeakPyramid().get();
+				} catch (ExecutionException e) {
+					// fall back to reading sample data
+				}
+			}
+
 			float incr = 10.0f;
 			float time = display.getWindowStart();
 			while(time < display.getWindowEnd() && !isCancelled()) {
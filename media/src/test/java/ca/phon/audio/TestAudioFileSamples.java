@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.audio;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import java.io.*;
+import java.net.URL;
+import java.util.*;
+
+/**
+ * Compare bulk sample reads with frame decoding using {@link AudioIO#decodeFrame(byte[], int, AudioFileEncoding, int, double[], int)}
+ */
+@RunWith(Parameterized.class)
+public class TestAudioFileSamples {
+
+	@Parameters
+	public static Collection<Object[]> testData() {
+		return Arrays.asList(new Object[][] {
+			{ "wav/M1F1-Alaw-AFsp.wav" },
+			{ "wav/M1F1-mulaw-AFsp.wav" },
+			{ "wav/M1F1-uint8-AFsp.wav" },
+			{ "wav/M1F1-int12-AFsp.wav" },
+			{ "wav/M1F1-int16-AFsp.wav" },
+			{ "wav/M1F1-int24-AFsp.wav" },
+			{ "wav/M1F1-int32-AFsp.wav" },
+			{ "wav/M1F1-float32-AFsp.wav" },
+			{ "wav/M1F1-float64-AFsp.wav" },
+			{ "aif/M1F1-int8-AFsp.aif" },
+			{ "aif/M1F1-int16-AFsp.aif" },
+			{ "aif/M1F1-int24-AFsp.aif" },
+			{ "aif/M1F1-int32-AFsp.aif" },
+			{ "aif/M1F1-int16s-AFsp.aif" },
+			{ "aif/M1F1-float32C-AFsp.aif" },
+			{ "aif/M1F1-float64C-AFsp.aif" }
+		});
+	}
+
+	private String filename;
+
+	public TestAudioFileSamples(String filename) {
+		super();
+		this.filename = filename;
+	}
+
+	@Test
+	public void testReadSamples() throws Exception {
+		URL audioFileURL = getClass().getResource(filename);
+		Assert.assertNotNull(audioFileURL);
+
+		final File file = new File(audioFileURL.toURI());
+		try(AudioFile audioFile = AudioIO.openAudioFile(file)) {
+			final int numChannels = audioFile.getNumberOfChannels();
+			final int numSamples = (int)audioFile.getNumberOfSamples();
+			final int frameSize = audioFile.getFrameSize();
+
+			final byte[] data = new byte[numSamples * frameSize];
+			try(RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+				raf.seek(audioFile.getDataOffset());
+				raf.readFully(data);
+			}
+
+			final double[][] samples = new double[numChannels][numSamples];
+			Assert.assertEquals(numSamples, audioFile.readSamples(0L, samples, 0, numSamples));
+
+			final double[] frame = new double[numChannels];
+			for(int i = 0; i < numSamples; i++) {
+				AudioIO.decodeFrame(data, i * frameSize, audioFile.getAudioFileEncoding(), numChannels, frame, 0);
+				for(int ch = 0; ch < numChannels; ch++) {
+					Assert.assertEquals(frame[ch], samples[ch][i], 0.0);
+				}
+			}
+
+			// reads past end of data
+			final double[] channelData = new double[100];
+			Assert.assertEquals(50, audioFile.readChannelSamples(0, numSamples - 50, channelData, 0, 100));
+			Assert.assertEquals(samples[0][numSamples - 1], audioFile.readSample(0, numSamples - 1), 0.0);
+
+			// position based reads
+			final double[][] buffer = new double[numChannels][10];
+			audioFile.seekToSample(100);
+			Assert.assertEquals(10, audioFile.readSamples(buffer, 0, 10));
+			Assert.assertEquals(samples[0][109], buffer[0][9], 0.0);
+		}
+	}
+
+}
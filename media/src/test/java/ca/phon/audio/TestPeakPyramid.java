@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.audio;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.File;
+import java.util.Random;
+
+@RunWith(JUnit4.class)
+public class TestPeakPyramid {
+
+	private final static int BLOCK_SIZE = 16;
+
+	private ArraySampled createSampled(int numSamples) {
+		final Random random = new Random(12345L);
+		final double[][] samples = new double[2][numSamples];
+		for(int i = 0; i < numSamples; i++) {
+			samples[0][i] = random.nextDouble() * 2.0 - 1.0;
+			samples[1][i] = Math.sin(i / 100.0);
+		}
+		return new ArraySampled(8000.0f, samples);
+	}
+
+	private void assertExtrema(ArraySampled sampled, PeakPyramid peakPyramid, int first, int last) {
+		for(int ch = 0; ch < sampled.getNumberOfChannels(); ch++) {
+			final double[] actual = new double[2];
+			peakPyramid.getWindowExtrema(sampled, ch, first, last, actual);
+
+			// expected extrema using block aligned range when using peak data
+			int expectedFirst = first;
+			int expectedLast = last;
+			if(last - first >= 2 * BLOCK_SIZE) {
+				expectedFirst = (first / BLOCK_SIZE) * BLOCK_SIZE;
+				expectedLast = Math.min(sampled.getNumberOfSamples(), ((last + BLOCK_SIZE - 1) / BLOCK_SIZE) * BLOCK_SIZE);
+			}
+			final double[] expected = new double[2];
+			for(int i = expectedFirst; i < expectedLast; i++) {
+				expected[0] = Math.min(expected[0], sampled.valueForSample(ch, i));
+				expected[1] = Math.max(expected[1], sampled.valueForSample(ch, i));
+			}
+			Assert.assertEquals(expected[0], actual[0], 1.0e-6);
+			Assert.assertEquals(expected[1], actual[1], 1.0e-6);
+		}
+	}
+
+	@Test
+	public void testWindowExtrema() throws Exception {
+		final ArraySampled sampled = createSampled(10007);
+		final PeakPyramid peakPyramid = PeakPyramid.build(sampled, BLOCK_SIZE);
+
+		Assert.assertEquals(2, peakPyramid.getNumberOfChannels());
+		Assert.assertEquals(10007, peakPyramid.getNumberOfSamples());
+
+		final Random random = new Random(54321L);
+		for(int i = 0; i < 500; i++) {
+			final int first = random.nextInt(sampled.getNumberOfSamples());
+			final int last = first + random.nextInt(sampled.getNumberOfSamples() - first + 1);
+			assertExtrema(sampled, peakPyramid, first, last);
+		}
+		assertExtrema(sampled, peakPyramid, 0, sampled.getNumberOfSamples());
+	}
+
+	@Test
+	public void testReadWrite() throws Exception {
+		final ArraySampled sampled = createSampled(5000);
+		final PeakPyramid peakPyramid = PeakPyramid.build(sampled, BLOCK_SIZE);
+
+		final File sourceFile = File.createTempFile("phon", ".wav");
+		sourceFile.deleteOnExit();
+		final File peakFile = File.createTempFile("phon", ".peaks");
+		peakFile.deleteOnExit();
+
+		peakPyramid.write(peakFile, sourceFile);
+		final PeakPyramid readPyramid = PeakPyramid.read(peakFile, sourceFile);
+		Assert.assertNotNull(readPyramid);
+		Assert.assertEquals(peakPyramid.getNumberOfLevels(), readPyramid.getNumberOfLevels());
+		assertExtrema(sampled, readPyramid, 100, 4900);
+
+		// source modified
+		sourceFile.setLastModified(sourceFile.lastModified() - 10000L);
+		Assert.assertNull(PeakPyramid.read(peakFile, sourceFile));
+	}
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.audio;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(JUnit4.class)
+public class TestResampler {
+
+	private final static double FREQ = 200.0;
+
+	private ArraySampled createSampled(float sampleRate, int numSamples) {
+		final double[][] samples = new double[2][numSamples];
+		for(int i = 0; i < numSamples; i++) {
+			samples[0][i] = Math.sin(2 * Math.PI * FREQ * i / sampleRate);
+			samples[1][i] = 0.5;
+		}
+		return new ArraySampled(sampleRate, samples);
+	}
+
+	private void assertResampled(Sampled resampled, float newSampleRate) {
+		Assert.assertEquals(newSampleRate, resampled.getSampleRate(), 0.0f);
+		// skip filter edges
+		for(int i = 100; i < resampled.getNumberOfSamples() - 100; i++) {
+			Assert.assertEquals(Math.sin(2 * Math.PI * FREQ * i / newSampleRate), resampled.valueForSample(0, i), 1.0e-2);
+			Assert.assertEquals(0.5, resampled.valueForSample(1, i), 1.0e-2);
+		}
+	}
+
+	@Test
+	public void testDownsample() {
+		final ArraySampled sampled = createSampled(44100.0f, 44100);
+		final Sampled resampled = (new Resampler()).resample(sampled, 16000.0f);
+		Assert.assertEquals(16000, resampled.getNumberOfSamples());
+		assertResampled(resampled, 16000.0f);
+	}
+
+	@Test
+	public void testUpsample() {
+		final ArraySampled sampled = createSampled(8000.0f, 8000);
+		final Sampled resampled = (new Resampler()).resample(sampled, 22050.0f);
+		Assert.assertEquals(22050, resampled.getNumberOfSamples());
+		assertResampled(resampled, 22050.0f);
+	}
+
+	@Test
+	public void testInterpolatedPhases() {
+		final ArraySampled sampled = createSampled(44100.0f, 44100);
+		final Sampled resampled = (new Resampler()).resample(sampled, 10007.5f);
+		assertResampled(resampled, 10007.5f);
+	}
+
+	@Test
+	public void testStreaming() {
+		final ArraySampled sampled = createSampled(44100.0f, 44100);
+		final Resampler resampler = new Resampler();
+		final Sampled resampled = resampler.resample(sampled, 16000.0f);
+
+		final AtomicInteger nextSample = new AtomicInteger(0);
+		final int numSamples = resampler.resample(sampled, 16000.0f, Resampler.DEFAULT_WINDOW_SIZE, 1000, (firstSample, samples) -> {
+			Assert.assertEquals(nextSample.get(), firstSample);
+			Assert.assertTrue(samples[0].length <= 1000);
+			for(int ch = 0; ch < samples.length; ch++) {
+				for(int i = 0; i < samples[ch].length; i++) {
+					Assert.assertEquals(resampled.valueForSample(ch, firstSample + i), samples[ch][i], 1.0e-12);
+				}
+			}
+			nextSample.addAndGet(samples[0].length);
+		});
+		Assert.assertEquals(resampled.getNumberOfSamples(), numSamples);
+		Assert.assertEquals(numSamples, nextSample.get());
+	}
+
+}
@@ -18,23 +18,20 @@ package ca.phon.project;
 import ca.phon.extensions.ExtensionSupport;
 import ca.phon.project.exceptions.ProjectConfigurationException;
 import ca.phon.project.io.*;
-import ca.phon.session.Record;
 import ca.phon.session.*;
 import ca.phon.session.io.*;
+import ca.phon.session.io.xml.*;
 import ca.phon.util.VersionInfo;
 import jakarta.xml.bind.*;
-import org.w3c.dom.*;
-import org.xml.sax.SAXException;
 
-import javax.xml.parsers.*;
 import javax.xml.stream.*;
-import javax.xml.xpath.*;
 import java.io.*;
 import java.net.URI;
 import java.nio.file.*;
 import java.nio.file.attribute.*;
 import java.time.*;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.stream.Collectors;
 
 /**
@@ -78,6 +75,25 @@ public class LocalProject extends AbstractProject implements ProjectRefresh {
 
 	private String resourceLocation = null;
 
+	/**
+	 * Session summary index, stored in the resources folder
+	 */
+	private SessionIndex sessionIndex = null;
+
+	/**
+	 * Delay (in ms) before changes to the session index are written to disk
+	 */
+	public final static long SESSION_INDEX_SAVE_DELAY = 5000L;
+
+	private final static ScheduledExecutorService sessionIndexSaveExecutor =
+			Executors.newSingleThreadScheduledExecutor( (r) -> {
+				final Thread thread = new Thread(r, "Session index writer");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	private ScheduledFuture<?> sessionIndexSaveFuture = null;
+
 	/**
 	 *
 	 * @param projectFolder
@@ -547,16 +563,15 @@ public class LocalProject extends AbstractProject implements ProjectRefresh {
 	public UUID getSessionWriteLock(String corpus, String session)
 		throws IOException {
 		final String key = sessionProjectPath(corpus, session);
-		UUID currentLock = sessionLocks.get(key);
+		final UUID lock = UUID.randomUUID();
+		// check and acquire atomically, locks may be requested from worker threads
+		UUID currentLock = sessionLocks.putIfAbsent(key, lock);
 
 		// already locks
 		if(currentLock != null) {
 			throw new IOException("Session '" + key + "' is already locked.");
 		}
 
-		final UUID lock = UUID.randomUUID();
-		sessionLocks.put(key, lock);
-
 		final ProjectEvent pe = ProjectEvent.newSessionChangedEvent(corpus, session);
 		fireProjectWriteLocksChanged(pe);
 
@@ -640,39 +655,72 @@ public class LocalProject extends AbstractProject implements ProjectRefresh {
 			}
 		}
 
-		// XXX safety checks, make sure we can read back in what we write.
-		// also make sure the number of records has not changed between
-		// the original and serialized session
-		final ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		// write session to a temporary file in the corpus folder, make sure we can read
+		// back what we wrote and that the number of records has not changed between
+		// the original and serialized session before replacing the session file
+		final File tempFile = File.createTempFile("." + sessionName + "-save-", ".tmp",
+				sessionFile.getAbsoluteFile().getParentFile());
 		try {
-			writer.writeSession(session, bout);
+			try(FileOutputStream fOut = new FileOutputStream(tempFile)) {
+				final BufferedOutputStream bout = new BufferedOutputStream(fOut);
+				writer.writeSession(session, bout);
+				bout.flush();
+				try {
+					fOut.getFD().sync();
+				} catch (SyncFailedException e) {
+					// stream closed by writer
+					LOGGER.warn(e.getLocalizedMessage(), e);
+				}
+			}
 
-			final SessionReader reader = (new SessionInputFactory()).createReader(
-					writer.getClass().getAnnotation(SessionIO.class));
-			final Session testSession = reader.readSession(new ByteArrayInputStream(bout.toByteArray()));
-			if(testSession.getRecordCount() != session.getRecordCount()) {
+			if(countRecords(tempFile, writer) != session.getRecordCount()) {
 				throw new IOException("Session serialization failed.");
 			}
-			bout.close();
 
-			if(needToDeleteExisting) {
-				oldSessionFile.delete();
+			try {
+				Files.move(tempFile.toPath(), sessionFile.toPath(),
+						StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile.toPath(), sessionFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
 			}
 		} catch (IOException e) {
 			// unable to write the session, bail!
 			throw new IOException("Session not written to disk", e);
+		} finally {
+			Files.deleteIfExists(tempFile.toPath());
 		}
 
-		final FileOutputStream fOut  = new FileOutputStream(sessionFile);
-		writer.writeSession(session, fOut);
-		fOut.close();
+		if(needToDeleteExisting) {
+			oldSessionFile.delete();
+			updateSessionIndex(sessionName, oldSessionFile, null);
+		}
+		updateSessionIndex(sessionName, sessionFile, SessionSummary.fromSession(session));
 
-		if(created && !sessionName.startsWith("__") && !sessionName.startsWith("~")) {
+		if(created && !isTemporarySession(sessionName)) {
 			final ProjectEvent pe = ProjectEvent.newSessionAddedEvent(corpus, sessionName);
 			fireProjectStructureChanged(pe);
 		}
 	}
 
+	/**
+	 * Count records in a serialized session.  Phon session files are
+	 * scanned without creating a session, other formats are read using
+	 * the matching {@link SessionReader}.
+	 */
+	private int countRecords(File sessionFile, SessionWriter writer) throws IOException {
+		final SessionIO sessionIO = writer.getClass().getAnnotation(SessionIO.class);
+		if(sessionIO != null && "ca.phon".equals(sessionIO.group()) && "phonbank".equals(sessionIO.id())) {
+			return SessionSummaryScanner.countRecords(sessionFile);
+		}
+		final SessionReader reader = (new SessionInputFactory()).createReader(sessionIO);
+		if(reader == null) {
+			throw new IOException("No reader available for " + sessionFile.getName());
+		}
+		try(InputStream in = new BufferedInputStream(new FileInputStream(sessionFile))) {
+			return reader.readSession(in).getRecordCount();
+		}
+	}
+
 	@Override
 	public void removeSession(Session session, UUID writeLock) throws IOException {
 		removeSession(session.getCorpus(), session.getName(), writeLock);
@@ -696,6 +744,7 @@ public class LocalProject extends AbstractProject implements ProjectRefresh {
 		if(!sessionFile.delete()) {
 			throw new IOException("Unable to delete " + sessionFile.getAbsolutePath() + ".");
 		}
+		updateSessionIndex(session, sessionFile, null);
 
 		final ProjectEvent pe = ProjectEvent.newSessionRemovedEvent(corpus, session);
 		fireProjectStructureChanged(pe);
@@ -762,44 +811,109 @@ public class LocalProject extends AbstractProject implements ProjectRefresh {
 		return size;
 	}
 
+	/**
+	 * Return summary information (header data, participants and record counts)
+	 * for the given session.  Summaries are stored in the project session index
+	 * and are only re-created if the session file has been modified.  Summaries
+	 * for xml session files are read without opening the session.
+	 *
+	 * Changes to the session index are written to disk shortly after they are
+	 * made, or immediately by {@link #saveSessionIndex()}.
+	 *
+	 * @param corpus
+	 * @param session
+	 * @return session summary
+	 * @throws IOException
+	 */
 	@Override
-	public int numberOfRecordsInSession(String corpus, String session)
+	public SessionSummary getSessionSummary(String corpus, String session)
 			throws IOException {
 		final File sessionFile = getSessionFile(corpus, session);
-		int retVal = 0;
-
-		if(sessionFile.exists() && sessionFile.getName().endsWith(".xml") ) {
-			// it's faster to use an xpath expression
-			// to determine the number of records.
-			String xpathPattern = "//u";
-			// open as dom file first
-			DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
-			domFactory.setNamespaceAware(false);
-			DocumentBuilder builder;
-			try {
-				builder = domFactory.newDocumentBuilder();
-				Document doc = builder.parse(sessionFile);
-
-				XPathFactory xpathFactory = XPathFactory.newInstance();
-				XPath xpath = xpathFactory.newXPath();
-				XPathExpression expr = xpath.compile(xpathPattern);
-
-				Object result = expr.evaluate(doc, XPathConstants.NODESET);
-				NodeList nodes = (NodeList) result;
-				retVal = nodes.getLength();
-			} catch (ParserConfigurationException e) {
-				throw new IOException(e);
-			} catch (SAXException e) {
-				throw new IOException(e);
-			} catch (XPathExpressionException e) {
-				throw new IOException(e);
+		if(!sessionFile.exists()) {
+			throw new FileNotFoundException(sessionFile.getAbsolutePath());
+		}
+
+		final SessionIndex index = getSessionIndex();
+		SessionSummary retVal = index.get(sessionFile);
+		if(retVal == null) {
+			retVal = (sessionFile.getName().endsWith(".xml")
+					? SessionSummaryScanner.scan(sessionFile)
+					: SessionSummary.fromSession(openSession(corpus, session)));
+			if(!isTemporarySession(session)) {
+				index.put(sessionFile, retVal);
+				scheduleSessionIndexSave();
 			}
+		}
+		return retVal;
+	}
+
+	private synchronized SessionIndex getSessionIndex() {
+		final File indexFile = new File(getResourceLocation(), SessionIndex.INDEX_FILE);
+		if(sessionIndex == null || !sessionIndex.getIndexFile().equals(indexFile)) {
+			sessionIndex = new SessionIndex(getFolder(), indexFile);
+		}
+		return sessionIndex;
+	}
+
+	/**
+	 * Write session index to disk if modified.
+	 */
+	public void saveSessionIndex() {
+		synchronized(sessionIndexSaveExecutor) {
+			if(sessionIndexSaveFuture != null) {
+				sessionIndexSaveFuture.cancel(false);
+				sessionIndexSaveFuture = null;
+			}
+		}
+		try {
+			getSessionIndex().save();
+		} catch (IOException e) {
+			LOGGER.warn(e.getLocalizedMessage(), e);
+		}
+	}
+
+	/**
+	 * Write session index to disk after {@link #SESSION_INDEX_SAVE_DELAY} ms,
+	 * changes made before the index is written are saved together.
+	 */
+	private void scheduleSessionIndexSave() {
+		synchronized(sessionIndexSaveExecutor) {
+			if(sessionIndexSaveFuture == null || sessionIndexSaveFuture.isDone()) {
+				sessionIndexSaveFuture = sessionIndexSaveExecutor.schedule(this::saveSessionIndex,
+						SESSION_INDEX_SAVE_DELAY, TimeUnit.MILLISECONDS);
+			}
+		}
+	}
+
+	/**
+	 * Temporary sessions (e.g., autosave and backup files) are not indexed.
+	 */
+	private boolean isTemporarySession(String sessionName) {
+		return sessionName.startsWith("__") || sessionName.startsWith("~");
+	}
+
+	/**
+	 * Update index after a session file has been written or removed.
+	 *
+	 * @param sessionName
+	 * @param sessionFile
+	 * @param summary new summary, <code>null</code> if the session was removed
+	 */
+	private void updateSessionIndex(String sessionName, File sessionFile, SessionSummary summary) {
+		if(isTemporarySession(sessionName)) return;
+		final SessionIndex index = getSessionIndex();
+		if(summary != null) {
+			index.put(sessionFile, summary);
 		} else {
-			final Session s = openSession(corpus, session);
-			retVal = s.getRecordCount();
+			index.remove(sessionFile);
 		}
+		scheduleSessionIndexSave();
+	}
 
-		return retVal;
+	@Override
+	public int numberOfRecordsInSession(String corpus, String session)
+			throws IOException {
+		return getSessionSummary(corpus, session).getRecordCount();
 	}
 
 	@Override
@@ -820,11 +934,11 @@ public class LocalProject extends AbstractProject implements ProjectRefresh {
 
 		for(SessionPath sessionPath:sessions) {
 			try {
-				Session session = openSession(sessionPath.getCorpus(), sessionPath.getSession());
+				final SessionSummary summary = getSessionSummary(sessionPath.getCorpus(), sessionPath.getSession());
 				Collection<Participant> participants = new ArrayList<>();
 
 				participants.add( SessionFactory.newFactory().cloneParticipant(Participant.UNKNOWN) );
-				session.getParticipants().forEach( (p) -> participants.add(p) );
+				participants.addAll(summary.getParticipants());
 
 				for(Participant participant:participants) {
 					Participant speaker = null;
@@ -840,10 +954,7 @@ public class LocalProject extends AbstractProject implements ProjectRefresh {
 					}
 
 					// get record count
-					int count = 0;
-					for(Record r:session.getRecords()) {
-						if(comparator.compare(r.getSpeaker(), participant) == 0) ++count;
-					}
+					int count = summary.getRecordCount(participant);
 
 					if(speaker != null) {
 						if(count == 0 && comparator.compare(Participant.UNKNOWN, speaker) == 0) {
@@ -855,7 +966,7 @@ public class LocalProject extends AbstractProject implements ProjectRefresh {
 								speaker.putExtension(ParticipantHistory.class, history);
 							}
 							Period age =
-									(participant != null ? participant.getAge(session.getDate()) : null);
+									(participant != null ? participant.getAge(summary.getDate()) : null);
 							history.setAgeForSession(sessionPath, age);
 							history.setNumberOfRecordsForSession(sessionPath, count);
 						}
@@ -997,6 +1108,7 @@ public class LocalProject extends AbstractProject implements ProjectRefresh {
 
 	@Override
 	public void refresh() {
+		saveSessionIndex();
 	}
 
 	@Override
@@ -15,8 +15,8 @@
  */
 package ca.phon.project;
 
-import ca.phon.session.Record;
 import ca.phon.session.*;
+import ca.phon.session.io.xml.SessionSummary;
 
 import java.io.IOException;
 import java.time.*;
@@ -95,11 +95,11 @@ public class ParticipantCache {
 				return;
 		}
 		try {
-			Session session = project.openSession(sessionPath.getCorpus(), sessionPath.getSession());
+			final SessionSummary summary = project.getSessionSummary(sessionPath.getCorpus(), sessionPath.getSession());
 			Collection<Participant> participants = new ArrayList<>();
 
 			participants.add( SessionFactory.newFactory().cloneParticipant(Participant.UNKNOWN) );
-			session.getParticipants().forEach( (p) -> participants.add(p) );
+			participants.addAll(summary.getParticipants());
 
 			synchronized (participantSet) {
 				for(Participant participant:participants) {
@@ -116,10 +116,7 @@ public class ParticipantCache {
 					}
 
 					// get record count
-					int count = 0;
-					for(Record r:session.getRecords()) {
-						if(participantComparator.compare(r.getSpeaker(), participant) == 0) ++count;
-					}
+					int count = summary.getRecordCount(participant);
 
 					if(speaker != null) {
 						if(count == 0 && participantComparator.compare(Participant.UNKNOWN, speaker) == 0) {
@@ -131,7 +128,7 @@ public class ParticipantCache {
 								speaker.putExtension(ParticipantHistory.class, history);
 							}
 							Period age =
-									(participant != null ? participant.getAge(session.getDate()) : null);
+									(participant != null ? participant.getAge(summary.getDate()) : null);
 							history.setAgeForSession(sessionPath, age);
 							history.setNumberOfRecordsForSession(sessionPath, count);
 						}
@@ -149,7 +146,7 @@ public class ParticipantCache {
 				}
 			}
 
-			sessionMap.put(sessionPath, project.getSessionModificationTime(session));
+			sessionMap.put(sessionPath, project.getSessionModificationTime(sessionPath.getCorpus(), sessionPath.getSession()));
 		} catch (IOException e) {
 			LOGGER.warn( e.getLocalizedMessage(), e);
 		}
@@ -18,6 +18,7 @@ package ca.phon.project;
 import ca.phon.extensions.IExtendable;
 import ca.phon.session.*;
 import ca.phon.session.io.*;
+import ca.phon.session.io.xml.SessionSummary;
 
 import java.io.*;
 import java.time.ZonedDateTime;
@@ -266,6 +267,21 @@ public interface Project extends IExtendable {
 	public int numberOfRecordsInSession(String corpus, String session)
 		throws IOException;
 
+	/**
+	 * Return summary information (header data, participants, record counts
+	 * and user tier names) for the given session.  Implementations may
+	 * return stored summaries without opening the session.
+	 *
+	 * @param corpus
+	 * @param session
+	 * @return session summary
+	 * @throws IOException
+	 */
+	public default SessionSummary getSessionSummary(String corpus, String session)
+		throws IOException {
+		return SessionSummary.fromSession(openSession(corpus, session));
+	}
+
 	/**
 	 * Return a set of participants which are found in the
 	 * given collection of Sessions.  The participant objects
@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.project;
+
+import ca.phon.session.*;
+import ca.phon.util.PrefHelper;
+import ca.phon.worker.PhonTask;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * <p>Base class for tasks which open, modify and save a set of sessions in a
+ * project.  Sessions are processed on a pool of worker threads.  Each session
+ * is locked, opened, processed by {@link #processSession(int, SessionPath, Session)}
+ * and saved (if modified) while holding the session write lock.  Sessions which
+ * are locked (e.g., open in an editor) are not processed.</p>
+ *
+ * <p>Progress is reported using the {@link PhonTask#PROGRESS_PROP} and
+ * {@link PhonTask#STATUS_PROP} properties.  Sessions which could not be
+ * processed are available from {@link #getFailedSessions()} after the task
+ * has finished.  If processing a session fails with an exception other than an
+ * {@link IOException} the task status is {@link PhonTask.TaskStatus#ERROR}.</p>
+ */
+public abstract class SessionBatchTask extends PhonTask {
+
+	private final static org.apache.logging.log4j.Logger LOGGER = org.apache.logging.log4j.LogManager.getLogger(SessionBatchTask.class.getName());
+
+	public final static String NUM_THREADS_PROP = SessionBatchTask.class.getName() + ".numThreads";
+	public final static int DEFAULT_NUM_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+	private final Project project;
+
+	private final List<SessionPath> sessionPaths;
+
+	private int numThreads = PrefHelper.getInt(NUM_THREADS_PROP, DEFAULT_NUM_THREADS);
+
+	private final AtomicInteger sessionsProcessed = new AtomicInteger(0);
+
+	private final AtomicLong recordsProcessed = new AtomicLong(0L);
+
+	private final Map<SessionPath, Exception> failedSessions = new ConcurrentHashMap<>();
+
+	private final Set<SessionPath> modifiedSessions = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Constructor
+	 *
+	 * @param name
+	 * @param project
+	 * @param sessionPaths
+	 */
+	protected SessionBatchTask(String name, Project project, Collection<SessionPath> sessionPaths) {
+		super(name);
+		this.project = project;
+		this.sessionPaths = new ArrayList<>(sessionPaths);
+	}
+
+	public Project getProject() {
+		return this.project;
+	}
+
+	public List<SessionPath> getSessionPaths() {
+		return Collections.unmodifiableList(sessionPaths);
+	}
+
+	public int getNumThreads() {
+		return this.numThreads;
+	}
+
+	public void setNumThreads(int numThreads) {
+		if(numThreads < 1) throw new IllegalArgumentException("Invalid number of threads " + numThreads);
+		this.numThreads = numThreads;
+	}
+
+	public int getSessionsProcessed() {
+		return sessionsProcessed.get();
+	}
+
+	public long getRecordsProcessed() {
+		return recordsProcessed.get();
+	}
+
+	/**
+	 * Sessions which were modified and saved.
+	 *
+	 * @return set of modified sessions
+	 */
+	public Set<SessionPath> getModifiedSessions() {
+		return Collections.unmodifiableSet(modifiedSessions);
+	}
+
+	/**
+	 * Sessions which could not be processed and the reason.
+	 *
+	 * @return map of session path to error
+	 */
+	public Map<SessionPath, Exception> getFailedSessions() {
+		return Collections.unmodifiableMap(failedSessions);
+	}
+
+	/**
+	 * Process session.  Called on a worker thread while holding the
+	 * session write lock.
+	 *
+	 * @param sessionIndex index of session in list of session paths
+	 * @param sessionPath
+	 * @param session
+	 *
+	 * @return <code>true</code> if the session was modified and should be saved
+	 * @throws IOException
+	 */
+	protected abstract boolean processSession(int sessionIndex, SessionPath sessionPath, Session session) throws IOException;
+
+	/**
+	 * Called on the worker thread after a session has been processed, including
+	 * sessions which could not be processed.
+	 *
+	 * @param sessionIndex
+	 * @param sessionPath
+	 */
+	protected void sessionFinished(int sessionIndex, SessionPath sessionPath) {
+	}
+
+	/**
+	 * Called on the task thread after all workers have finished, before
+	 * the final task status is set.
+	 */
+	protected void sessionsFinished() {
+	}
+
+	/**
+	 * Status text displayed after each session.
+	 *
+	 * @param numSessions number of sessions processed
+	 * @param elapsed elapsed time in ms
+	 *
+	 * @return status text
+	 */
+	protected String getStatusText(int numSessions, long elapsed) {
+		final double recordsPerSecond = recordsProcessed.get() * 1000.0 / elapsed;
+		return String.format("%d/%d sessions, %.1f records/s",
+				numSessions, sessionPaths.size(), recordsPerSecond);
+	}
+
+	@Override
+	public void performTask() {
+		final ExecutorService executor = Executors.newFixedThreadPool(Math.min(getNumThreads(), Math.max(1, sessionPaths.size())), (r) -> {
+			final Thread thread = new Thread(r, getName());
+			thread.setDaemon(true);
+			return thread;
+		});
+		final List<Future<?>> futures = new ArrayList<>();
+		try {
+			for(int i = 0; i < sessionPaths.size(); i++) {
+				final int sessionIndex = i;
+				futures.add(executor.submit(() -> runSession(sessionIndex)));
+			}
+			executor.shutdown();
+			while(!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+				if(isShutdown()) {
+					// sessions in progress will finish, remaining sessions are not started
+					futures.forEach( (f) -> f.cancel(false) );
+				}
+			}
+		} catch (InterruptedException e) {
+			futures.forEach( (f) -> f.cancel(false) );
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+			setStatus(TaskStatus.TERMINATED);
+			return;
+		}
+
+		// report exceptions thrown by workers
+		Exception workerError = null;
+		for(int i = 0; i < futures.size(); i++) {
+			final Future<?> future = futures.get(i);
+			if(future.isCancelled()) continue;
+			try {
+				future.get();
+			} catch (ExecutionException e) {
+				final SessionPath sessionPath = sessionPaths.get(i);
+				final Exception cause = (e.getCause() instanceof Exception ? (Exception)e.getCause() : e);
+				LOGGER.error(sessionPath + ": " + cause.getLocalizedMessage(), cause);
+				failedSessions.put(sessionPath, cause);
+				if(workerError == null) workerError = cause;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		sessionsFinished();
+
+		if(workerError != null) {
+			err = workerError;
+			setStatus(TaskStatus.ERROR);
+		} else if(isShutdown()) {
+			setStatus(TaskStatus.TERMINATED);
+		} else {
+			setProperty(PROGRESS_PROP, 1.0f);
+			setStatus(TaskStatus.FINISHED);
+		}
+	}
+
+	private void runSession(int sessionIndex) {
+		if(isShutdown()) return;
+
+		final SessionPath sessionPath = sessionPaths.get(sessionIndex);
+		UUID writeLock = null;
+		try {
+			writeLock = project.getSessionWriteLock(sessionPath.getCorpus(), sessionPath.getSession());
+			final Session session = project.openSession(sessionPath.getCorpus(), sessionPath.getSession());
+			final boolean modified = processSession(sessionIndex, sessionPath, session);
+			recordsProcessed.addAndGet(session.getRecordCount());
+
+			if(modified) {
+				project.saveSession(sessionPath.getCorpus(), sessionPath.getSession(), session, writeLock);
+				modifiedSessions.add(sessionPath);
+			}
+		} catch (IOException e) {
+			LOGGER.warn(sessionPath + ": " + e.getLocalizedMessage(), e);
+			failedSessions.put(sessionPath, e);
+		} finally {
+			if(writeLock != null) {
+				try {
+					project.releaseSessionWriteLock(sessionPath.getCorpus(), sessionPath.getSession(), writeLock);
+				} catch (IOException e) {
+					LOGGER.warn(e.getLocalizedMessage(), e);
+				}
+			}
+			sessionFinished(sessionIndex, sessionPath);
+			updateProgress(sessionsProcessed.incrementAndGet());
+		}
+	}
+
+	private synchronized void updateProgress(int numSessions) {
+		final long elapsed = Math.max(1L, System.currentTimeMillis() - getStartTime());
+		setProperty(PROGRESS_PROP, (float)numSessions / Math.max(1, sessionPaths.size()));
+		setProperty(STATUS_PROP, getStatusText(numSessions, elapsed));
+	}
+
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright (C) Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.project;
+
+import ca.phon.session.io.xml.*;
+
+import javax.xml.stream.*;
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * <p>On-disk index of {@link SessionSummary}s for a project.  Entries are
+ * keyed by session file path (relative to the project folder when possible)
+ * and are only returned if the modification time and size of the session
+ * file have not changed since the summary was created.</p>
+ *
+ * <p>The index is loaded lazily and written back to disk by {@link #save()}
+ * only if it has been modified.  Entries for session files which no
+ * longer exist are dropped when the index is loaded.  An index file which
+ * cannot be read is ignored and will be replaced on the next save.</p>
+ */
+final class SessionIndex {
+
+	private final static org.apache.logging.log4j.Logger LOGGER = org.apache.logging.log4j.LogManager.getLogger(SessionIndex.class.getName());
+
+	public final static String INDEX_FILE = "sessionindex.xml";
+
+	private final static String INDEX_VERSION = "1";
+
+	private final static String INDEX_ELEMENT = "sessionIndex";
+
+	private final static String SESSION_ELEMENT = "session";
+
+	private final File projectFolder;
+
+	private final File indexFile;
+
+	private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+	private boolean loaded = false;
+
+	private boolean dirty = false;
+
+	public SessionIndex(File projectFolder, File indexFile) {
+		super();
+		this.projectFolder = projectFolder;
+		this.indexFile = indexFile;
+	}
+
+	public File getIndexFile() {
+		return this.indexFile;
+	}
+
+	/**
+	 * Return the indexed summary for the given session file.
+	 *
+	 * @param sessionFile
+	 * @return summary or <code>null</code> if the file is not indexed
+	 *  or has changed since it was indexed
+	 */
+	public synchronized SessionSummary get(File sessionFile) {
+		checkLoaded();
+		final Entry entry = entries.get(keyForFile(sessionFile));
+		if(entry != null && entry.lastModified == sessionFile.lastModified()
+				&& entry.length == sessionFile.length()) {
+			return entry.summary;
+		}
+		return null;
+	}
+
+	/**
+	 * Add or replace the summary for the given session file.  The current
+	 * modification time and size of the file are stored with the summary.
+	 *
+	 * @param sessionFile
+	 * @param summary
+	 */
+	public synchronized void put(File sessionFile, SessionSummary summary) {
+		checkLoaded();
+		entries.put(keyForFile(sessionFile), new Entry(sessionFile.lastModified(), sessionFile.length(), summary));
+		dirty = true;
+	}
+
+	/**
+	 * Remove the entry for the given session file
+	 *
+	 * @param sessionFile
+	 */
+	public synchronized void remove(File sessionFile) {
+		checkLoaded();
+		if(entries.remove(keyForFile(sessionFile)) != null) {
+			dirty = true;
+		}
+	}
+
+	public synchronized int size() {
+		checkLoaded();
+		return entries.size();
+	}
+
+	/**
+	 * Write index to disk if modified.  The index is written to a temporary
+	 * file which then replaces the existing index.
+	 *
+	 * @throws IOException
+	 */
+	public synchronized void save() throws IOException {
+		if(!dirty) return;
+
+		final File parentFolder = indexFile.getParentFile();
+		if(!parentFolder.exists()) {
+			parentFolder.mkdirs();
+		}
+		final File tmpFile = new File(parentFolder, INDEX_FILE + ".tmp");
+
+		try(OutputStream out = new BufferedOutputStream(new FileOutputStream(tmpFile))) {
+			final XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+			writer.writeStartDocument("UTF-8", "1.0");
+			writer.writeStartElement(INDEX_ELEMENT);
+			writer.writeAttribute("version", INDEX_VERSION);
+			for(Map.Entry<String, Entry> mapEntry:entries.entrySet()) {
+				final Entry entry = mapEntry.getValue();
+				writer.writeStartElement(SESSION_ELEMENT);
+				writer.writeAttribute("path", mapEntry.getKey());
+				writer.writeAttribute("lastModified", Long.toString(entry.lastModified));
+				writer.writeAttribute("length", Long.toString(entry.length));
+				SessionSummaryIO.writeSummary(writer, entry.summary);
+				writer.writeEndElement();
+			}
+			writer.writeEndElement();
+			writer.writeEndDocument();
+			writer.close();
+		} catch (XMLStreamException e) {
+			tmpFile.delete();
+			throw new IOException(e);
+		}
+
+		try {
+			Files.move(tmpFile.toPath(), indexFile.toPath(),
+					StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(tmpFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		dirty = false;
+	}
+
+	private void checkLoaded() {
+		if(loaded) return;
+		loaded = true;
+		if(!indexFile.exists()) return;
+
+		try {
+			load();
+		} catch (IOException | XMLStreamException | IllegalArgumentException e) {
+			LOGGER.warn("Unable to read session index " + indexFile.getAbsolutePath(), e);
+			entries.clear();
+			dirty = true;
+		}
+	}
+
+	private void load() throws IOException, XMLStreamException {
+		try(InputStream in = new BufferedInputStream(new FileInputStream(indexFile))) {
+			final XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(in);
+			try {
+				if(reader.nextTag() != XMLStreamConstants.START_ELEMENT
+						|| !reader.getLocalName().equals(INDEX_ELEMENT)
+						|| !INDEX_VERSION.equals(reader.getAttributeValue(null, "version"))) {
+					// unknown index format, will be replaced on next save
+					dirty = true;
+					return;
+				}
+
+				while(reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+					if(!reader.getLocalName().equals(SESSION_ELEMENT)) {
+						throw new XMLStreamException("Expected " + SESSION_ELEMENT + " element", reader.getLocation());
+					}
+					final String path = reader.getAttributeValue(null, "path");
+					if(path == null) {
+						throw new XMLStreamException("Missing path attribute", reader.getLocation());
+					}
+					final long lastModified = Long.parseLong(reader.getAttributeValue(null, "lastModified"));
+					final long length = Long.parseLong(reader.getAttributeValue(null, "length"));
+
+					reader.nextTag();
+					final SessionSummary summary = SessionSummaryIO.readSummary(reader);
+					// move to session end element
+					reader.nextTag();
+
+					if(fileForKey(path).exists()) {
+						entries.put(path, new Entry(lastModified, length, summary));
+					} else {
+						dirty = true;
+					}
+				}
+			} catch (NumberFormatException e) {
+				throw new XMLStreamException(e);
+			} finally {
+				reader.close();
+			}
+		}
+	}
+
+	private String keyForFile(File sessionFile) {
+		final Path projectPath = projectFolder.getAbsoluteFile().toPath();
+		final Path sessionPath = sessionFile.getAbsoluteFile().toPath();
+		final Path path = (sessionPath.startsWith(projectPath) ? projectPath.relativize(sessionPath) : sessionPath);
+		return path.toString().replace(File.separatorChar, '/');
+	}
+
+	private File fileForKey(String key) {
+		final File file = new File(key.replace('/', File.separatorChar));
+		return (file.isAbsolute() ? file : new File(projectFolder, file.getPath()));
+	}
+
+	private final static class Entry {
+
+		private final long lastModified;
+
+		private final long length;
+
+		private final SessionSummary summary;
+
+		public Entry(long lastModified, long length, SessionSummary summary) {
+			this.lastModified = lastModified;
+			this.length = length;
+			this.summary = summary;
+		}
+
+	}
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.project;
+
+import ca.phon.extensions.UnvalidatedValue;
+import ca.phon.ipa.IPATranscript;
+import ca.phon.ipa.alignment.*;
+import ca.phon.session.Record;
+import ca.phon.session.*;
+import ca.phon.syllabifier.Syllabifier;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * <p>Reset syllabification and/or phone alignment for a set of sessions
+ * in a project.  See {@link SessionBatchTask} for locking, threading and
+ * progress.</p>
+ *
+ * <p>Syllabifiers are not thread safe (e.g., syllabifier graphs share node
+ * state between calls.)  The syllabifier given to the constructor is used by
+ * one worker at a time.  Use {@link #setSyllabifierFactory(Supplier)} to
+ * syllabify in parallel with a syllabifier for each worker thread.</p>
+ */
+public class SessionRealignmentTask extends SessionBatchTask {
+
+	private final Syllabifier syllabifier;
+
+	private Supplier<Syllabifier> syllabifierFactory;
+
+	private final ThreadLocal<Syllabifier> workerSyllabifier =
+			ThreadLocal.withInitial(() -> syllabifierFactory.get());
+
+	private final boolean resetAlignment;
+
+	/**
+	 * Constructor
+	 *
+	 * @param project
+	 * @param sessionPaths
+	 * @param syllabifier syllabifier used to reset syllabification of all IPA tiers,
+	 *  may be <code>null</code> to keep current syllabification
+	 * @param resetAlignment reset phone alignment of all groups
+	 */
+	public SessionRealignmentTask(Project project, Collection<SessionPath> sessionPaths,
+			Syllabifier syllabifier, boolean resetAlignment) {
+		super("Reset syllabification and alignment", project, sessionPaths);
+		this.syllabifier = syllabifier;
+		this.resetAlignment = resetAlignment;
+	}
+
+	public Supplier<Syllabifier> getSyllabifierFactory() {
+		return this.syllabifierFactory;
+	}
+
+	/**
+	 * Set syllabifier factory.  If not <code>null</code> the factory is called
+	 * once on each worker thread and replaces the syllabifier given to the
+	 * constructor.
+	 *
+	 * @param syllabifierFactory
+	 */
+	public void setSyllabifierFactory(Supplier<Syllabifier> syllabifierFactory) {
+		this.syllabifierFactory = syllabifierFactory;
+	}
+
+	@Override
+	protected boolean processSession(int sessionIndex, SessionPath sessionPath, Session session) {
+		final PhoneAligner aligner = new PhoneAligner();
+		if(syllabifierFactory != null) {
+			final Syllabifier sessionSyllabifier = workerSyllabifier.get();
+			for(Record record:session.getRecords()) {
+				syllabifyRecord(record, sessionSyllabifier);
+				alignRecord(record, aligner);
+			}
+		} else {
+			for(Record record:session.getRecords()) {
+				if(syllabifier != null) {
+					synchronized(syllabifier) {
+						syllabifyRecord(record, syllabifier);
+					}
+				}
+				alignRecord(record, aligner);
+			}
+		}
+		return true;
+	}
+
+	private void syllabifyRecord(Record record, Syllabifier syllabifier) {
+		if(syllabifier == null) return;
+		for(Tier<IPATranscript> tier:record.getTiersOfType(IPATranscript.class)) {
+			for(int gIdx = 0; gIdx < tier.numberOfGroups(); gIdx++) {
+				final IPATranscript ipa = tier.getGroup(gIdx);
+				if(ipa == null || ipa.getExtension(UnvalidatedValue.class) != null) continue;
+				ipa.resetSyllabification();
+				syllabifier.syllabify(ipa.toList());
+			}
+		}
+	}
+
+	private void alignRecord(Record record, PhoneAligner aligner) {
+		if(!resetAlignment) return;
+		for(int gIdx = 0; gIdx < record.numberOfGroups(); gIdx++) {
+			final Group group = record.getGroup(gIdx);
+			final IPATranscript ipaTarget = group.getIPATarget();
+			final IPATranscript ipaActual = group.getIPAActual();
+			if(ipaTarget == null || ipaActual == null) continue;
+			group.setPhoneAlignment(aligner.calculatePhoneAlignment(ipaTarget, ipaActual));
+		}
+	}
+
+}
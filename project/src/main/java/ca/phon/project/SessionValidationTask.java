@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.project;
+
+import ca.phon.session.*;
+import ca.phon.session.check.*;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * <p>Validate a set of sessions in a project using a {@link SessionValidator}.
+ * Sessions modified by a check (e.g., when resetting syllabification) are saved.
+ * See {@link SessionBatchTask} for locking, threading and progress.</p>
+ *
+ * <p>Validation events are delivered to the validator's listeners in session
+ * order, all events for a session are delivered before any event of the
+ * following session.  Listeners are called from worker threads.</p>
+ */
+public class SessionValidationTask extends SessionBatchTask {
+
+	private final SessionValidator validator;
+
+	/* Validation events by session index, delivered in order */
+	private final List<List<ValidationEvent>> sessionEvents;
+
+	private final boolean[] sessionCompleted;
+
+	private int nextSessionToDeliver = 0;
+
+	/**
+	 * Constructor
+	 *
+	 * @param project
+	 * @param sessionPaths
+	 * @param validator
+	 */
+	public SessionValidationTask(Project project, Collection<SessionPath> sessionPaths, SessionValidator validator) {
+		super("Session validation", project, sessionPaths);
+		this.validator = validator;
+		this.sessionEvents = new ArrayList<>(Collections.nCopies(getSessionPaths().size(), null));
+		this.sessionCompleted = new boolean[getSessionPaths().size()];
+	}
+
+	public SessionValidator getValidator() {
+		return this.validator;
+	}
+
+	@Override
+	protected boolean processSession(int sessionIndex, SessionPath sessionPath, Session session) throws IOException {
+		final List<ValidationEvent> events = new ArrayList<>();
+		try {
+			return validator.validate(session, events::add);
+		} finally {
+			synchronized(sessionEvents) {
+				sessionEvents.set(sessionIndex, events);
+			}
+		}
+	}
+
+	@Override
+	protected void sessionFinished(int sessionIndex, SessionPath sessionPath) {
+		synchronized(sessionEvents) {
+			sessionCompleted[sessionIndex] = true;
+		}
+		deliverEvents(false);
+	}
+
+	@Override
+	protected void sessionsFinished() {
+		// deliver events of completed sessions
+		deliverEvents(true);
+	}
+
+	/*
+	 * Deliver events for all sessions which have completed in order.  Only one
+	 * thread delivers events at a time.
+	 *
+	 * @param skipIncomplete if true sessions which have not completed are skipped
+	 */
+	private void deliverEvents(boolean skipIncomplete) {
+		synchronized(validator) {
+			while(nextSessionToDeliver < sessionEvents.size()) {
+				final List<ValidationEvent> events;
+				synchronized(sessionEvents) {
+					if(!sessionCompleted[nextSessionToDeliver] && !skipIncomplete) break;
+					events = sessionEvents.get(nextSessionToDeliver);
+					sessionEvents.set(nextSessionToDeliver, null);
+				}
+				if(events != null) {
+					events.forEach(validator::fireValidationEvent);
+				}
+				++nextSessionToDeliver;
+			}
+		}
+	}
+
+}
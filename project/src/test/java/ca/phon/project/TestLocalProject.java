@@ -16,13 +16,16 @@
 package ca.phon.project;
 
 import ca.phon.project.exceptions.ProjectConfigurationException;
+import ca.phon.session.Record;
+import ca.phon.session.*;
+import ca.phon.session.io.xml.*;
 import junit.framework.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
 import java.io.*;
-import java.util.Collections;
+import java.util.*;
 
 /**
  * Tests for the LocalProject implementation.
@@ -64,4 +67,125 @@ public class TestLocalProject {
 		Assert.assertEquals(Collections.singleton("TestSession").toString(), project.getCorpusSessions("Anne").toString());
 	}
 	
+	@Test
+	public void testSessionSummary() throws IOException, ProjectConfigurationException {
+		final ProjectFactory projectFactory = new DefaultProjectFactory();
+		final LocalProject project = (LocalProject)projectFactory.openProject(new File("src/test/resources/TestCorpus"));
+
+		final Session session = project.openSession("Anne", "TestSession");
+		final SessionSummary summary = project.getSessionSummary("Anne", "TestSession");
+		Assert.assertEquals(session.getRecordCount(), summary.getRecordCount());
+		Assert.assertEquals(session.getRecordCount(), project.numberOfRecordsInSession("Anne", "TestSession"));
+		Assert.assertEquals(session.getDate(), summary.getDate());
+		Assert.assertEquals(session.getMediaLocation(), summary.getMediaLocation());
+		Assert.assertEquals(session.getParticipantCount(), summary.getParticipants().size());
+
+		for(int i = 0; i < session.getParticipantCount(); i++) {
+			final Participant participant = session.getParticipant(i);
+			final Participant summaryParticipant = summary.getParticipants().get(i);
+			Assert.assertEquals(participant.getId(), summaryParticipant.getId());
+			Assert.assertEquals(participant.getName(), summaryParticipant.getName());
+			Assert.assertEquals(participant.getRole(), summaryParticipant.getRole());
+			Assert.assertEquals(participant.getBirthDate(), summaryParticipant.getBirthDate());
+
+			int count = 0;
+			for(Record r:session.getRecords()) {
+				if(r.getSpeaker() == participant) ++count;
+			}
+			Assert.assertEquals(count, summary.getRecordCount(summaryParticipant));
+		}
+	}
+
+	@Test
+	public void testSessionIndex() throws IOException, ProjectConfigurationException {
+		final ProjectFactory projectFactory = new DefaultProjectFactory();
+		final LocalProject project = (LocalProject)projectFactory.openProject(new File("src/test/resources/TestCorpus"));
+
+		final File resFolder = File.createTempFile("phon", "res");
+		resFolder.delete();
+		resFolder.mkdirs();
+		resFolder.deleteOnExit();
+		project.setResourceLocation(resFolder.getAbsolutePath());
+
+		final SessionSummary summary = project.getSessionSummary("Anne", "TestSession");
+		project.saveSessionIndex();
+
+		final File indexFile = new File(resFolder, SessionIndex.INDEX_FILE);
+		indexFile.deleteOnExit();
+		Assert.assertTrue(indexFile.exists());
+
+		final SessionIndex index = new SessionIndex(new File(project.getLocation()), indexFile);
+		Assert.assertEquals(1, index.size());
+		final SessionSummary indexedSummary = index.get(project.getSessionFile("Anne", "TestSession"));
+		Assert.assertNotNull(indexedSummary);
+		Assert.assertEquals(summary.getRecordCount(), indexedSummary.getRecordCount());
+		Assert.assertEquals(summary.getDate(), indexedSummary.getDate());
+		Assert.assertEquals(summary.getMediaLocation(), indexedSummary.getMediaLocation());
+		Assert.assertEquals(summary.getTierNames(), indexedSummary.getTierNames());
+		Assert.assertEquals(summary.getUnknownSpeakerRecordCount(), indexedSummary.getUnknownSpeakerRecordCount());
+		Assert.assertEquals(summary.getParticipants().size(), indexedSummary.getParticipants().size());
+		for(int i = 0; i < summary.getParticipants().size(); i++) {
+			final Participant participant = summary.getParticipants().get(i);
+			final Participant indexedParticipant = indexedSummary.getParticipants().get(i);
+			Assert.assertEquals(participant.getId(), indexedParticipant.getId());
+			Assert.assertEquals(participant.getName(), indexedParticipant.getName());
+			Assert.assertEquals(participant.getRole(), indexedParticipant.getRole());
+			Assert.assertEquals(participant.getAge(summary.getDate()), indexedParticipant.getAge(indexedSummary.getDate()));
+			Assert.assertEquals(summary.getRecordCount(participant), indexedSummary.getRecordCount(indexedParticipant));
+		}
+	}
+	
+	@Test
+	public void testSaveSession() throws IOException, ProjectConfigurationException {
+		final File srcFolder = new File("src/test/resources/TestCorpus");
+		final File projectFolder = File.createTempFile("phon", "project");
+		projectFolder.delete();
+		try {
+			copyFolder(srcFolder, projectFolder);
+
+			final ProjectFactory projectFactory = new DefaultProjectFactory();
+			final LocalProject project = (LocalProject)projectFactory.openProject(projectFolder);
+			final Session session = project.openSession("Anne", "TestSession");
+			final int recordCount = session.getRecordCount();
+			Assert.assertEquals(recordCount, SessionSummaryScanner.countRecords(project.getSessionFile("Anne", "TestSession")));
+
+			session.removeRecord(0);
+			final UUID writeLock = project.getSessionWriteLock(session);
+			project.saveSession(session, writeLock);
+			project.releaseSessionWriteLock(session, writeLock);
+
+			final Session savedSession = project.openSession("Anne", "TestSession");
+			Assert.assertEquals(recordCount - 1, savedSession.getRecordCount());
+			Assert.assertEquals(recordCount - 1, SessionSummaryScanner.countRecords(project.getSessionFile("Anne", "TestSession")));
+
+			// temporary files are removed
+			final File corpusFolder = new File(projectFolder, "Anne");
+			Assert.assertEquals(0, corpusFolder.listFiles( (f) -> f.getName().endsWith(".tmp") ).length);
+		} finally {
+			deleteFolder(projectFolder);
+		}
+	}
+
+	private void copyFolder(File src, File dest) throws IOException {
+		dest.mkdirs();
+		for(File file:src.listFiles()) {
+			final File destFile = new File(dest, file.getName());
+			if(file.isDirectory()) {
+				copyFolder(file, destFile);
+			} else {
+				java.nio.file.Files.copy(file.toPath(), destFile.toPath());
+			}
+		}
+	}
+
+	private void deleteFolder(File folder) {
+		final File[] files = folder.listFiles();
+		if(files != null) {
+			for(File file:files) {
+				deleteFolder(file);
+			}
+		}
+		folder.delete();
+	}
+	
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.project;
+
+import ca.phon.ipa.IPATranscript;
+import ca.phon.ipa.alignment.*;
+import ca.phon.project.exceptions.ProjectConfigurationException;
+import ca.phon.session.Record;
+import ca.phon.session.*;
+import ca.phon.worker.PhonTask.TaskStatus;
+import junit.framework.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.*;
+import java.util.*;
+
+@RunWith(JUnit4.class)
+public class TestSessionRealignmentTask {
+
+	/**
+	 * Alignment with every phone aligned to an indel
+	 */
+	private PhoneMap unalignedMap(IPATranscript ipaTarget, IPATranscript ipaActual) {
+		final PhoneMap retVal = new PhoneMap(ipaTarget, ipaActual);
+		final int numTop = retVal.getTopElements().length;
+		final int numBtm = retVal.getBottomElements().length;
+		final Integer[] topAlignment = new Integer[numTop + numBtm];
+		final Integer[] btmAlignment = new Integer[numTop + numBtm];
+		for(int i = 0; i < numTop; i++) topAlignment[i] = i;
+		for(int i = 0; i < numBtm; i++) btmAlignment[numTop + i] = i;
+		retVal.setTopAlignment(topAlignment);
+		retVal.setBottomAlignment(btmAlignment);
+		return retVal;
+	}
+
+	@Test
+	public void testResetAlignment() throws IOException, ProjectConfigurationException {
+		final File srcFolder = new File("src/test/resources/TestCorpus");
+		final File projectFolder = File.createTempFile("phon", "project");
+		projectFolder.delete();
+		try {
+			copyFolder(srcFolder, projectFolder);
+
+			final ProjectFactory projectFactory = new DefaultProjectFactory();
+			final Project project = projectFactory.openProject(projectFolder);
+			final Session session = project.openSession("Anne", "TestSession");
+
+			// expected alignment for each group, replace alignment in session
+			final PhoneAligner aligner = new PhoneAligner();
+			final List<String> expected = new ArrayList<>();
+			for(Record record:session.getRecords()) {
+				for(int gIdx = 0; gIdx < record.numberOfGroups(); gIdx++) {
+					final Group group = record.getGroup(gIdx);
+					if(group.getIPATarget() == null || group.getIPAActual() == null) continue;
+					expected.add(aligner.calculatePhoneAlignment(group.getIPATarget(), group.getIPAActual()).toString());
+					group.setPhoneAlignment(unalignedMap(group.getIPATarget(), group.getIPAActual()));
+				}
+			}
+			Assert.assertTrue(expected.size() > 0);
+
+			final UUID writeLock = project.getSessionWriteLock(session);
+			project.saveSession(session, writeLock);
+			project.releaseSessionWriteLock(session, writeLock);
+
+			final SessionPath sessionPath = new SessionPath("Anne", "TestSession");
+			final SessionRealignmentTask task =
+					new SessionRealignmentTask(project, Collections.singletonList(sessionPath), null, true);
+			task.run();
+			Assert.assertEquals(TaskStatus.FINISHED, task.getStatus());
+			Assert.assertTrue(task.getFailedSessions().isEmpty());
+			Assert.assertEquals(Collections.singleton(sessionPath), task.getModifiedSessions());
+			Assert.assertEquals(session.getRecordCount(), task.getRecordsProcessed());
+
+			final Session realignedSession = project.openSession("Anne", "TestSession");
+			final List<String> alignments = new ArrayList<>();
+			for(Record record:realignedSession.getRecords()) {
+				for(int gIdx = 0; gIdx < record.numberOfGroups(); gIdx++) {
+					final Group group = record.getGroup(gIdx);
+					if(group.getIPATarget() == null || group.getIPAActual() == null) continue;
+					alignments.add(group.getPhoneAlignment().toString());
+				}
+			}
+			Assert.assertEquals(expected, alignments);
+
+			// session lock is released
+			project.releaseSessionWriteLock(sessionPath.getCorpus(), sessionPath.getSession(),
+					project.getSessionWriteLock(sessionPath.getCorpus(), sessionPath.getSession()));
+		} finally {
+			deleteFolder(projectFolder);
+		}
+	}
+
+	private void copyFolder(File src, File dest) throws IOException {
+		dest.mkdirs();
+		for(File file:src.listFiles()) {
+			final File destFile = new File(dest, file.getName());
+			if(file.isDirectory()) {
+				copyFolder(file, destFile);
+			} else {
+				java.nio.file.Files.copy(file.toPath(), destFile.toPath());
+			}
+		}
+	}
+
+	private void deleteFolder(File folder) {
+		final File[] files = folder.listFiles();
+		if(files != null) {
+			for(File file:files) {
+				deleteFolder(file);
+			}
+		}
+		folder.delete();
+	}
+
+}
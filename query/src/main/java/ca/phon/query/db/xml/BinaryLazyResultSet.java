@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2005-2020 Gregory Hedlund & Yvan Rose
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.query.db.xml;
+
+import ca.phon.query.db.Result;
+import ca.phon.query.db.xml.io.resultset.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Result set stored in the {@link BinaryResultSetFormat}.  Result counts and
+ * metadata keys are read from the file header, individual results are read
+ * on demand.  All results are loaded when the result set is modified,
+ * iterated or converted to XML.
+ */
+public class BinaryLazyResultSet extends XMLResultSet {
+
+	private final static org.apache.logging.log4j.Logger LOGGER = org.apache.logging.log4j.LogManager.getLogger(BinaryLazyResultSet.class.getName());
+
+	/** The file where data is located */
+	private final File resultSetFile;
+
+	private BinaryResultSetFormat.Header header;
+
+	private long[] offsets;
+
+	/** Results read individually, kept so that changes are not lost on full load */
+	private ResultType[] cachedResults;
+
+	private boolean isLoaded = false;
+
+	/**
+	 * Constructs a lazy result set loader from the given file.
+	 *
+	 * @param resultSetFile  the file containing the binary result set data
+	 */
+	BinaryLazyResultSet(File resultSetFile) {
+		this.resultSetFile = resultSetFile;
+
+		String [] info = resultSetFile.getName().split("\\.");
+		super.setSessionPath(info[0], info[1]);
+	}
+
+	private BinaryResultSetFormat.Header getHeader() {
+		if(header == null) {
+			try {
+				header = BinaryResultSetFormat.readHeader(resultSetFile);
+			} catch (IOException e) {
+				LOGGER.error( e.getLocalizedMessage(), e);
+				header = new BinaryResultSetFormat.Header(getSessionPath(), 0, 0, new String[0], 0);
+			}
+		}
+		return header;
+	}
+
+	/**
+	 * Lazy loading of all result data.
+	 */
+	protected void loadData() {
+		if(!isLoaded) {
+			isLoaded = true;
+			try {
+				final ResultSetType loadedResultSet = BinaryResultSetFormat.read(resultSetFile);
+				if(cachedResults != null) {
+					for(int i = 0; i < cachedResults.length && i < loadedResultSet.getResult().size(); i++) {
+						if(cachedResults[i] != null) {
+							loadedResultSet.getResult().set(i, cachedResults[i]);
+						}
+					}
+				}
+				resultSet = loadedResultSet;
+			} catch (IOException e) {
+				LOGGER.error( e.getLocalizedMessage(), e);
+			}
+			cachedResults = null;
+			offsets = null;
+		}
+	}
+
+	@Override
+	public ResultSetType getXMLObject() {
+		loadData();
+		return super.getXMLObject();
+	}
+
+	@Override
+	public int size() {
+		return (isLoaded ? super.size() : getHeader().getNumberOfResults());
+	}
+
+	@Override
+	public int numberOfResults(boolean includeExcluded) {
+		if(isLoaded || cachedResults != null) {
+			// excluded flag of cached results may have changed
+			loadData();
+			return super.numberOfResults(includeExcluded);
+		}
+		final BinaryResultSetFormat.Header header = getHeader();
+		return header.getNumberOfResults() - (includeExcluded ? 0 : header.getNumberOfExcludedResults());
+	}
+
+	@Override
+	public String[] getMetadataKeys() {
+		return (isLoaded ? super.getMetadataKeys() : getHeader().getMetadataKeys());
+	}
+
+	@Override
+	public Result getResult(int idx) {
+		if(isLoaded) return super.getResult(idx);
+		if(idx < 0 || idx >= size())
+			throw new ArrayIndexOutOfBoundsException(idx);
+
+		if(cachedResults == null) {
+			cachedResults = new ResultType[size()];
+		}
+		if(cachedResults[idx] == null) {
+			try {
+				if(offsets == null) {
+					offsets = BinaryResultSetFormat.readOffsets(resultSetFile, getHeader());
+				}
+				cachedResults[idx] = BinaryResultSetFormat.readResult(resultSetFile, getHeader(), offsets, idx);
+			} catch (IOException e) {
+				LOGGER.error( e.getLocalizedMessage(), e);
+				loadData();
+				return super.getResult(idx);
+			}
+		}
+		return new XMLResult(cachedResults[idx]);
+	}
+
+	@Override
+	public Result removeResult(int idx) {
+		loadData();
+		return super.removeResult(idx);
+	}
+
+	@Override
+	public void addResult(Result res) {
+		loadData();
+		super.addResult(res);
+	}
+
+	@Override
+	public Iterator<Result> iterator(boolean includeExcluded) {
+		loadData();
+		return super.iterator(includeExcluded);
+	}
+
+	@Override
+	public Iterator<Result> iterator() {
+		loadData();
+		return super.iterator();
+	}
+
+}
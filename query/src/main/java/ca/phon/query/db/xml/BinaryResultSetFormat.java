@@ -0,0 +1,388 @@
+/*
+ * Copyright (C) 2005-2020 Gregory Hedlund & Yvan Rose
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.query.db.xml;
+
+import ca.phon.query.db.xml.io.resultset.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * <p>Compact binary file format for result sets.  Files begin with a small
+ * header holding the session path, result counts and metadata keys followed
+ * by a table of result offsets, allowing result counts to be read without
+ * reading any results and individual results to be read by index.</p>
+ *
+ * <pre>
+ * int     magic ('PHRS')
+ * short   version
+ * int     header length (bytes)
+ * header:
+ *   string  session path
+ *   int     number of results
+ *   int     number of excluded results
+ *   int     number of metadata keys, followed by keys (string)
+ * long[]  offset of each result in data section, plus end of data
+ * data:
+ *   result*
+ * </pre>
+ *
+ * Strings are stored as an int byte length (-1 for <code>null</code>)
+ * followed by UTF-8 data.  All values are big-endian.
+ */
+public final class BinaryResultSetFormat {
+
+	public final static int MAGIC = 0x50485253;
+
+	public final static short VERSION = 1;
+
+	/* magic, version and header length */
+	private final static int PREAMBLE_LENGTH = 4 + 2 + 4;
+
+	/* values for optional booleans */
+	private final static byte BOOLEAN_UNSET = 0;
+	private final static byte BOOLEAN_FALSE = 1;
+	private final static byte BOOLEAN_TRUE = 2;
+
+	private BinaryResultSetFormat() {
+	}
+
+	/**
+	 * Result set header information
+	 */
+	public final static class Header {
+
+		private final String sessionPath;
+
+		private final int numberOfResults;
+
+		private final int numberOfExcludedResults;
+
+		private final String[] metadataKeys;
+
+		private final int headerLength;
+
+		Header(String sessionPath, int numberOfResults, int numberOfExcludedResults,
+				String[] metadataKeys, int headerLength) {
+			this.sessionPath = sessionPath;
+			this.numberOfResults = numberOfResults;
+			this.numberOfExcludedResults = numberOfExcludedResults;
+			this.metadataKeys = metadataKeys;
+			this.headerLength = headerLength;
+		}
+
+		public String getSessionPath() {
+			return sessionPath;
+		}
+
+		public int getNumberOfResults() {
+			return numberOfResults;
+		}
+
+		public int getNumberOfExcludedResults() {
+			return numberOfExcludedResults;
+		}
+
+		public String[] getMetadataKeys() {
+			return metadataKeys.clone();
+		}
+
+		/* position of the offset table */
+		long getOffsetTablePosition() {
+			return PREAMBLE_LENGTH + headerLength;
+		}
+
+		/* position of the data section */
+		long getDataPosition() {
+			return getOffsetTablePosition() + 8L * (numberOfResults + 1);
+		}
+
+	}
+
+	/**
+	 * Write result set to file.  Data is written to a temporary file
+	 * which replaces the given file when complete.
+	 *
+	 * @param resultSet
+	 * @param file
+	 * @throws IOException
+	 */
+	public static void write(ResultSetType resultSet, File file) throws IOException {
+		final List<ResultType> results = resultSet.getResult();
+
+		final ByteArrayOutputStream dataBytes = new ByteArrayOutputStream();
+		final DataOutputStream dataOut = new DataOutputStream(dataBytes);
+		final long[] offsets = new long[results.size() + 1];
+		int numExcluded = 0;
+		for(int i = 0; i < results.size(); i++) {
+			offsets[i] = dataOut.size();
+			final ResultType result = results.get(i);
+			if(result.isExcluded()) ++numExcluded;
+			writeResult(dataOut, result);
+		}
+		dataOut.flush();
+		offsets[results.size()] = dataBytes.size();
+
+		final List<String> metaKeys = (resultSet.getMetaKeys() != null ?
+				resultSet.getMetaKeys().getMetaKey() : collectMetadataKeys(results));
+
+		final ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+		final DataOutputStream headerOut = new DataOutputStream(headerBytes);
+		writeString(headerOut, resultSet.getSessionPath());
+		headerOut.writeInt(results.size());
+		headerOut.writeInt(numExcluded);
+		headerOut.writeInt(metaKeys.size());
+		for(String metaKey:metaKeys) {
+			writeString(headerOut, metaKey);
+		}
+		headerOut.flush();
+
+		final File parentFolder = file.getAbsoluteFile().getParentFile();
+		final File tempFile = File.createTempFile(file.getName(), ".tmp", parentFolder);
+		try {
+			try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+				out.writeInt(MAGIC);
+				out.writeShort(VERSION);
+				out.writeInt(headerBytes.size());
+				headerBytes.writeTo(out);
+				for(long offset:offsets) {
+					out.writeLong(offset);
+				}
+				dataBytes.writeTo(out);
+			}
+			try {
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(tempFile.toPath());
+		}
+	}
+
+	private static List<String> collectMetadataKeys(List<ResultType> results) {
+		final Set<String> retVal = new LinkedHashSet<>();
+		for(ResultType result:results) {
+			for(MetaType meta:result.getMeta()) {
+				retVal.add(meta.getKey());
+			}
+		}
+		return new ArrayList<>(retVal);
+	}
+
+	/**
+	 * Read header information.
+	 *
+	 * @param file
+	 * @return header
+	 * @throws IOException if the file could not be read or is not
+	 *  a binary result set
+	 */
+	public static Header readHeader(File file) throws IOException {
+		try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1024))) {
+			return readHeader(in, file);
+		}
+	}
+
+	private static Header readHeader(DataInputStream in, File file) throws IOException {
+		if(in.readInt() != MAGIC) {
+			throw new IOException("Not a binary result set file: " + file.getAbsolutePath());
+		}
+		final short version = in.readShort();
+		if(version > VERSION) {
+			throw new IOException("Unsupported result set file version " + version + ": " + file.getAbsolutePath());
+		}
+		final int headerLength = in.readInt();
+		final String sessionPath = readString(in);
+		final int numResults = in.readInt();
+		final int numExcluded = in.readInt();
+		final String[] metaKeys = new String[in.readInt()];
+		for(int i = 0; i < metaKeys.length; i++) {
+			metaKeys[i] = readString(in);
+		}
+		return new Header(sessionPath, numResults, numExcluded, metaKeys, headerLength);
+	}
+
+	/**
+	 * Read the result offset table
+	 *
+	 * @param file
+	 * @param header
+	 * @return offsets of results in the data section, the last element is
+	 *  the length of the data section
+	 * @throws IOException
+	 */
+	static long[] readOffsets(File file, Header header) throws IOException {
+		try(RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+			raf.seek(header.getOffsetTablePosition());
+			final byte[] buffer = new byte[8 * (header.getNumberOfResults() + 1)];
+			raf.readFully(buffer);
+
+			final DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer));
+			final long[] retVal = new long[header.getNumberOfResults() + 1];
+			for(int i = 0; i < retVal.length; i++) {
+				retVal[i] = in.readLong();
+			}
+			return retVal;
+		}
+	}
+
+	/**
+	 * Read a single result.
+	 *
+	 * @param file
+	 * @param header
+	 * @param offsets as returned by {@link #readOffsets(File, Header)}
+	 * @param idx
+	 * @return result
+	 * @throws IOException
+	 */
+	static ResultType readResult(File file, Header header, long[] offsets, int idx) throws IOException {
+		try(RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+			raf.seek(header.getDataPosition() + offsets[idx]);
+			final byte[] buffer = new byte[(int)(offsets[idx+1] - offsets[idx])];
+			raf.readFully(buffer);
+			return readResult(new DataInputStream(new ByteArrayInputStream(buffer)));
+		}
+	}
+
+	/**
+	 * Read all data for a result set.
+	 *
+	 * @param file
+	 * @return result set
+	 * @throws IOException
+	 */
+	public static ResultSetType read(File file) throws IOException {
+		try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			final Header header = readHeader(in, file);
+			// offsets are not required for sequential reads
+			in.skipNBytes(8L * (header.getNumberOfResults() + 1));
+
+			final ObjectFactory factory = new ObjectFactory();
+			final ResultSetType retVal = factory.createResultSetType();
+			retVal.setSessionPath(header.getSessionPath());
+
+			final MetaKeyList keyList = factory.createMetaKeyList();
+			keyList.getMetaKey().addAll(Arrays.asList(header.getMetadataKeys()));
+			retVal.setMetaKeys(keyList);
+
+			for(int i = 0; i < header.getNumberOfResults(); i++) {
+				retVal.getResult().add(readResult(in));
+			}
+			return retVal;
+		}
+	}
+
+	private static void writeResult(DataOutputStream out, ResultType result) throws IOException {
+		out.writeInt(result.getRecordIndex());
+		out.writeByte(result.isSetExcluded() ? (result.isExcluded() ? BOOLEAN_TRUE : BOOLEAN_FALSE) : BOOLEAN_UNSET);
+		writeString(out, result.getSchema());
+
+		out.writeInt(result.getResultValue().size());
+		for(ResultValueType rv:result.getResultValue()) {
+			writeString(out, rv.getName());
+			writeString(out, rv.getTierName());
+			out.writeInt(rv.getGroupIndex());
+
+			final RangeType range = rv.getRange();
+			out.writeBoolean(range != null);
+			if(range != null) {
+				out.writeInt(range.getStartIndex());
+				out.writeInt(range.getEndIndex());
+				out.writeByte(range.isSetExcludesEnd() ? (range.isExcludesEnd() ? BOOLEAN_TRUE : BOOLEAN_FALSE) : BOOLEAN_UNSET);
+			}
+
+			writeString(out, rv.getData());
+			out.writeInt(rv.getMatcherGroup().size());
+			for(String group:rv.getMatcherGroup()) {
+				writeString(out, group);
+			}
+		}
+
+		out.writeInt(result.getMeta().size());
+		for(MetaType meta:result.getMeta()) {
+			writeString(out, meta.getKey());
+			writeString(out, meta.getValue());
+		}
+	}
+
+	private static ResultType readResult(DataInputStream in) throws IOException {
+		final ResultType retVal = new ResultType();
+		retVal.setRecordIndex(in.readInt());
+		final byte excluded = in.readByte();
+		if(excluded != BOOLEAN_UNSET) {
+			retVal.setExcluded(excluded == BOOLEAN_TRUE);
+		}
+		retVal.setSchema(readString(in));
+
+		final int numValues = in.readInt();
+		for(int i = 0; i < numValues; i++) {
+			final ResultValueType rv = new ResultValueType();
+			rv.setName(readString(in));
+			rv.setTierName(readString(in));
+			rv.setGroupIndex(in.readInt());
+
+			if(in.readBoolean()) {
+				final RangeType range = new RangeType();
+				range.setStartIndex(in.readInt());
+				range.setEndIndex(in.readInt());
+				final byte excludesEnd = in.readByte();
+				if(excludesEnd != BOOLEAN_UNSET) {
+					range.setExcludesEnd(excludesEnd == BOOLEAN_TRUE);
+				}
+				rv.setRange(range);
+			}
+
+			rv.setData(readString(in));
+			final int numGroups = in.readInt();
+			for(int j = 0; j < numGroups; j++) {
+				rv.getMatcherGroup().add(readString(in));
+			}
+			retVal.getResultValue().add(rv);
+		}
+
+		final int numMeta = in.readInt();
+		for(int i = 0; i < numMeta; i++) {
+			final MetaType meta = new MetaType();
+			meta.setKey(readString(in));
+			meta.setValue(readString(in));
+			retVal.getMeta().add(meta);
+		}
+		return retVal;
+	}
+
+	private static void writeString(DataOutputStream out, String str) throws IOException {
+		if(str == null) {
+			out.writeInt(-1);
+		} else {
+			final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		final int len = in.readInt();
+		if(len < 0) return null;
+		final byte[] bytes = new byte[len];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+}
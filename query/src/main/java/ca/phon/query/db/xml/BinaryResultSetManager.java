@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2005-2020 Gregory Hedlund & Yvan Rose
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.query.db.xml;
+
+import ca.phon.project.Project;
+import ca.phon.query.db.*;
+
+import java.io.*;
+
+/**
+ * An implementation of {@link ResultSetManager} which stores result sets
+ * using the {@link BinaryResultSetFormat}.  Queries are stored as XML in the
+ * same folder layout used by {@link XMLResultSetManager}.
+ *
+ * Binary result sets cannot be read by older versions of Phon.  Existing XML
+ * result sets are not modified or removed; when both copies of a result set
+ * exist the most recently saved copy is used by both managers.
+ */
+public class BinaryResultSetManager extends XMLResultSetManager {
+
+	/**
+	 * File extension for binary result sets
+	 */
+	public static final String RESULT_SET_EXT = BINARY_RESULT_SET_EXT;
+
+	/**
+	 * Default constructor.
+	 */
+	public BinaryResultSetManager() { }
+
+	private File getResultSetFile(Project project, Query query, String sessionPath) {
+		return new File(getQueryPath(project, query), sessionPath + RESULT_SET_EXT);
+	}
+
+	@Override
+	public void saveResultSet(Project project, Query query, ResultSet resultSet) throws IOException {
+		File queryPath = getQueryPath(project, query);
+		if(!queryPath.exists()) {
+			queryPath.mkdirs();
+		}
+
+		// ensure the list of metadata keys is created for quick reference later
+		resultSet.getMetadataKeys();
+
+		BinaryResultSetFormat.write(toXMLResultSet(resultSet).getXMLObject(),
+				getResultSetFile(project, query, resultSet.getSessionPath()));
+	}
+
+	private XMLResultSet toXMLResultSet(ResultSet resultSet) {
+		if(resultSet instanceof XMLResultSet) {
+			return (XMLResultSet)resultSet;
+		}
+		final XMLResultSet retVal = new XMLResultSet();
+		retVal.setSessionPath(resultSet.getSessionPath());
+		for(Result result:resultSet) {
+			retVal.addResult(result);
+		}
+		retVal.getMetadataKeys();
+		return retVal;
+	}
+
+}
@@ -18,6 +18,7 @@ package ca.phon.query.db.xml;
 
 import ca.phon.query.db.*;
 import ca.phon.query.db.xml.io.query.*;
+import ca.phon.util.PrefHelper;
 import jakarta.xml.bind.*;
 
 import javax.xml.stream.*;
@@ -28,6 +29,14 @@ import java.io.*;
  */
 public class XMLQueryManager extends QueryManager {
 	
+	/**
+	 * Storage format for result sets, one of <code>xml</code> or <code>binary</code>.
+	 * Result sets saved in either format are readable with both settings, binary
+	 * result sets cannot be read by older versions of Phon.
+	 */
+	public final static String RESULT_SET_FORMAT_PROP = XMLQueryManager.class.getName() + ".resultSetFormat";
+	public final static String DEFAULT_RESULT_SET_FORMAT = "xml";
+	
 	@Override
 	public QueryFactory createQueryFactory() {
 		return new XMLQueryFactory();
@@ -35,7 +44,8 @@ public class XMLQueryManager extends QueryManager {
 
 	@Override
 	public ResultSetManager createResultSetManager() {
-		return new XMLResultSetManager();
+		final String format = PrefHelper.get(RESULT_SET_FORMAT_PROP, DEFAULT_RESULT_SET_FORMAT);
+		return ("binary".equalsIgnoreCase(format) ? new BinaryResultSetManager() : new XMLResultSetManager());
 	}
 
 	@Override
@@ -44,11 +44,74 @@ public class XMLResultSetManager implements ResultSetManager {
 	 */
 	public static final String DEFAULT_QUERY_FOLDER = ".query_results";
 
+	static final String XML_RESULT_SET_EXT = ".xml";
+
+	static final String BINARY_RESULT_SET_EXT = ".bin";
+
+	/*
+	 * JAXB contexts and schemas are thread-safe and expensive to create,
+	 * they are created on first use and shared by all managers
+	 */
+	private static volatile JAXBContext queryContext;
+
+	private static volatile JAXBContext resultSetContext;
+
+	private static volatile Schema querySchema;
+
+	private static volatile Schema resultSetSchema;
+
 	/**
 	 * Default constructor.
 	 */
 	public XMLResultSetManager() { }
 
+	static JAXBContext getQueryContext() throws JAXBException {
+		JAXBContext retVal = queryContext;
+		if(retVal == null) {
+			retVal = JAXBContext.newInstance("ca.phon.query.db.xml.io.query");
+			queryContext = retVal;
+		}
+		return retVal;
+	}
+
+	static JAXBContext getResultSetContext() throws JAXBException {
+		JAXBContext retVal = resultSetContext;
+		if(retVal == null) {
+			retVal = JAXBContext.newInstance("ca.phon.query.db.xml.io.resultset");
+			resultSetContext = retVal;
+		}
+		return retVal;
+	}
+
+	private Schema getQuerySchema() {
+		Schema retVal = querySchema;
+		if(retVal == null) {
+			retVal = loadSchema("xml/xsd/query.xsd");
+			querySchema = retVal;
+		}
+		return retVal;
+	}
+
+	private Schema getResultSetSchema() {
+		Schema retVal = resultSetSchema;
+		if(retVal == null) {
+			retVal = loadSchema("xml/xsd/resultset.xsd");
+			resultSetSchema = retVal;
+		}
+		return retVal;
+	}
+
+	private Schema loadSchema(String resource) {
+		Schema schema = null;
+		try {
+			SchemaFactory sf = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+			schema = sf.newSchema(new StreamSource(getClass().getClassLoader().getResourceAsStream(resource)));
+		} catch(SAXException exc) {
+			LOGGER.warn(  exc.getLocalizedMessage(), exc);
+		}
+		return schema;
+	}
+
 	/**
 	 * Get the path for storing queries.
 	 * @param project
@@ -95,16 +158,25 @@ public class XMLResultSetManager implements ResultSetManager {
 		List<ResultSet> resultSets = new ArrayList<ResultSet>();
 		if(!queryPath.exists() || !queryPath.isDirectory())
 			return resultSets;
+
+		// result sets may be stored as xml, binary or both
+		final Set<String> sessionPaths = new LinkedHashSet<>();
 		for(File resultSetFile : queryPath.listFiles()) {
-			if(!resultSetFile.getName().equals("query.xml") && !resultSetFile.isHidden()) {
-				String fname = resultSetFile.getName();
-				try {
-					// XXX this substring computation is messy...
-					ResultSet resultSet = loadResultSet(project, query, fname.substring(0, fname.length() - 4));
-					resultSets.add(resultSet);
-				} catch(IOException exc) {
-					LOGGER.error( exc.getLocalizedMessage(), exc);
-				}
+			final String fname = resultSetFile.getName();
+			if(fname.equals("query.xml") || resultSetFile.isHidden()) continue;
+
+			if(fname.endsWith(XML_RESULT_SET_EXT)) {
+				sessionPaths.add(fname.substring(0, fname.length() - XML_RESULT_SET_EXT.length()));
+			} else if(fname.endsWith(BINARY_RESULT_SET_EXT)) {
+				sessionPaths.add(fname.substring(0, fname.length() - BINARY_RESULT_SET_EXT.length()));
+			}
+		}
+
+		for(String sessionPath:sessionPaths) {
+			try {
+				resultSets.add(loadResultSet(project, query, sessionPath));
+			} catch(IOException exc) {
+				LOGGER.error( exc.getLocalizedMessage(), exc);
 			}
 		}
 
@@ -127,8 +199,7 @@ public class XMLResultSetManager implements ResultSetManager {
 			final JAXBElement<QueryType> jaxbElem = (new ca.phon.query.db.xml.io.query.ObjectFactory()).createQuery(qt);
 
 			// Initialize marshaller and write to disk
-			final JAXBContext context = JAXBContext.newInstance("ca.phon.query.db.xml.io.query");
-			final Marshaller marshaller = context.createMarshaller();
+			final Marshaller marshaller = getQueryContext().createMarshaller();
 			marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
 			marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
 			marshaller.marshal(jaxbElem, queryFile);
@@ -147,19 +218,10 @@ public class XMLResultSetManager implements ResultSetManager {
 
 	@SuppressWarnings("unchecked")
 	QueryType loadQuery(File queryFile) throws IOException {
-		Schema schema = null;
-		try {
-			SchemaFactory sf = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-			schema = sf.newSchema(new StreamSource(getClass().getClassLoader().getResourceAsStream("xml/xsd/query.xsd")) );
-		} catch(SAXException exc) {
-			LOGGER.warn(  exc.getLocalizedMessage(), exc);
-		}
-
 		QueryType query = null;
 		try {
-			JAXBContext context = JAXBContext.newInstance("ca.phon.query.db.xml.io.query");
-			Unmarshaller unmarshaller = context.createUnmarshaller();
-			unmarshaller.setSchema(schema);
+			Unmarshaller unmarshaller = getQueryContext().createUnmarshaller();
+			unmarshaller.setSchema(getQuerySchema());
 			query = ((JAXBElement<QueryType>)unmarshaller.unmarshal(queryFile)).getValue();
 		} catch(JAXBException exc) {
 			//PhonLogger.severe(XMLResultSetManager.class, "Could not load query file.");
@@ -173,7 +235,7 @@ public class XMLResultSetManager implements ResultSetManager {
 	@Override
 	public void saveResultSet(Project project, Query query, ResultSet resultSet) throws IOException {
 		File queryPath = getQueryPath(project, query);
-		File resultSetFile = new File(queryPath, resultSet.getSessionPath() + ".xml");
+		File resultSetFile = new File(queryPath, resultSet.getSessionPath() + XML_RESULT_SET_EXT);
 
 		// ensure the list of metadata keys is created for quick reference later
 		resultSet.getMetadataKeys();
@@ -190,8 +252,7 @@ public class XMLResultSetManager implements ResultSetManager {
 			JAXBElement<ResultSetType> jaxbElem = (new ca.phon.query.db.xml.io.resultset.ObjectFactory()).createResultSet(rst);
 
 			// Initialize marshaller and write to disk
-			JAXBContext context = JAXBContext.newInstance("ca.phon.query.db.xml.io.resultset");
-			Marshaller marshaller = context.createMarshaller();
+			Marshaller marshaller = getResultSetContext().createMarshaller();
 			marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
 			marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
 			marshaller.marshal(jaxbElem, resultSetFile);
@@ -205,7 +266,14 @@ public class XMLResultSetManager implements ResultSetManager {
 	@Override
 	public ResultSet loadResultSet(Project project, Query query, String sessionName) throws IOException {
 		File queryPath = getQueryPath(project, query);
-		File resultSetFile = new File(queryPath, sessionName + ".xml");
+		File resultSetFile = new File(queryPath, sessionName + XML_RESULT_SET_EXT);
+		File binaryFile = new File(queryPath, sessionName + BINARY_RESULT_SET_EXT);
+
+		// use the most recently saved copy
+		if(binaryFile.exists() &&
+				(!resultSetFile.exists() || binaryFile.lastModified() > resultSetFile.lastModified())) {
+			return new BinaryLazyResultSet(binaryFile);
+		}
 		return new XMLLazyResultSet(this, resultSetFile);
 	}
 
@@ -214,19 +282,10 @@ public class XMLResultSetManager implements ResultSetManager {
 	 */
 	@SuppressWarnings("unchecked")
 	ResultSetType loadResultSet(File resultSetFile) throws IOException {
-		Schema schema = null;
-		try {
-			SchemaFactory sf = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-			schema = sf.newSchema(new StreamSource(getClass().getClassLoader().getResourceAsStream("xml/xsd/resultset.xsd")));
-		} catch(SAXException exc) {
-			LOGGER.warn( exc.getLocalizedMessage(), exc);
-		}
-
 		ResultSetType resultSet = null;
 		try {
-			JAXBContext context = JAXBContext.newInstance("ca.phon.query.db.xml.io.resultset");
-			Unmarshaller unmarshaller = context.createUnmarshaller();
-			unmarshaller.setSchema(schema);
+			Unmarshaller unmarshaller = getResultSetContext().createUnmarshaller();
+			unmarshaller.setSchema(getResultSetSchema());
 			resultSet = ((JAXBElement<ResultSetType>)unmarshaller.unmarshal(resultSetFile)).getValue();
 		} catch(JAXBException exc) {
 			throw new IOException("Could not load result set file", exc);
@@ -256,10 +315,12 @@ public class XMLResultSetManager implements ResultSetManager {
 	public void deleteResultSet(Project project, Query query,
 			ResultSet resultset) throws IOException {
 		final File queryFile = getQueryPath(project, query);
-		final File rsFile = new File(queryFile, resultset.getSessionPath() + ".xml");
-		if(rsFile.exists()) {
-			if(!rsFile.delete()) {
-				throw new IOException("Unable to delete '"  + rsFile.getAbsolutePath() + "'");
+		for(String ext:List.of(XML_RESULT_SET_EXT, BINARY_RESULT_SET_EXT)) {
+			final File rsFile = new File(queryFile, resultset.getSessionPath() + ext);
+			if(rsFile.exists()) {
+				if(!rsFile.delete()) {
+					throw new IOException("Unable to delete '"  + rsFile.getAbsolutePath() + "'");
+				}
 			}
 		}
 	}
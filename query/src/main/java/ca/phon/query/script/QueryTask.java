@@ -224,8 +224,8 @@ public class QueryTask extends PhonTask {
 						final QueryScriptContext debugCtx = queryScript.getQueryContext();
 
 						final Context jsctx = debugCtx.enter();
-						final Scriptable debugScope = debugCtx.getEvaluatedScope();
 						jsctx.setOptimizationLevel(-1);
+						final Scriptable debugScope = debugCtx.getEvaluatedScope();
 						debugger.attachTo(jsctx.getFactory());
 						debugger.setScope(debugScope);
 						ctx.exit();
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2005-2020 Gregory Hedlund & Yvan Rose
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.query.db.xml;
+
+import ca.phon.query.db.*;
+import ca.phon.query.db.xml.io.resultset.ResultSetType;
+import ca.phon.util.Range;
+import junit.framework.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.File;
+
+@RunWith(JUnit4.class)
+public class TestBinaryResultSetFormat {
+
+	private XMLResultSet createResultSet(int numResults) {
+		final XMLQueryFactory factory = new XMLQueryFactory();
+		final XMLResultSet resultSet = (XMLResultSet)factory.createResultSet();
+		resultSet.setSessionPath("Corpus", "Session");
+
+		for(int i = 0; i < numResults; i++) {
+			final Result result = factory.createResult();
+			result.setRecordIndex(i);
+			result.setSchema("LINEAR");
+			result.setExcluded(i % 3 == 0);
+			result.getMetadata().put("Key" + (i % 2), "Value ʃ" + i);
+
+			final ResultValue rv = factory.createResultValue();
+			rv.setName("IPA Target");
+			rv.setTierName("IPA Target");
+			rv.setGroupIndex(i % 4);
+			rv.setRange(new Range(0, i, true));
+			rv.setData("dɑtə " + i);
+			((XMLResultValue)rv).getXMLObject().getMatcherGroup().add("g" + i);
+			result.addResultValue(rv);
+
+			resultSet.addResult(result);
+		}
+		return resultSet;
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		final XMLResultSet resultSet = createResultSet(10);
+		final File file = File.createTempFile("resultset", BinaryResultSetManager.RESULT_SET_EXT);
+		file.deleteOnExit();
+		BinaryResultSetFormat.write(resultSet.getXMLObject(), file);
+
+		final BinaryResultSetFormat.Header header = BinaryResultSetFormat.readHeader(file);
+		Assert.assertEquals("Corpus.Session", header.getSessionPath());
+		Assert.assertEquals(10, header.getNumberOfResults());
+		Assert.assertEquals(4, header.getNumberOfExcludedResults());
+		Assert.assertEquals(2, header.getMetadataKeys().length);
+
+		final ResultSetType loaded = BinaryResultSetFormat.read(file);
+		Assert.assertEquals(10, loaded.getResult().size());
+		final XMLResultSet loadedResultSet = new XMLResultSet(loaded);
+		for(int i = 0; i < resultSet.size(); i++) {
+			Assert.assertEquals(ReportHelper.createResultString(resultSet.getResult(i)),
+					ReportHelper.createResultString(loadedResultSet.getResult(i)));
+			Assert.assertEquals(resultSet.getResult(i).isExcluded(), loadedResultSet.getResult(i).isExcluded());
+			Assert.assertEquals(resultSet.getResult(i).getMetadata(), loadedResultSet.getResult(i).getMetadata());
+			Assert.assertEquals("g" + i, loadedResultSet.getResult(i).getResultValue(0).getMatcherGroup(0));
+		}
+
+		final long[] offsets = BinaryResultSetFormat.readOffsets(file, header);
+		final XMLResult single = new XMLResult(BinaryResultSetFormat.readResult(file, header, offsets, 7));
+		Assert.assertEquals(7, single.getRecordIndex());
+		Assert.assertEquals("dɑtə 7", single.getResultValue(0).getData());
+	}
+
+	@Test
+	public void testLazyResultSet() throws Exception {
+		final File folder = File.createTempFile("query", "");
+		folder.delete();
+		folder.mkdirs();
+		final File file = new File(folder, "Corpus.Session" + BinaryResultSetManager.RESULT_SET_EXT);
+		file.deleteOnExit();
+		folder.deleteOnExit();
+		BinaryResultSetFormat.write(createResultSet(5).getXMLObject(), file);
+
+		final BinaryLazyResultSet resultSet = new BinaryLazyResultSet(file);
+		Assert.assertEquals(5, resultSet.size());
+		Assert.assertEquals(3, resultSet.numberOfResults(false));
+
+		// changes to results read individually are kept when all results are loaded
+		resultSet.getResult(0).setExcluded(false);
+		Assert.assertEquals(4, resultSet.numberOfResults(false));
+		Assert.assertEquals(5, resultSet.getXMLObject().getResult().size());
+		Assert.assertFalse(resultSet.getResult(0).isExcluded());
+	}
+
+}
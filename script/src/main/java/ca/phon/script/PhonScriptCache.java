@@ -0,0 +1,225 @@
+/*
+ * Copyright (C) Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.script;
+
+import ca.phon.util.PrefHelper;
+import org.mozilla.javascript.*;
+import org.mozilla.javascript.commonjs.module.ModuleScriptProvider;
+import org.mozilla.javascript.commonjs.module.provider.*;
+
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Process-wide, least-recently-used cache of compiled scripts keyed
+ * by script text, source name and optimization level.  Compiled scripts
+ * hold no state and may be executed in any scope by any thread.</p>
+ *
+ * <p>The cache also provides one {@link ModuleScriptProvider} for each list of
+ * require paths so that modules loaded with <code>require</code> are compiled
+ * once per process instead of once per script context.  Modules are still
+ * evaluated in each script scope.</p>
+ *
+ * <p>Scripts are not cached when compiled for a debugger.  Script compilation
+ * happens outside of the cache lock, two threads requesting the same new
+ * script may both compile it.</p>
+ */
+public final class PhonScriptCache {
+
+	/**
+	 * Maximum number of compiled scripts kept by the shared cache
+	 */
+	public final static String CACHE_SIZE_PROP = PhonScriptCache.class.getName() + ".cacheSize";
+	public final static int DEFAULT_CACHE_SIZE = 64;
+
+	private final static PhonScriptCache _instance =
+			new PhonScriptCache(PrefHelper.getInt(CACHE_SIZE_PROP, DEFAULT_CACHE_SIZE));
+
+	public static PhonScriptCache getInstance() {
+		return _instance;
+	}
+
+	private final int maxSize;
+
+	private final LinkedHashMap<Key, Script> cache;
+
+	private final Map<Object, ModuleScriptProvider> moduleScriptProviders = new ConcurrentHashMap<>();
+
+	private final AtomicLong hits = new AtomicLong(0L);
+
+	private final AtomicLong misses = new AtomicLong(0L);
+
+	private final AtomicLong evictions = new AtomicLong(0L);
+
+	/**
+	 * Create a new cache
+	 *
+	 * @param maxSize maximum number of compiled scripts to keep
+	 */
+	public PhonScriptCache(int maxSize) {
+		super();
+		this.maxSize = Math.max(1, maxSize);
+		this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Script> eldest) {
+				boolean retVal = size() > PhonScriptCache.this.maxSize;
+				if(retVal) evictions.incrementAndGet();
+				return retVal;
+			}
+		};
+	}
+
+	/**
+	 * Return the compiled script for the given text using the settings
+	 * of the given context, compiling and caching the script if necessary.
+	 *
+	 * @param cx current context
+	 * @param scriptText
+	 * @param sourceName
+	 * @return compiled script
+	 * @throws RhinoException if the script could not be compiled
+	 */
+	public Script getCompiledScript(Context cx, String scriptText, String sourceName) {
+		if(cx.getDebugger() != null) {
+			return cx.compileString(scriptText, sourceName, 1, null);
+		}
+
+		final Key key = new Key(scriptText, sourceName, cx.getOptimizationLevel(), cx.isGeneratingDebug());
+		Script retVal = null;
+		synchronized(cache) {
+			retVal = cache.get(key);
+		}
+		if(retVal != null) {
+			hits.incrementAndGet();
+			return retVal;
+		}
+
+		misses.incrementAndGet();
+		retVal = cx.compileString(scriptText, sourceName, 1, null);
+		synchronized(cache) {
+			final Script existing = cache.putIfAbsent(key, retVal);
+			if(existing != null) retVal = existing;
+		}
+		return retVal;
+	}
+
+	/**
+	 * Return the shared module script provider for the given require paths.
+	 * Module scripts are compiled using the settings of the context which
+	 * first loads the module.
+	 *
+	 * @param cx current context
+	 * @param requirePaths
+	 * @return module script provider
+	 */
+	public ModuleScriptProvider getModuleScriptProvider(Context cx, List<URI> requirePaths) {
+		if(cx.getDebugger() != null) {
+			return new SoftCachingModuleScriptProvider(new UrlModuleSourceProvider(requirePaths, null));
+		}
+		final List<Object> key = List.of(List.copyOf(requirePaths), cx.getOptimizationLevel(), cx.isGeneratingDebug());
+		return moduleScriptProviders.computeIfAbsent(key,
+				(k) -> new SoftCachingModuleScriptProvider(new UrlModuleSourceProvider(requirePaths, null)));
+	}
+
+	/**
+	 * Remove all compiled scripts and module providers.  Statistics are not reset.
+	 */
+	public void clear() {
+		synchronized(cache) {
+			cache.clear();
+		}
+		moduleScriptProviders.clear();
+	}
+
+	public int size() {
+		synchronized(cache) {
+			return cache.size();
+		}
+	}
+
+	public int getMaxSize() {
+		return this.maxSize;
+	}
+
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	public long getEvictionCount() {
+		return evictions.get();
+	}
+
+	/**
+	 * Reset hit, miss and eviction counters
+	 */
+	public void resetStatistics() {
+		hits.set(0L);
+		misses.set(0L);
+		evictions.set(0L);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("PhonScriptCache[size=%d, maxSize=%d, hits=%d, misses=%d, evictions=%d]",
+				size(), getMaxSize(), getHitCount(), getMissCount(), getEvictionCount());
+	}
+
+	private final static class Key {
+
+		private final String scriptText;
+
+		private final String sourceName;
+
+		private final int optimizationLevel;
+
+		private final boolean generatingDebug;
+
+		public Key(String scriptText, String sourceName, int optimizationLevel, boolean generatingDebug) {
+			this.scriptText = scriptText;
+			this.sourceName = sourceName;
+			this.optimizationLevel = optimizationLevel;
+			this.generatingDebug = generatingDebug;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) return true;
+			if(!(obj instanceof Key)) return false;
+			final Key other = (Key)obj;
+			return optimizationLevel == other.optimizationLevel
+					&& generatingDebug == other.generatingDebug
+					&& sourceName.equals(other.sourceName)
+					&& scriptText.equals(other.scriptText);
+		}
+
+		@Override
+		public int hashCode() {
+			int retVal = scriptText.hashCode();
+			retVal = 31 * retVal + sourceName.hashCode();
+			retVal = 31 * retVal + optimizationLevel;
+			retVal = 31 * retVal + (generatingDebug ? 1 : 0);
+			return retVal;
+		}
+
+	}
+
+}
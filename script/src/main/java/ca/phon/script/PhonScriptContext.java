@@ -17,9 +17,9 @@ package ca.phon.script;
 
 import ca.phon.script.js.ExtendableWrapFactory;
 import ca.phon.script.params.*;
+import ca.phon.util.PrefHelper;
 import org.mozilla.javascript.*;
 import org.mozilla.javascript.commonjs.module.*;
-import org.mozilla.javascript.commonjs.module.provider.*;
 
 import java.io.PrintStream;
 import java.net.URI;
@@ -39,6 +39,22 @@ public class PhonScriptContext {
 	 */
 	public final static String SCRIPT_EXPORTS = "exports";
 
+	/**
+	 * Rhino optimization level used for new script contexts, -1 (default) for
+	 * interpreted mode or 0-9 for compilation to bytecode.  Compiled scripts run
+	 * faster but large scripts may fail to compile (methods are limited to 64K
+	 * of bytecode.)  Contexts with an attached debugger are always interpreted.
+	 */
+	public final static String OPTIMIZATION_LEVEL_PROP = PhonScriptContext.class.getName() + ".optimizationLevel";
+	public final static int DEFAULT_OPTIMIZATION_LEVEL = -1;
+
+	private final static int optimizationLevel = readOptimizationLevel();
+
+	private static int readOptimizationLevel() {
+		final int level = PrefHelper.getInt(OPTIMIZATION_LEVEL_PROP, DEFAULT_OPTIMIZATION_LEVEL);
+		return (Context.isValidOptimizationLevel(level) ? level : DEFAULT_OPTIMIZATION_LEVEL);
+	}
+
 	/*
 	 * This wrap factory exposes extensions in IExtendable objects
 	 * as properties in the wrapped object.
@@ -77,12 +93,19 @@ public class PhonScriptContext {
 	/**
 	 * Enter and return a new script context.  Every call
 	 * to this method should have a matching call to {#link {@link #exit()}
+	 *
+	 * The optimization level is only set for the outermost context and
+	 * is left unchanged when a debugger is attached.
 	 */
 	public Context enter() {
 		final ContextFactory factory = getContextFactory();
 
+		final boolean isNewContext = (Context.getCurrentContext() == null);
 		final Context retVal = factory.enterContext();
 		retVal.setWrapFactory(wrapFactory);
+		if(isNewContext && retVal.getDebugger() == null) {
+			retVal.setOptimizationLevel(optimizationLevel);
+		}
 
 		return retVal;
 	}
@@ -126,6 +149,11 @@ public class PhonScriptContext {
 	 */
 	private Script compiledScript;
 
+	/**
+	 * Optimization level of compiled script
+	 */
+	private int compiledScriptLevel;
+
 	/**
 	 * Evaluated scope - this is the scope that results
 	 * from compiling and evaluating the script.
@@ -183,17 +211,17 @@ public class PhonScriptContext {
 		final String importScriptText = importScriptBuilder.toString();
 		Script importScript = null;
 		try {
-			importScript = ctx.compileString(importScriptText, "<preloader>", 1, null);
+			importScript = PhonScriptCache.getInstance().getCompiledScript(ctx, importScriptText, "<preloader>");
 			importScript.exec(ctx, scope);
 		} catch (Exception e) {
 			exit();
 			throw new PhonScriptException(e);
 		}
 
-		//  setup require paths
+		//  setup require paths, module scripts are compiled once and shared by all contexts
 		final List<URI> requirePaths = script.getRequirePaths();
-	    final ModuleSourceProvider sourceProvider = new UrlModuleSourceProvider(requirePaths, null);
-	    final ModuleScriptProvider scriptProvider = new SoftCachingModuleScriptProvider(sourceProvider);
+	    final ModuleScriptProvider scriptProvider =
+	    		PhonScriptCache.getInstance().getModuleScriptProvider(ctx, requirePaths);
 	    final RequireBuilder builder = new RequireBuilder();
 	    builder.setModuleScriptProvider(scriptProvider);
 	    if(importScript != null)
@@ -300,23 +328,27 @@ public class PhonScriptContext {
 	}
 
 	/**
-	 * Return the compiled version of the script.567\l
-	 * 	 *
+	 * Return the compiled version of the script.  Compiled scripts
+	 * are shared between contexts using {@link PhonScriptCache}.  The
+	 * script is compiled again if the optimization level of the current
+	 * context has changed (e.g., a debugger was attached.)
+	 *
 	 * @return compiled script
-	 * @throws
+	 * @throws PhonScriptException if the script could not be compiled
 	 */
 	public Script getCompiledScript()
 		throws PhonScriptException {
 		final Context ctx = enter();
-		if(compiledScript == null) {
-			final String scriptText = script.getScript();
-			try {
-				compiledScript = ctx.compileString(scriptText, "", 1, null);
-			} catch (Exception e) {
-				throw new PhonScriptException(e);
+		try {
+			if(compiledScript == null || compiledScriptLevel != ctx.getOptimizationLevel()) {
+				compiledScript = PhonScriptCache.getInstance().getCompiledScript(ctx, script.getScript(), "");
+				compiledScriptLevel = ctx.getOptimizationLevel();
 			}
+		} catch (Exception e) {
+			throw new PhonScriptException(e);
+		} finally {
+			exit();
 		}
-		exit();
 		return compiledScript;
 	}
 
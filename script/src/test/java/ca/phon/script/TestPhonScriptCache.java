@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2005-2020 Gregory Hedlund & Yvan Rose
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.script;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mozilla.javascript.*;
+
+@RunWith(JUnit4.class)
+public class TestPhonScriptCache {
+
+	@Test
+	public void testSharedCompiledScript() throws PhonScriptException {
+		final String script = "var y = 2 * 3;\ny\n";
+
+		final PhonScriptContext ctx1 = new BasicScript(script).getContext();
+		final PhonScriptContext ctx2 = new BasicScript(script).getContext();
+		Assert.assertSame(ctx1.getCompiledScript(), ctx2.getCompiledScript());
+
+		// each context still evaluates the script in its own scope
+		final Scriptable scope1 = ctx1.getEvaluatedScope();
+		final Scriptable scope2 = ctx2.getEvaluatedScope();
+		Assert.assertNotSame(scope1, scope2);
+		ScriptableObject.putProperty(scope1, "y", 0);
+		Assert.assertEquals(6, ((Number)scope2.get("y", scope2)).intValue());
+	}
+
+	@Test
+	public void testOptimizationLevel() throws PhonScriptException {
+		final String script = "var y = 2 * 3;\ny\n";
+		final PhonScriptContext ctx = new BasicScript(script).getContext();
+		final Script interpreted = ctx.getCompiledScript();
+
+		final Context cx = ctx.enter();
+		try {
+			Assert.assertEquals(PhonScriptContext.DEFAULT_OPTIMIZATION_LEVEL, cx.getOptimizationLevel());
+			cx.setOptimizationLevel(9);
+			final Script compiled = ctx.getCompiledScript();
+			Assert.assertNotSame(interpreted, compiled);
+			Assert.assertSame(compiled, PhonScriptCache.getInstance().getCompiledScript(cx, script, ""));
+
+			cx.setOptimizationLevel(-1);
+			Assert.assertSame(interpreted, ctx.getCompiledScript());
+		} finally {
+			ctx.exit();
+		}
+	}
+
+	@Test
+	public void testEviction() {
+		final PhonScriptCache cache = new PhonScriptCache(2);
+		final PhonScriptContext ctx = new BasicScript("").getContext();
+		final Context cx = ctx.enter();
+		try {
+			final Script s1 = cache.getCompiledScript(cx, "1", "");
+			cache.getCompiledScript(cx, "2", "");
+			Assert.assertSame(s1, cache.getCompiledScript(cx, "1", ""));
+			cache.getCompiledScript(cx, "3", "");
+
+			Assert.assertEquals(2, cache.size());
+			Assert.assertEquals(1L, cache.getHitCount());
+			Assert.assertEquals(3L, cache.getMissCount());
+			Assert.assertEquals(1L, cache.getEvictionCount());
+
+			// least recently used script was removed
+			cache.getCompiledScript(cx, "1", "");
+			Assert.assertEquals(2L, cache.getHitCount());
+		} finally {
+			ctx.exit();
+		}
+	}
+
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright (C) Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.session;
+
+import java.util.*;
+
+/**
+ * <p>Index of record segments by time.  Segments are kept sorted by start
+ * time along with the lengths of all segments; records intersecting an
+ * interval <code>[t0, t1]</code> are found by scanning the segments which start
+ * between <code>t0 - maxLength</code> and <code>t1</code>.  Queries are
+ * proportional to the number of records near the interval instead of the
+ * number of records in the session.</p>
+ *
+ * <p>The index is obtained using {@link Session#getSegmentIndex()} and is
+ * updated by the session when records are added, removed or moved.  Segment
+ * values set using {@link Tier#setGroup(int, Object)} are detected using a tier
+ * listener.  Segments modified in place (e.g., while dragging records in the
+ * timeline) must be reported using {@link #segmentChanged(int)} or
+ * {@link #invalidate()}.  Speakers are not
+ * indexed and are checked when queries are performed.</p>
+ *
+ * <p>All times are in milliseconds.  Methods are synchronized.</p>
+ */
+public final class SegmentIndex {
+
+	private final Session session;
+
+	/* Segments sorted by start time */
+	private final TreeSet<Entry> entries = new TreeSet<>();
+
+	/* Segment lengths with counts, used to find the maximum segment length */
+	private final TreeMap<Float, Integer> lengths = new TreeMap<>();
+
+	private final IdentityHashMap<Record, Entry> recordEntries = new IdentityHashMap<>();
+
+	private final IdentityHashMap<Tier<MediaSegment>, Record> segmentTiers = new IdentityHashMap<>();
+
+	/* Record positions, rebuilt when records are added, removed or moved */
+	private IdentityHashMap<Record, Integer> positions = null;
+
+	private boolean valid = false;
+
+	private long nextId = 0L;
+
+	/* Strong reference is required, tier listeners are weakly held */
+	private final TierListener<MediaSegment> segmentListener = new TierListener<>() {
+
+		@Override
+		public void groupAdded(Tier<MediaSegment> tier, int index, MediaSegment value) {
+			segmentTierChanged(tier);
+		}
+
+		@Override
+		public void groupRemoved(Tier<MediaSegment> tier, int index, MediaSegment value) {
+			segmentTierChanged(tier);
+		}
+
+		@Override
+		public void groupChanged(Tier<MediaSegment> tier, int index, MediaSegment oldValue, MediaSegment value) {
+			segmentTierChanged(tier);
+		}
+
+		@Override
+		public void groupsCleared(Tier<MediaSegment> tier) {
+			segmentTierChanged(tier);
+		}
+
+	};
+
+	SegmentIndex(Session session) {
+		super();
+		this.session = session;
+	}
+
+	public Session getSession() {
+		return this.session;
+	}
+
+	/**
+	 * Discard the index, it will be rebuilt on the next query.
+	 */
+	public synchronized void invalidate() {
+		valid = false;
+	}
+
+	/**
+	 * Called after a record has been added to the session.
+	 *
+	 * @param record
+	 */
+	public synchronized void recordAdded(Record record) {
+		positions = null;
+		if(!valid) return;
+		addEntry(record);
+	}
+
+	/**
+	 * Called after a record has been removed from the session.
+	 *
+	 * @param record
+	 */
+	public synchronized void recordRemoved(Record record) {
+		positions = null;
+		if(!valid) return;
+		removeEntry(record);
+
+		final Tier<MediaSegment> segmentTier = record.getSegment();
+		if(segmentTier != null && segmentTiers.remove(segmentTier) != null) {
+			segmentTier.removeTierListener(segmentListener);
+		}
+	}
+
+	/**
+	 * Called after records have been moved in the session.
+	 */
+	public synchronized void recordsMoved() {
+		positions = null;
+	}
+
+	/**
+	 * Called after the segment of a record has changed.
+	 *
+	 * @param record
+	 */
+	public synchronized void segmentChanged(Record record) {
+		if(!valid) return;
+		removeEntry(record);
+		addEntry(record);
+	}
+
+	/**
+	 * Called after the segment of the record at the given index has been
+	 * modified in place.
+	 *
+	 * @param recordIndex
+	 */
+	public synchronized void segmentChanged(int recordIndex) {
+		segmentChanged(session.getRecord(recordIndex));
+	}
+
+	private synchronized void segmentTierChanged(Tier<MediaSegment> tier) {
+		final Record record = segmentTiers.get(tier);
+		if(record != null) {
+			segmentChanged(record);
+		}
+	}
+
+	/**
+	 * Records with segments intersecting the closed interval <code>[startTime, endTime]</code>
+	 *
+	 * @param startTime (ms)
+	 * @param endTime (ms)
+	 *
+	 * @return sorted list of record indices
+	 */
+	public List<Integer> recordsIntersecting(float startTime, float endTime) {
+		return recordsIntersecting(null, startTime, endTime);
+	}
+
+	/**
+	 * Records for the given speaker with segments intersecting the closed
+	 * interval <code>[startTime, endTime]</code>
+	 *
+	 * @param speaker speaker or <code>null</code> for all speakers
+	 * @param startTime (ms)
+	 * @param endTime (ms)
+	 *
+	 * @return sorted list of record indices
+	 */
+	public synchronized List<Integer> recordsIntersecting(Participant speaker, float startTime, float endTime) {
+		final List<Integer> retVal = new ArrayList<>();
+		for(Entry entry:intersectingEntries(startTime, endTime)) {
+			if(speaker != null && entry.record.getSpeaker() != speaker) continue;
+			final Integer position = getPositions().get(entry.record);
+			if(position != null) retVal.add(position);
+		}
+		Collections.sort(retVal);
+		return retVal;
+	}
+
+	/**
+	 * Records for the same speaker with segments overlapping the segment of
+	 * the given record.  Contiguous segments and zero-length segments at
+	 * time zero are not considered overlapping.
+	 *
+	 * @param recordIndex
+	 *
+	 * @return sorted list of record indices, the given record is not included
+	 */
+	public synchronized List<Integer> overlapsForRecord(int recordIndex) {
+		final Record record = session.getRecord(recordIndex);
+		ensureValid();
+		final Entry recordEntry = recordEntries.get(record);
+		if(recordEntry == null || recordEntry.isZeroAtZero()) return new ArrayList<>();
+
+		final List<Integer> retVal = new ArrayList<>();
+		for(Entry entry:intersectingEntries(recordEntry.start, recordEntry.end)) {
+			if(entry == recordEntry || entry.isZeroAtZero()) continue;
+			if(entry.record.getSpeaker() != record.getSpeaker()) continue;
+			if(entry.start == recordEntry.end || entry.end == recordEntry.start) continue;
+			final Integer position = getPositions().get(entry.record);
+			if(position != null) retVal.add(position);
+		}
+		Collections.sort(retVal);
+		return retVal;
+	}
+
+	/**
+	 * Number of records with segments in the index
+	 *
+	 * @return size
+	 */
+	public synchronized int size() {
+		ensureValid();
+		return entries.size();
+	}
+
+	private List<Entry> intersectingEntries(float startTime, float endTime) {
+		ensureValid();
+		final List<Entry> retVal = new ArrayList<>();
+		if(entries.isEmpty() || endTime < startTime) return retVal;
+
+		final float maxLength = lengths.lastKey();
+		final Entry from = new Entry(null, startTime - maxLength, 0.0f, Long.MIN_VALUE);
+		final Entry to = new Entry(null, endTime, 0.0f, Long.MAX_VALUE);
+		for(Entry entry:entries.subSet(from, true, to, true)) {
+			if(entry.end >= startTime) {
+				retVal.add(entry);
+			}
+		}
+		return retVal;
+	}
+
+	private void ensureValid() {
+		if(valid) return;
+
+		for(Tier<MediaSegment> tier:segmentTiers.keySet()) {
+			tier.removeTierListener(segmentListener);
+		}
+		entries.clear();
+		lengths.clear();
+		recordEntries.clear();
+		segmentTiers.clear();
+		positions = null;
+
+		for(Record record:session.getRecords()) {
+			addEntry(record);
+		}
+		valid = true;
+	}
+
+	private Map<Record, Integer> getPositions() {
+		if(positions == null) {
+			positions = new IdentityHashMap<>();
+			for(int i = 0; i < session.getRecordCount(); i++) {
+				positions.put(session.getRecord(i), i);
+			}
+		}
+		return positions;
+	}
+
+	private void addEntry(Record record) {
+		final Tier<MediaSegment> segmentTier = record.getSegment();
+		if(segmentTier == null) return;
+		if(segmentTiers.put(segmentTier, record) == null) {
+			segmentTier.addTierListener(segmentListener);
+		}
+
+		final MediaSegment segment = (segmentTier.numberOfGroups() > 0 ? segmentTier.getGroup(0) : null);
+		if(segment == null) return;
+
+		final Entry entry = new Entry(record, segment.getStartValue(), segment.getEndValue(), nextId++);
+		entries.add(entry);
+		recordEntries.put(record, entry);
+		lengths.merge(entry.length(), 1, Integer::sum);
+	}
+
+	private void removeEntry(Record record) {
+		final Entry entry = recordEntries.remove(record);
+		if(entry != null) {
+			entries.remove(entry);
+			final float length = entry.length();
+			final int count = lengths.get(length);
+			if(count > 1) {
+				lengths.put(length, count - 1);
+			} else {
+				lengths.remove(length);
+			}
+		}
+	}
+
+	private final static class Entry implements Comparable<Entry> {
+
+		private final Record record;
+
+		private final float start;
+
+		private final float end;
+
+		private final long id;
+
+		public Entry(Record record, float start, float end, long id) {
+			this.record = record;
+			this.start = start;
+			this.end = end;
+			this.id = id;
+		}
+
+		public float length() {
+			return Math.max(0.0f, end - start);
+		}
+
+		public boolean isZeroAtZero() {
+			return start == 0.0f && end == 0.0f;
+		}
+
+		@Override
+		public int compareTo(Entry o) {
+			int retVal = Float.compare(start, o.start);
+			if(retVal == 0) retVal = Long.compare(id, o.id);
+			return retVal;
+		}
+
+	}
+
+}
@@ -29,6 +29,8 @@ public final class Session extends ExtendableObject {
 
 	private SessionSPI sessionImpl;
 	
+	private SegmentIndex segmentIndex;
+	
 	Session(SessionSPI sessionImpl) {
 		super();
 		this.sessionImpl = sessionImpl;
@@ -139,6 +141,20 @@ public final class Session extends ExtendableObject {
 
 	public void setRecordPosition(Record record, int position) {
 		sessionImpl.setRecordPosition(record, position);
+		if(segmentIndex != null) segmentIndex.recordsMoved();
+	}
+
+	/**
+	 * Time index of record segments.  The index is created on first use
+	 * and updated as records are added, removed and moved.
+	 *
+	 * @return segment index for this session
+	 */
+	public synchronized SegmentIndex getSegmentIndex() {
+		if(segmentIndex == null) {
+			segmentIndex = new SegmentIndex(this);
+		}
+		return segmentIndex;
 	}
 
 	public int getParticipantCount() {
@@ -203,18 +219,23 @@ public final class Session extends ExtendableObject {
 
 	public void addRecord(Record record) {
 		sessionImpl.addRecord(record);
+		if(segmentIndex != null) segmentIndex.recordAdded(record);
 	}
 
 	public void addRecord(int pos, Record record) {
 		sessionImpl.addRecord(pos, record);
+		if(segmentIndex != null) segmentIndex.recordAdded(record);
 	}
 
 	public void removeRecord(Record record) {
 		sessionImpl.removeRecord(record);
+		if(segmentIndex != null) segmentIndex.recordRemoved(record);
 	}
 
 	public void removeRecord(int pos) {
+		final Record record = (segmentIndex != null ? sessionImpl.getRecord(pos) : null);
 		sessionImpl.removeRecord(pos);
+		if(record != null) segmentIndex.recordRemoved(record);
 	}
 
 	public void removeParticipant(Participant participant) {
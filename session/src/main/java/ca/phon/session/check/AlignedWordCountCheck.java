@@ -8,7 +8,7 @@ import java.util.Properties;
 
 @Rank(100)
 @PhonPlugin(name = "Aligned Word Count Check")
-public class AlignedWordCountCheck implements SessionCheck, IPluginExtensionPoint<SessionCheck> {
+public class AlignedWordCountCheck implements SessionCheck, RecordCheck, IPluginExtensionPoint<SessionCheck> {
 
 	private void reportWordAlignmentDifference(SessionValidator validator, Session session,
 	                                           Record record, String tierName, int gIdx) {
@@ -27,7 +27,12 @@ public class AlignedWordCountCheck implements SessionCheck, IPluginExtensionPoin
 
 	@Override
 	public boolean checkSession(SessionValidator validator, Session session) {
-		session.getRecords().forEach( (final Record record) -> {
+		return checkRecords(validator, session);
+	}
+
+	@Override
+	public RecordChecker createRecordChecker(SessionValidator validator, Session session) {
+		return (rIdx, record) -> {
 			for(int gIdx = 0; gIdx < record.numberOfGroups(); gIdx++) {
 				// aligned word count for record (max number of aligned words)
 				final Group group = record.getGroup(gIdx);
@@ -50,10 +55,10 @@ public class AlignedWordCountCheck implements SessionCheck, IPluginExtensionPoin
 					}
 				});
 			}
-		});
 
-		// not modified
-		return false;
+			// not modified
+			return false;
+		};
 	}
 
 	@Override
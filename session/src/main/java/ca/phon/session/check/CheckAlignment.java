@@ -26,7 +26,7 @@ import java.util.*;
 
 @PhonPlugin(name="Check Phone Alignments", comments="Check phone alignments")
 @Rank(2)
-public class CheckAlignment implements SessionCheck, IPluginExtensionPoint<SessionCheck> {
+public class CheckAlignment implements SessionCheck, RecordCheck, IPluginExtensionPoint<SessionCheck> {
 	
 	public final static String RESET_ALIGNMENT = CheckAlignment.class.getName() + ".resetAlignment";
 	public final static boolean DEFAULT_RESET_ALIGNMENT = false;
@@ -61,11 +61,14 @@ public class CheckAlignment implements SessionCheck, IPluginExtensionPoint<Sessi
 
 	@Override
 	public boolean checkSession(SessionValidator validator, Session session) {
-		boolean modified = false;
-		
-		PhoneAligner aligner = new PhoneAligner();
-		for(int rIdx = 0; rIdx < session.getRecordCount(); rIdx++) {
-			final Record r = session.getRecord(rIdx);
+		return checkRecords(validator, session);
+	}
+
+	@Override
+	public RecordChecker createRecordChecker(SessionValidator validator, Session session) {
+		final PhoneAligner aligner = new PhoneAligner();
+		return (rIdx, r) -> {
+			boolean modified = false;
 			
 			if(isResetAlignment()) {
 				// reset all alignment tiers
@@ -141,9 +144,9 @@ public class CheckAlignment implements SessionCheck, IPluginExtensionPoint<Sessi
 					}
 				}
 			}
-		}
-		
-		return modified;
+			
+			return modified;
+		};
 	}
 
 	@Override
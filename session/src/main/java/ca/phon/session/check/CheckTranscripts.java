@@ -33,7 +33,7 @@ import java.util.*;
  */
 @PhonPlugin(name="Check IPA Transcriptions", comments="Check IPA transcriptions and optionally reset syllabification")
 @Rank(1)
-public class CheckTranscripts implements SessionCheck, IPluginExtensionPoint<SessionCheck> {
+public class CheckTranscripts implements SessionCheck, RecordCheck, IPluginExtensionPoint<SessionCheck> {
 	
 	public final static String RESET_SYLLABIFICATION = CheckTranscripts.class.getName() + ".resetSyllabification";
 	public final static boolean DEFAULT_RESET_SYLLABIFICATION = false;
@@ -71,14 +71,19 @@ public class CheckTranscripts implements SessionCheck, IPluginExtensionPoint<Ses
 
 	@Override
 	public boolean checkSession(SessionValidator validator, Session session) {
-		boolean modified = false;
-		Syllabifier syllabifier = SyllabifierLibrary.getInstance().defaultSyllabifier();
+		return checkRecords(validator, session);
+	}
+
+	@Override
+	public RecordChecker createRecordChecker(SessionValidator validator, Session session) {
+		Syllabifier defaultSyllabifier = SyllabifierLibrary.getInstance().defaultSyllabifier();
 		if(isResetSyllabification() && getSyllabifierLang() != null) {
-			syllabifier = SyllabifierLibrary.getInstance().getSyllabifierForLanguage(getSyllabifierLang());
+			defaultSyllabifier = SyllabifierLibrary.getInstance().getSyllabifierForLanguage(getSyllabifierLang());
 		}
-		
-		for(int i = 0; i < session.getRecordCount(); i++) {
-			final Record r = session.getRecord(i);
+		final Syllabifier syllabifier = defaultSyllabifier;
+
+		return (i, r) -> {
+			boolean modified = false;
 			for(Tier<IPATranscript> tier:r.getTiersOfType(IPATranscript.class)) {
 				for(int gIdx = 0; gIdx < r.numberOfGroups(); gIdx++) {
 					final IPATranscript ipa = tier.getGroup(gIdx);
@@ -120,8 +125,8 @@ public class CheckTranscripts implements SessionCheck, IPluginExtensionPoint<Ses
 					}
 				}
 			}
-		}
-		return modified;
+			return modified;
+		};
 	}
 
 	@Override
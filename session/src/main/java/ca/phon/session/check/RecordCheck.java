@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2005-2020 Gregory Hedlund & Yvan Rose
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.session.check;
+
+import ca.phon.session.Record;
+import ca.phon.session.Session;
+
+/**
+ * Session checks which examine records independently may implement this
+ * interface.  {@link SessionValidator} will then visit each record once
+ * and dispatch it to all record checks instead of running each check over
+ * the whole session.
+ *
+ * Per-session state must be kept in the {@link RecordChecker} returned by
+ * {@link #createRecordChecker(SessionValidator, Session)}, check instances
+ * may be used to validate several sessions concurrently.
+ */
+public interface RecordCheck {
+
+	/**
+	 * Create a checker for the records of the given session.
+	 *
+	 * @param validator
+	 * @param session
+	 *
+	 * @return record checker for session
+	 */
+	public RecordChecker createRecordChecker(SessionValidator validator, Session session);
+
+	/**
+	 * Check all records of the session using a new record checker.
+	 *
+	 * @param validator
+	 * @param session
+	 *
+	 * @return true if session was modified, false otherwise
+	 */
+	default public boolean checkRecords(SessionValidator validator, Session session) {
+		final RecordChecker checker = createRecordChecker(validator, session);
+		boolean modified = false;
+		for(int i = 0; i < session.getRecordCount(); i++) {
+			modified |= checker.checkRecord(i, session.getRecord(i));
+		}
+		modified |= checker.endSession();
+		return modified;
+	}
+
+	/**
+	 * Checks the records of a single session in order.
+	 */
+	public interface RecordChecker {
+
+		/**
+		 * Check record and report any issues using the validator.
+		 *
+		 * @param recordIndex
+		 * @param record
+		 *
+		 * @return true if record was modified, false otherwise
+		 */
+		public boolean checkRecord(int recordIndex, Record record);
+
+		/**
+		 * Called after all records have been checked.
+		 *
+		 * @return true if session was modified, false otherwise
+		 */
+		default public boolean endSession() {
+			return false;
+		}
+
+	}
+
+}
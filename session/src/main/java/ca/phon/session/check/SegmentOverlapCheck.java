@@ -16,7 +16,6 @@
 package ca.phon.session.check;
 
 import ca.phon.plugin.*;
-import ca.phon.session.Record;
 import ca.phon.session.*;
 import ca.phon.util.PrefHelper;
 
@@ -24,7 +23,7 @@ import java.util.*;
 
 @PhonPlugin(name="Check Segment Overlaps", comments="Check for overlapping media segments")
 @Rank(3)
-public class SegmentOverlapCheck implements SessionCheck, IPluginExtensionPoint<SessionCheck> {
+public class SegmentOverlapCheck implements SessionCheck, RecordCheck, IPluginExtensionPoint<SessionCheck> {
 
 	/** Overlap tolerance in ms */
 	public final static String OVERLAP_TOLERANCE_PROPERTY =
@@ -58,14 +57,17 @@ public class SegmentOverlapCheck implements SessionCheck, IPluginExtensionPoint<
 
 	@Override
 	public boolean checkSession(SessionValidator validator, Session session) {
-		boolean modified = false;
+		return checkRecords(validator, session);
+	}
+
+	@Override
+	public RecordChecker createRecordChecker(SessionValidator validator, Session session) {
 		final Map<Participant, Float> endTimes = new HashMap<>();
 		final Map<Participant, Integer> lastRecords = new HashMap<>();
 		endTimes.put(Participant.UNKNOWN, 0.0f);
 		lastRecords.put(Participant.UNKNOWN, 0);
 
-		for(int rIdx = 0; rIdx < session.getRecordCount(); rIdx++) {
-			final Record r = session.getRecord(rIdx);
+		return (rIdx, r) -> {
 			Float lastEndTime = endTimes.get(r.getSpeaker());
 			if(lastEndTime == null) {
 				lastEndTime = 0.0f;
@@ -80,7 +82,7 @@ public class SegmentOverlapCheck implements SessionCheck, IPluginExtensionPoint<
 				final MediaSegment segment = segmentTier.getGroup(0);
 
 				// ignore non-segments with no length
-				if(segment.getStartValue() == 0f && segment.getEndValue() == 0f) continue;
+				if(segment.getStartValue() == 0f && segment.getEndValue() == 0f) return false;
 
 				final float currentStartTime = segment.getStartValue();
 				final float diffMs = currentStartTime - lastEndTime;
@@ -94,8 +96,8 @@ public class SegmentOverlapCheck implements SessionCheck, IPluginExtensionPoint<
 				endTimes.put(r.getSpeaker(), lastEndTime);
 				lastRecords.put(r.getSpeaker(), rIdx);
 			}
-		}
-		return modified;
+			return false;
+		};
 	}
 
 	@Override
@@ -17,26 +17,40 @@ package ca.phon.session.check;
 
 import ca.phon.extensions.*;
 import ca.phon.session.Session;
+import ca.phon.util.PrefHelper;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * Session validator with plug-in support.  This class maintains the
  * list of available validator plug-ins as well as a set of
  * validation listeners.
  * 
+ * In single-pass mode (the default) records are visited once and
+ * dispatched to all checks implementing {@link RecordCheck}, other
+ * checks are then executed in order.  Validation events may be fired
+ * from any thread, listeners are notified while holding the validator
+ * lock.
+ * 
  * @author Greg
  */
 public class SessionValidator implements IExtendable {
 	
+	public final static String SINGLE_PASS_PROP = SessionValidator.class.getName() + ".singlePass";
+	public final static boolean DEFAULT_SINGLE_PASS = true;
+	
 	private final ExtensionSupport extSupport = new ExtensionSupport(SessionValidator.class, this);
 	
 	private final List<SessionCheck> sessionChecks = new ArrayList<>();
 	
-	private final List<ValidationListener> listeners = new ArrayList<>();
+	private final List<ValidationListener> listeners = new CopyOnWriteArrayList<>();
 	
 	private final List<ValidationEvent> events = new ArrayList<>();
 	
+	private boolean singlePass = PrefHelper.getBoolean(SINGLE_PASS_PROP, DEFAULT_SINGLE_PASS);
+	
 	public SessionValidator() {
 		this(SessionCheck.availableChecks());
 	}
@@ -75,12 +89,27 @@ public class SessionValidator implements IExtendable {
 		fireValidationEvent(new ValidationEvent(session, record, tierName, group, message));
 	}
 
-	public void fireValidationEvent(final ValidationEvent evt) {
+	public synchronized void fireValidationEvent(final ValidationEvent evt) {
 		events.add(evt);
 		listeners.forEach( (l) -> { l.validationInfo(evt); } );
 	}
 	
+	public List<SessionCheck> getSessionChecks() {
+		return Collections.unmodifiableList(sessionChecks);
+	}
+	
+	public boolean isSinglePass() {
+		return this.singlePass;
+	}
+	
+	public void setSinglePass(boolean singlePass) {
+		this.singlePass = singlePass;
+	}
+	
 	public boolean validate(Session session) {
+		if(isSinglePass()) {
+			return validateSinglePass(session);
+		}
 		boolean modified = false;
 		for(SessionCheck check:sessionChecks) {
 			modified |= check.checkSession(this, session);
@@ -88,6 +117,67 @@ public class SessionValidator implements IExtendable {
 		return modified;
 	}
 	
+	private boolean validateSinglePass(Session session) {
+		boolean modified = false;
+		final List<RecordCheck.RecordChecker> recordCheckers = new ArrayList<>();
+		final List<SessionCheck> otherChecks = new ArrayList<>();
+		for(SessionCheck check:sessionChecks) {
+			if(check instanceof RecordCheck) {
+				recordCheckers.add(((RecordCheck)check).createRecordChecker(this, session));
+			} else {
+				otherChecks.add(check);
+			}
+		}
+		
+		if(recordCheckers.size() > 0) {
+			for(int i = 0; i < session.getRecordCount(); i++) {
+				final var record = session.getRecord(i);
+				for(RecordCheck.RecordChecker checker:recordCheckers) {
+					modified |= checker.checkRecord(i, record);
+				}
+			}
+			for(RecordCheck.RecordChecker checker:recordCheckers) {
+				modified |= checker.endSession();
+			}
+		}
+		
+		for(SessionCheck check:otherChecks) {
+			modified |= check.checkSession(this, session);
+		}
+		return modified;
+	}
+	
+	/**
+	 * Validate session without notifying listeners of this validator
+	 * or adding events to {@link #getValidationEvents()}.  Events
+	 * are given to the provided consumer in the order they are fired.
+	 * 
+	 * This method may be called from several threads to validate
+	 * different sessions concurrently, session checks must not keep
+	 * per-session state outside of their {@link RecordCheck.RecordChecker}.
+	 * 
+	 * @param session
+	 * @param eventConsumer
+	 * 
+	 * @return true if session was modified, false otherwise
+	 */
+	public boolean validate(Session session, Consumer<ValidationEvent> eventConsumer) {
+		final SessionValidator sessionValidator = new SessionValidator(sessionChecks);
+		sessionValidator.setSinglePass(isSinglePass());
+		for(Class<?> ext:getExtensions()) {
+			copyExtension(sessionValidator, ext);
+		}
+		sessionValidator.addValidationListener(eventConsumer::accept);
+		return sessionValidator.validate(session);
+	}
+	
+	private <T> void copyExtension(SessionValidator validator, Class<T> ext) {
+		final T impl = getExtension(ext);
+		if(impl != null) {
+			validator.putExtension(ext, impl);
+		}
+	}
+	
 	public void addValidationListener(ValidationListener listener) {
 		this.listeners.add(listener);
 	}
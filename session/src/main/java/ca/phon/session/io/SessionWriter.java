@@ -38,4 +38,40 @@ public interface SessionWriter {
 	public void writeSession(Session session, OutputStream out)
 		throws IOException;
 	
+	/**
+	 * Copy the session data required by this writer.  The returned
+	 * snapshot does not reference the session and may be written
+	 * on another thread while the session is modified.  The default
+	 * implementation writes the session into memory.
+	 * 
+	 * @param session
+	 * 
+	 * @return session snapshot
+	 * @throws IOException
+	 */
+	public default Snapshot snapshotSession(Session session)
+		throws IOException {
+		final ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		writeSession(session, bout);
+		final byte[] data = bout.toByteArray();
+		return (out) -> out.write(data);
+	}
+	
+	/**
+	 * Session data copied by {@link SessionWriter#snapshotSession(Session)}
+	 */
+	@FunctionalInterface
+	public static interface Snapshot {
+		
+		/**
+		 * Write snapshot to the given {@link OutputStream}
+		 * 
+		 * @param out
+		 * @throws IOException
+		 */
+		public void writeSnapshot(OutputStream out)
+			throws IOException;
+		
+	}
+	
 }
@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.session.io.xml;
+
+import ca.phon.session.Record;
+import ca.phon.session.*;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Header information and record counts for a session.  Summaries
+ * for session files are created by {@link SessionSummaryScanner}
+ * without reading record data.
+ *
+ * Summaries may be shared (e.g., by a project session index), participants
+ * should be cloned before modification.
+ */
+public final class SessionSummary {
+
+	private String corpus;
+
+	private String name;
+
+	private String version;
+
+	private LocalDate date;
+
+	private String mediaLocation;
+
+	private String language;
+
+	private final List<Participant> participants = new ArrayList<>();
+
+	private final List<String> tierNames = new ArrayList<>();
+
+	private int recordCount = 0;
+
+	/* Record counts keyed by speaker id */
+	private final Map<String, Integer> speakerRecordCounts = new LinkedHashMap<>();
+
+	/* Records without a speaker or with an unknown speaker id */
+	private int unknownSpeakerRecordCount = 0;
+
+	SessionSummary() {
+		super();
+	}
+
+	/**
+	 * Create a summary from an open session.
+	 *
+	 * @param session
+	 * @return session summary
+	 */
+	public static SessionSummary fromSession(Session session) {
+		final SessionSummary retVal = new SessionSummary();
+		retVal.setCorpus(session.getCorpus());
+		retVal.setName(session.getName());
+		retVal.setDate(session.getDate());
+		retVal.setMediaLocation(session.getMediaLocation());
+		retVal.setLanguage(session.getLanguage());
+		final SessionFactory factory = SessionFactory.newFactory();
+		session.getParticipants().forEach( (p) -> retVal.addParticipant(factory.cloneParticipant(p)) );
+		for(int i = 0; i < session.getUserTierCount(); i++) {
+			retVal.addTierName(session.getUserTier(i).getName());
+		}
+		for(Record r:session.getRecords()) {
+			final Participant speaker = r.getSpeaker();
+			retVal.addRecord(speaker == null || speaker == Participant.UNKNOWN ? null : speaker.getId());
+		}
+		return retVal;
+	}
+
+	public String getCorpus() {
+		return corpus;
+	}
+
+	void setCorpus(String corpus) {
+		this.corpus = corpus;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	void setName(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * File format version (e.g., '1.3' or 'PB1.2'), <code>null</code>
+	 * if the summary was not read from a file.
+	 *
+	 * @return version
+	 */
+	public String getVersion() {
+		return version;
+	}
+
+	void setVersion(String version) {
+		this.version = version;
+	}
+
+	public LocalDate getDate() {
+		return date;
+	}
+
+	void setDate(LocalDate date) {
+		this.date = date;
+	}
+
+	public String getMediaLocation() {
+		return mediaLocation;
+	}
+
+	void setMediaLocation(String mediaLocation) {
+		this.mediaLocation = mediaLocation;
+	}
+
+	public String getLanguage() {
+		return language;
+	}
+
+	void setLanguage(String language) {
+		this.language = language;
+	}
+
+	public List<Participant> getParticipants() {
+		return Collections.unmodifiableList(participants);
+	}
+
+	void addParticipant(Participant participant) {
+		participants.add(participant);
+	}
+
+	/**
+	 * User tier names
+	 *
+	 * @return list of user tier names
+	 */
+	public List<String> getTierNames() {
+		return Collections.unmodifiableList(tierNames);
+	}
+
+	void addTierName(String tierName) {
+		tierNames.add(tierName);
+	}
+
+	public int getRecordCount() {
+		return recordCount;
+	}
+
+	/**
+	 * Add a record to counts
+	 *
+	 * @param speakerId may be <code>null</code>
+	 */
+	void addRecord(String speakerId) {
+		addRecords(speakerId, 1);
+	}
+
+	/**
+	 * Add a number of records for the given speaker to counts
+	 *
+	 * @param speakerId may be <code>null</code>
+	 * @param count
+	 */
+	void addRecords(String speakerId, int count) {
+		if(count <= 0) return;
+		recordCount += count;
+		if(speakerId == null || !hasParticipant(speakerId)) {
+			unknownSpeakerRecordCount += count;
+		} else {
+			speakerRecordCounts.merge(speakerId, count, Integer::sum);
+		}
+	}
+
+	private boolean hasParticipant(String speakerId) {
+		for(Participant p:participants) {
+			if(speakerId.equals(p.getId())) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Number of records for the given speaker.  If the participant
+	 * is {@link Participant#UNKNOWN} (or has the same role) the number of
+	 * records without an identified speaker is returned.
+	 *
+	 * @param participant
+	 * @return number of records for participant
+	 */
+	public int getRecordCount(Participant participant) {
+		if(participant == null || participant.getRole() == ParticipantRole.UNIDENTIFIED) {
+			return unknownSpeakerRecordCount;
+		}
+		final Integer retVal = speakerRecordCounts.get(participant.getId());
+		return (retVal != null ? retVal : 0);
+	}
+
+	/**
+	 * Number of records for the given speaker id
+	 *
+	 * @param speakerId
+	 * @return number of records for speaker id
+	 */
+	public int getRecordCount(String speakerId) {
+		final Integer retVal = speakerRecordCounts.get(speakerId);
+		return (retVal != null ? retVal : 0);
+	}
+
+	public int getUnknownSpeakerRecordCount() {
+		return unknownSpeakerRecordCount;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("SessionSummary[%s.%s, records=%d, participants=%d]",
+				corpus, name, recordCount, participants.size());
+	}
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.session.io.xml;
+
+import ca.phon.session.*;
+
+import javax.xml.stream.*;
+import java.time.*;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Read/write {@link SessionSummary}s as <code>&lt;summary&gt;</code>
+ * xml elements.  Used to persist summaries in index files.
+ */
+public final class SessionSummaryIO {
+
+	public final static String SUMMARY_ELEMENT = "summary";
+
+	private final static String PARTICIPANT_ELEMENT = "participant";
+
+	private final static String TIER_ELEMENT = "tier";
+
+	private SessionSummaryIO() {
+	}
+
+	/**
+	 * Write summary element
+	 *
+	 * @param writer
+	 * @param summary
+	 * @throws XMLStreamException
+	 */
+	public static void writeSummary(XMLStreamWriter writer, SessionSummary summary) throws XMLStreamException {
+		writer.writeStartElement(SUMMARY_ELEMENT);
+		writeAttribute(writer, "corpus", summary.getCorpus());
+		writeAttribute(writer, "name", summary.getName());
+		writeAttribute(writer, "version", summary.getVersion());
+		writeAttribute(writer, "date", summary.getDate());
+		writeAttribute(writer, "media", summary.getMediaLocation());
+		writeAttribute(writer, "language", summary.getLanguage());
+		writeAttribute(writer, "unknownSpeakerRecords", summary.getUnknownSpeakerRecordCount());
+
+		for(Participant p:summary.getParticipants()) {
+			writer.writeEmptyElement(PARTICIPANT_ELEMENT);
+			writeAttribute(writer, "id", p.getId());
+			writeAttribute(writer, "name", p.getName());
+			writeAttribute(writer, "role", p.getRole() != null ? p.getRole().name() : null);
+			writeAttribute(writer, "sex", p.getSex() != null ? p.getSex().name() : null);
+			writeAttribute(writer, "birthday", p.getBirthDate());
+			writeAttribute(writer, "age", p.getAge(null));
+			writeAttribute(writer, "group", p.getGroup());
+			writeAttribute(writer, "education", p.getEducation());
+			writeAttribute(writer, "language", p.getLanguage());
+			writeAttribute(writer, "SES", p.getSES());
+			writeAttribute(writer, "records", summary.getRecordCount(p.getId()));
+		}
+
+		for(String tierName:summary.getTierNames()) {
+			writer.writeEmptyElement(TIER_ELEMENT);
+			writeAttribute(writer, "name", tierName);
+		}
+
+		writer.writeEndElement();
+	}
+
+	private static void writeAttribute(XMLStreamWriter writer, String name, Object value) throws XMLStreamException {
+		if(value != null) {
+			writer.writeAttribute(name, value.toString());
+		}
+	}
+
+	/**
+	 * Read summary element, reader must be positioned at the summary start
+	 * element and will be positioned at the summary end element when
+	 * this method returns.
+	 *
+	 * @param reader
+	 * @return summary
+	 * @throws XMLStreamException
+	 */
+	public static SessionSummary readSummary(XMLStreamReader reader) throws XMLStreamException {
+		if(!reader.isStartElement() || !reader.getLocalName().equals(SUMMARY_ELEMENT)) {
+			throw new XMLStreamException("Expected " + SUMMARY_ELEMENT + " element", reader.getLocation());
+		}
+		final SessionSummary retVal = new SessionSummary();
+		retVal.setCorpus(reader.getAttributeValue(null, "corpus"));
+		retVal.setName(reader.getAttributeValue(null, "name"));
+		retVal.setVersion(reader.getAttributeValue(null, "version"));
+		retVal.setDate(parseDate(reader.getAttributeValue(null, "date")));
+		retVal.setMediaLocation(reader.getAttributeValue(null, "media"));
+		retVal.setLanguage(reader.getAttributeValue(null, "language"));
+		final int unknownSpeakerRecords = parseInt(reader.getAttributeValue(null, "unknownSpeakerRecords"));
+
+		final SessionFactory factory = SessionFactory.newFactory();
+		while(reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			final String eleName = reader.getLocalName();
+			if(eleName.equals(PARTICIPANT_ELEMENT)) {
+				final Participant p = factory.createParticipant();
+				p.setId(reader.getAttributeValue(null, "id"));
+				p.setName(reader.getAttributeValue(null, "name"));
+				final String role = reader.getAttributeValue(null, "role");
+				p.setRole(role != null ? ParticipantRole.valueOf(role) : ParticipantRole.TARGET_CHILD);
+				final String sex = reader.getAttributeValue(null, "sex");
+				p.setSex(sex != null ? Sex.valueOf(sex) : Sex.UNSPECIFIED);
+				p.setBirthDate(parseDate(reader.getAttributeValue(null, "birthday")));
+				if(p.getBirthDate() != null && retVal.getDate() != null) {
+					p.setAgeTo(Period.between(p.getBirthDate(), retVal.getDate()));
+				}
+				final String age = reader.getAttributeValue(null, "age");
+				if(age != null) {
+					try {
+						p.setAge(Period.parse(age));
+					} catch (DateTimeParseException e) {
+						throw new XMLStreamException(e.getLocalizedMessage(), reader.getLocation(), e);
+					}
+				}
+				p.setGroup(reader.getAttributeValue(null, "group"));
+				p.setEducation(reader.getAttributeValue(null, "education"));
+				p.setLanguage(reader.getAttributeValue(null, "language"));
+				p.setSES(reader.getAttributeValue(null, "SES"));
+				retVal.addParticipant(p);
+				// counts are written for each participant, only add once per id
+				if(p.getId() != null && retVal.getRecordCount(p.getId()) == 0)
+					retVal.addRecords(p.getId(), parseInt(reader.getAttributeValue(null, "records")));
+			} else if(eleName.equals(TIER_ELEMENT)) {
+				retVal.addTierName(reader.getAttributeValue(null, "name"));
+			}
+			// move to end element
+			while(!reader.isEndElement()) reader.next();
+		}
+		retVal.addRecords(null, unknownSpeakerRecords);
+
+		return retVal;
+	}
+
+	private static LocalDate parseDate(String text) throws XMLStreamException {
+		if(text == null) return null;
+		try {
+			return LocalDate.parse(text);
+		} catch (DateTimeParseException e) {
+			throw new XMLStreamException(e);
+		}
+	}
+
+	private static int parseInt(String text) throws XMLStreamException {
+		if(text == null) return 0;
+		try {
+			return Integer.parseInt(text);
+		} catch (NumberFormatException e) {
+			throw new XMLStreamException(e);
+		}
+	}
+
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright (C) Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.session.io.xml;
+
+import ca.phon.session.*;
+import org.apache.logging.log4j.LogManager;
+
+import javax.xml.datatype.*;
+import javax.xml.datatype.Duration;
+import javax.xml.stream.*;
+import java.io.*;
+import java.time.*;
+
+/**
+ * <p>Reads a {@link SessionSummary} from a session xml file (versions
+ * 'PB1.2' and '1.3') using StAX.  Only the session header, participants
+ * and user tier descriptions are read, the transcript is scanned
+ * for record speakers without reading record data.</p>
+ *
+ * <p>Participant information is converted using the same rules as the
+ * session readers.</p>
+ */
+public final class SessionSummaryScanner {
+
+	private static final org.apache.logging.log4j.Logger LOGGER = LogManager.getLogger(SessionSummaryScanner.class.getName());
+
+	private final static XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+
+	private SessionSummaryScanner() {
+	}
+
+	public static SessionSummary scan(File file) throws IOException {
+		try(InputStream stream = new BufferedInputStream(new FileInputStream(file))) {
+			return scan(stream);
+		}
+	}
+
+	/**
+	 * Scan session xml data
+	 *
+	 * @param stream
+	 * @return session summary
+	 * @throws IOException if the stream could not be read or is not
+	 *  a session document
+	 */
+	public static SessionSummary scan(InputStream stream) throws IOException {
+		final SessionSummary retVal = new SessionSummary();
+		final SessionFactory factory = SessionFactory.newFactory();
+		XMLStreamReader reader = null;
+		try {
+			synchronized(inputFactory) {
+				reader = inputFactory.createXMLStreamReader(stream);
+			}
+
+			if(reader.nextTag() != XMLStreamConstants.START_ELEMENT
+					|| !reader.getLocalName().equals("session")) {
+				throw new IOException("Expected session element");
+			}
+			retVal.setName(reader.getAttributeValue(null, "id"));
+			retVal.setCorpus(reader.getAttributeValue(null, "corpus"));
+			retVal.setVersion(reader.getAttributeValue(null, "version"));
+
+			while(reader.hasNext()) {
+				final int evt = reader.next();
+				if(evt != XMLStreamConstants.START_ELEMENT) continue;
+
+				final String eleName = reader.getLocalName();
+				if(eleName.equals("date")) {
+					final XMLGregorianCalendar cal = parseDate(reader.getElementText());
+					if(cal != null)
+						retVal.setDate(LocalDate.of(cal.getYear(), cal.getMonth(), cal.getDay()));
+				} else if(eleName.equals("language")) {
+					final String langs = joinList(reader.getElementText());
+					if(langs.length() > 0)
+						retVal.setLanguage(langs);
+				} else if(eleName.equals("media")) {
+					final String media = reader.getElementText();
+					if(media.length() > 0)
+						retVal.setMediaLocation(media);
+				} else if(eleName.equals("participant")) {
+					retVal.addParticipant(readParticipant(factory, reader, retVal.getDate()));
+				} else if(eleName.equals("userTier")) {
+					retVal.addTierName(reader.getAttributeValue(null, "tierName"));
+				} else if(eleName.equals("u")) {
+					retVal.addRecord(reader.getAttributeValue(null, "speaker"));
+					skipElement(reader);
+				} else if(eleName.equals("comment") || eleName.equals("tierOrder")
+						|| eleName.equals("transcribers")) {
+					skipElement(reader);
+				}
+			}
+		} catch (XMLStreamException e) {
+			throw new IOException(e);
+		} finally {
+			if(reader != null) {
+				try {
+					reader.close();
+				} catch (XMLStreamException e) {
+					LOGGER.warn(e.getLocalizedMessage(), e);
+				}
+			}
+		}
+
+		return retVal;
+	}
+
+	public static int countRecords(File file) throws IOException {
+		try(InputStream stream = new BufferedInputStream(new FileInputStream(file))) {
+			return countRecords(stream);
+		}
+	}
+
+	/**
+	 * Count records in session xml data.  Record contents are skipped and
+	 * no session objects are created.  The entire document is read, malformed
+	 * documents will produce an exception.
+	 *
+	 * @param stream
+	 * @return number of records
+	 * @throws IOException if the stream could not be read or is not
+	 *  a session document
+	 */
+	public static int countRecords(InputStream stream) throws IOException {
+		int retVal = 0;
+		XMLStreamReader reader = null;
+		try {
+			synchronized(inputFactory) {
+				reader = inputFactory.createXMLStreamReader(stream);
+			}
+
+			if(reader.nextTag() != XMLStreamConstants.START_ELEMENT
+					|| !reader.getLocalName().equals("session")) {
+				throw new IOException("Expected session element");
+			}
+
+			while(reader.hasNext()) {
+				final int evt = reader.next();
+				if(evt != XMLStreamConstants.START_ELEMENT) continue;
+
+				final String eleName = reader.getLocalName();
+				if(eleName.equals("u")) {
+					++retVal;
+					skipElement(reader);
+				} else if(!eleName.equals("transcript")) {
+					skipElement(reader);
+				}
+			}
+		} catch (XMLStreamException e) {
+			throw new IOException(e);
+		} finally {
+			if(reader != null) {
+				try {
+					reader.close();
+				} catch (XMLStreamException e) {
+					LOGGER.warn(e.getLocalizedMessage(), e);
+				}
+			}
+		}
+
+		return retVal;
+	}
+
+	/**
+	 * Read participant, reader must be positioned at the participant
+	 * start element.
+	 */
+	private static Participant readParticipant(SessionFactory factory, XMLStreamReader reader, LocalDate sessionDate)
+		throws XMLStreamException {
+		final Participant retVal = factory.createParticipant();
+		retVal.setId(reader.getAttributeValue(null, "id"));
+
+		String role = null;
+		String langs = "";
+		Sex sex = Sex.UNSPECIFIED;
+		while(reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			final String eleName = reader.getLocalName();
+			final String text = reader.getElementText();
+			if(eleName.equals("role")) {
+				role = text;
+			} else if(eleName.equals("name")) {
+				retVal.setName(text);
+			} else if(eleName.equals("group")) {
+				retVal.setGroup(text);
+			} else if(eleName.equals("sex")) {
+				if(text.trim().equals("male"))
+					sex = Sex.MALE;
+				else if(text.trim().equals("female"))
+					sex = Sex.FEMALE;
+			} else if(eleName.equals("SES")) {
+				retVal.setSES(text);
+			} else if(eleName.equals("education")) {
+				retVal.setEducation(text);
+			} else if(eleName.equals("birthday")) {
+				final XMLGregorianCalendar bday = parseDate(text);
+				if(bday != null) {
+					final LocalDate bdt = LocalDate.of(bday.getYear(), bday.getMonth(), bday.getDay());
+					retVal.setBirthDate(bdt);
+
+					// calculate age up to the session date
+					if(sessionDate != null) {
+						retVal.setAgeTo(Period.between(bdt, sessionDate));
+					}
+				}
+			} else if(eleName.equals("age")) {
+				try {
+					final Duration ageDuration = DatatypeFactory.newInstance().newDuration(text.trim());
+					retVal.setAge(Period.of(ageDuration.getYears(), ageDuration.getMonths(), ageDuration.getDays()));
+				} catch (IllegalArgumentException | DatatypeConfigurationException e) {
+					LOGGER.warn(e.getLocalizedMessage(), e);
+				}
+			} else if(eleName.equals("language")) {
+				langs = joinList(text);
+			}
+		}
+		retVal.setLanguage(langs);
+		retVal.setSex(sex);
+
+		ParticipantRole prole = ParticipantRole.fromString(role);
+		if(prole == null)
+			prole = ParticipantRole.TARGET_CHILD;
+		retVal.setRole(prole);
+
+		return retVal;
+	}
+
+	private static XMLGregorianCalendar parseDate(String text) {
+		if(text.trim().length() == 0) return null;
+		try {
+			return DatatypeFactory.newInstance().newXMLGregorianCalendar(text.trim());
+		} catch (IllegalArgumentException | DatatypeConfigurationException e) {
+			LOGGER.warn(e.getLocalizedMessage(), e);
+			return null;
+		}
+	}
+
+	/**
+	 * Normalize xs:list values
+	 */
+	private static String joinList(String text) {
+		final String trimmed = text.trim();
+		return (trimmed.length() == 0 ? "" : String.join(" ", trimmed.split("\\s+")));
+	}
+
+	/**
+	 * Skip the current element and its children.  Reader must be positioned
+	 * at a start element, and will be positioned at the matching end element.
+	 */
+	private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+		int depth = 1;
+		while(depth > 0 && reader.hasNext()) {
+			final int evt = reader.next();
+			if(evt == XMLStreamConstants.START_ELEMENT) ++depth;
+			else if(evt == XMLStreamConstants.END_ELEMENT) --depth;
+		}
+	}
+
+}
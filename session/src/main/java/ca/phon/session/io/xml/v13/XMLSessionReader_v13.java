@@ -58,12 +58,14 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.text.ParseException;
 import java.time.LocalDate;
 import java.time.Period;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Session XML reader for session files with
@@ -132,24 +134,7 @@ public class XMLSessionReader_v13 implements SessionReader, XMLObjectReader<Sess
 
 		final HeaderType headerData = sessionType.getHeader();
 		if(headerData != null) {
-			if(headerData.getMedia() != null && headerData.getMedia().length() > 0) {
-				retVal.setMediaLocation(headerData.getMedia());
-			}
-			if(headerData.getDate() != null) {
-				final XMLGregorianCalendar xmlDate = headerData.getDate();
-				final LocalDate dateTime = LocalDate.of(
-						xmlDate.getYear(),
-						xmlDate.getMonth(),
-						xmlDate.getDay());
-				retVal.setDate(dateTime);
-			}
-			if(headerData.getLanguage().size() > 0) {
-				String langs = "";
-				for(String lang:headerData.getLanguage()) {
-					langs += (langs.length() > 0 ? " " : "") + lang;
-				}
-				retVal.setLanguage(langs);
-			}
+			copyHeader(retVal, headerData);
 		}
 
 		// copy participant information
@@ -236,6 +221,28 @@ public class XMLSessionReader_v13 implements SessionReader, XMLObjectReader<Sess
 		return retVal;
 	}
 
+	// header
+	void copyHeader(Session session, HeaderType headerData) {
+		if(headerData.getMedia() != null && headerData.getMedia().length() > 0) {
+			session.setMediaLocation(headerData.getMedia());
+		}
+		if(headerData.getDate() != null) {
+			final XMLGregorianCalendar xmlDate = headerData.getDate();
+			final LocalDate dateTime = LocalDate.of(
+					xmlDate.getYear(),
+					xmlDate.getMonth(),
+					xmlDate.getDay());
+			session.setDate(dateTime);
+		}
+		if(headerData.getLanguage().size() > 0) {
+			String langs = "";
+			for(String lang:headerData.getLanguage()) {
+				langs += (langs.length() > 0 ? " " : "") + lang;
+			}
+			session.setLanguage(langs);
+		}
+	}
+
 	// participants
 	Participant copyParticipant(SessionFactory factory, ParticipantType pt, LocalDate sessionDate) {
 		final Participant retVal = factory.createParticipant();
@@ -288,7 +295,7 @@ public class XMLSessionReader_v13 implements SessionReader, XMLObjectReader<Sess
 	}
 
 	// transcribers
-	private Transcriber copyTranscriber(SessionFactory factory, TranscriberType tt) {
+	Transcriber copyTranscriber(SessionFactory factory, TranscriberType tt) {
 		final Transcriber retVal = factory.createTranscriber();
 
 		retVal.setUsername(tt.getId());
@@ -303,7 +310,7 @@ public class XMLSessionReader_v13 implements SessionReader, XMLObjectReader<Sess
 	}
 
 	// tier descriptions
-	private TierDescription copyTierDescription(SessionFactory factory, UserTierType utt) {
+	TierDescription copyTierDescription(SessionFactory factory, UserTierType utt) {
 		final boolean grouped = utt.isGrouped();
 		final String name = utt.tierName;
 		
@@ -315,7 +322,7 @@ public class XMLSessionReader_v13 implements SessionReader, XMLObjectReader<Sess
 		}
 	}
 
-	private TierViewItem copyTierViewItem(SessionFactory factory, TvType tvt) {
+	TierViewItem copyTierViewItem(SessionFactory factory, TvType tvt) {
 		final boolean locked = tvt.isLocked();
 		final boolean visible = tvt.isVisible();
 		final String name = tvt.getTierName();
@@ -333,7 +340,7 @@ public class XMLSessionReader_v13 implements SessionReader, XMLObjectReader<Sess
 	}
 
 	// copy comment data
-	private Comment copyComment(SessionFactory factory, CommentType ct) {
+	Comment copyComment(SessionFactory factory, CommentType ct) {
 		final String tag = ct.getType();
 		final StringBuffer buffer = new StringBuffer();
 		MediaSegment segment = null;
@@ -740,8 +747,54 @@ public class XMLSessionReader_v13 implements SessionReader, XMLObjectReader<Sess
 		return retVal;
 	}
 
+	/**
+	 * Read session using a {@link XMLSessionStreamReader_v13}, a DOM
+	 * for the document is not created.
+	 *
+	 * @param stream
+	 * @return session
+	 * @throws IOException
+	 */
 	@Override
 	public Session readSession(InputStream stream) throws IOException {
+		try(XMLSessionStreamReader_v13 streamReader = new XMLSessionStreamReader_v13(stream)) {
+			final Session retVal = streamReader.getSession();
+			while(streamReader.hasNext()) {
+				retVal.addRecord(streamReader.next());
+			}
+			return retVal;
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Read session header data (participants, transcribers, tiers) and
+	 * pass each record to the given consumer as it is read.  Records are
+	 * not added to the returned session.
+	 *
+	 * @param stream
+	 * @param recordConsumer
+	 * @return session without records
+	 * @throws IOException
+	 */
+	public Session readSession(InputStream stream, Consumer<Record> recordConsumer) throws IOException {
+		try(XMLSessionStreamReader_v13 streamReader = new XMLSessionStreamReader_v13(stream)) {
+			streamReader.forEachRemaining(recordConsumer);
+			return streamReader.getSession();
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Read session using a DOM for the entire document.
+	 *
+	 * @param stream
+	 * @return session
+	 * @throws IOException
+	 */
+	public Session readSessionDocument(InputStream stream) throws IOException {
 		final Document doc = documentFromStream(stream);
 		return read(doc, doc.getDocumentElement());
 	}
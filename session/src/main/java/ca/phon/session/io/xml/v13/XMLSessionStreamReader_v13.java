@@ -0,0 +1,326 @@
+/*
+ * Copyright (C) Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.session.io.xml.v13;
+
+import ca.phon.session.Record;
+import ca.phon.session.*;
+import jakarta.xml.bind.*;
+import org.apache.logging.log4j.LogManager;
+
+import javax.xml.stream.*;
+import javax.xml.stream.util.StreamReaderDelegate;
+import java.io.*;
+import java.util.*;
+
+/**
+ * <p>Streaming (StAX) reader for session files with version '1.3'.</p>
+ *
+ * <p>Session header data (participants, transcribers, tier descriptions
+ * and tier view) is read when the reader is created and is available
+ * using {@link #getSession()}.  Records are read one at a time as the
+ * reader is iterated, each <code>&lt;u&gt;</code> element is unmarshalled
+ * on its own and a DOM for the document is never created.  Records
+ * are <b>not</b> added to the session, callers may add them if
+ * a complete session is required.</p>
+ *
+ * <pre>
+ * try(XMLSessionStreamReader_v13 reader = new XMLSessionStreamReader_v13(stream)) {
+ *     final Session session = reader.getSession();
+ *     while(reader.hasNext()) {
+ *         final Record record = reader.next();
+ *         ...
+ *     }
+ * }
+ * </pre>
+ *
+ * <p>XML errors encountered while iterating records are thrown as
+ * {@link UncheckedIOException}s.</p>
+ */
+public class XMLSessionStreamReader_v13 implements Iterator<Record>, Closeable {
+
+	private static final org.apache.logging.log4j.Logger LOGGER = LogManager.getLogger(XMLSessionStreamReader_v13.class.getName());
+
+	private static JAXBContext jaxbContext;
+
+	private static synchronized JAXBContext getJAXBContext() throws JAXBException {
+		if(jaxbContext == null) {
+			jaxbContext = JAXBContext.newInstance(ObjectFactory.class);
+		}
+		return jaxbContext;
+	}
+
+	private final XMLSessionReader_v13 sessionReader = new XMLSessionReader_v13();
+
+	private final SessionFactory factory;
+
+	private final Session session;
+
+	private final RecordStreamReader reader;
+
+	private final Unmarshaller unmarshaller;
+
+	/* IDREF targets, fragments are unmarshalled separately so these are resolved manually */
+	private final Map<String, ParticipantType> participants = new HashMap<>();
+
+	private final Map<String, TranscriberType> transcribers = new HashMap<>();
+
+	/* comments which will be attached to the next record */
+	private final List<Comment> recordComments = new ArrayList<>();
+
+	private boolean foundFirstRecord = false;
+
+	private Record nextRecord = null;
+
+	private boolean endOfTranscript = false;
+
+	/**
+	 * Create a new stream reader and read session header data.
+	 *
+	 * @param stream
+	 * @throws IOException if the stream is not a valid session document
+	 */
+	public XMLSessionStreamReader_v13(InputStream stream) throws IOException {
+		super();
+
+		this.factory = SessionFactory.newFactory();
+		this.session = factory.createSession();
+
+		try {
+			final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+			this.reader = new RecordStreamReader(inputFactory.createXMLStreamReader(stream, "UTF-8"));
+
+			this.unmarshaller = getJAXBContext().createUnmarshaller();
+			// unresolved IDREFs are expected for fragments
+			this.unmarshaller.setEventHandler((evt) -> evt.getSeverity() != ValidationEvent.FATAL_ERROR);
+
+			readHeader();
+		} catch (XMLStreamException | JAXBException e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Session header information.  Records read by this reader
+	 * are not added to the session.
+	 *
+	 * @return session
+	 */
+	public Session getSession() {
+		return this.session;
+	}
+
+	/**
+	 * Read everything up to the first record or comment in the transcript
+	 */
+	private void readHeader() throws XMLStreamException, JAXBException, IOException {
+		if(reader.nextTag() != XMLStreamConstants.START_ELEMENT
+				|| !reader.getLocalName().equals("session")) {
+			throw new IOException("Expected session element");
+		}
+		session.setName(reader.getAttributeValue(null, "id"));
+		session.setCorpus(reader.getAttributeValue(null, "corpus"));
+
+		final List<TierViewItem> tierOrder = new ArrayList<>();
+		reader.next();
+		while(reader.hasNext()) {
+			if(reader.isStartElement()) {
+				final String eleName = reader.getLocalName();
+				if(eleName.equals("header")) {
+					final HeaderType headerData = unmarshaller.unmarshal(reader, HeaderType.class).getValue();
+					sessionReader.copyHeader(session, headerData);
+				} else if(eleName.equals("participants")) {
+					final ParticipantsType participantsType = unmarshaller.unmarshal(reader, ParticipantsType.class).getValue();
+					for(ParticipantType pt:participantsType.getParticipant()) {
+						participants.put(pt.getId(), pt);
+						session.addParticipant(sessionReader.copyParticipant(factory, pt, session.getDate()));
+					}
+				} else if(eleName.equals("transcribers")) {
+					final TranscribersType transcribersType = unmarshaller.unmarshal(reader, TranscribersType.class).getValue();
+					for(TranscriberType tt:transcribersType.getTranscriber()) {
+						transcribers.put(tt.getId(), tt);
+						session.addTranscriber(sessionReader.copyTranscriber(factory, tt));
+					}
+				} else if(eleName.equals("userTiers")) {
+					final UserTiersType userTiers = unmarshaller.unmarshal(reader, UserTiersType.class).getValue();
+					for(UserTierType utt:userTiers.getUserTier()) {
+						session.addUserTier(sessionReader.copyTierDescription(factory, utt));
+					}
+				} else if(eleName.equals("tierOrder")) {
+					final TierOrderType tierOrderType = unmarshaller.unmarshal(reader, TierOrderType.class).getValue();
+					for(TvType tvt:tierOrderType.getTier()) {
+						tierOrder.add(sessionReader.copyTierViewItem(factory, tvt));
+					}
+				} else if(eleName.equals("transcript")) {
+					reader.next();
+					break;
+				} else {
+					skipElement();
+				}
+			} else if(reader.isEndElement()) {
+				// end of session without a transcript
+				endOfTranscript = true;
+				break;
+			} else {
+				reader.next();
+			}
+		}
+		session.setTierView(tierOrder);
+	}
+
+	/**
+	 * Skip the current element and all children
+	 */
+	private void skipElement() throws XMLStreamException {
+		int depth = 0;
+		do {
+			if(reader.isStartElement()) ++depth;
+			else if(reader.isEndElement()) --depth;
+			reader.next();
+		} while(depth > 0 && reader.hasNext());
+	}
+
+	/**
+	 * Read the next record in the transcript
+	 *
+	 * @return next record or <code>null</code> if end of transcript
+	 */
+	private Record readNextRecord() throws XMLStreamException, JAXBException {
+		while(!endOfTranscript && reader.hasNext()) {
+			if(reader.isStartElement()) {
+				final String eleName = reader.getLocalName();
+				if(eleName.equals("comment")) {
+					final CommentType ct = unmarshaller.unmarshal(reader, CommentType.class).getValue();
+					recordComments.add(sessionReader.copyComment(factory, ct));
+				} else if(eleName.equals("u")) {
+					final String speakerId = reader.getAttributeValue(null, "speaker");
+					reader.blindTranscriptionUsers.clear();
+					final RecordType rt = unmarshaller.unmarshal(reader, RecordType.class).getValue();
+					resolveReferences(rt, speakerId);
+
+					if(!foundFirstRecord && recordComments.size() > 0) {
+						// add record comments to session metadata
+						for(Comment c:recordComments) {
+							session.getMetadata().addComment(c);
+						}
+						recordComments.clear();
+					}
+					foundFirstRecord = true;
+
+					Record record = null;
+					try {
+						record = factory.createRecord(new LazyRecord(factory, session, rt));
+					} catch (Exception e) {
+						LOGGER.info(rt.getId());
+						LOGGER.error(e.getLocalizedMessage(), e);
+						recordComments.clear();
+						continue;
+					}
+					for(Comment comment:recordComments) {
+						record.addComment(comment);
+					}
+					recordComments.clear();
+					return record;
+				} else {
+					skipElement();
+				}
+			} else if(reader.isEndElement()) {
+				// end of transcript
+				endOfTranscript = true;
+			} else {
+				reader.next();
+			}
+		}
+
+		if(!foundFirstRecord && recordComments.size() > 0) {
+			// add record comments to session metadata
+			for(Comment c:recordComments) {
+				session.getMetadata().addComment(c);
+			}
+			recordComments.clear();
+		}
+		return null;
+	}
+
+	private void resolveReferences(RecordType rt, String speakerId) {
+		if(speakerId != null && participants.containsKey(speakerId)) {
+			rt.setSpeaker(participants.get(speakerId));
+		}
+		final List<BlindTierType> blindTiers = rt.getBlindTranscription();
+		for(int i = 0; i < blindTiers.size() && i < reader.blindTranscriptionUsers.size(); i++) {
+			final String userId = reader.blindTranscriptionUsers.get(i);
+			if(userId != null && transcribers.containsKey(userId)) {
+				blindTiers.get(i).setUser(transcribers.get(userId));
+			}
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		if(nextRecord == null) {
+			try {
+				nextRecord = readNextRecord();
+			} catch (XMLStreamException | JAXBException e) {
+				throw new UncheckedIOException(new IOException(e));
+			}
+		}
+		return nextRecord != null;
+	}
+
+	@Override
+	public Record next() {
+		if(!hasNext()) throw new NoSuchElementException();
+		final Record retVal = nextRecord;
+		nextRecord = null;
+		return retVal;
+	}
+
+	/**
+	 * Close the XML reader, the underlying input stream is not closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			reader.close();
+		} catch (XMLStreamException e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Keeps track of blind transcription user references while a record
+	 * is being unmarshalled.
+	 */
+	private final static class RecordStreamReader extends StreamReaderDelegate {
+
+		private final List<String> blindTranscriptionUsers = new ArrayList<>();
+
+		public RecordStreamReader(XMLStreamReader reader) {
+			super(reader);
+		}
+
+		@Override
+		public int next() throws XMLStreamException {
+			final int retVal = super.next();
+			if(retVal == XMLStreamConstants.START_ELEMENT
+					&& getLocalName().equals("blindTranscription")) {
+				blindTranscriptionUsers.add(getAttributeValue(null, "user"));
+			}
+			return retVal;
+		}
+
+	}
+
+}
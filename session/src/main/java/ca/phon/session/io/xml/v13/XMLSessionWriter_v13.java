@@ -577,8 +577,20 @@ public class XMLSessionWriter_v13 implements SessionWriter, IPluginExtensionPoin
 	@Override
 	public void writeSession(Session session, OutputStream out)
 			throws IOException {
+		marshal(toSessionType(session), out);
+	}
+
+	/**
+	 * Copy session data into jaxb objects, the xml is written
+	 * when the snapshot is written.
+	 */
+	@Override
+	public Snapshot snapshotSession(Session session) throws IOException {
 		final JAXBElement<SessionType> ele = toSessionType(session);
+		return (out) -> marshal(ele, out);
+	}
 
+	private void marshal(JAXBElement<SessionType> ele, OutputStream out) {
 		try {
 			final JAXBContext context = JAXBContext.newInstance(ObjectFactory.class);
 			final Marshaller marshaller = context.createMarshaller();
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.session;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.List;
+
+@RunWith(JUnit4.class)
+public class SegmentIndexTest {
+
+	private final SessionFactory factory = SessionFactory.newFactory();
+
+	private Record createRecord(Participant speaker, float start, float end) {
+		final Record record = factory.createRecord();
+		record.addGroup();
+		record.setSpeaker(speaker);
+		final MediaSegment segment = factory.createMediaSegment();
+		segment.setStartValue(start);
+		segment.setEndValue(end);
+		record.getSegment().setGroup(0, segment);
+		return record;
+	}
+
+	private Session createSession(Participant p1, Participant p2) {
+		final Session session = factory.createSession("Test", "Test");
+		session.addParticipant(p1);
+		session.addParticipant(p2);
+
+		session.addRecord(createRecord(p1, 0.0f, 1000.0f));		// 0
+		session.addRecord(createRecord(p2, 500.0f, 1500.0f));	// 1
+		session.addRecord(createRecord(p1, 1000.0f, 2000.0f));	// 2
+		session.addRecord(createRecord(p1, 1500.0f, 10000.0f));	// 3
+		session.addRecord(createRecord(p2, 20000.0f, 21000.0f));	// 4
+		session.addRecord(createRecord(p1, 0.0f, 0.0f));		// 5
+		return session;
+	}
+
+	@Test
+	public void testRecordsIntersecting() {
+		final Participant p1 = factory.createParticipant();
+		p1.setId("P1");
+		final Participant p2 = factory.createParticipant();
+		p2.setId("P2");
+		final Session session = createSession(p1, p2);
+		final SegmentIndex index = session.getSegmentIndex();
+
+		Assert.assertEquals(6, index.size());
+		Assert.assertEquals(List.of(0, 1, 2, 5), index.recordsIntersecting(0.0f, 1000.0f));
+		Assert.assertEquals(List.of(3), index.recordsIntersecting(5000.0f, 6000.0f));
+		Assert.assertEquals(List.of(), index.recordsIntersecting(11000.0f, 19000.0f));
+		Assert.assertEquals(List.of(2, 3), index.recordsIntersecting(p1, 1200.0f, 1600.0f));
+		Assert.assertEquals(List.of(1), index.recordsIntersecting(p2, 1200.0f, 1600.0f));
+	}
+
+	@Test
+	public void testOverlapsForRecord() {
+		final Participant p1 = factory.createParticipant();
+		p1.setId("P1");
+		final Participant p2 = factory.createParticipant();
+		p2.setId("P2");
+		final Session session = createSession(p1, p2);
+		final SegmentIndex index = session.getSegmentIndex();
+
+		// contiguous segments and other speakers are ignored
+		Assert.assertEquals(List.of(), index.overlapsForRecord(0));
+		Assert.assertEquals(List.of(3), index.overlapsForRecord(2));
+		Assert.assertEquals(List.of(2), index.overlapsForRecord(3));
+		Assert.assertEquals(List.of(), index.overlapsForRecord(5));
+	}
+
+	@Test
+	public void testUpdates() {
+		final Participant p1 = factory.createParticipant();
+		p1.setId("P1");
+		final Participant p2 = factory.createParticipant();
+		p2.setId("P2");
+		final Session session = createSession(p1, p2);
+		final SegmentIndex index = session.getSegmentIndex();
+		Assert.assertEquals(List.of(4), index.recordsIntersecting(20500.0f, 20500.0f));
+
+		// segment changed
+		final MediaSegment segment = factory.createMediaSegment();
+		segment.setStartValue(30000.0f);
+		segment.setEndValue(31000.0f);
+		session.getRecord(4).getSegment().setGroup(0, segment);
+		Assert.assertEquals(List.of(), index.recordsIntersecting(20500.0f, 20500.0f));
+		Assert.assertEquals(List.of(4), index.recordsIntersecting(30500.0f, 30500.0f));
+
+		// record added and removed
+		session.addRecord(0, createRecord(p2, 20000.0f, 21000.0f));
+		Assert.assertEquals(List.of(0), index.recordsIntersecting(20500.0f, 20500.0f));
+		Assert.assertEquals(List.of(5), index.recordsIntersecting(30500.0f, 30500.0f));
+
+		session.removeRecord(0);
+		Assert.assertEquals(List.of(), index.recordsIntersecting(20500.0f, 20500.0f));
+		Assert.assertEquals(List.of(4), index.recordsIntersecting(30500.0f, 30500.0f));
+
+		// record moved
+		session.setRecordPosition(session.getRecord(4), 0);
+		Assert.assertEquals(List.of(0), index.recordsIntersecting(30500.0f, 30500.0f));
+		Assert.assertEquals(6, index.size());
+	}
+
+	@Test
+	public void testSegmentChangedInPlace() {
+		final Participant p1 = factory.createParticipant();
+		p1.setId("P1");
+		final Participant p2 = factory.createParticipant();
+		p2.setId("P2");
+		final Session session = createSession(p1, p2);
+		final SegmentIndex index = session.getSegmentIndex();
+		Assert.assertEquals(List.of(4), index.recordsIntersecting(20500.0f, 20500.0f));
+		Assert.assertEquals(List.of(), index.overlapsForRecord(0));
+
+		// move record 4 in place, as done while dragging in the timeline
+		final MediaSegment segment = session.getRecord(4).getSegment().getGroup(0);
+		segment.setStartValue(30000.0f);
+		segment.setEndValue(31000.0f);
+		index.segmentChanged(4);
+		Assert.assertEquals(List.of(), index.recordsIntersecting(20500.0f, 20500.0f));
+		Assert.assertEquals(List.of(4), index.recordsIntersecting(30500.0f, 30500.0f));
+
+		// grow record 0 so that it overlaps record 2
+		final MediaSegment segment0 = session.getRecord(0).getSegment().getGroup(0);
+		segment0.setEndValue(1200.0f);
+		index.segmentChanged(0);
+		Assert.assertEquals(List.of(2), index.overlapsForRecord(0));
+		Assert.assertEquals(List.of(0, 3), index.overlapsForRecord(2));
+
+		// restore, as done when a drag is cancelled
+		segment0.setEndValue(1000.0f);
+		index.segmentChanged(0);
+		Assert.assertEquals(List.of(), index.overlapsForRecord(0));
+		Assert.assertEquals(List.of(3), index.overlapsForRecord(2));
+		Assert.assertEquals(6, index.size());
+	}
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.session.io.xml.v13;
+
+import ca.phon.ipa.*;
+import ca.phon.orthography.Orthography;
+import ca.phon.session.Record;
+import ca.phon.session.*;
+import junit.framework.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.*;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Compare sessions read using the DOM and streaming v1.3 readers.
+ */
+@RunWith(JUnit4.class)
+public class TestXMLSessionStreamReader {
+
+	private final static String[] ORTHO = { "hello world", "bye", "one two three" };
+
+	private final static String[] IPA = { "hɛloʊ wɹ̩ld", "baɪ", "wʌn tu θɹi" };
+
+	private byte[] writeTestSession() throws Exception {
+		final SessionFactory factory = SessionFactory.newFactory();
+		final Session session = factory.createSession("Tests", "StreamTest");
+		session.setDate(LocalDate.of(2020, 1, 15));
+
+		final Participant child = factory.createParticipant();
+		child.setId("CHI");
+		child.setName("Anne");
+		child.setRole(ParticipantRole.TARGET_CHILD);
+		child.setBirthDate(LocalDate.of(2018, 6, 1));
+		session.addParticipant(child);
+
+		final Participant mother = factory.createParticipant();
+		mother.setId("MOT");
+		mother.setName("Mary");
+		mother.setRole(ParticipantRole.MOTHER);
+		session.addParticipant(mother);
+
+		final Transcriber transcriber = factory.createTranscriber();
+		transcriber.setUsername("tr1");
+		transcriber.setRealName("Transcriber");
+		session.addTranscriber(transcriber);
+
+		session.getMetadata().addComment(factory.createComment("Generic", "session comment"));
+		session.setTierView(factory.createDefaultTierView(session));
+
+		for(int i = 0; i < ORTHO.length; i++) {
+			final Record record = factory.createRecord(i % 2 == 0 ? child : mother);
+			record.getOrthography().setGroup(0, Orthography.parseOrthography(ORTHO[i]));
+			final IPATranscript ipa = IPATranscript.parseIPATranscript(IPA[i]);
+			if(i == 0) {
+				final AlternativeTranscript alt = new AlternativeTranscript();
+				alt.put(transcriber.getUsername(), IPATranscript.parseIPATranscript(IPA[i]));
+				ipa.putExtension(AlternativeTranscript.class, alt);
+			}
+			record.getIPATarget().setGroup(0, ipa);
+			record.getIPAActual().setGroup(0, IPATranscript.parseIPATranscript(IPA[i]));
+			record.getSegment().setGroup(0, factory.createMediaSegment());
+			if(i == 1) {
+				record.addComment(factory.createComment("Generic", "record comment"));
+			}
+			session.addRecord(record);
+		}
+
+		final ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		(new XMLSessionWriter_v13()).writeSession(session, bout);
+		return bout.toByteArray();
+	}
+
+	private void assertSessionsEqual(Session expected, Session actual) {
+		Assert.assertEquals(expected.getCorpus(), actual.getCorpus());
+		Assert.assertEquals(expected.getName(), actual.getName());
+		Assert.assertEquals(expected.getDate(), actual.getDate());
+		Assert.assertEquals(expected.getParticipantCount(), actual.getParticipantCount());
+		for(int i = 0; i < expected.getParticipantCount(); i++) {
+			Assert.assertEquals(expected.getParticipant(i).getId(), actual.getParticipant(i).getId());
+			Assert.assertEquals(expected.getParticipant(i).getName(), actual.getParticipant(i).getName());
+		}
+		Assert.assertEquals(expected.getTranscriberCount(), actual.getTranscriberCount());
+		Assert.assertEquals(expected.getTierView().size(), actual.getTierView().size());
+		Assert.assertEquals(expected.getMetadata().getNumberOfComments(), actual.getMetadata().getNumberOfComments());
+
+		Assert.assertEquals(expected.getRecordCount(), actual.getRecordCount());
+		for(int i = 0; i < expected.getRecordCount(); i++) {
+			assertRecordsEqual(expected.getRecord(i), actual.getRecord(i));
+		}
+	}
+
+	private void assertRecordsEqual(Record expected, Record actual) {
+		Assert.assertEquals(expected.getUuid(), actual.getUuid());
+		Assert.assertEquals(expected.getSpeaker().getId(), actual.getSpeaker().getId());
+		Assert.assertEquals(expected.getOrthography().toString(), actual.getOrthography().toString());
+		Assert.assertEquals(expected.getIPATarget().toString(), actual.getIPATarget().toString());
+		Assert.assertEquals(expected.getIPAActual().toString(), actual.getIPAActual().toString());
+		Assert.assertEquals(expected.getNumberOfComments(), actual.getNumberOfComments());
+
+		final AlternativeTranscript expectedAlt = expected.getIPATarget().getGroup(0).getExtension(AlternativeTranscript.class);
+		final AlternativeTranscript actualAlt = actual.getIPATarget().getGroup(0).getExtension(AlternativeTranscript.class);
+		if(expectedAlt == null) {
+			Assert.assertNull(actualAlt);
+		} else {
+			Assert.assertNotNull(actualAlt);
+			Assert.assertEquals(expectedAlt.keySet(), actualAlt.keySet());
+		}
+	}
+
+	@Test
+	public void testReadSession() throws Exception {
+		final byte[] data = writeTestSession();
+		final XMLSessionReader_v13 reader = new XMLSessionReader_v13();
+
+		final Session domSession = reader.readSessionDocument(new ByteArrayInputStream(data));
+		final Session streamSession = reader.readSession(new ByteArrayInputStream(data));
+
+		Assert.assertEquals(ORTHO.length, domSession.getRecordCount());
+		Assert.assertEquals("CHI", streamSession.getRecord(0).getSpeaker().getId());
+		Assert.assertEquals("MOT", streamSession.getRecord(1).getSpeaker().getId());
+		assertSessionsEqual(domSession, streamSession);
+	}
+
+	@Test
+	public void testRecordStream() throws Exception {
+		final byte[] data = writeTestSession();
+		final XMLSessionReader_v13 reader = new XMLSessionReader_v13();
+		final Session domSession = reader.readSessionDocument(new ByteArrayInputStream(data));
+
+		final List<Record> records = new ArrayList<>();
+		try(XMLSessionStreamReader_v13 streamReader = new XMLSessionStreamReader_v13(new ByteArrayInputStream(data))) {
+			final Session header = streamReader.getSession();
+			Assert.assertEquals(0, header.getRecordCount());
+			Assert.assertEquals(domSession.getParticipantCount(), header.getParticipantCount());
+
+			while(streamReader.hasNext()) {
+				records.add(streamReader.next());
+			}
+			Assert.assertFalse(streamReader.hasNext());
+			Assert.assertEquals(domSession.getMetadata().getNumberOfComments(), header.getMetadata().getNumberOfComments());
+		}
+
+		Assert.assertEquals(domSession.getRecordCount(), records.size());
+		for(int i = 0; i < records.size(); i++) {
+			assertRecordsEqual(domSession.getRecord(i), records.get(i));
+		}
+	}
+
+}
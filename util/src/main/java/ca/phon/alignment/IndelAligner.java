@@ -113,7 +113,7 @@ public abstract class IndelAligner<T> implements Aligner<T> {
 	 * 
 	 * @param alignment
 	 */
-	private void swapIndels(Integer[][] alignment) {
+	protected void swapIndels(Integer[][] alignment) {
 		for(int i = 0; i < alignment[0].length; i++) {
 			int top = alignment[0][i];
 			int bottom = alignment[1][i];
@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.alignment;
+
+/**
+ * {@link IndelAligner} using a single flat score matrix and an iterative
+ * traceback of the best path.  Produces the same alignments as
+ * {@link IndelAligner} without per-cell allocations or recursion.
+ *
+ * An optional band width limits the cells computed to those within the
+ * given distance of the diagonal.  Alignments outside of the band are
+ * not considered, use a band width of <code>0</code> (default) to compute
+ * the full matrix.
+ *
+ * @param <T>
+ */
+public abstract class IterativeIndelAligner<T> extends IndelAligner<T> {
+
+	/* Value for cells outside of the band */
+	private final static int UNREACHABLE = Integer.MIN_VALUE / 4;
+
+	private int bandWidth = 0;
+
+	private AlignmentMap<T> lastAlignment = null;
+
+	public IterativeIndelAligner() {
+		super();
+	}
+
+	public int getBandWidth() {
+		return this.bandWidth;
+	}
+
+	/**
+	 * Set band width.  Cells further than <code>bandWidth</code> from
+	 * the diagonal (adjusted for the difference in sequence lengths)
+	 * are not computed.
+	 *
+	 * @param bandWidth band width or <code>0</code> to compute the full matrix
+	 */
+	public void setBandWidth(int bandWidth) {
+		if(bandWidth < 0) throw new IllegalArgumentException("Invalid band width " + bandWidth);
+		this.bandWidth = bandWidth;
+	}
+
+	@Override
+	public AlignmentMap<T> calculateAlignment(T[] top, T[] bottom) {
+		final int width = top.length + 1;
+		final int height = bottom.length + 1;
+
+		final int[] skipTop = new int[top.length];
+		for(int i = 0; i < top.length; i++) skipTop[i] = costSkip(top[i]);
+		final int[] skipBottom = new int[bottom.length];
+		for(int j = 0; j < bottom.length; j++) skipBottom[j] = costSkip(bottom[j]);
+
+		// matrix[i * height + j]
+		final int[] matrix = new int[width * height];
+		for(int i = 1; i < width; i++)
+			matrix[i * height] = matrix[(i-1) * height] + skipTop[i-1];
+		for(int j = 1; j < height; j++)
+			matrix[j] = matrix[j-1] + skipBottom[j-1];
+
+		final boolean banded = bandWidth > 0;
+		final int lowerBand = bandWidth + Math.max(0, width - height);
+		final int upperBand = bandWidth + Math.max(0, height - width);
+
+		for(int i = 1; i < width; i++) {
+			final int row = i * height;
+			final int prevRow = row - height;
+			final int skipTopCost = skipTop[i-1];
+			final T topEle = top[i-1];
+
+			int firstCol = 1;
+			int lastCol = height - 1;
+			if(banded) {
+				firstCol = Math.max(1, i - lowerBand);
+				lastCol = Math.min(height - 1, i + upperBand);
+				for(int j = 1; j < firstCol; j++) matrix[row + j] = UNREACHABLE;
+				for(int j = lastCol + 1; j < height; j++) matrix[row + j] = UNREACHABLE;
+			}
+
+			for(int j = firstCol; j <= lastCol; j++) {
+				// scores are never less than zero, see IndelAligner
+				int value = 0;
+				final int skipTopValue = matrix[prevRow + j] + skipTopCost;
+				if(skipTopValue > value) value = skipTopValue;
+				final int skipBottomValue = matrix[row + j - 1] + skipBottom[j-1];
+				if(skipBottomValue > value) value = skipBottomValue;
+				final int subValue = matrix[prevRow + j - 1] + costSubstitute(topEle, bottom[j-1]);
+				if(subValue > value) value = subValue;
+				matrix[row + j] = value;
+			}
+		}
+
+		final Integer[][] alignment = traceback(top, bottom, matrix, skipTop, skipBottom);
+		swapIndels(alignment);
+
+		final AlignmentMap<T> retVal = new AlignmentMap<>();
+		retVal.setTopElements(top);
+		retVal.setBottomElements(bottom);
+		retVal.setTopAlignment(alignment[0]);
+		retVal.setBottomAlignment(alignment[1]);
+
+		lastAlignment = retVal;
+
+		return retVal;
+	}
+
+	/**
+	 * Follow the first best path from the last cell of the matrix.  Choices
+	 * are checked in the same order as {@link IndelAligner}: substitution,
+	 * skipping a bottom element then skipping a top element.
+	 */
+	private Integer[][] traceback(T[] top, T[] bottom, int[] matrix, int[] skipTop, int[] skipBottom) {
+		final int height = bottom.length + 1;
+		final int maxLength = top.length + bottom.length;
+		final int[] topPath = new int[maxLength];
+		final int[] bottomPath = new int[maxLength];
+
+		int i = top.length;
+		int j = bottom.length;
+		final int score = matrix[i * height + j];
+		int tally = 0;
+		int k = maxLength;
+		while(i > 0 || j > 0) {
+			--k;
+			if(i > 0 && j > 0) {
+				final int subVal = costSubstitute(top[i-1], bottom[j-1]);
+				if(matrix[(i-1) * height + (j-1)] + subVal + tally >= score) {
+					topPath[k] = i-1;
+					bottomPath[k] = j-1;
+					tally += subVal;
+					--i;
+					--j;
+					continue;
+				}
+			}
+
+			if(j > 0 && matrix[i * height + (j-1)] + skipBottom[j-1] + tally >= score) {
+				topPath[k] = AlignmentMap.INDEL_VALUE;
+				bottomPath[k] = j-1;
+				tally += skipBottom[j-1];
+				--j;
+			} else if(i > 0) {
+				topPath[k] = i-1;
+				bottomPath[k] = AlignmentMap.INDEL_VALUE;
+				tally += skipTop[i-1];
+				--i;
+			} else {
+				// i = 0, align remaining bottom elements with indels
+				topPath[k] = AlignmentMap.INDEL_VALUE;
+				bottomPath[k] = j-1;
+				tally += skipTop[0];
+				--j;
+			}
+		}
+
+		final Integer[][] retVal = new Integer[2][maxLength - k];
+		for(int idx = k; idx < maxLength; idx++) {
+			retVal[0][idx - k] = topPath[idx];
+			retVal[1][idx - k] = bottomPath[idx];
+		}
+		return retVal;
+	}
+
+	@Override
+	public AlignmentMap<T> getAlignmentMap() {
+		return lastAlignment;
+	}
+
+}
@@ -109,10 +109,27 @@ public final class ExtensionSupport implements IExtendable {
 	 * META-INF/services files
 	 */
 	public void initExtensions() {
+		for(ExtensionProvider provider:getExtensionProviders(declaredType)) {
+			provider.installExtension(parent.get());
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if any automatic extensions are defined
+	 * for the given type.  Objects may use this method to avoid creating
+	 * extension support until required.
+	 *
+	 * @param declaredType
+	 * @return <code>true</code> if extension providers exist for declaredType
+	 */
+	public static boolean hasExtensionProviders(Class<? extends IExtendable> declaredType) {
+		return getExtensionProviders(declaredType).size() > 0;
+	}
+
+	private static List<ExtensionProvider> getExtensionProviders(Class<?> declaredType) {
 		List<ExtensionProvider> providers = _extMap.get(declaredType);
 		if(providers == null) {
 			providers = new ArrayList<ExtensionProvider>();
-			_extMap.put(declaredType, providers);
 			final ServiceLoader<ExtensionProvider> services =
 					ServiceLoader.load(ExtensionProvider.class);
 			for(ExtensionProvider provider:services) {
@@ -124,10 +141,9 @@ public final class ExtensionSupport implements IExtendable {
 					providers.add(provider);
 				}
 			}
+			_extMap.put(declaredType, providers);
 		}
-		for(ExtensionProvider provider:providers) {
-			provider.installExtension(parent.get());
-		}
+		return providers;
 	}
 
 	@Override
@@ -0,0 +1,373 @@
+/*
+ * Copyright (C) 2005-2020 Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.fsa;
+
+import ca.phon.fsa.FSAState.RunningState;
+
+import java.util.*;
+
+/**
+ * Frozen, index-based execution form of a {@link SimpleFSA}.
+ *
+ * States are interned to integers and the (sorted) transitions
+ * for each state are stored in arrays when the machine is compiled.
+ * Running the machine does not perform any state name lookups,
+ * list allocation or sorting.  Execution semantics are the same
+ * as {@link SimpleFSA#runWithTape(Object[], FSAState, boolean)}.
+ *
+ * The compiled machine is a snapshot, modifications made to the
+ * source machine after compilation are not reflected.
+ *
+ * @param <T>
+ */
+public class CompiledFSA<T> {
+
+	/** Source machine */
+	private final SimpleFSA<T> fsa;
+
+	/** State names, indexed by state number */
+	private final String[] stateNames;
+
+	/** State number lookup */
+	private final Map<String, Integer> stateIndices;
+
+	/** Initial state number */
+	private final int initialState;
+
+	/** Final state flags, indexed by state number */
+	private final boolean[] finalStates;
+
+	/** All transitions */
+	private final FSATransition<T>[] transitions;
+
+	/** Target state number for each transition */
+	private final int[] toStates;
+
+	/** Groups initialized by each transition */
+	private final int[][] initGroups;
+
+	/** Groups modified by each transition */
+	private final int[][] matcherGroups;
+
+	/** Transition indices for each state in evaluation order */
+	private final int[][] stateTransitions;
+
+	public CompiledFSA(SimpleFSA<T> fsa) {
+		super();
+		this.fsa = fsa;
+
+		this.stateNames = fsa.getStates();
+		this.stateIndices = new HashMap<>();
+		for(int i = 0; i < stateNames.length; i++) {
+			stateIndices.put(stateNames[i], i);
+		}
+		this.initialState = stateIndex(fsa.getInitialState());
+
+		this.finalStates = new boolean[stateNames.length];
+		for(String finalState:fsa.getFinalStates()) {
+			final int idx = stateIndex(finalState);
+			if(idx >= 0)
+				finalStates[idx] = true;
+		}
+
+		final List<FSATransition<T>> transitionList = new ArrayList<>();
+		this.stateTransitions = new int[stateNames.length][];
+		for(int i = 0; i < stateNames.length; i++) {
+			final List<FSATransition<T>> stateTrans = fsa.getTransitionsForState(stateNames[i]);
+			stateTransitions[i] = new int[stateTrans.size()];
+			for(int j = 0; j < stateTrans.size(); j++) {
+				stateTransitions[i][j] = transitionList.size();
+				transitionList.add(stateTrans.get(j));
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		final FSATransition<T>[] transitionArray = (FSATransition<T>[])transitionList.toArray(new FSATransition<?>[0]);
+		this.transitions = transitionArray;
+		this.toStates = new int[transitions.length];
+		this.initGroups = new int[transitions.length][];
+		this.matcherGroups = new int[transitions.length][];
+		for(int i = 0; i < transitions.length; i++) {
+			final FSATransition<T> transition = transitions[i];
+			toStates[i] = stateIndex(transition.getToState());
+			initGroups[i] = toIntArray(transition.getInitGroups());
+			matcherGroups[i] = toIntArray(transition.getMatcherGroups());
+		}
+	}
+
+	private static int[] toIntArray(Collection<Integer> values) {
+		final int[] retVal = new int[values.size()];
+		int idx = 0;
+		for(Integer v:values) retVal[idx++] = v;
+		return retVal;
+	}
+
+	/**
+	 * Source machine
+	 *
+	 * @return the machine this object was compiled from
+	 */
+	public SimpleFSA<T> getFSA() {
+		return this.fsa;
+	}
+
+	public int numberOfStates() {
+		return this.stateNames.length;
+	}
+
+	/**
+	 * Get the state number for the given state name
+	 *
+	 * @param state
+	 * @return state number or -1 if not found
+	 */
+	public int stateIndex(String state) {
+		if(state == null) return -1;
+		final Integer retVal = stateIndices.get(state);
+		return (retVal != null ? retVal : -1);
+	}
+
+	public String stateName(int stateIdx) {
+		return this.stateNames[stateIdx];
+	}
+
+	public int getInitialStateIndex() {
+		return this.initialState;
+	}
+
+	public boolean isFinalState(int stateIdx) {
+		return stateIdx >= 0 && stateIdx < finalStates.length && finalStates[stateIdx];
+	}
+
+	public boolean isFinalState(String state) {
+		return isFinalState(stateIndex(state));
+	}
+
+	/**
+	 * Transitions for the given state in evaluation order.
+	 *
+	 * @param stateIdx
+	 * @return transitions for state
+	 */
+	public List<FSATransition<T>> getTransitionsForState(int stateIdx) {
+		final int[] stateTrans = stateTransitions[stateIdx];
+		final List<FSATransition<T>> retVal = new ArrayList<>(stateTrans.length);
+		for(int tIdx:stateTrans) retVal.add(transitions[tIdx]);
+		return retVal;
+	}
+
+	public FSAState<T> runWithTape(T[] tape) {
+		return runWithTape(tape, new FSAState<T>());
+	}
+
+	public FSAState<T> runWithTape(T[] tape, FSAState<T> machineState) {
+		return runWithTape(tape, machineState, false);
+	}
+
+	public FSAState<T> runWithTape(T[] tape, FSAState<T> machineState, boolean forceReluctant) {
+		return runWithTape(tape, machineState, forceReluctant, new DecisionStack());
+	}
+
+	/**
+	 * Run the machine with the given tape
+	 *
+	 * @param tape
+	 * @param machineState
+	 * @param forceReluctant if <code>true</code> reluctant quantifiers will
+	 *  be forced to match to attempt a full-input match.
+	 * @param decisions decision stack, the stack is cleared before use and may be
+	 *  re-used for subsequent runs to avoid allocation
+	 *
+	 * @see SimpleFSA#runWithTape(Object[], FSAState, boolean)
+	 */
+	public FSAState<T> runWithTape(T[] tape, FSAState<T> machineState, boolean forceReluctant, DecisionStack decisions) {
+		if(machineState.getTape() == null) {
+			machineState.setTape(tape);
+			machineState.setTapeIndex(0);
+		}
+		int currentState = initialState;
+		machineState.setCurrentState(stateNames[currentState]);
+		machineState.setRunningState(RunningState.Running);
+
+		decisions.clear();
+
+		// cached (longest) match
+		boolean hasCachedMatch = false;
+		int cachedState = initialState;
+		int cachedTapeIndex = machineState.getTapeIndex();
+		int cachedLookAheadOffset = machineState.getLookAheadOffset();
+		int cachedLookBehindOffset = machineState.getLookBehindOffset();
+
+		while(machineState.getRunningState() == RunningState.Running) {
+			int toFollow = delta(machineState, currentState, decisions);
+
+			if(toFollow < 0) {
+				// if we are at the end of the tape and have a match
+				if(machineState.getTapeIndex() >= tape.length && finalStates[currentState]) {
+					machineState.setRunningState(RunningState.EndOfInput);
+					continue;
+				} else {
+					// only keep longest matches
+					if(finalStates[currentState] && cachedTapeIndex < machineState.getTapeIndex()) {
+						hasCachedMatch = true;
+						cachedState = currentState;
+						cachedTapeIndex = machineState.getTapeIndex();
+						decisions.cacheGroups(machineState);
+						cachedLookAheadOffset = machineState.getLookAheadOffset();
+						cachedLookBehindOffset = machineState.getLookBehindOffset();
+					}
+					toFollow = backtrack(machineState, decisions);
+
+					if(toFollow >= 0
+							&& transitions[toFollow].getType() == TransitionType.RELUCTANT
+							&& !forceReluctant
+							&& finalStates[cachedState]) {
+						toFollow = -1;
+					}
+				}
+			}
+
+			if(toFollow >= 0) {
+				final FSATransition<T> transition = transitions[toFollow];
+				final int matchLength = transition.getMatchLength(machineState);
+
+				// mark groups
+				for(int grpIdx:initGroups[toFollow]) {
+					machineState.markGroup(grpIdx, matchLength);
+				}
+				for(int grpIdx:matcherGroups[toFollow]) {
+					for(int i = 0; i < matchLength; i++)
+						machineState.incrementGroup(grpIdx);
+				}
+
+				if(transition.getOffsetType() == OffsetType.LOOK_BEHIND) {
+					machineState.setLookBehindOffset(machineState.getLookBehindOffset()+matchLength);
+				} else if(transition.getOffsetType() == OffsetType.LOOK_AHEAD) {
+					machineState.setLookAheadOffset(machineState.getLookAheadOffset()+matchLength);
+				} else {
+					machineState.setTapeIndex(machineState.getTapeIndex()+matchLength);
+				}
+				currentState = toStates[toFollow];
+				machineState.setCurrentState(stateNames[currentState]);
+			} else {
+				machineState.setRunningState(RunningState.Halted);
+			}
+		}
+
+		// return longest match
+		if(hasCachedMatch && cachedTapeIndex >= machineState.getTapeIndex()) {
+			machineState.setCurrentState(stateNames[cachedState]);
+			machineState.setTapeIndex(cachedTapeIndex);
+			machineState.restoreGroups(decisions.cachedGroupStarts, decisions.cachedGroupLengths, 0, decisions.cachedGroupCount);
+			machineState.setLookAheadOffset(cachedLookAheadOffset);
+			machineState.setLookBehindOffset(cachedLookBehindOffset);
+		}
+
+		return machineState;
+	}
+
+	/**
+	 * Choose the next transition for the given state.  If more than one
+	 * transition may be followed the alternatives are added to the
+	 * decision stack.
+	 *
+	 * @param machineState
+	 * @param currentState
+	 * @param decisions
+	 *
+	 * @return index of transition to follow or -1 if no transition
+	 *  can be followed
+	 */
+	private int delta(FSAState<T> machineState, int currentState, DecisionStack decisions) {
+		// end of input
+		if(machineState.getTapeIndex() > machineState.getTape().length)
+			return -1;
+
+		final int[] stateTrans = stateTransitions[currentState];
+		int first = -1;
+		int firstMatchLength = 0;
+		int choiceOffset = -1;
+		for(int i = 0; i < stateTrans.length; i++) {
+			final int tIdx = stateTrans[i];
+			if(transitions[tIdx].follow(machineState)) {
+				if(first < 0) {
+					first = tIdx;
+					firstMatchLength = transitions[tIdx].getMatchLength(machineState);
+					// possessive transitions do not record alternatives
+					if(transitions[tIdx].getType() == TransitionType.POSSESSIVE)
+						return first;
+				} else {
+					if(choiceOffset < 0) {
+						choiceOffset = decisions.nextChoiceSlot();
+						decisions.choices[choiceOffset] = first;
+					}
+					decisions.choices[decisions.nextChoiceSlot()] = tIdx;
+				}
+			}
+		}
+
+		if(choiceOffset >= 0) {
+			decisions.push(machineState, choiceOffset);
+		}
+		// later transitions may have changed the match length
+		if(first >= 0) {
+			machineState.setMatchLength(firstMatchLength);
+		}
+
+		return first;
+	}
+
+	/**
+	 * Reset the machine to the last path decision and choose the next
+	 * alternative.
+	 *
+	 * @param machineState
+	 * @param decisions
+	 *
+	 * @return index of transition to follow or -1 if no choices remain
+	 */
+	private int backtrack(FSAState<T> machineState, DecisionStack decisions) {
+		while(!decisions.isEmpty()) {
+			final int top = decisions.size - 1;
+
+			final int nextChoice = decisions.choiceIndices[top]+1;
+			final int numChoices = decisions.choiceCounts[top];
+			if(nextChoice >= numChoices) {
+				decisions.pop();
+				continue;
+			}
+
+			final int retVal = decisions.choices[decisions.choiceOffsets[top] + nextChoice];
+
+			// reset tape index
+			machineState.setTapeIndex(decisions.tapeIndices[top]);
+			machineState.restoreGroups(decisions.groupStarts, decisions.groupLengths,
+					decisions.groupOffsets[top], decisions.groupCounts[top]);
+
+			// setup internal values for variable length transitions
+			transitions[retVal].follow(machineState);
+
+			if(nextChoice < numChoices-1) {
+				decisions.choiceIndices[top] = nextChoice;
+			} else {
+				decisions.pop();
+			}
+			return retVal;
+		}
+		return -1;
+	}
+
+}
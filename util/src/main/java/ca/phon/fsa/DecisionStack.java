@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2005-2020 Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.fsa;
+
+import java.util.Arrays;
+
+/**
+ * Growable, primitive decision stack used by {@link CompiledFSA} for
+ * backtracking.  Path choices and group snapshots are stored in flat
+ * int arrays which are re-used between runs, a single stack may be
+ * kept per matcher to avoid allocation while scanning input.
+ *
+ * Instances are not thread-safe.
+ */
+public final class DecisionStack {
+
+	private final static int INITIAL_CAPACITY = 16;
+
+	/* Per-decision data */
+	int[] tapeIndices = new int[INITIAL_CAPACITY];
+	int[] choiceIndices = new int[INITIAL_CAPACITY];
+	int[] choiceOffsets = new int[INITIAL_CAPACITY];
+	int[] choiceCounts = new int[INITIAL_CAPACITY];
+	int[] groupOffsets = new int[INITIAL_CAPACITY];
+	int[] groupCounts = new int[INITIAL_CAPACITY];
+	int size = 0;
+
+	/* Transition indices for all decisions */
+	int[] choices = new int[INITIAL_CAPACITY];
+	int choicesSize = 0;
+
+	/* Group snapshots for all decisions */
+	int[] groupStarts = new int[INITIAL_CAPACITY];
+	int[] groupLengths = new int[INITIAL_CAPACITY];
+	int groupsSize = 0;
+
+	/* Group snapshot for longest match found during a run */
+	int[] cachedGroupStarts = new int[INITIAL_CAPACITY];
+	int[] cachedGroupLengths = new int[INITIAL_CAPACITY];
+	int cachedGroupCount = 0;
+
+	public DecisionStack() {
+		super();
+	}
+
+	/**
+	 * Remove all decisions, allocated storage is kept.
+	 */
+	public void clear() {
+		size = 0;
+		choicesSize = 0;
+		groupsSize = 0;
+		cachedGroupCount = 0;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Ensure room for another transition choice
+	 *
+	 * @return index of next free choice slot
+	 */
+	int nextChoiceSlot() {
+		if(choicesSize == choices.length) {
+			choices = Arrays.copyOf(choices, choices.length * 2);
+		}
+		return choicesSize++;
+	}
+
+	/**
+	 * Push a new decision.  Choices must have been added using
+	 * {@link #nextChoiceSlot()} starting at <code>choiceOffset</code>.
+	 *
+	 * @param machineState
+	 * @param choiceOffset
+	 */
+	void push(FSAState<?> machineState, int choiceOffset) {
+		if(size == tapeIndices.length) {
+			final int capacity = size * 2;
+			tapeIndices = Arrays.copyOf(tapeIndices, capacity);
+			choiceIndices = Arrays.copyOf(choiceIndices, capacity);
+			choiceOffsets = Arrays.copyOf(choiceOffsets, capacity);
+			choiceCounts = Arrays.copyOf(choiceCounts, capacity);
+			groupOffsets = Arrays.copyOf(groupOffsets, capacity);
+			groupCounts = Arrays.copyOf(groupCounts, capacity);
+		}
+		final int numGroups = machineState.numberOfGroups();
+		if(groupsSize + numGroups > groupStarts.length) {
+			final int capacity = Math.max(groupsSize + numGroups, groupStarts.length * 2);
+			groupStarts = Arrays.copyOf(groupStarts, capacity);
+			groupLengths = Arrays.copyOf(groupLengths, capacity);
+		}
+
+		tapeIndices[size] = machineState.getTapeIndex();
+		choiceIndices[size] = 0;
+		choiceOffsets[size] = choiceOffset;
+		choiceCounts[size] = choicesSize - choiceOffset;
+		groupOffsets[size] = groupsSize;
+		groupCounts[size] = machineState.copyGroups(groupStarts, groupLengths, groupsSize);
+		groupsSize += groupCounts[size];
+		++size;
+	}
+
+	/**
+	 * Remove top decision and release its storage.
+	 */
+	void pop() {
+		--size;
+		choicesSize = choiceOffsets[size];
+		groupsSize = groupOffsets[size];
+	}
+
+	/**
+	 * Store group data for the longest match found so far.
+	 *
+	 * @param machineState
+	 */
+	void cacheGroups(FSAState<?> machineState) {
+		final int numGroups = machineState.numberOfGroups();
+		if(numGroups > cachedGroupStarts.length) {
+			cachedGroupStarts = new int[numGroups];
+			cachedGroupLengths = new int[numGroups];
+		}
+		cachedGroupCount = machineState.copyGroups(cachedGroupStarts, cachedGroupLengths, 0);
+	}
+
+}
@@ -43,11 +43,15 @@ public class FSAState<T> {
 	private int lookBehindOffset = 1;
 	/** Current look-ahead offset */
 	private int lookAheadOffset = 0;
+	/** Match length of the transition chosen by the machine */
+	private int matchLength = 0;
 	
-	/** Group start indices */
+	/** Group start indices (capacity may exceed number of groups) */
 	private int[] groupStarts = new int[0];
-	/** Group lengths */
+	/** Group lengths (capacity may exceed number of groups) */
 	private int[] groupLengths = new int[0];
+	/** Number of groups */
+	private int groupCount = 0;
 	
 	/** Constructor */
 	public FSAState() {
@@ -95,6 +99,22 @@ public class FSAState<T> {
 		this.lookBehindOffset = lookBehindOffset;
 	}
 
+	/**
+	 * Number of tape items matched by the last transition
+	 * followed using this state.  Set by variable length
+	 * transitions during {@link FSATransition#follow(FSAState)}
+	 * and by the machine for the transition it chooses.
+	 * 
+	 * @return match length
+	 */
+	public int getMatchLength() {
+		return this.matchLength;
+	}
+	
+	public void setMatchLength(int matchLength) {
+		this.matchLength = matchLength;
+	}
+
 	public T[] getMatchedTape() {
 		return Arrays.copyOfRange(tape, 0, tapeIndex);
 	}
@@ -123,6 +143,25 @@ public class FSAState<T> {
 		return retVal;
 	}
 	
+	/**
+	 * Ensure storage for the given number of groups.  Newly
+	 * added groups have a start index and length of 0.
+	 * 
+	 * @param numberOfGroups
+	 */
+	private void ensureGroups(int numberOfGroups) {
+		if(groupStarts.length < numberOfGroups) {
+			int capacity = Math.max(numberOfGroups, groupStarts.length * 2);
+			groupStarts = Arrays.copyOf(groupStarts, capacity);
+			groupLengths = Arrays.copyOf(groupLengths, capacity);
+		}
+		if(groupCount < numberOfGroups) {
+			Arrays.fill(groupStarts, groupCount, numberOfGroups, 0);
+			Arrays.fill(groupLengths, groupCount, numberOfGroups, 0);
+			groupCount = numberOfGroups;
+		}
+	}
+	
 	/**
 	 * Sets the given group start index to
 	 * the current tape index and the group
@@ -132,12 +171,7 @@ public class FSAState<T> {
 	 * 
 	 */
 	public void markGroup(int groupIndex, int matchLength) {
-		// ensure capacity
-		if(groupStarts.length < groupIndex) {
-			int numberOfGroups = groupIndex;
-			groupStarts = Arrays.copyOf(groupStarts, numberOfGroups);
-			groupLengths = Arrays.copyOf(groupLengths, numberOfGroups);
-		}
+		ensureGroups(groupIndex);
 		groupStarts[groupIndex-1] = tapeIndex;
 		groupLengths[groupIndex-1] = matchLength;
 	}
@@ -149,6 +183,7 @@ public class FSAState<T> {
 	 * @param groupIndex
 	 */
 	public void incrementGroup(int groupIndex) {
+		ensureGroups(groupIndex);
 		groupLengths[groupIndex-1]++;
 	}
 	
@@ -166,33 +201,99 @@ public class FSAState<T> {
 		}
 		this.groupStarts = groupStarts;
 		this.groupLengths = groupLengths;
+		this.groupCount = groupStarts.length;
+	}
+	
+	/**
+	 * Copy group information from the given buffers
+	 * into this state.  The given arrays are not
+	 * referenced after this method returns.
+	 * 
+	 * @param groupStarts
+	 * @param groupLengths
+	 * @param offset
+	 * @param numberOfGroups
+	 */
+	public void restoreGroups(int[] groupStarts, int[] groupLengths, int offset, int numberOfGroups) {
+		groupCount = 0;
+		ensureGroups(numberOfGroups);
+		System.arraycopy(groupStarts, offset, this.groupStarts, 0, numberOfGroups);
+		System.arraycopy(groupLengths, offset, this.groupLengths, 0, numberOfGroups);
 	}
 	
 	/**
-	 * Get group starts
+	 * Copy group information into the given buffers.
+	 * 
+	 * @param groupStarts
+	 * @param groupLengths
+	 * @param offset
+	 * 
+	 * @return number of groups copied
+	 */
+	public int copyGroups(int[] groupStarts, int[] groupLengths, int offset) {
+		System.arraycopy(this.groupStarts, 0, groupStarts, offset, groupCount);
+		System.arraycopy(this.groupLengths, 0, groupLengths, offset, groupCount);
+		return groupCount;
+	}
+	
+	/**
+	 * Get group starts.  Use {@link #getGroupStart(int)} or
+	 * {@link #copyGroups(int[], int[], int)} to avoid allocation.
 	 * 
 	 * @return array of group starts
 	 */
 	public int[] getGroupStarts() {
+		trimGroups();
 		return this.groupStarts;
 	}
 	
 	/**
-	 * Get group lenths
+	 * Get group lenths.  Use {@link #getGroupLength(int)} or
+	 * {@link #copyGroups(int[], int[], int)} to avoid allocation.
 	 * 
 	 * @return array of group lengths
 	 */
 	public int[] getGroupLengths() {
+		trimGroups();
 		return this.groupLengths;
 	}
 	
+	/**
+	 * Size group storage to the number of groups
+	 */
+	private void trimGroups() {
+		if(groupStarts.length != groupCount) {
+			groupStarts = Arrays.copyOf(groupStarts, groupCount);
+			groupLengths = Arrays.copyOf(groupLengths, groupCount);
+		}
+	}
+	
+	/**
+	 * Get start index of group
+	 * 
+	 * @param groupIndex
+	 * @return start index of group or -1 if not set
+	 */
+	public int getGroupStart(int groupIndex) {
+		return (groupIndex > 0 && groupIndex <= groupCount ? groupStarts[groupIndex-1] : -1);
+	}
+	
+	/**
+	 * Get length of group
+	 * 
+	 * @param groupIndex
+	 * @return length of group or 0 if not set
+	 */
+	public int getGroupLength(int groupIndex) {
+		return (groupIndex > 0 && groupIndex <= groupCount ? groupLengths[groupIndex-1] : 0);
+	}
+	
 	/** 
 	 * Reset group start and length data.
 	 * 
 	 */
 	public void resetGroupData() {
-		this.groupStarts = new int[0];
-		this.groupLengths = new int[0];
+		this.groupCount = 0;
 	}
 	
 	/**
@@ -201,6 +302,6 @@ public class FSAState<T> {
 	 * @return number of groups
 	 */
 	public int numberOfGroups() {
-		return this.groupStarts.length;
+		return this.groupCount;
 	}
 }
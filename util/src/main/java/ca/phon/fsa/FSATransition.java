@@ -117,6 +117,21 @@ public abstract class FSATransition<T> {
 		return 1;
 	}
 	
+	/**
+	 * The number of items matched by the last successful call to
+	 * {@link #follow(FSAState)} with the given state.  Transitions
+	 * with a variable match length store the value in the state
+	 * using {@link FSAState#setMatchLength(int)} so that
+	 * transitions may be shared between threads.  Default is
+	 * {@link #getMatchLength()}.
+	 * 
+	 * @param currentState
+	 * @return number of items to match on the tape
+	 */
+	public int getMatchLength(FSAState<T> currentState) {
+		return getMatchLength();
+	}
+	
 	/**
 	 * Get the matcher groups started
 	 * by this transition.  Every time
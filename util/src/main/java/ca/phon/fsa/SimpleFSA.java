@@ -265,6 +265,17 @@ public class SimpleFSA<T> {
 		return this.transitions;
 	}
 	
+	/**
+	 * Create a frozen, index-based copy of this machine for execution.
+	 * Changes made to this machine after compilation are not reflected
+	 * in the returned object.
+	 *
+	 * @return compiled machine
+	 */
+	public CompiledFSA<T> compile() {
+		return new CompiledFSA<>(this);
+	}
+
 	public FSAState<T> runWithTape(T[] tape) {
 		FSAState<T> machineState = new FSAState<T>();
 		return runWithTape(tape, machineState);
@@ -346,21 +357,23 @@ public class SimpleFSA<T> {
 			
 			// if nextState is still null break
 			if(nextState != null) {
+				final int matchLength = toFollow.getMatchLength(machineState);
+				
 				// mark groups
 				for(int grpIdx:toFollow.getInitGroups()) {
-					machineState.markGroup(grpIdx, toFollow.getMatchLength());
+					machineState.markGroup(grpIdx, matchLength);
 				}
 				for(int grpIdx:toFollow.getMatcherGroups()) {
-					for(int i = 0; i < toFollow.getMatchLength(); i++)
+					for(int i = 0; i < matchLength; i++)
 						machineState.incrementGroup(grpIdx);
 				}
 				
 				if(toFollow.getOffsetType() == OffsetType.LOOK_BEHIND) {
-					machineState.setLookBehindOffset(machineState.getLookBehindOffset()+toFollow.getMatchLength());
+					machineState.setLookBehindOffset(machineState.getLookBehindOffset()+matchLength);
 				} else if(toFollow.getOffsetType() == OffsetType.LOOK_AHEAD) {
-					machineState.setLookAheadOffset(machineState.getLookAheadOffset()+toFollow.getMatchLength());
+					machineState.setLookAheadOffset(machineState.getLookAheadOffset()+matchLength);
 				} else {
-					machineState.setTapeIndex(machineState.getTapeIndex()+toFollow.getMatchLength());
+					machineState.setTapeIndex(machineState.getTapeIndex()+matchLength);
 				}
 				machineState.setCurrentState(nextState);
 			} else {
@@ -411,8 +424,11 @@ public class SimpleFSA<T> {
 		
 		// create a list of matching transitions (possible paths)
 		List<FSATransition<T>> possiblePaths = new ArrayList<FSATransition<T>>();
+		int firstMatchLength = 0;
 		for(FSATransition<T> currentTrans:stateTrans) {
 			if(currentTrans.follow(machineState)) {
+				if(possiblePaths.isEmpty())
+					firstMatchLength = currentTrans.getMatchLength(machineState);
 				possiblePaths.add(currentTrans);
 			}
 		}
@@ -425,6 +441,8 @@ public class SimpleFSA<T> {
 		} else {
 			trans = possiblePaths.get(0);
 			possessive = trans.getType() == TransitionType.POSSESSIVE;
+			// later transitions may have changed the match length
+			machineState.setMatchLength(firstMatchLength);
 		}
 		
 		if(trans != null) {
@@ -155,21 +155,23 @@ public class SimpleFSADebugContext<T> {
 		
 		// if nextState is still null break
 		if(nextState != null) {
+			final int matchLength = toFollow.getMatchLength(machineState);
+			
 			// mark groups
 			for(int grpIdx:toFollow.getInitGroups()) {
-				machineState.markGroup(grpIdx, toFollow.getMatchLength());
+				machineState.markGroup(grpIdx, matchLength);
 			}
 			for(int grpIdx:toFollow.getMatcherGroups()) {
-				for(int i = 0; i < toFollow.getMatchLength(); i++)
+				for(int i = 0; i < matchLength; i++)
 					machineState.incrementGroup(grpIdx);
 			}
 			
 			if(toFollow.getOffsetType() == OffsetType.LOOK_BEHIND) {
-				machineState.setLookBehindOffset(machineState.getLookBehindOffset()+toFollow.getMatchLength());
+				machineState.setLookBehindOffset(machineState.getLookBehindOffset()+matchLength);
 			} else if(toFollow.getOffsetType() == OffsetType.LOOK_AHEAD) {
-				machineState.setLookAheadOffset(machineState.getLookAheadOffset()+toFollow.getMatchLength());
+				machineState.setLookAheadOffset(machineState.getLookAheadOffset()+matchLength);
 			} else {
-				machineState.setTapeIndex(machineState.getTapeIndex()+toFollow.getMatchLength());
+				machineState.setTapeIndex(machineState.getTapeIndex()+matchLength);
 			}
 			machineState.setCurrentState(nextState);
 		} else {
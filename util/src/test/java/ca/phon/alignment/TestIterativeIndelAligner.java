@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) Gregory Hedlund & Yvan Rose
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.alignment;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Random;
+
+/**
+ * Compare alignments produced by {@link IterativeIndelAligner} with {@link IndelAligner}
+ */
+@RunWith(JUnit4.class)
+public class TestIterativeIndelAligner {
+
+	/* Scoring similar to phone alignment, includes negative scores and ties */
+	private static int substitute(Character c1, Character c2) {
+		if(c1.equals(c2)) return 4;
+		final boolean v1 = "aeiou".indexOf(c1) >= 0;
+		final boolean v2 = "aeiou".indexOf(c2) >= 0;
+		return (v1 == v2 ? 2 : -1);
+	}
+
+	private static int skip(Character c) {
+		return (c == 'x' ? -1 : 0);
+	}
+
+	private final IndelAligner<Character> indelAligner = new IndelAligner<Character>() {
+
+		@Override
+		protected int costSubstitute(Character ele1, Character ele2) {
+			return substitute(ele1, ele2);
+		}
+
+		@Override
+		protected int costSkip(Character ele) {
+			return skip(ele);
+		}
+
+	};
+
+	private final IterativeIndelAligner<Character> iterativeAligner = new IterativeIndelAligner<Character>() {
+
+		@Override
+		protected int costSubstitute(Character ele1, Character ele2) {
+			return substitute(ele1, ele2);
+		}
+
+		@Override
+		protected int costSkip(Character ele) {
+			return skip(ele);
+		}
+
+	};
+
+	private Character[] randomSequence(Random random, int maxLength) {
+		final String alphabet = "aeioubdgkptx";
+		final Character[] retVal = new Character[random.nextInt(maxLength + 1)];
+		for(int i = 0; i < retVal.length; i++) {
+			retVal[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+		}
+		return retVal;
+	}
+
+	private void assertSameAlignment(Character[] top, Character[] bottom) {
+		final AlignmentMap<Character> expected = indelAligner.calculateAlignment(top, bottom);
+		final AlignmentMap<Character> actual = iterativeAligner.calculateAlignment(top, bottom);
+
+		Assert.assertEquals(expected.getAlignmentLength(), actual.getAlignmentLength());
+		for(int i = 0; i < expected.getAlignmentLength(); i++) {
+			Assert.assertEquals(expected.getTopAlignment()[i], actual.getTopAlignment()[i]);
+			Assert.assertEquals(expected.getBottomAlignment()[i], actual.getBottomAlignment()[i]);
+		}
+		Assert.assertSame(actual, iterativeAligner.getAlignmentMap());
+	}
+
+	@Test
+	public void testRandomSequences() {
+		final Random random = new Random(1234L);
+		for(int i = 0; i < 2000; i++) {
+			assertSameAlignment(randomSequence(random, 12), randomSequence(random, 12));
+		}
+	}
+
+	@Test
+	public void testEmptySequences() {
+		final Character[] empty = new Character[0];
+		final Character[] seq = { 'b', 'a', 't' };
+		assertSameAlignment(empty, empty);
+		assertSameAlignment(seq, empty);
+		assertSameAlignment(empty, seq);
+	}
+
+	@Test
+	public void testWideBand() {
+		final Random random = new Random(4321L);
+		iterativeAligner.setBandWidth(20);
+		for(int i = 0; i < 500; i++) {
+			assertSameAlignment(randomSequence(random, 12), randomSequence(random, 12));
+		}
+	}
+
+	@Test
+	public void testNarrowBand() {
+		final Character[] top = { 'b', 'a', 't', 'k', 'a', 't' };
+		final Character[] bottom = { 'b', 'a', 't' };
+		iterativeAligner.setBandWidth(1);
+		final AlignmentMap<Character> alignment = iterativeAligner.calculateAlignment(top, bottom);
+		int numTop = 0;
+		int numBottom = 0;
+		for(int i = 0; i < alignment.getAlignmentLength(); i++) {
+			if(alignment.getTopAlignment()[i] != AlignmentMap.INDEL_VALUE) ++numTop;
+			if(alignment.getBottomAlignment()[i] != AlignmentMap.INDEL_VALUE) ++numBottom;
+		}
+		Assert.assertEquals(top.length, numTop);
+		Assert.assertEquals(bottom.length, numBottom);
+	}
+
+}